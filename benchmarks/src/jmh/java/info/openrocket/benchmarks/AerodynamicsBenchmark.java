@@ -0,0 +1,66 @@
+package info.openrocket.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import info.openrocket.core.aerodynamics.AerodynamicForces;
+import info.openrocket.core.aerodynamics.BarrowmanCalculator;
+import info.openrocket.core.aerodynamics.FlightConditions;
+import info.openrocket.core.rocketcomponent.FlightConfiguration;
+
+/**
+ * Benchmarks {@link BarrowmanCalculator#getAerodynamicForces} at a few representative
+ * flight conditions.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AerodynamicsBenchmark {
+
+	@Param({ "EstesAlphaIII", "BigBlue", "IsoHaisu", "Falcon9Heavy" })
+	public String rocket;
+
+	@Param({ "0.3", "1.5" })
+	public double mach;
+
+	@Param({ "0", "5" })
+	public double aoaDegrees;
+
+	private FlightConfiguration configuration;
+	private FlightConditions conditions;
+	private BarrowmanCalculator calculator;
+
+	@Setup
+	public void setup() {
+		configuration = BenchmarkServices.makeTestRocket(rocket).getSelectedConfiguration();
+		conditions = new FlightConditions(configuration);
+		conditions.setMach(mach);
+		conditions.setAOA(Math.toRadians(aoaDegrees));
+		conditions.setRollRate(1);
+		calculator = new BarrowmanCalculator();
+	}
+
+	/**
+	 * Repeated calculation with the same calculator, as during a simulation.
+	 */
+	@Benchmark
+	public AerodynamicForces getAerodynamicForces() {
+		return calculator.getAerodynamicForces(configuration, conditions, null);
+	}
+
+	/**
+	 * The first calculation of a new calculator, including building its component cache.
+	 */
+	@Benchmark
+	public AerodynamicForces getAerodynamicForcesNewCalculator() {
+		return new BarrowmanCalculator().getAerodynamicForces(configuration, conditions, null);
+	}
+}
@@ -0,0 +1,152 @@
+package info.openrocket.benchmarks;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Module;
+import com.google.inject.Provider;
+import com.google.inject.util.Modules;
+
+import info.openrocket.core.ServicesForTesting;
+import info.openrocket.core.database.ComponentPresetDao;
+import info.openrocket.core.database.ComponentPresetDatabase;
+import info.openrocket.core.database.MotorDatabaseLoader;
+import info.openrocket.core.database.motor.MotorDatabase;
+import info.openrocket.core.database.motor.ThrustCurveMotorSetDatabase;
+import info.openrocket.core.document.OpenRocketDocument;
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.file.GeneralRocketLoader;
+import info.openrocket.core.file.RocketLoadException;
+import info.openrocket.core.plugin.PluginModule;
+import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.simulation.SimulationOptions;
+import info.openrocket.core.startup.Application;
+import info.openrocket.core.util.TestRockets;
+
+/**
+ * Sets up the application services needed by the benchmarks.  The same services are used
+ * as in the core unit tests, except that the complete bundled motor database is loaded
+ * (once, on first use) so that the example files can be loaded and simulated.
+ */
+public final class BenchmarkServices {
+
+	/**
+	 * The example files bundled with OpenRocket that are used in the benchmarks.
+	 */
+	public static final String EXAMPLES_DIRECTORY = "datafiles/examples/";
+
+	private static final int RANDOM_SEED = 0x5eed;
+
+	private static boolean initialized = false;
+
+	private BenchmarkServices() {
+	}
+
+	/**
+	 * Initialize the application services, if not already done.
+	 */
+	public static synchronized void initialize() {
+		if (initialized) {
+			return;
+		}
+
+		final MotorDatabaseProvider motorDatabaseProvider = new MotorDatabaseProvider();
+		Module applicationModule = new ServicesForTesting();
+		Module databaseModule = new AbstractModule() {
+			@Override
+			protected void configure() {
+				bind(ComponentPresetDao.class).toInstance(new ComponentPresetDatabase());
+				bind(MotorDatabase.class).toProvider(motorDatabaseProvider);
+				bind(ThrustCurveMotorSetDatabase.class).toProvider(motorDatabaseProvider);
+			}
+		};
+		Injector injector = Guice.createInjector(Modules.override(applicationModule).with(databaseModule),
+				new PluginModule());
+		Application.setInjector(injector);
+		initialized = true;
+	}
+
+	/**
+	 * Create one of the {@link TestRockets} by name, with a flight configuration containing
+	 * motors selected.
+	 *
+	 * @param name	"EstesAlphaIII", "Beta", "BigBlue", "IsoHaisu" or "Falcon9Heavy".
+	 */
+	public static Rocket makeTestRocket(String name) {
+		initialize();
+		switch (name) {
+			case "EstesAlphaIII": {
+				Rocket rocket = TestRockets.makeEstesAlphaIII();
+				rocket.setSelectedConfiguration(TestRockets.TEST_FCID_0);
+				return rocket;
+			}
+			case "Beta":
+				return TestRockets.makeBeta();
+			case "BigBlue":
+				return TestRockets.makeBigBlue();
+			case "IsoHaisu":
+				return TestRockets.makeIsoHaisu();
+			case "Falcon9Heavy":
+				return TestRockets.makeFalcon9Heavy();
+			default:
+				throw new IllegalArgumentException("Unknown test rocket: " + name);
+		}
+	}
+
+	/**
+	 * Create a simulation of the selected flight configuration of a rocket using the default
+	 * simulation options (rather than the user preferences) and a fixed random seed.
+	 */
+	public static Simulation createSimulation(OpenRocketDocument document, Rocket rocket) {
+		Simulation simulation = new Simulation(document, rocket);
+		simulation.getOptions().copyConditionsFrom(new SimulationOptions());
+		simulation.getOptions().setRandomSeed(RANDOM_SEED);
+		return simulation;
+	}
+
+	/**
+	 * Load one of the bundled example files.
+	 *
+	 * @param name	the file name within the examples directory, e.g. "A simple model rocket.ork".
+	 */
+	public static OpenRocketDocument loadExample(String name) throws RocketLoadException, IOException {
+		initialize();
+		try (InputStream stream = openExample(name)) {
+			return new GeneralRocketLoader(new File(name)).load(stream, name.replaceFirst("[.][^.]+$", ""));
+		}
+	}
+
+	/**
+	 * Open a stream to one of the bundled example files.
+	 */
+	public static InputStream openExample(String name) throws IOException {
+		InputStream stream = BenchmarkServices.class.getClassLoader().getResourceAsStream(EXAMPLES_DIRECTORY + name);
+		if (stream == null) {
+			throw new IOException("Example file not found: " + name);
+		}
+		return new BufferedInputStream(stream);
+	}
+
+	/**
+	 * Loads the motor database from the bundled thrust curves on first use.
+	 */
+	private static class MotorDatabaseProvider implements Provider<ThrustCurveMotorSetDatabase> {
+		private ThrustCurveMotorSetDatabase database;
+
+		@Override
+		public synchronized ThrustCurveMotorSetDatabase get() {
+			if (database == null) {
+				MotorDatabaseLoader loader = new MotorDatabaseLoader();
+				loader.startLoading();
+				loader.blockUntilLoaded();
+				database = loader.getDatabase();
+			}
+			return database;
+		}
+	}
+}
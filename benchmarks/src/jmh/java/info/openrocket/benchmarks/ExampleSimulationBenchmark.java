@@ -0,0 +1,47 @@
+package info.openrocket.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import info.openrocket.core.document.OpenRocketDocument;
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.file.RocketLoadException;
+import info.openrocket.core.simulation.FlightData;
+import info.openrocket.core.simulation.exception.SimulationException;
+
+/**
+ * Benchmarks running the first simulation of the bundled example files, in the same
+ * way as the user interface does, i.e. including the simulation extensions.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ExampleSimulationBenchmark {
+
+	@Param({ "A simple model rocket.ork", "Two-stage rocket.ork", "Three-stage rocket.ork",
+			"Clustered motors.ork", "Parallel booster staging.ork", "Dual parachute deployment.ork" })
+	public String example;
+
+	private Simulation simulation;
+
+	@Setup
+	public void setup() throws RocketLoadException, IOException {
+		OpenRocketDocument document = BenchmarkServices.loadExample(example);
+		simulation = document.getSimulation(0);
+	}
+
+	@Benchmark
+	public FlightData simulate() throws SimulationException {
+		simulation.simulate();
+		return simulation.getSimulatedData();
+	}
+}
@@ -0,0 +1,46 @@
+package info.openrocket.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import info.openrocket.core.masscalc.MassCalculation;
+import info.openrocket.core.masscalc.MassCalculator;
+import info.openrocket.core.masscalc.RigidBody;
+import info.openrocket.core.rocketcomponent.FlightConfiguration;
+
+/**
+ * Benchmarks the static mass calculations of {@link MassCalculator}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MassCalculatorBenchmark {
+
+	@Param({ "EstesAlphaIII", "BigBlue", "IsoHaisu", "Falcon9Heavy" })
+	public String rocket;
+
+	@Param({ "STRUCTURE", "LAUNCH", "BURNOUT" })
+	public String type;
+
+	private FlightConfiguration configuration;
+	private MassCalculation.Type calculationType;
+
+	@Setup
+	public void setup() {
+		configuration = BenchmarkServices.makeTestRocket(rocket).getSelectedConfiguration();
+		calculationType = MassCalculation.Type.valueOf(type);
+	}
+
+	@Benchmark
+	public RigidBody calculate() {
+		return MassCalculator.calculate(calculationType, configuration, 0);
+	}
+}
@@ -0,0 +1,41 @@
+package info.openrocket.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import info.openrocket.core.database.MotorDatabaseLoader;
+import info.openrocket.core.database.motor.ThrustCurveMotorSetDatabase;
+
+/**
+ * Benchmarks loading the bundled motor database, as done at application startup.
+ * Each invocation is a complete load, so this is measured as single shot time.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+public class MotorDatabaseLoaderBenchmark {
+
+	@Setup
+	public void setup() {
+		BenchmarkServices.initialize();
+	}
+
+	@Benchmark
+	public ThrustCurveMotorSetDatabase load() {
+		MotorDatabaseLoader loader = new MotorDatabaseLoader();
+		loader.startLoading();
+		loader.blockUntilLoaded();
+		return loader.getDatabase();
+	}
+}
@@ -0,0 +1,42 @@
+package info.openrocket.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import info.openrocket.core.document.OpenRocketDocument;
+import info.openrocket.core.file.RocketLoadException;
+import info.openrocket.core.startup.Application;
+
+/**
+ * Benchmarks loading the bundled example files, including their stored simulation data.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class OpenRocketLoaderBenchmark {
+
+	@Param({ "A simple model rocket.ork", "Three-stage rocket.ork", "Parallel booster staging.ork",
+			"Pods--airframes and winglets.ork", "Simulation scripting.ork" })
+	public String example;
+
+	@Setup
+	public void setup() {
+		BenchmarkServices.initialize();
+		// Load the motor database up front, so that it is not included in the first measurement
+		Application.getMotorSetDatabase();
+	}
+
+	@Benchmark
+	public OpenRocketDocument load() throws RocketLoadException, IOException {
+		return BenchmarkServices.loadExample(example);
+	}
+}
@@ -0,0 +1,49 @@
+package info.openrocket.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.simulation.BasicEventSimulationEngine;
+import info.openrocket.core.simulation.FlightData;
+import info.openrocket.core.simulation.SimulationConditions;
+import info.openrocket.core.simulation.exception.SimulationException;
+
+/**
+ * Benchmarks complete simulations of the {@link info.openrocket.core.util.TestRockets}
+ * with {@link BasicEventSimulationEngine}, from launch until landing.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SimulationBenchmark {
+
+	@Param({ "EstesAlphaIII", "Beta", "Falcon9Heavy" })
+	public String rocket;
+
+	private Simulation simulation;
+
+	@Setup
+	public void setup() {
+		simulation = BenchmarkServices.createSimulation(null, BenchmarkServices.makeTestRocket(rocket));
+	}
+
+	@Benchmark
+	public FlightData simulate() throws SimulationException {
+		// New conditions for every run, as e.g. the wind models are stateful
+		SimulationConditions conditions = simulation.getOptions().toSimulationConditions();
+		conditions.setSimulation(simulation);
+
+		BasicEventSimulationEngine engine = new BasicEventSimulationEngine();
+		engine.simulate(conditions);
+		return engine.getFlightData();
+	}
+}
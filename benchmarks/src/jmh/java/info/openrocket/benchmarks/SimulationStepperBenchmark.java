@@ -0,0 +1,83 @@
+package info.openrocket.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.rocketcomponent.FlightConfiguration;
+import info.openrocket.core.simulation.FlightDataBranch;
+import info.openrocket.core.simulation.FlightDataType;
+import info.openrocket.core.simulation.RK4SimulationStepper;
+import info.openrocket.core.simulation.SimulationConditions;
+import info.openrocket.core.simulation.SimulationStatus;
+import info.openrocket.core.simulation.exception.SimulationException;
+import info.openrocket.core.util.Coordinate;
+
+/**
+ * Benchmarks a single {@link RK4SimulationStepper#step} of a coasting rocket, with
+ * both the original implementation of the step and the one reusing its buffers.
+ * <p>
+ * The rocket starts at 100 m altitude flying straight up at 100 m/s.  The flight is
+ * restarted once it has lasted for {@link #FLIGHT_DURATION} seconds, so that the
+ * flight data does not grow without bound.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SimulationStepperBenchmark {
+
+	private static final double FLIGHT_DURATION = 10;
+
+	@Param({ "EstesAlphaIII", "Falcon9Heavy" })
+	public String rocket;
+
+	@Param({ "false", "true" })
+	public boolean legacyStep;
+
+	private SimulationConditions conditions;
+	private RK4SimulationStepper stepper;
+	private SimulationStatus status;
+
+	@Setup(Level.Iteration)
+	public void setup() {
+		Simulation simulation = BenchmarkServices.createSimulation(null, BenchmarkServices.makeTestRocket(rocket));
+		conditions = simulation.getOptions().toSimulationConditions();
+		conditions.setSimulation(simulation);
+
+		stepper = new RK4SimulationStepper();
+		stepper.setLegacyStep(legacyStep);
+		startFlight();
+	}
+
+	private void startFlight() {
+		FlightConfiguration configuration = conditions.getRocket().getFlightConfiguration(
+				conditions.getFlightConfigurationID());
+		SimulationStatus initial = new SimulationStatus(configuration, conditions);
+		initial.setFlightDataBranch(new FlightDataBranch(rocket, FlightDataType.TYPE_TIME));
+		initial.getFlightDataBranch().addPoint();
+		initial.storeData();
+		initial.setRocketPosition(new Coordinate(0, 0, 100));
+		initial.setRocketVelocity(new Coordinate(0, 0, 100));
+		initial.setLiftoff(true);
+		initial.setLaunchRodCleared(true);
+		status = stepper.initialize(initial);
+	}
+
+	@Benchmark
+	public double step() throws SimulationException {
+		if (status.getSimulationTime() > FLIGHT_DURATION) {
+			startFlight();
+		}
+		stepper.step(status, Double.MAX_VALUE);
+		return status.getSimulationTime();
+	}
+}
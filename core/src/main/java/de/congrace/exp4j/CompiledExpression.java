@@ -0,0 +1,173 @@
+package de.congrace.exp4j;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A postfix expression compiled into a program operating on primitive doubles.  The variables
+ * of the expression are bound to slots of a value array when compiling, so the evaluation does
+ * not look up variables by name and does not allocate any objects.
+ * <p>
+ * Only expressions consisting of numbers, variables, operators and built-in functions can be
+ * compiled.  Custom functions may operate on array valued variables and are not supported.
+ * <p>
+ * This class is not thread-safe, as the evaluation stack is reused between evaluations.
+ */
+public final class CompiledExpression {
+
+	private static final int NUMBER = 0;
+	private static final int VARIABLE = 1;
+	private static final int ADDITION = 2;
+	private static final int SUBTRACTION = 3;
+	private static final int MULTIPLICATION = 4;
+	private static final int DIVISION = 5;
+	private static final int MODULO = 6;
+	private static final int EXPONENTIATION = 7;
+	private static final int UNARY_MINUS = 8;
+	private static final int UNARY_PLUS = 9;
+	private static final int FUNCTION = 10;
+
+	private final int[] opcodes;
+	private final int[] operands;
+	private final double[] constants;
+	private final FunctionToken[] functions;
+	private final double[] stack;
+
+	private CompiledExpression(int[] opcodes, int[] operands, double[] constants, FunctionToken[] functions,
+			int stackSize) {
+		this.opcodes = opcodes;
+		this.operands = operands;
+		this.constants = constants;
+		this.functions = functions;
+		this.stack = new double[stackSize];
+	}
+
+	/**
+	 * Compile the tokens of a postfix expression.
+	 *
+	 * @param tokens			the tokens of the postfix expression
+	 * @param variableNames		the names of the variables, in the order of their slots
+	 * @return					the compiled expression, or <code>null</code> if the expression cannot be
+	 * 							compiled or is invalid
+	 */
+	static CompiledExpression compile(Token[] tokens, List<String> variableNames) {
+		final int n = tokens.length;
+		final int[] opcodes = new int[n];
+		final int[] operands = new int[n];
+		final List<Double> constants = new ArrayList<>();
+		final FunctionToken[] functions = new FunctionToken[n];
+
+		int depth = 0;
+		int maxDepth = 0;
+		for (int i = 0; i < n; i++) {
+			final Token token = tokens[i];
+			int operandCount;
+			if (token instanceof NumberToken) {
+				opcodes[i] = NUMBER;
+				operands[i] = constants.size();
+				constants.add(Double.parseDouble(token.getValue()));
+				operandCount = 0;
+			} else if (token instanceof VariableToken) {
+				final int slot = variableNames.indexOf(token.getValue());
+				if (slot < 0) {
+					return null;
+				}
+				opcodes[i] = VARIABLE;
+				operands[i] = slot;
+				operandCount = 0;
+			} else if (token instanceof OperatorToken) {
+				final OperatorToken operator = (OperatorToken) token;
+				opcodes[i] = switch (operator.getOperation()) {
+					case ADDITION -> ADDITION;
+					case SUBTRACTION -> SUBTRACTION;
+					case MULTIPLICATION -> MULTIPLICATION;
+					case DIVISION -> DIVISION;
+					case MODULO -> MODULO;
+					case EXPONENTIATION -> EXPONENTIATION;
+					case UNARY_MINUS -> UNARY_MINUS;
+					case UNARY_PLUS -> UNARY_PLUS;
+				};
+				operandCount = operator.getOperandCount();
+			} else if (token instanceof FunctionToken) {
+				opcodes[i] = FUNCTION;
+				functions[i] = (FunctionToken) token;
+				operandCount = 1;
+			} else {
+				// Custom functions and anything else
+				return null;
+			}
+
+			if (depth < operandCount) {
+				// Stack underflow, the expression is invalid
+				return null;
+			}
+			depth = depth - operandCount + 1;
+			maxDepth = Math.max(maxDepth, depth);
+		}
+		if (depth == 0) {
+			return null;
+		}
+
+		final double[] constantValues = new double[constants.size()];
+		for (int i = 0; i < constantValues.length; i++) {
+			constantValues[i] = constants.get(i);
+		}
+		return new CompiledExpression(opcodes, operands, constantValues, functions, maxDepth);
+	}
+
+	/**
+	 * Evaluate the expression.
+	 *
+	 * @param values	the values of the variables, indexed by slot
+	 * @return			the value of the expression
+	 */
+	public double evaluate(double[] values) {
+		final double[] stack = this.stack;
+		int sp = 0;
+		for (int pc = 0; pc < opcodes.length; pc++) {
+			switch (opcodes[pc]) {
+				case NUMBER:
+					stack[sp++] = constants[operands[pc]];
+					break;
+				case VARIABLE:
+					stack[sp++] = values[operands[pc]];
+					break;
+				case ADDITION:
+					sp--;
+					stack[sp - 1] = stack[sp - 1] + stack[sp];
+					break;
+				case SUBTRACTION:
+					sp--;
+					stack[sp - 1] = stack[sp - 1] - stack[sp];
+					break;
+				case MULTIPLICATION:
+					sp--;
+					stack[sp - 1] = stack[sp - 1] * stack[sp];
+					break;
+				case DIVISION:
+					sp--;
+					stack[sp - 1] = stack[sp - 1] / stack[sp];
+					break;
+				case MODULO:
+					sp--;
+					stack[sp - 1] = stack[sp - 1] % stack[sp];
+					break;
+				case EXPONENTIATION:
+					sp--;
+					stack[sp - 1] = Math.pow(stack[sp - 1], stack[sp]);
+					break;
+				case UNARY_MINUS:
+					stack[sp - 1] = -stack[sp - 1];
+					break;
+				case UNARY_PLUS:
+					break;
+				case FUNCTION:
+					stack[sp - 1] = functions[pc].applyFunction(stack[sp - 1]);
+					break;
+				default:
+					throw new IllegalStateException("Unknown opcode " + opcodes[pc]);
+			}
+		}
+		return stack[sp - 1];
+	}
+}
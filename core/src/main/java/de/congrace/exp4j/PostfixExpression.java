@@ -16,6 +16,8 @@
  */
 package de.congrace.exp4j;
 
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.Stack;
 
@@ -115,4 +117,31 @@ public final class PostfixExpression extends AbstractExpression implements Calcu
 	public void setVariable(Variable value) {
 		variables.add(value);
 	}
+
+	/**
+	 * get the names of the variables used in the expression
+	 * 
+	 * @return the variable names, in order of first use
+	 */
+	public Set<String> getUsedVariableNames() {
+		final Set<String> names = new LinkedHashSet<>();
+		for (final Token t : getTokens()) {
+			if (t instanceof VariableToken) {
+				names.add(t.getValue());
+			}
+		}
+		return names;
+	}
+
+	/**
+	 * compile the expression into a {@link CompiledExpression} evaluated on primitive doubles
+	 * 
+	 * @param variableNames
+	 *            the names of the variables, in the order of their slots
+	 * @return the compiled expression, or null if the expression uses custom
+	 *         functions or variables not listed
+	 */
+	public CompiledExpression compile(List<String> variableNames) {
+		return CompiledExpression.compile(getTokens(), variableNames);
+	}
 }
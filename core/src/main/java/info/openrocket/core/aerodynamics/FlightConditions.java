@@ -85,6 +85,36 @@ public class FlightConditions implements Cloneable, ChangeSource, Monitorable {
 			setRefLength(config.getReferenceLength());
 	}
 
+	/**
+	 * Reset all values to those of a newly constructed <code>FlightConditions</code>
+	 * for the given configuration with the given atmospheric conditions set.  This allows
+	 * a single instance to be reused for successive calculations with exactly the same
+	 * results as a new instance.
+	 * fires change event
+	 *
+	 * @param config the configuration of which the reference length is taken, or <code>null</code>.
+	 * @param cond the atmospheric conditions, which are used by reference.
+	 */
+	public void reset(FlightConfiguration config, AtmosphericConditions cond) {
+		refLength = 1.0;
+		refArea = Math.PI * 0.25;
+		aoa = 0;
+		sinAOA = 0;
+		sincAOA = 1.0;
+		theta = 0;
+		mach = 0.3;
+		beta = calculateBeta(mach);
+		rollRate = 0;
+		pitchRate = 0;
+		yawRate = 0;
+		pitchCenter = Coordinate.NUL;
+		atmosphericConditions = cond;
+
+		if (config != null)
+			setRefLength(config.getReferenceLength());
+		fireChangeEvent();
+	}
+
 	/**
 	 * Set the reference length from the given configuration.
 	 * 
@@ -0,0 +1,696 @@
+package info.openrocket.core.aerodynamics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import info.openrocket.core.logging.WarningSet;
+import info.openrocket.core.models.atmosphere.AtmosphericConditions;
+import info.openrocket.core.rocketcomponent.AxialStage;
+import info.openrocket.core.rocketcomponent.FlightConfiguration;
+import info.openrocket.core.rocketcomponent.FlightConfigurationId;
+import info.openrocket.core.rocketcomponent.RocketComponent;
+import info.openrocket.core.util.Coordinate;
+import info.openrocket.core.util.MathUtil;
+import info.openrocket.core.util.ModID;
+
+/**
+ * An aerodynamic calculator that answers queries by interpolating in tables of aerodynamic
+ * coefficients.  The tables are computed with an exact calculator (typically a
+ * {@link BarrowmanCalculator}) once for each rocket design, flight configuration and set of
+ * active stages, and are shared by all calculators, so that repeated simulations of the same
+ * design, including the simulations of the copies of the rocket made by the simulation engine
+ * and the threads of Monte Carlo simulations, compute them only once.  The design is
+ * identified by the
+ * {@link info.openrocket.core.rocketcomponent.Rocket#getFunctionalModID() functional modification ID}
+ * of the rocket.
+ * <p>
+ * The tables are sampled on a grid of Mach number and angle of attack, in standard atmospheric
+ * conditions, at zero lateral wind direction and with zero rotation rates.  The friction drag,
+ * which mainly depends on the Reynolds number, is tabulated separately over Mach number and
+ * Reynolds number.  The rate dependent terms are rebuilt from sampled derivatives:  the roll
+ * damping is taken to be linear in the roll rate, the pitch and yaw damping moments quadratic in
+ * the pitch and yaw rates, as in {@link BarrowmanCalculator}.
+ * <p>
+ * Queries outside the tables, queries below {@link #MIN_TABULATED_MACH}, where the body lift at large
+ * angles of attack depends strongly on the velocity, queries with a reference length or pitch center different from the
+ * one the tables were computed with, and all queries of configurations whose normal force depends
+ * on the lateral wind direction (such as rockets with one or two fins) are passed on to the exact
+ * calculator.  The warnings of the exact calculator are computed once per table and added to
+ * every query.  {@link #estimateError(FlightConfiguration, FlightConditions, int, long)} compares
+ * the tables with the exact calculator.
+ * <p>
+ * The calculator is opt-in; it is used by simulations with
+ * {@link info.openrocket.core.simulation.SimulationOptions#setTabulatedAerodynamics(boolean)} enabled,
+ * or it can be set on the simulation conditions directly:
+ * <pre>
+ * conditions.setAerodynamicCalculator(new TabulatedAerodynamicCalculator(new BarrowmanCalculator()));
+ * </pre>
+ * Like the other calculators this class is not thread-safe, use {@link #newInstance()} to obtain
+ * an instance for each thread.
+ */
+public class TabulatedAerodynamicCalculator extends AbstractAerodynamicCalculator {
+	private static final Logger log = LoggerFactory.getLogger(TabulatedAerodynamicCalculator.class);
+
+	/** Default upper limit of the Mach number grid. */
+	public static final double DEFAULT_MAX_MACH = 3.0;
+
+	/** Step of the Mach number grid. */
+	private static final double MACH_STEP = 0.05;
+
+	/**
+	 * Lowest tabulated Mach number.  At lower velocities the body lift at angles of attack above
+	 * 45 degrees is scaled down with the square of the Mach number, which the tables cannot follow,
+	 * so slower queries are computed exactly.
+	 */
+	public static final double MIN_TABULATED_MACH = 0.05;
+
+	/** Angle of attack grid, in radians.  The grid is densest in the normal flight regime. */
+	private static final double[] AOA_GRID = createAOAGrid();
+
+	/** Limits and step of the log10(Reynolds number) grid. */
+	private static final double MIN_LOG_RE = 4.0;
+	private static final double MAX_LOG_RE = 9.0;
+	private static final double LOG_RE_STEP = 0.25;
+	private static final int RE_COUNT = (int) Math.round((MAX_LOG_RE - MIN_LOG_RE) / LOG_RE_STEP) + 1;
+
+	/** Number of tables kept by each calculator, one for each recently used configuration modification ID. */
+	private static final int MAX_TABLES = 8;
+
+	/** Number of tables shared by all calculators, one for each recently used design and configuration. */
+	private static final int MAX_SHARED_TABLES = 16;
+
+	/** The tables shared by all calculators, by the design and configuration they were computed for. */
+	private static final Map<TableKey, Table> SHARED_TABLES = new LinkedHashMap<>(32, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<TableKey, Table> eldest) {
+			return size() > MAX_SHARED_TABLES;
+		}
+	};
+
+	/** Angle of attack at which the damping and theta-dependence are probed. */
+	private static final double PROBE_AOA = Math.toRadians(10);
+
+	/** Roll or pitch rate, relative to velocity / reference length, used when probing the damping. */
+	private static final double PROBE_RATE = 0.05;
+
+	// Indices of the tabulated coefficients
+	private static final int CN = 0;
+	private static final int CNA = 1;
+	private static final int CM = 2;
+	private static final int CSIDE = 3;
+	private static final int CYAW = 4;
+	private static final int CP_X = 5;
+	private static final int CP_WEIGHT = 6;
+	private static final int CROLL_FORCE = 7;
+	private static final int PRESSURE_CD = 8;
+	private static final int BASE_CD = 9;
+	private static final int OVERRIDE_CD = 10;
+	private static final int AXIAL_RATIO = 11;
+	private static final int COEFFICIENT_COUNT = 12;
+
+	private final AerodynamicCalculator exactCalculator;
+	private final double maxMach;
+	private final int machCount;
+
+	private final Map<ModID, Table> tables = new LinkedHashMap<>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<ModID, Table> eldest) {
+			return size() > MAX_TABLES;
+		}
+	};
+
+	private double stallMargin;
+
+	/**
+	 * Create a tabulating calculator with the default Mach number range.
+	 *
+	 * @param exactCalculator	the calculator used to compute the tables and the fallback queries.
+	 */
+	public TabulatedAerodynamicCalculator(AerodynamicCalculator exactCalculator) {
+		this(exactCalculator, DEFAULT_MAX_MACH);
+	}
+
+	/**
+	 * Create a tabulating calculator.
+	 *
+	 * @param exactCalculator	the calculator used to compute the tables and the fallback queries.
+	 * @param maxMach			the highest Mach number tabulated; faster queries are computed exactly.
+	 */
+	public TabulatedAerodynamicCalculator(AerodynamicCalculator exactCalculator, double maxMach) {
+		if (exactCalculator == null) {
+			throw new IllegalArgumentException("Exact calculator must not be null");
+		}
+		if (!(maxMach >= MIN_TABULATED_MACH + MACH_STEP)) {
+			throw new IllegalArgumentException("Maximum Mach number too small: " + maxMach);
+		}
+		this.exactCalculator = exactCalculator;
+		this.machCount = (int) Math.ceil((maxMach - MIN_TABULATED_MACH) / MACH_STEP - 0.001) + 1;
+		this.maxMach = tabulatedMach(machCount - 1);
+	}
+
+	public AerodynamicCalculator getExactCalculator() {
+		return exactCalculator;
+	}
+
+	public double getMaxMach() {
+		return maxMach;
+	}
+
+
+	@Override
+	public AerodynamicForces getAerodynamicForces(FlightConfiguration configuration, FlightConditions conditions,
+			WarningSet warnings) {
+		checkCache(configuration);
+
+		Table table = getTable(configuration, conditions);
+		if (!table.accepts(conditions)) {
+			AerodynamicForces forces = exactCalculator.getAerodynamicForces(configuration, conditions, warnings);
+			stallMargin = exactCalculator.getStallMargin();
+			return forces;
+		}
+
+		if (warnings != null) {
+			warnings.addAll(table.warnings);
+		}
+		stallMargin = table.stallAngle - conditions.getAOA();
+		return table.interpolate(conditions);
+	}
+
+	@Override
+	public Coordinate getCP(FlightConfiguration configuration, FlightConditions conditions, WarningSet warnings) {
+		return exactCalculator.getCP(configuration, conditions, warnings);
+	}
+
+	@Override
+	public Map<RocketComponent, AerodynamicForces> getForceAnalysis(FlightConfiguration configuration,
+			FlightConditions conditions, WarningSet warnings) {
+		return exactCalculator.getForceAnalysis(configuration, conditions, warnings);
+	}
+
+	@Override
+	public Coordinate getWorstCP(FlightConfiguration configuration, FlightConditions conditions, WarningSet warnings) {
+		return exactCalculator.getWorstCP(configuration, conditions, warnings);
+	}
+
+	@Override
+	public double getStallMargin() {
+		return stallMargin;
+	}
+
+	@Override
+	public void checkGeometry(FlightConfiguration configuration, RocketComponent component, WarningSet warnings) {
+		exactCalculator.checkGeometry(configuration, component, warnings);
+	}
+
+	@Override
+	public AerodynamicCalculator newInstance() {
+		return new TabulatedAerodynamicCalculator(exactCalculator.newInstance(), maxMach);
+	}
+
+	@Override
+	public ModID getModID() {
+		return ModID.ZERO;
+	}
+
+	@Override
+	protected void voidAerodynamicCache() {
+		super.voidAerodynamicCache();
+		tables.clear();
+	}
+
+
+	/**
+	 * Compare the tabulated coefficients with those of the exact calculator at random flight
+	 * conditions within the tables.  The conditions are drawn uniformly over the tabulated Mach
+	 * range, with half of the angles of attack between 0 and 20 degrees and the other half between
+	 * 0 and 180 degrees, random rotation rates and air pressures between 30% and 100% of the
+	 * pressure of the reference conditions.
+	 *
+	 * @param configuration		the configuration to test.
+	 * @param reference			the reference conditions, defining the reference length, pitch center,
+	 * 							theta and atmosphere.
+	 * @param sampleCount		the number of random samples.
+	 * @param seed				the seed of the random samples.
+	 * @return					the maximum and root-mean-square errors of the coefficients.
+	 */
+	public ErrorReport estimateError(FlightConfiguration configuration, FlightConditions reference,
+			int sampleCount, long seed) {
+		checkCache(configuration);
+
+		Random random = new Random(seed);
+		ErrorReport report = new ErrorReport();
+		FlightConditions conditions = reference.clone();
+		AtmosphericConditions atmosphere = reference.getAtmosphericConditions();
+		WarningSet warnings = new WarningSet();
+
+		for (int i = 0; i < sampleCount; i++) {
+			conditions.setMach(maxMach * random.nextDouble());
+			if (i % 2 == 0) {
+				conditions.setAOA(Math.toRadians(20) * random.nextDouble());
+			} else {
+				conditions.setAOA(Math.PI * random.nextDouble());
+			}
+			conditions.setAtmosphericConditions(new AtmosphericConditions(atmosphere.getTemperature(),
+					atmosphere.getPressure() * (0.3 + 0.7 * random.nextDouble())));
+			double rate = conditions.getVelocity() / conditions.getRefLength();
+			conditions.setRollRate(PROBE_RATE * rate * (2 * random.nextDouble() - 1));
+			conditions.setPitchRate(PROBE_RATE * rate * (2 * random.nextDouble() - 1));
+			conditions.setYawRate(PROBE_RATE * rate * (2 * random.nextDouble() - 1));
+
+			Table table = getTable(configuration, conditions);
+			if (!table.accepts(conditions)) {
+				report.fallbackCount++;
+				continue;
+			}
+
+			AerodynamicForces exact = exactCalculator.getAerodynamicForces(configuration, conditions, warnings);
+			AerodynamicForces tabulated = table.interpolate(conditions);
+			report.add(Coefficient.CN, exact.getCN(), tabulated.getCN());
+			report.add(Coefficient.CM, exact.getCm(), tabulated.getCm());
+			report.add(Coefficient.CP, exact.getCP().x, tabulated.getCP().x);
+			report.add(Coefficient.CD, exact.getCD(), tabulated.getCD());
+			report.add(Coefficient.CD_AXIAL, exact.getCDaxial(), tabulated.getCDaxial());
+			report.add(Coefficient.CROLL, exact.getCroll(), tabulated.getCroll());
+			report.sampleCount++;
+		}
+
+		log.debug("Tabulated aerodynamics error estimate: " + report);
+		return report;
+	}
+
+
+	private Table getTable(FlightConfiguration configuration, FlightConditions conditions) {
+		ModID modID = configuration.getModID();
+		Table table = tables.get(modID);
+		if (table == null) {
+			table = getSharedTable(configuration, conditions);
+			tables.put(modID, table);
+		}
+		return table;
+	}
+
+	/**
+	 * Return the shared table of the design and configuration, computing it if necessary.  The
+	 * lock is held while computing, so that concurrent simulations of the same design compute
+	 * the table only once.
+	 */
+	private Table getSharedTable(FlightConfiguration configuration, FlightConditions conditions) {
+		List<Integer> activeStages = new ArrayList<>();
+		for (AxialStage stage : configuration.getActiveStages()) {
+			activeStages.add(stage.getStageNumber());
+		}
+		TableKey key = new TableKey(configuration.getRocket().getFunctionalModID(), configuration.getId(),
+				activeStages, exactCalculator.getClass(), machCount);
+
+		synchronized (SHARED_TABLES) {
+			Table table = SHARED_TABLES.get(key);
+			if (table == null || !table.isComputedFor(conditions)) {
+				long t0 = System.nanoTime();
+				table = new Table(exactCalculator, machCount, configuration, conditions);
+				log.debug("Computed aerodynamic tables for configuration " + configuration.getName() + " in "
+						+ (System.nanoTime() - t0) / 1000000 + " ms" + (table.exactOnly ? ", using exact calculations" : ""));
+				SHARED_TABLES.put(key, table);
+			}
+			return table;
+		}
+	}
+
+	/**
+	 * Return the Mach number of the given row of the tables.
+	 */
+	private static double tabulatedMach(int m) {
+		return MIN_TABULATED_MACH + m * MACH_STEP;
+	}
+
+	private static double[] createAOAGrid() {
+		double[] degrees = new double[67];
+		int n = 0;
+		for (int aoa = 0; aoa <= 20; aoa++) {
+			degrees[n++] = aoa;
+		}
+		for (double aoa = 22.5; aoa <= 90; aoa += 2.5) {
+			degrees[n++] = aoa;
+		}
+		for (int aoa = 95; aoa <= 180; aoa += 5) {
+			degrees[n++] = aoa;
+		}
+		double[] radians = new double[n];
+		for (int i = 0; i < n; i++) {
+			radians[i] = Math.toRadians(degrees[i]);
+		}
+		return radians;
+	}
+
+
+	/**
+	 * The design and configuration a shared table is computed for.
+	 */
+	private record TableKey(ModID functionalModID, FlightConfigurationId configurationId, List<Integer> activeStages,
+			Class<?> exactCalculatorClass, int machCount) {
+	}
+
+	/**
+	 * The coefficient tables of a single flight configuration.  The tables do not refer to the
+	 * configuration or to the exact calculator, so that they can be shared.
+	 */
+	private static class Table {
+		private final int machCount;
+		private final double maxMach;
+		private final double refLength;
+		private final double pitchCenterX;
+		private final double lengthAerodynamic;
+		private final boolean axisymmetric;
+		private final WarningSet warnings = new WarningSet();
+
+		/** Whether all queries are passed on to the exact calculator. */
+		private boolean exactOnly = false;
+
+		/** The coefficients, indexed by [coefficient][mach * aoa count + aoa]. */
+		private final double[][] coefficients = new double[COEFFICIENT_COUNT][];
+
+		/** Friction drag coefficient, indexed by [mach * Re count + Re]. */
+		private final double[] frictionCD;
+
+		/** Roll damping coefficient per unit of (roll rate / velocity), indexed by Mach. */
+		private final double[] rollDamping;
+
+		/** Pitch and yaw damping multiplier, applied to (rate / velocity)^2. */
+		private double dampingMultiplier = 0;
+
+		private double stallAngle;
+
+		Table(AerodynamicCalculator exactCalculator, int machCount, FlightConfiguration configuration,
+				FlightConditions query) {
+			this.machCount = machCount;
+			this.maxMach = tabulatedMach(machCount - 1);
+			this.refLength = query.getRefLength();
+			this.pitchCenterX = query.getPitchCenter().x;
+			this.lengthAerodynamic = configuration.getLengthAerodynamic();
+
+			FlightConditions conditions = new FlightConditions(configuration);
+			conditions.setRefLength(refLength);
+			conditions.setPitchCenter(query.getPitchCenter());
+			conditions.setAOA(PROBE_AOA);
+
+			AerodynamicForces reference = exactCalculator.getAerodynamicForces(configuration, conditions, warnings);
+			this.axisymmetric = reference.isAxisymmetric();
+			this.stallAngle = exactCalculator.getStallMargin() + PROBE_AOA;
+
+			int aoaCount = AOA_GRID.length;
+			for (int i = 0; i < COEFFICIENT_COUNT; i++) {
+				coefficients[i] = new double[machCount * aoaCount];
+			}
+			frictionCD = new double[machCount * RE_COUNT];
+			rollDamping = new double[machCount];
+
+			if (!(lengthAerodynamic > 0) || isThetaDependent(exactCalculator, configuration, conditions, reference)
+					|| !probePitchDamping(exactCalculator, configuration, conditions)) {
+				exactOnly = true;
+				return;
+			}
+
+			WarningSet ignored = new WarningSet();
+
+			// Coefficients over Mach and angle of attack
+			for (int m = 0; m < machCount; m++) {
+				conditions.setMach(tabulatedMach(m));
+				for (int a = 0; a < aoaCount; a++) {
+					conditions.setAOA(AOA_GRID[a]);
+					AerodynamicForces forces = exactCalculator.getAerodynamicForces(configuration, conditions, ignored);
+					int index = m * aoaCount + a;
+					coefficients[CN][index] = forces.getCN();
+					coefficients[CNA][index] = forces.getCNa();
+					// With zero rates the damping moment is clamped to the moment itself, add it back
+					coefficients[CM][index] = forces.getCm() + forces.getPitchDampingMoment();
+					coefficients[CSIDE][index] = forces.getCside();
+					coefficients[CYAW][index] = forces.getCyaw() + forces.getYawDampingMoment();
+					coefficients[CP_X][index] = forces.getCP().x;
+					coefficients[CP_WEIGHT][index] = forces.getCP().weight;
+					coefficients[CROLL_FORCE][index] = forces.getCrollForce();
+					coefficients[PRESSURE_CD][index] = forces.getPressureCD();
+					coefficients[BASE_CD][index] = forces.getBaseCD();
+					coefficients[OVERRIDE_CD][index] = forces.getOverrideCD();
+					coefficients[AXIAL_RATIO][index] = (forces.getCD() != 0) ? forces.getCDaxial() / forces.getCD() : 1;
+				}
+			}
+
+			// Friction drag over Mach and Reynolds number, varying the pressure at constant temperature
+			conditions.setAOA(0);
+			for (int m = 0; m < machCount; m++) {
+				conditions.setAtmosphericConditions(new AtmosphericConditions());
+				conditions.setMach(tabulatedMach(m));
+				double standardRe = reynoldsNumber(conditions);
+				for (int r = 0; r < RE_COUNT; r++) {
+					double re = Math.pow(10, MIN_LOG_RE + r * LOG_RE_STEP);
+					conditions.setAtmosphericConditions(new AtmosphericConditions(
+							AtmosphericConditions.STANDARD_TEMPERATURE,
+							AtmosphericConditions.STANDARD_PRESSURE * re / standardRe));
+					AerodynamicForces forces = exactCalculator.getAerodynamicForces(configuration, conditions, ignored);
+					frictionCD[m * RE_COUNT + r] = forces.getFrictionCD();
+				}
+			}
+
+			// Roll damping derivative over Mach
+			conditions.setAtmosphericConditions(new AtmosphericConditions());
+			for (int m = 0; m < machCount; m++) {
+				conditions.setMach(tabulatedMach(m));
+				double relativeRate = PROBE_RATE / refLength;
+				conditions.setRollRate(relativeRate * conditions.getVelocity());
+				AerodynamicForces forces = exactCalculator.getAerodynamicForces(configuration, conditions, ignored);
+				rollDamping[m] = forces.getCrollDamp() / (conditions.getRollRate() / conditions.getVelocity());
+			}
+		}
+
+		/**
+		 * Check whether the normal force depends on the lateral wind direction, in which case
+		 * the tables sampled at theta = 0 are not valid.
+		 */
+		private boolean isThetaDependent(AerodynamicCalculator exactCalculator, FlightConfiguration configuration,
+				FlightConditions conditions, AerodynamicForces reference) {
+			WarningSet ignored = new WarningSet();
+			double cn = reference.getCN();
+			for (double theta : new double[] { Math.PI / 7, Math.PI / 3, 2 * Math.PI / 3 }) {
+				conditions.setTheta(theta);
+				AerodynamicForces forces = exactCalculator.getAerodynamicForces(configuration, conditions, ignored);
+				if (Math.abs(forces.getCN() - cn) > 1e-6 * Math.max(1, Math.abs(cn))
+						|| Math.abs(forces.getCside()) > 1e-6 * Math.max(1, Math.abs(cn))) {
+					conditions.setTheta(0);
+					return true;
+				}
+			}
+			conditions.setTheta(0);
+			return false;
+		}
+
+		/**
+		 * Determine the pitch and yaw damping multiplier from the damping moment at a small pitch rate.
+		 *
+		 * @return	whether the multiplier could be determined.
+		 */
+		private boolean probePitchDamping(AerodynamicCalculator exactCalculator, FlightConfiguration configuration,
+				FlightConditions conditions) {
+			WarningSet ignored = new WarningSet();
+			AerodynamicForces forces = exactCalculator.getAerodynamicForces(configuration, conditions, ignored);
+			double cm = forces.getCm() + forces.getPitchDampingMoment();
+
+			double relativeRate = PROBE_RATE / refLength;
+			for (int i = 0; i < 5; i++, relativeRate /= 10) {
+				conditions.setPitchRate(relativeRate * conditions.getVelocity());
+				forces = exactCalculator.getAerodynamicForces(configuration, conditions, ignored);
+				double damping = forces.getPitchDampingMoment();
+				if (damping < cm) {
+					dampingMultiplier = damping / MathUtil.pow2(conditions.getPitchRate() / conditions.getVelocity());
+					conditions.setPitchRate(0);
+					return true;
+				}
+			}
+			conditions.setPitchRate(0);
+			return false;
+		}
+
+		/**
+		 * Return whether the tables were computed with the reference length and pitch center
+		 * of the query.
+		 */
+		boolean isComputedFor(FlightConditions conditions) {
+			return conditions.getRefLength() == refLength && conditions.getPitchCenter().x == pitchCenterX;
+		}
+
+		/**
+		 * Return whether the query can be answered from these tables.
+		 */
+		boolean accepts(FlightConditions conditions) {
+			if (exactOnly) {
+				return false;
+			}
+			double mach = conditions.getMach();
+			if (!(mach >= MIN_TABULATED_MACH && mach <= maxMach)) {
+				return false;
+			}
+			double aoa = conditions.getAOA();
+			if (!(aoa >= 0 && aoa <= Math.PI)) {
+				return false;
+			}
+			if (!isComputedFor(conditions)) {
+				return false;
+			}
+			double logRe = Math.log10(reynoldsNumber(conditions));
+			return logRe >= MIN_LOG_RE && logRe <= MAX_LOG_RE;
+		}
+
+		AerodynamicForces interpolate(FlightConditions conditions) {
+			// Mach number index and weight
+			double machIndex = (conditions.getMach() - MIN_TABULATED_MACH) / MACH_STEP;
+			int m = Math.min((int) machIndex, machCount - 2);
+			double mw = machIndex - m;
+
+			// Angle of attack index and weight
+			double aoa = conditions.getAOA();
+			int a = Arrays.binarySearch(AOA_GRID, aoa);
+			if (a < 0) {
+				a = -a - 2;
+			}
+			a = MathUtil.clamp(a, 0, AOA_GRID.length - 2);
+			double aw = (aoa - AOA_GRID[a]) / (AOA_GRID[a + 1] - AOA_GRID[a]);
+
+			int aoaCount = AOA_GRID.length;
+			int i00 = m * aoaCount + a;
+			int i10 = i00 + aoaCount;
+			double w00 = (1 - mw) * (1 - aw);
+			double w01 = (1 - mw) * aw;
+			double w10 = mw * (1 - aw);
+			double w11 = mw * aw;
+
+			double[] c = new double[COEFFICIENT_COUNT];
+			for (int i = 0; i < COEFFICIENT_COUNT; i++) {
+				double[] table = coefficients[i];
+				c[i] = w00 * table[i00] + w01 * table[i00 + 1] + w10 * table[i10] + w11 * table[i10 + 1];
+			}
+
+			// Friction drag over Mach and Reynolds number
+			double re = (Math.log10(reynoldsNumber(conditions)) - MIN_LOG_RE) / LOG_RE_STEP;
+			int r = MathUtil.clamp((int) re, 0, RE_COUNT - 2);
+			double rw = re - r;
+			int j00 = m * RE_COUNT + r;
+			int j10 = j00 + RE_COUNT;
+			double friction = (1 - mw) * ((1 - rw) * frictionCD[j00] + rw * frictionCD[j00 + 1])
+					+ mw * ((1 - rw) * frictionCD[j10] + rw * frictionCD[j10 + 1]);
+
+			double velocity = conditions.getVelocity();
+			double rollDamp = ((1 - mw) * rollDamping[m] + mw * rollDamping[m + 1]) * conditions.getRollRate() / velocity;
+
+			AerodynamicForces forces = new AerodynamicForces();
+			forces.setAxisymmetric(axisymmetric);
+			forces.setCP(new Coordinate(c[CP_X], 0, 0, c[CP_WEIGHT]));
+			forces.setCNa(c[CNA]);
+			forces.setCN(c[CN]);
+			forces.setCside(c[CSIDE]);
+			forces.setCrollForce(c[CROLL_FORCE]);
+			forces.setCrollDamp(rollDamp);
+			forces.setCroll(c[CROLL_FORCE] - rollDamp);
+
+			forces.setFrictionCD(friction);
+			forces.setPressureCD(c[PRESSURE_CD]);
+			forces.setBaseCD(c[BASE_CD]);
+			forces.setOverrideCD(c[OVERRIDE_CD]);
+			forces.setCD(forces.getFrictionCD() + forces.getPressureCD() + forces.getBaseCD() + forces.getOverrideCD());
+			forces.setCDaxial(c[AXIAL_RATIO] * forces.getCD());
+
+			// Pitch and yaw damping moments, clamped to the magnitude of the moments as in BarrowmanCalculator
+			double pitchRate = conditions.getPitchRate();
+			double yawRate = conditions.getYawRate();
+			double pitchDamping = MathUtil.min(dampingMultiplier * MathUtil.pow2(pitchRate / velocity), c[CM]);
+			double yawDamping = MathUtil.min(dampingMultiplier * MathUtil.pow2(yawRate / velocity), c[CYAW]);
+			forces.setPitchDampingMoment(MathUtil.sign(pitchRate) * pitchDamping);
+			forces.setYawDampingMoment(MathUtil.sign(yawRate) * yawDamping);
+			forces.setCm(c[CM] - forces.getPitchDampingMoment());
+			forces.setCyaw(c[CYAW] - forces.getYawDampingMoment());
+
+			return forces;
+		}
+
+		private double reynoldsNumber(FlightConditions conditions) {
+			return conditions.getVelocity() * lengthAerodynamic
+					/ conditions.getAtmosphericConditions().getKinematicViscosity();
+		}
+	}
+
+
+	/**
+	 * The coefficients compared by {@link TabulatedAerodynamicCalculator#estimateError}.
+	 */
+	public enum Coefficient {
+		CN, CM, CP, CD, CD_AXIAL, CROLL
+	}
+
+	/**
+	 * The errors of the tabulated coefficients relative to the exact calculator.
+	 */
+	public static class ErrorReport {
+		private final double[] maxError = new double[Coefficient.values().length];
+		private final double[] sumSquares = new double[Coefficient.values().length];
+		private int sampleCount = 0;
+		private int fallbackCount = 0;
+
+		private void add(Coefficient coefficient, double exact, double tabulated) {
+			double error = Math.abs(tabulated - exact);
+			int i = coefficient.ordinal();
+			if (!(error <= maxError[i])) {
+				maxError[i] = error;
+			}
+			sumSquares[i] += error * error;
+		}
+
+		/**
+		 * Return the largest absolute error of a coefficient, or NaN if any of the errors was NaN.
+		 */
+		public double getMaxError(Coefficient coefficient) {
+			return maxError[coefficient.ordinal()];
+		}
+
+		/**
+		 * Return the root-mean-square error of a coefficient.
+		 */
+		public double getRMSError(Coefficient coefficient) {
+			if (sampleCount == 0) {
+				return 0;
+			}
+			return Math.sqrt(sumSquares[coefficient.ordinal()] / sampleCount);
+		}
+
+		/**
+		 * Return the number of samples answered from the tables.
+		 */
+		public int getSampleCount() {
+			return sampleCount;
+		}
+
+		/**
+		 * Return the number of samples that would have been passed on to the exact calculator.
+		 */
+		public int getFallbackCount() {
+			return fallbackCount;
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder sb = new StringBuilder();
+			sb.append("ErrorReport [samples=").append(sampleCount).append(", fallbacks=").append(fallbackCount);
+			for (Coefficient c : Coefficient.values()) {
+				sb.append(String.format(", %s: max=%.3g rms=%.3g", c, getMaxError(c), getRMSError(c)));
+			}
+			return sb.append("]").toString();
+		}
+	}
+}
@@ -2,9 +2,10 @@ package info.openrocket.core.componentanalysis;
 
 import info.openrocket.core.rocketcomponent.RocketComponent;
 import info.openrocket.core.simulation.DataBranch;
-import info.openrocket.core.util.ArrayList;
+import info.openrocket.core.simulation.DataColumn;
 import info.openrocket.core.util.ModID;
 
+import java.nio.DoubleBuffer;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -13,11 +14,8 @@ import java.util.Map;
  * DataBranch for storing component analysis data.
  */
 public class CADataBranch extends DataBranch<CADataType> {
-	// Map to store values for each CADataType-RocketComponent pair
-	private final Map<CADataType, Map<RocketComponent, ArrayList<Double>>> componentValues = new HashMap<>();
-	// Maps to store min and max values for each CADataType-RocketComponent pair
-	private final Map<CADataType, Map<RocketComponent, Double>> componentMinValues = new HashMap<>();
-	private final Map<CADataType, Map<RocketComponent, Double>> componentMaxValues = new HashMap<>();
+	// Map to store values (including their min and max values) for each CADataType-RocketComponent pair
+	private final Map<CADataType, Map<RocketComponent, DataColumn>> componentValues = new HashMap<>();
 
 	public CADataBranch(String name, CADataType... types) {
 		super(name);
@@ -31,26 +29,18 @@ public class CADataBranch extends DataBranch<CADataType> {
 		super.addType(type);
 		if (!(type instanceof CADomainDataType)) {
 			componentValues.put(type, new HashMap<>());
-			componentMinValues.put(type, new HashMap<>());
-			componentMaxValues.put(type, new HashMap<>());
 		}
 	}
 
 	@Override
 	public void addPoint() {
-		mutable.check();
-
-		for (Map.Entry<CADataType, ArrayList<Double>> entry : values.entrySet()) {
-			entry.getValue().add(Double.NaN);
-		}
+		super.addPoint();
 
-		for (Map<RocketComponent, ArrayList<Double>> componentMap : componentValues.values()) {
-			for (ArrayList<Double> list : componentMap.values()) {
-				list.add(Double.NaN);
+		for (Map<RocketComponent, DataColumn> componentMap : componentValues.values()) {
+			for (DataColumn column : componentMap.values()) {
+				column.add(Double.NaN);
 			}
 		}
-
-		modID = new ModID();
 	}
 
 	public void setValue(CADataType type, RocketComponent component, double value) {
@@ -65,22 +55,11 @@ public class CADataBranch extends DataBranch<CADataType> {
 			addType(type);
 		}
 
-		Map<RocketComponent, ArrayList<Double>> typeMap = componentValues.get(type);
-		ArrayList<Double> list = typeMap.computeIfAbsent(component, k -> {
-			ArrayList<Double> newList = new ArrayList<>();
-			int n = getLength();
-			for (int i = 0; i < n; i++) {
-				newList.add(Double.NaN);
-			}
-			return newList;
-		});
+		Map<RocketComponent, DataColumn> typeMap = componentValues.get(type);
+		DataColumn column = typeMap.computeIfAbsent(component, k -> DataColumn.ofNaN(getLength()));
 
-		if (list.size() > 0) {
-			list.set(list.size() - 1, value);
-		}
-
-		// Update min and max values
-		updateMinMaxValues(type, component, value);
+		// Also updates the min and max values
+		column.setLast(value);
 
 		modID = new ModID();
 	}
@@ -94,33 +73,33 @@ public class CADataBranch extends DataBranch<CADataType> {
 		modID = new ModID();
 	}
 
-	private void updateMinMaxValues(CADataType type, RocketComponent component, double value) {
-		Map<RocketComponent, Double> minMap = componentMinValues.get(type);
-		Map<RocketComponent, Double> maxMap = componentMaxValues.get(type);
+	public List<Double> get(CADataType type, RocketComponent component) {
+		if (type instanceof CADomainDataType) {
+			return super.get(type);
+		}
 
-		double min = minMap.getOrDefault(component, Double.NaN);
-		double max = maxMap.getOrDefault(component, Double.NaN);
+		DataColumn column = getComponentColumn(type, component);
+		if (column == null) return null;
 
-		if (Double.isNaN(min) || (value < min)) {
-			minMap.put(component, value);
-		}
-		if (Double.isNaN(max) || (value > max)) {
-			maxMap.put(component, value);
-		}
+		return column.toList();
 	}
 
-	public List<Double> get(CADataType type, RocketComponent component) {
+	/**
+	 * Return a read-only view of the values of the specified type and component, backed by the
+	 * primitive storage of this branch.
+	 *
+	 * @return a read-only buffer of the values, or <code>null</code> if there are no values for
+	 * 		   the type and component.
+	 */
+	public DoubleBuffer getBuffer(CADataType type, RocketComponent component) {
 		if (type instanceof CADomainDataType) {
-			return super.get(type);
+			return super.getBuffer(type);
 		}
 
-		Map<RocketComponent, ArrayList<Double>> typeMap = componentValues.get(type);
-		if (typeMap == null) return null;
-
-		ArrayList<Double> list = typeMap.get(component);
-		if (list == null) return null;
+		DataColumn column = getComponentColumn(type, component);
+		if (column == null) return null;
 
-		return list.clone();
+		return column.asBuffer();
 	}
 
 	public Double getByIndex(CADataType type, RocketComponent component, int index) {
@@ -132,13 +111,10 @@ public class CADataBranch extends DataBranch<CADataType> {
 			return super.getByIndex(type, index);
 		}
 
-		Map<RocketComponent, ArrayList<Double>> typeMap = componentValues.get(type);
-		if (typeMap == null) return null;
-
-		ArrayList<Double> list = typeMap.get(component);
-		if (list == null) return null;
+		DataColumn column = getComponentColumn(type, component);
+		if (column == null) return null;
 
-		return list.get(index);
+		return column.get(index);
 	}
 
 	public double getLast(CADataType type, RocketComponent component) {
@@ -146,13 +122,10 @@ public class CADataBranch extends DataBranch<CADataType> {
 			return super.getLast(type);
 		}
 
-		Map<RocketComponent, ArrayList<Double>> typeMap = componentValues.get(type);
-		if (typeMap == null) return Double.NaN;
-
-		ArrayList<Double> list = typeMap.get(component);
-		if (list == null || list.isEmpty()) return Double.NaN;
+		DataColumn column = getComponentColumn(type, component);
+		if (column == null) return Double.NaN;
 
-		return list.get(list.size() - 1);
+		return column.getLast();
 	}
 
 	public double getMinimum(CADataType type, RocketComponent component) {
@@ -160,11 +133,10 @@ public class CADataBranch extends DataBranch<CADataType> {
 			return super.getMinimum(type);
 		}
 
-		Map<RocketComponent, Double> minMap = componentMinValues.get(type);
-		if (minMap == null) return Double.NaN;
+		DataColumn column = getComponentColumn(type, component);
+		if (column == null) return Double.NaN;
 
-		Double min = minMap.get(component);
-		return (min != null) ? min : Double.NaN;
+		return column.getMinimum();
 	}
 
 	public double getMaximum(CADataType type, RocketComponent component) {
@@ -172,10 +144,16 @@ public class CADataBranch extends DataBranch<CADataType> {
 			return super.getMaximum(type);
 		}
 
-		Map<RocketComponent, Double> maxMap = componentMaxValues.get(type);
-		if (maxMap == null) return Double.NaN;
+		DataColumn column = getComponentColumn(type, component);
+		if (column == null) return Double.NaN;
+
+		return column.getMaximum();
+	}
+
+	private DataColumn getComponentColumn(CADataType type, RocketComponent component) {
+		Map<RocketComponent, DataColumn> typeMap = componentValues.get(type);
+		if (typeMap == null) return null;
 
-		Double max = maxMap.get(component);
-		return (max != null) ? max : Double.NaN;
+		return typeMap.get(component);
 	}
 }
@@ -5,25 +5,68 @@ import info.openrocket.core.aerodynamics.AerodynamicForces;
 import info.openrocket.core.aerodynamics.FlightConditions;
 import info.openrocket.core.logging.WarningSet;
 import info.openrocket.core.rocketcomponent.FinSet;
+import info.openrocket.core.rocketcomponent.FlightConfiguration;
 import info.openrocket.core.rocketcomponent.Rocket;
 import info.openrocket.core.rocketcomponent.RocketComponent;
+import info.openrocket.core.util.BugException;
 import info.openrocket.core.util.MathUtil;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Computes the aerodynamic forces of all components of a rocket over a range of values of one
+ * flight parameter, for the component analysis.
+ * <p>
+ * The values of the sweep are evaluated in parallel in a fork-join pool.  Each worker thread uses
+ * its own copy of the rocket, since the components compute and cache some of their data lazily and
+ * are not thread-safe, and its own instance of the aerodynamic calculator, obtained from
+ * {@link AerodynamicCalculator#newInstance()}.  The results are merged into the data branch in the
+ * order of the parameter values, keyed by the components of the original rocket.
+ * <p>
+ * If the sweeping thread is interrupted, the sweep stops and returns the points computed so far.
+ */
 public class CAParameterSweep {
+	private static final Logger log = LoggerFactory.getLogger(CAParameterSweep.class);
+
 	private final CAParameters parameters;
 	private final AerodynamicCalculator aerodynamicCalculator;
 	private final Rocket rocket;
 
+	private int threadCount = Runtime.getRuntime().availableProcessors();
+
 	public CAParameterSweep(CAParameters parameters, AerodynamicCalculator aerodynamicCalculator, Rocket rocket) {
 		this.parameters = parameters.clone();
 		this.aerodynamicCalculator = aerodynamicCalculator;
 		this.rocket = rocket;
 	}
 
+	public int getThreadCount() {
+		return threadCount;
+	}
+
+	/**
+	 * Set the number of threads used for the sweep.  A value of 1 evaluates the sweep in the calling thread.
+	 */
+	public void setThreadCount(int threadCount) {
+		if (threadCount <= 0) {
+			throw new IllegalArgumentException("Thread count must be positive, was " + threadCount);
+		}
+		this.threadCount = threadCount;
+	}
+
 	/**
 	 * Perform a parameter sweep over the specified parameter type.
 	 * @param sweepParameter the parameter to sweep (e.g. MACH)
@@ -33,30 +76,133 @@ public class CAParameterSweep {
 	 * @return a data branch containing the results of the sweep
 	 */
 	public CADataBranch sweep(CADomainDataType sweepParameter, double min, double max, double delta, double initialValue) {
+		return sweep(sweepParameter, min, max, delta, initialValue, null);
+	}
+
+	/**
+	 * Perform a parameter sweep over the specified parameter type, reporting the progress.
+	 * <p>
+	 * The progress listener is called in the calling thread each time one or more points have been
+	 * added to the data branch.  The points are always added in order of the parameter values, so
+	 * the branch contains a valid partial sweep from the minimum value upwards.
+	 *
+	 * @param sweepParameter the parameter to sweep (e.g. MACH)
+	 * @param min the minimum value of the parameter
+	 * @param max the maximum value of the parameter
+	 * @param delta the step size of the parameter
+	 * @param progressListener the listener notified of the progress, or <code>null</code>
+	 * @return a data branch containing the results of the sweep
+	 */
+	public CADataBranch sweep(CADomainDataType sweepParameter, double min, double max, double delta, double initialValue,
+			ProgressListener progressListener) {
 		List<Double> sweepValues = generateSweepValues(min, max, delta);
 		CADataBranch dataBranch = new CADataBranch("Parameter Sweep");
 		dataBranch.addType(sweepParameter);
 
+		// The flight conditions are created up front, since the parameters are not thread-safe
+		List<FlightConditions> sweepConditions = new ArrayList<>(sweepValues.size());
 		for (Double value : sweepValues) {
 			setParameterValue(sweepParameter, value);
-			FlightConditions conditions = createFlightConditions();
-			Map<RocketComponent, AerodynamicForces> aeroData = aerodynamicCalculator.getForceAnalysis(rocket.getSelectedConfiguration(), conditions, new WarningSet());
-
-			dataBranch.addPoint();
-			addDomainData(dataBranch, sweepParameter, value);
-
-			addComponentData(dataBranch, aeroData, value);
-			addStabilityData(dataBranch, aeroData, value);
-			addDragData(dataBranch, aeroData, value);
-			addRollData(dataBranch, aeroData, value);
+			sweepConditions.add(createFlightConditions());
 		}
 
 		// Reset the parameter to its original value
 		setParameterValue(sweepParameter, initialValue);
 
+		int total = sweepValues.size();
+		if (total == 0) {
+			return dataBranch;
+		}
+
+		if (threadCount == 1 || total == 1) {
+			FlightConfiguration configuration = rocket.getSelectedConfiguration();
+			for (int i = 0; i < total; i++) {
+				if (Thread.currentThread().isInterrupted()) {
+					log.info("Parameter sweep was interrupted after " + i + " of " + total + " points");
+					break;
+				}
+				addPoint(dataBranch, sweepParameter, sweepValues.get(i),
+						aerodynamicCalculator.getForceAnalysis(configuration, sweepConditions.get(i), new WarningSet()));
+				fireProgress(progressListener, dataBranch, i + 1, total);
+			}
+			return dataBranch;
+		}
+
+		// Each worker thread uses its own copy of the rocket and its own calculator.  The rockets are
+		// copied here, as copying reads the original rocket.
+		int poolSize = Math.min(threadCount, total);
+		final BlockingQueue<Worker> workers = new ArrayBlockingQueue<>(poolSize);
+		for (int i = 0; i < poolSize; i++) {
+			Rocket copy = rocket.copyWithOriginalID();
+			workers.add(new Worker(copy.getSelectedConfiguration(), aerodynamicCalculator.newInstance()));
+		}
+
+		// The components of the copies are equal to the original components, which are used as the keys of the results
+		final Map<RocketComponent, RocketComponent> originals = new HashMap<>();
+		for (RocketComponent component : rocket) {
+			originals.put(component, component);
+		}
+
+		List<Callable<Map<RocketComponent, AerodynamicForces>>> tasks = new ArrayList<>(total);
+		for (int i = 0; i < total; i++) {
+			final FlightConditions conditions = sweepConditions.get(i);
+			tasks.add(() -> {
+				Worker worker = workers.take();
+				Map<RocketComponent, AerodynamicForces> forces;
+				try {
+					forces = worker.calculator.getForceAnalysis(worker.configuration, conditions, new WarningSet());
+				} finally {
+					workers.add(worker);
+				}
+				Map<RocketComponent, AerodynamicForces> result = new LinkedHashMap<>();
+				for (Map.Entry<RocketComponent, AerodynamicForces> entry : forces.entrySet()) {
+					result.put(originals.getOrDefault(entry.getKey(), entry.getKey()), entry.getValue());
+				}
+				return result;
+			});
+		}
+
+		ForkJoinPool pool = new ForkJoinPool(poolSize);
+		try {
+			List<Future<Map<RocketComponent, AerodynamicForces>>> futures = new ArrayList<>(tasks.size());
+			for (Callable<Map<RocketComponent, AerodynamicForces>> task : tasks) {
+				futures.add(pool.submit(task));
+			}
+
+			// Merge the results in order as they become available
+			for (int i = 0; i < total; i++) {
+				addPoint(dataBranch, sweepParameter, sweepValues.get(i), futures.get(i).get());
+				fireProgress(progressListener, dataBranch, i + 1, total);
+			}
+		} catch (InterruptedException e) {
+			log.info("Parameter sweep was interrupted after " + dataBranch.getLength() + " of " + total + " points");
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			throw new BugException("Parameter sweep failed", e.getCause());
+		} finally {
+			pool.shutdownNow();
+		}
+
 		return dataBranch;
 	}
 
+	private void addPoint(CADataBranch dataBranch, CADomainDataType sweepParameter, double value,
+			Map<RocketComponent, AerodynamicForces> aeroData) {
+		dataBranch.addPoint();
+		addDomainData(dataBranch, sweepParameter, value);
+
+		addComponentData(dataBranch, aeroData, value);
+		addStabilityData(dataBranch, aeroData, value);
+		addDragData(dataBranch, aeroData, value);
+		addRollData(dataBranch, aeroData, value);
+	}
+
+	private static void fireProgress(ProgressListener listener, CADataBranch dataBranch, int completed, int total) {
+		if (listener != null) {
+			listener.sweepProgress(dataBranch, completed, total);
+		}
+	}
+
 	private List<Double> generateSweepValues(double min, double max, double delta) {
 		List<Double> values = new ArrayList<>();
 		int scale = determineScale(delta);
@@ -176,4 +322,32 @@ public class CAParameterSweep {
 		dataBranch.setValue(CADataType.ROLL_DAMPING_COEFFICIENT, rocket, totalRollDamping);
 		dataBranch.setValue(CADataType.TOTAL_ROLL_COEFFICIENT, rocket, totalRollForce + totalRollDamping);
 	}
+
+	/**
+	 * A listener notified of the progress of a parameter sweep.
+	 */
+	@FunctionalInterface
+	public interface ProgressListener {
+		/**
+		 * Called after points have been added to the data branch.
+		 *
+		 * @param dataBranch	the data branch of the sweep, containing the first <code>completed</code> points.
+		 * @param completed		the number of points completed.
+		 * @param total			the total number of points of the sweep.
+		 */
+		void sweepProgress(CADataBranch dataBranch, int completed, int total);
+	}
+
+	/**
+	 * The configuration of a rocket copy and the calculator used by one worker thread.
+	 */
+	private static class Worker {
+		private final FlightConfiguration configuration;
+		private final AerodynamicCalculator calculator;
+
+		Worker(FlightConfiguration configuration, AerodynamicCalculator calculator) {
+			this.configuration = configuration;
+			this.calculator = calculator;
+		}
+	}
 }
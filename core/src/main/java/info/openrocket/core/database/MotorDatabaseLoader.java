@@ -19,6 +19,7 @@ import info.openrocket.core.file.iterator.DirectoryIterator;
 import info.openrocket.core.file.iterator.FileIterator;
 import info.openrocket.core.file.motor.GeneralMotorLoader;
 import info.openrocket.core.gui.util.SimpleFileFilter;
+import info.openrocket.core.motor.CompactMotorDatabase;
 import info.openrocket.core.motor.ThrustCurveMotor;
 import info.openrocket.core.startup.Application;
 import info.openrocket.core.util.BugException;
@@ -83,19 +84,47 @@ public class MotorDatabaseLoader extends AsynchronousDatabaseLoader {
 
 	/**
 	 * Loads the default, with established serialized manufacturing and data
-	 * uses directory "datafiles/thrustcurves" for data  
+	 * uses directory "datafiles/thrustcurves" for data.  Compact motor databases (.bin)
+	 * are preferred, older Java serialized databases (.ser) are still read.
 	 */
 	private void loadSerializedMotorDatabase() {
 		log.info("Starting reading serialized motor database");
-		FileIterator iterator = DirectoryIterator.findDirectory(THRUSTCURVE_DIRECTORY, new SimpleFileFilter("", false, "ser"));
+		FileIterator iterator = DirectoryIterator.findDirectory(THRUSTCURVE_DIRECTORY,
+				new SimpleFileFilter("", false, "bin", "ser"));
 		while (iterator.hasNext()) {
 			Pair<File, InputStream> f = iterator.next();
-			loadSerialized(f);
+			if (f.getU().getName().endsWith(".bin")) {
+				loadCompact(f);
+			} else {
+				loadSerialized(f);
+			}
 		}
 		log.info("Ending reading serialized motor database, motorCount=" + motorCount);
 	}
 	
 	
+	/**
+	 * loads a compact motor database from a stream, or by memory-mapping the file when it
+	 * is not within a jar.  The thrust curves of the motors are decoded on first use.
+	 * 
+	 * @param f	the pair of a File (for logging) and the input stream
+	 */
+	private void loadCompact(Pair<File, InputStream> f) {
+		log.debug("Reading motors from file " + f.getU().getPath());
+		try (InputStream is = f.getV()) {
+			CompactMotorDatabase compact;
+			if (f.getU().isFile()) {
+				compact = CompactMotorDatabase.open(f.getU());
+			} else {
+				compact = CompactMotorDatabase.read(is);
+			}
+			addMotors(compact.getMotors());
+		} catch (Exception ex) {
+			throw new BugException(ex);
+		}
+	}
+	
+	
 	/**
 	 * loads a serailized motor data from an stream
 	 * 
@@ -119,6 +119,8 @@ public class OpenRocketDocument implements ComponentChangeListener, StateChangeL
 	private final OBJExportOptions objOptions;
 
 	private final DecalRegistry decalRegistry = new DecalRegistry();
+
+	private final SimulationResultCache simulationResultCache = new SimulationResultCache();
 	
 	private final List<DocumentChangeListener> listeners = new ArrayList<>();
 	
@@ -278,6 +280,16 @@ public class OpenRocketDocument implements ComponentChangeListener, StateChangeL
 		return storageOptions;
 	}
 
+	/**
+	 * Return the cache of the results of the simulations of this document.  The cached
+	 * results are released together with the document.
+	 *
+	 * @return	the simulation result cache.
+	 */
+	public SimulationResultCache getSimulationResultCache() {
+		return simulationResultCache;
+	}
+
 	public OBJExportOptions getDefaultOBJOptions() {
 		return objOptions;
 	}
@@ -1,6 +1,7 @@
 package info.openrocket.core.document;
 
 import java.lang.reflect.InvocationTargetException;
+import java.util.Collections;
 import java.util.EventListener;
 import java.util.EventObject;
 import java.util.List;
@@ -25,6 +26,7 @@ import info.openrocket.core.simulation.SimulationConditions;
 import info.openrocket.core.simulation.SimulationEngine;
 import info.openrocket.core.simulation.SimulationOptions;
 import info.openrocket.core.simulation.SimulationStepper;
+import info.openrocket.core.simulation.customexpression.CustomExpression;
 import info.openrocket.core.simulation.exception.SimulationException;
 import info.openrocket.core.simulation.extension.SimulationExtension;
 import info.openrocket.core.simulation.listeners.SimulationListener;
@@ -103,6 +105,9 @@ public class Simulation implements ChangeSource, Cloneable {
 	private FlightData simulatedData = null;
 	private ModID simulatedConfigurationModID = ModID.INVALID;
 
+	/** Whether the simulation engine simulates a copy of the rocket */
+	private boolean copyRocket = true;
+
 	/**
 	 * Create a new simulation for the rocket. Parent document should also be provided.
 	 * The initial motor configuration is taken from the default rocket configuration.
@@ -179,6 +184,33 @@ public class Simulation implements ChangeSource, Cloneable {
 		return rocket;
 	}
 
+	/**
+	 * Return the document this simulation belongs to.
+	 *
+	 * @return the document, or <code>null</code> if the simulation does not belong to a document.
+	 */
+	public OpenRocketDocument getDocument() {
+		return document;
+	}
+
+	/**
+	 * Return whether the rocket is copied before it is simulated.
+	 */
+	public boolean isCopyRocket() {
+		return copyRocket;
+	}
+
+	/**
+	 * Set whether the rocket is copied before it is simulated, which is the default.  The copy
+	 * allows the rocket to be modified while the simulation runs.  It may be skipped when the
+	 * rocket is a working copy that is only accessed by the thread running the simulation.
+	 *
+	 * @param copyRocket	whether to copy the rocket before simulating it.
+	 */
+	public void setCopyRocket(boolean copyRocket) {
+		this.copyRocket = copyRocket;
+	}
+
 	public FlightConfigurationId getFlightConfigurationId() {
 		return this.configId;
 	}
@@ -455,6 +487,49 @@ public class Simulation implements ChangeSource, Cloneable {
 	}
 	
 	
+	/**
+	 * Simulate the flight, restoring the results from a cache if this simulation has been
+	 * run with the same inputs before.  When the results are restored, the simulation
+	 * listeners are not called.  New results are stored in the cache.
+	 *
+	 * @param cache					the result cache, or <code>null</code> to always simulate
+	 * @param additionalListeners	additional simulation listeners (those defined by the simulation are used in any case)
+	 * @throws SimulationException	if a problem occurs during simulation
+	 */
+	public void simulate(SimulationResultCache cache, SimulationListener... additionalListeners)
+			throws SimulationException {
+		if (cache == null || this.status == Status.EXTERNAL) {
+			simulate(additionalListeners);
+			return;
+		}
+
+		List<CustomExpression> customExpressions = (document != null) ?
+				document.getCustomExpressions() : Collections.emptyList();
+		String key = SimulationResultCache.getKey(this, customExpressions);
+		FlightData data = cache.get(key, rocket);
+		if (data == null) {
+			simulate(additionalListeners);
+			if (simulatedData != null) {
+				cache.put(key, simulatedData);
+			}
+			return;
+		}
+
+		log.debug("Simulation: restoring results from cache");
+		mutex.lock("simulate");
+		try {
+			simulatedConditions = options.clone();
+			simulatedConfigurationDescription = descriptor.format(this.rocket, getId());
+			simulatedConfigurationModID = getActiveConfiguration().getModID();
+			simulatedData = data;
+			status = Status.UPTODATE;
+			fireChangeEvent();
+		} finally {
+			mutex.unlock("simulate");
+		}
+	}
+	
+	
 	/**
 	 * Return the conditions used in the previous simulation, or <code>null</code>
 	 * if this simulation has not been run.
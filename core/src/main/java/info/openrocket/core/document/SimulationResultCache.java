@@ -0,0 +1,500 @@
+package info.openrocket.core.document;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.DoubleBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import info.openrocket.core.file.openrocket.OpenRocketSaver;
+import info.openrocket.core.logging.Message;
+import info.openrocket.core.logging.MessagePriority;
+import info.openrocket.core.logging.SimulationAbort;
+import info.openrocket.core.logging.Warning;
+import info.openrocket.core.motor.MotorConfiguration;
+import info.openrocket.core.rocketcomponent.AxialStage;
+import info.openrocket.core.rocketcomponent.FlightConfiguration;
+import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.rocketcomponent.RocketComponent;
+import info.openrocket.core.simulation.FlightData;
+import info.openrocket.core.simulation.FlightDataBranch;
+import info.openrocket.core.simulation.FlightDataType;
+import info.openrocket.core.simulation.FlightEvent;
+import info.openrocket.core.simulation.customexpression.CustomExpression;
+import info.openrocket.core.unit.UnitGroup;
+import info.openrocket.core.util.BugException;
+import info.openrocket.core.util.BuildProperties;
+import info.openrocket.core.util.TextUtil;
+
+/**
+ * A cache of simulation results, keyed by a digest of everything that affects the results
+ * of a simulation.  Restoring the results of a simulation whose inputs were simulated before,
+ * e.g. after undoing a change, is then instant.
+ * <p>
+ * The key is computed from the rocket design as saved in the OpenRocket format, the active
+ * flight configuration, the digests of its motors, the simulation options and extensions and
+ * the custom expressions.  Unlike {@link info.openrocket.core.simulation.SimulationOptions#equals(Object)},
+ * it includes the random seed, as the wind and other random inputs of the simulation depend on it.
+ * <p>
+ * The results are kept in memory in serialized form, evicting the least recently used results
+ * when the maximum number of entries or bytes is exceeded.  If a directory is set, the results
+ * are additionally stored as files in the directory, so that they are available to later sessions.
+ * <p>
+ * The events and warnings of restored results refer to the components of the rocket they are
+ * restored for, which are found by their IDs.  If a component cannot be found, the results are
+ * not restored.
+ */
+public class SimulationResultCache {
+	private static final Logger log = LoggerFactory.getLogger(SimulationResultCache.class);
+
+	public static final int DEFAULT_MAX_ENTRIES = 20;
+	public static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+
+	private static final String FILE_SUFFIX = ".orsim";
+	private static final int MAGIC = 0x4f52534d;
+	private static final int VERSION = 1;
+
+	private final int maxEntries;
+	private final long maxBytes;
+	private final Map<String, byte[]> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private long bytes = 0;
+	private File directory = null;
+
+	public SimulationResultCache() {
+		this(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_BYTES);
+	}
+
+	/**
+	 * @param maxEntries	the maximum number of results kept in memory
+	 */
+	public SimulationResultCache(int maxEntries) {
+		this(maxEntries, DEFAULT_MAX_BYTES);
+	}
+
+	/**
+	 * @param maxEntries	the maximum number of results kept in memory
+	 * @param maxBytes		the maximum total size of the serialized results kept in memory
+	 */
+	public SimulationResultCache(int maxEntries, long maxBytes) {
+		if (maxEntries < 1) {
+			throw new IllegalArgumentException("Maximum number of entries must be positive, was " + maxEntries);
+		}
+		if (maxBytes < 1) {
+			throw new IllegalArgumentException("Maximum number of bytes must be positive, was " + maxBytes);
+		}
+		this.maxEntries = maxEntries;
+		this.maxBytes = maxBytes;
+	}
+
+	public int getMaxEntries() {
+		return maxEntries;
+	}
+
+	public long getMaxBytes() {
+		return maxBytes;
+	}
+
+	public synchronized File getDirectory() {
+		return directory;
+	}
+
+	/**
+	 * Set the directory in which the results are stored, or <code>null</code> to keep
+	 * the results only in memory.
+	 */
+	public synchronized void setDirectory(File directory) {
+		this.directory = directory;
+	}
+
+	/**
+	 * Return the number of results kept in memory.
+	 */
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Return the total size of the results kept in memory, in bytes.
+	 */
+	public synchronized long getSize() {
+		return bytes;
+	}
+
+	/**
+	 * Remove all results from memory.  Files in the directory are not removed.
+	 */
+	public synchronized void clear() {
+		entries.clear();
+		bytes = 0;
+	}
+
+	/**
+	 * Return a copy of the cached results for a key, or <code>null</code> if there are none.
+	 *
+	 * @param key		the key of the simulation, from {@link #getKey(Simulation, List)}
+	 * @param rocket	the rocket of the simulation, whose components become the sources of the
+	 * 					events and warnings of the results
+	 * @return			the results, or <code>null</code> if there are none or not all their sources
+	 * 					are components of the rocket
+	 */
+	public synchronized FlightData get(String key, Rocket rocket) {
+		byte[] entry = entries.get(key);
+		if (entry == null && directory != null) {
+			entry = readFile(getFile(key));
+			if (entry != null) {
+				add(key, entry);
+			}
+		}
+		if (entry == null) {
+			return null;
+		}
+
+		try {
+			return read(new DataInputStream(new ByteArrayInputStream(entry)), rocket);
+		} catch (MissingComponentException e) {
+			log.info("Not restoring cached simulation results: " + e.getMessage());
+			return null;
+		} catch (IOException | RuntimeException e) {
+			log.warn("Unable to read cached simulation results, removing them", e);
+			remove(key);
+			if (directory != null) {
+				getFile(key).delete();
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Store a copy of the results of a simulation.
+	 *
+	 * @param key	the key of the simulation, from {@link #getKey(Simulation, List)}
+	 * @param data	the results of the simulation
+	 */
+	public synchronized void put(String key, FlightData data) {
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(buffer)) {
+			write(out, data);
+		} catch (IOException e) {
+			throw new BugException("Unable to serialize simulation results", e);
+		}
+		byte[] entry = buffer.toByteArray();
+		add(key, entry);
+		if (directory != null) {
+			writeFile(getFile(key), entry);
+		}
+	}
+
+	/**
+	 * Add an entry to memory and evict the least recently used entries that exceed the limits.
+	 * An entry larger than the maximum size is not kept.
+	 */
+	private void add(String key, byte[] entry) {
+		remove(key);
+		if (entry.length > maxBytes) {
+			return;
+		}
+		entries.put(key, entry);
+		bytes += entry.length;
+
+		Iterator<byte[]> iterator = entries.values().iterator();
+		while (entries.size() > maxEntries || bytes > maxBytes) {
+			bytes -= iterator.next().length;
+			iterator.remove();
+		}
+	}
+
+	private void remove(String key) {
+		byte[] old = entries.remove(key);
+		if (old != null) {
+			bytes -= old.length;
+		}
+	}
+
+	private File getFile(String key) {
+		return new File(directory, key + FILE_SUFFIX);
+	}
+
+
+	/**
+	 * Return the key of a simulation in its current state.
+	 *
+	 * @param simulation			the simulation
+	 * @param customExpressions		the custom expressions evaluated during the simulation
+	 */
+	public static String getKey(Simulation simulation, List<CustomExpression> customExpressions) {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new BugException("JRE does not support SHA-256 hash algorithm", e);
+		}
+
+		try (Writer writer = new OutputStreamWriter(new DigestOutputStream(OutputStream.nullOutputStream(), digest),
+				StandardCharsets.UTF_8)) {
+			writer.write("OpenRocket " + BuildProperties.getVersion() + "\n");
+			new OpenRocketSaver().saveSimulationDefinition(writer, simulation, customExpressions);
+
+			writer.write("seed " + simulation.getOptions().getRandomSeed() + "\n");
+
+			FlightConfiguration config = simulation.getActiveConfiguration();
+			writer.write("configuration " + config.getFlightConfigurationID().key + "\n");
+			for (AxialStage stage : config.getActiveStages()) {
+				writer.write("stage " + stage.getID() + "\n");
+			}
+			for (MotorConfiguration motor : config.getActiveMotors()) {
+				writer.write("motor " + ((RocketComponent) motor.getMount()).getID() + " " +
+						motor.getMotor().getDigest() + " " + motor.getIgnitionEvent().name() + " " +
+						motor.getIgnitionDelay() + " " + motor.getEjectionDelay() + "\n");
+			}
+		} catch (IOException e) {
+			throw new BugException("Unable to compute simulation key", e);
+		}
+		return TextUtil.hexString(digest.digest());
+	}
+
+
+	private static void writeFile(File file, byte[] entry) {
+		File tmp = new File(file.getParentFile(), file.getName() + ".tmp");
+		try {
+			Files.createDirectories(file.getParentFile().toPath());
+			try (OutputStream out = new GZIPOutputStream(new FileOutputStream(tmp))) {
+				out.write(entry);
+			}
+			Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			log.warn("Unable to store simulation results in " + file, e);
+			tmp.delete();
+		}
+	}
+
+	private static byte[] readFile(File file) {
+		if (!file.isFile()) {
+			return null;
+		}
+		try (InputStream in = new GZIPInputStream(new FileInputStream(file))) {
+			return in.readAllBytes();
+		} catch (IOException e) {
+			log.warn("Unable to read cached simulation results from " + file + ", removing it", e);
+			file.delete();
+			return null;
+		}
+	}
+
+	/*
+	 * The layout of a file is:
+	 *   int     magic number "ORSM"
+	 *   int     format version
+	 *   int     number of warnings, each with its description, ID, priority and sources
+	 *   int     number of branches, each with
+	 *     name, optimum altitude and time to optimum altitude
+	 *     number of types, each with its name, symbol and unit group
+	 *     number of data points and the values of each type
+	 *     number of events, each with its type, time, source, warning ID and abort cause
+	 * Components are stored by their ID, missing values as empty strings.
+	 */
+
+	static void write(DataOutputStream out, FlightData data) throws IOException {
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+
+		out.writeInt(data.getWarningSet().size());
+		for (Warning warning : data.getWarningSet()) {
+			out.writeUTF(warning.getMessageDescription());
+			out.writeUTF(warning.getID().toString());
+			out.writeUTF(warning.getPriority().getExportLabel());
+			writeSources(out, warning);
+		}
+
+		out.writeInt(data.getBranchCount());
+		for (FlightDataBranch branch : data.getBranches()) {
+			branch.loadValues();
+			out.writeUTF(branch.getName());
+			out.writeDouble(branch.getOptimumAltitude());
+			out.writeDouble(branch.getTimeToOptimumAltitude());
+
+			FlightDataType[] types = branch.getTypes();
+			out.writeInt(types.length);
+			for (FlightDataType type : types) {
+				out.writeUTF(type.getName());
+				out.writeUTF(type.getSymbol());
+				out.writeUTF(getUnitGroupName(type.getUnitGroup()));
+			}
+
+			int length = branch.getLength();
+			out.writeInt(length);
+			for (FlightDataType type : types) {
+				DoubleBuffer values = branch.getBuffer(type);
+				for (int i = 0; i < length; i++) {
+					out.writeDouble(values.get(i));
+				}
+			}
+
+			out.writeInt(branch.getEvents().size());
+			for (FlightEvent event : branch.getEvents()) {
+				out.writeUTF(event.getType().name());
+				out.writeDouble(event.getTime());
+				out.writeUTF(event.getSource() != null ? event.getSource().getID().toString() : "");
+				Object eventData = event.getData();
+				out.writeUTF(eventData instanceof Warning ? ((Warning) eventData).getID().toString() : "");
+				out.writeUTF(eventData instanceof SimulationAbort ? ((SimulationAbort) eventData).getCause().name() : "");
+			}
+		}
+	}
+
+	static FlightData read(DataInputStream in, Rocket rocket) throws IOException {
+		if (in.readInt() != MAGIC) {
+			throw new IOException("Not a simulation result file");
+		}
+		int version = in.readInt();
+		if (version != VERSION) {
+			throw new IOException("Unsupported simulation result file version " + version);
+		}
+
+		List<Warning> warnings = new ArrayList<>();
+		int warningCount = in.readInt();
+		for (int i = 0; i < warningCount; i++) {
+			Warning warning = Warning.fromString(in.readUTF());
+			warning.setID(UUID.fromString(in.readUTF()));
+			warning.setPriority(MessagePriority.fromExportLabel(in.readUTF()));
+			warning.setSources(readSources(in, rocket));
+			warnings.add(warning);
+		}
+
+		int branchCount = in.readInt();
+		FlightDataBranch[] branches = new FlightDataBranch[branchCount];
+		for (int b = 0; b < branchCount; b++) {
+			String name = in.readUTF();
+			double optimumAltitude = in.readDouble();
+			double timeToOptimumAltitude = in.readDouble();
+
+			FlightDataType[] types = new FlightDataType[in.readInt()];
+			for (int t = 0; t < types.length; t++) {
+				String typeName = in.readUTF();
+				String symbol = in.readUTF();
+				UnitGroup group = UnitGroup.UNITS.getOrDefault(in.readUTF(), UnitGroup.UNITS_NONE);
+				types[t] = FlightDataType.getType(typeName, symbol, group);
+			}
+
+			int length = in.readInt();
+			double[][] values = new double[types.length][length];
+			for (double[] column : values) {
+				for (int i = 0; i < length; i++) {
+					column[i] = in.readDouble();
+				}
+			}
+
+			FlightDataBranch branch = new FlightDataBranch(name, types);
+			for (int i = 0; i < length; i++) {
+				branch.addPoint();
+				for (int t = 0; t < types.length; t++) {
+					branch.setValue(types[t], values[t][i]);
+				}
+			}
+			branch.setOptimumAltitude(optimumAltitude);
+			branch.setTimeToOptimumAltitude(timeToOptimumAltitude);
+
+			int eventCount = in.readInt();
+			for (int i = 0; i < eventCount; i++) {
+				FlightEvent.Type type = FlightEvent.Type.valueOf(in.readUTF());
+				double time = in.readDouble();
+				RocketComponent source = findComponent(rocket, in.readUTF());
+				String warningID = in.readUTF();
+				String cause = in.readUTF();
+
+				Message eventData = null;
+				if (!warningID.isEmpty()) {
+					UUID id = UUID.fromString(warningID);
+					for (Warning warning : warnings) {
+						if (warning.getID().equals(id)) {
+							eventData = warning;
+						}
+					}
+				} else if (!cause.isEmpty()) {
+					eventData = new SimulationAbort(SimulationAbort.Cause.valueOf(cause));
+				}
+				branch.addEvent(new FlightEvent(type, time, source, eventData));
+			}
+			branches[b] = branch;
+		}
+
+		FlightData data = new FlightData(branches);
+		for (Warning warning : warnings) {
+			data.getWarningSet().add(warning);
+		}
+		return data;
+	}
+
+	private static void writeSources(DataOutputStream out, Message message) throws IOException {
+		RocketComponent[] sources = message.getSources();
+		if (sources == null) {
+			out.writeInt(0);
+			return;
+		}
+		out.writeInt(sources.length);
+		for (RocketComponent source : sources) {
+			out.writeUTF(source != null ? source.getID().toString() : "");
+		}
+	}
+
+	private static RocketComponent[] readSources(DataInputStream in, Rocket rocket) throws IOException {
+		RocketComponent[] sources = new RocketComponent[in.readInt()];
+		for (int i = 0; i < sources.length; i++) {
+			sources[i] = findComponent(rocket, in.readUTF());
+		}
+		return sources;
+	}
+
+	private static RocketComponent findComponent(Rocket rocket, String id) throws MissingComponentException {
+		if (id.isEmpty()) {
+			return null;
+		}
+		RocketComponent component = (rocket != null) ? rocket.findComponent(UUID.fromString(id)) : null;
+		if (component == null) {
+			throw new MissingComponentException("component " + id + " not found in the rocket");
+		}
+		return component;
+	}
+
+	/**
+	 * Thrown when a source of the results is not a component of the rocket they are restored for.
+	 */
+	private static class MissingComponentException extends IOException {
+		private MissingComponentException(String message) {
+			super(message);
+		}
+	}
+
+	private static String getUnitGroupName(UnitGroup group) {
+		for (Map.Entry<String, UnitGroup> entry : UnitGroup.UNITS.entrySet()) {
+			if (entry.getValue() == group) {
+				return entry.getKey();
+			}
+		}
+		return "";
+	}
+}
@@ -11,10 +11,25 @@ public class StorageOptions implements Cloneable {
 		WAVEFRONT_OBJ
 	}
 
+	/**
+	 * The format in which the simulated flight data is stored in OpenRocket files.
+	 */
+	public enum FlightDataFormat {
+		/** Each data point as a line of decimal text in the document XML. */
+		TEXT,
+		/**
+		 * Each data branch as a compressed binary entry in the zip container, referenced
+		 * from the document XML.  The entries are loaded only once the data is needed.
+		 */
+		BINARY
+	}
+
 	private FileType fileType = FileType.OPENROCKET;
 
 	private boolean saveSimulationData = false;
 
+	private FlightDataFormat flightDataFormat = FlightDataFormat.TEXT;
+
 	private boolean explicitlySet = false;
 
 	public FileType getFileType() {
@@ -33,6 +48,14 @@ public class StorageOptions implements Cloneable {
 		saveSimulationData = s;
 	}
 
+	public FlightDataFormat getFlightDataFormat() {
+		return flightDataFormat;
+	}
+
+	public void setFlightDataFormat(FlightDataFormat flightDataFormat) {
+		this.flightDataFormat = flightDataFormat;
+	}
+
 	public boolean isExplicitlySet() {
 		return explicitlySet;
 	}
@@ -267,7 +267,7 @@ public class CSVExport {
 		writer.println();
 	}
 
-	private static void writeSimulationComments(PrintWriter writer,
+	static void writeSimulationComments(PrintWriter writer,
 			Simulation simulation, FlightDataBranch branch, FlightDataType[] fields,
 			String commentStarter) {
 
@@ -1,13 +1,31 @@
 package info.openrocket.core.file;
 
+import java.io.IOException;
+import java.io.InputStream;
+
 import info.openrocket.core.document.OpenRocketDocument;
 
 public class DocumentLoadingContext {
 
+	/**
+	 * A source from which the document being loaded can be read again, used for loading
+	 * parts of the document only once they are needed.
+	 */
+	public interface DocumentSource {
+		/**
+		 * Open a new stream to the document.  The caller is responsible for closing the stream.
+		 *
+		 * @return	a stream positioned at the start of the document.
+		 * @throws IOException	if the document cannot be read.
+		 */
+		InputStream openDocument() throws IOException;
+	}
+
 	private int fileVersion;
 	private MotorFinder motorFinder;
 	private AttachmentFactory attachmentFactory = new FileSystemAttachmentFactory();
 	private OpenRocketDocument document;
+	private DocumentSource documentSource;
 
 	public int getFileVersion() {
 		return fileVersion;
@@ -41,4 +59,16 @@ public class DocumentLoadingContext {
 		this.attachmentFactory = attachmentFactory;
 	}
 
+	/**
+	 * Return the source from which the document can be read again, or <code>null</code>
+	 * if the document can be read only once.
+	 */
+	public DocumentSource getDocumentSource() {
+		return documentSource;
+	}
+
+	public void setDocumentSource(DocumentSource documentSource) {
+		this.documentSource = documentSource;
+	}
+
 }
@@ -1,6 +1,7 @@
 package info.openrocket.core.file;
 
 import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
@@ -15,6 +16,7 @@ import java.util.zip.ZipInputStream;
 
 import info.openrocket.core.logging.WarningSet;
 import info.openrocket.core.document.OpenRocketDocument;
+import info.openrocket.core.file.DocumentLoadingContext.DocumentSource;
 import info.openrocket.core.document.OpenRocketDocumentFactory;
 import info.openrocket.core.file.openrocket.importt.OpenRocketLoader;
 import info.openrocket.core.file.rasaero.importt.RASAeroLoader;
@@ -55,6 +57,8 @@ public class GeneralRocketLoader {
 	private final MotorFinder motorFinder;
 	private AttachmentFactory attachmentFactory;
 	private final OpenRocketDocument doc = OpenRocketDocumentFactory.createEmptyRocket();
+	/** The source of the document being loaded */
+	private DocumentSource documentSource;
 
 	public GeneralRocketLoader(File file) {
 		this.baseFile = file;
@@ -98,11 +102,17 @@ public class GeneralRocketLoader {
 
 	public final OpenRocketDocument load(InputStream source, String fileName) throws RocketLoadException {
 		try {
-			loadStep1(source, fileName);
+			// Keep the contents of the file, so that parts of the document can be loaded later
+			// without depending on the file remaining unchanged
+			final byte[] contents = source.readAllBytes();
+			documentSource = () -> openDocument(new ByteArrayInputStream(contents));
+			loadStep1(new ByteArrayInputStream(contents), fileName);
 			doc.getRocket().enableEvents();
 			return doc;
 		} catch (Exception e) {
 			throw new RocketLoadException("Exception loading stream: " + e.getMessage(), e);
+		} finally {
+			documentSource = null;
 		}
 	}
 
@@ -252,10 +262,40 @@ public class GeneralRocketLoader {
 		context.setOpenRocketDocument(doc);
 		context.setMotorFinder(motorFinder);
 		context.setAttachmentFactory(attachmentFactory);
+		context.setDocumentSource(documentSource);
 		loader.load(context, source, fileName);
 		warnings.addAll(loader.getWarnings());
 
 		// Check for custom materials that need to be added to the document material database
 		doc.reloadDocumentMaterials();
 	}
+
+	/**
+	 * Return a stream to the document within the contents of a file, uncompressing GZIP files
+	 * and opening the first entry of ZIP containers in the same way as when loading the file.
+	 */
+	private static InputStream openDocument(InputStream source) throws IOException {
+		source = new BufferedInputStream(source);
+		try {
+			byte[] buffer = new byte[2];
+			source.mark(10);
+			int count = source.readNBytes(buffer, 0, buffer.length);
+			source.reset();
+
+			if (count == 2 && buffer[0] == GZIP_SIGNATURE[0] && buffer[1] == GZIP_SIGNATURE[1]) {
+				return new GZIPInputStream(source);
+			}
+			if (count == 2 && buffer[0] == ZIP_SIGNATURE[0] && buffer[1] == ZIP_SIGNATURE[1]) {
+				ZipInputStream in = new ZipInputStream(source);
+				if (in.getNextEntry() == null) {
+					throw new IOException("Unsupported or corrupt file.");
+				}
+				return in;
+			}
+			return source;
+		} catch (IOException e) {
+			source.close();
+			throw e;
+		}
+	}
 }
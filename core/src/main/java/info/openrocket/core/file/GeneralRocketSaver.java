@@ -215,10 +215,17 @@ public class GeneralRocketSaver {
 		try (zos) {
 			zos.setLevel(9);
 
-			ZipEntry mainFile = new ZipEntry("rocket.ork");
-			zos.putNextEntry(mainFile);
-			saveInternal(zos, document, options);
-			zos.closeEntry();
+			if (options.getFileType() == FileType.OPENROCKET) {
+				// The document entry may be followed by binary flight data entries
+				warnings.clear();
+				errors.clear();
+				new OpenRocketSaver().save(zos, "rocket.ork", document, options, warnings, errors);
+			} else {
+				ZipEntry mainFile = new ZipEntry("rocket.ork");
+				zos.putNextEntry(mainFile);
+				saveInternal(zos, document, options);
+				zos.closeEntry();
+			}
 
 			// Now we write out all the decal images files.
 			for (DecalImage image : decals) {
@@ -0,0 +1,415 @@
+package info.openrocket.core.file;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.DoubleBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPOutputStream;
+
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.logging.Warning;
+import info.openrocket.core.simulation.FlightData;
+import info.openrocket.core.simulation.FlightDataBranch;
+import info.openrocket.core.simulation.FlightDataType;
+import info.openrocket.core.simulation.FlightEvent;
+import info.openrocket.core.unit.Unit;
+import info.openrocket.core.util.BugException;
+import info.openrocket.core.util.DaemonThreadFactory;
+import info.openrocket.core.util.TextUtil;
+
+/**
+ * Exports the flight data of many simulations as CSV, formatting the simulations in parallel.
+ * <p>
+ * The data is written either as one file per simulation or as a single combined file in long
+ * format, in which each row starts with the name of the simulation and of the branch it belongs to.
+ * A file per simulation contains the same text as {@link CSVExport} produces for each of its
+ * branches.  The combined file contains no simulation comments.  Simulations without flight
+ * data are skipped.
+ * <p>
+ * The values are formatted with {@link TextUtil#appendDouble(StringBuilder, double, int, boolean)}
+ * into reused buffers, so that exporting large sets of simulations, e.g. Monte Carlo runs, is
+ * limited by I/O rather than by formatting.  The output can optionally be compressed with gzip.
+ */
+public class StreamingCSVExport {
+
+	private static final String NEWLINE = System.lineSeparator();
+
+	/** Size of the buffer in which each worker formats the rows before writing them */
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private FlightDataType[] fields = null;
+	private Unit[] units = null;
+	private String fieldSeparator = ",";
+	private int decimalPlaces = TextUtil.DEFAULT_DECIMAL_PLACES;
+	private boolean exponentialNotation = false;
+	private String commentStarter = "#";
+	private boolean simulationComments = true;
+	private boolean fieldComments = true;
+	private boolean eventComments = true;
+	private boolean compressed = false;
+	private int threadCount = Runtime.getRuntime().availableProcessors();
+
+	/**
+	 * Set the fields to export.  By default all fields of the data are exported in SI units.
+	 *
+	 * @param fields	the fields to export (in appropriate order), or <code>null</code> for all fields.
+	 * @param units		the units of the fields, or <code>null</code> for all fields.
+	 */
+	public void setFields(FlightDataType[] fields, Unit[] units) {
+		if ((fields == null) != (units == null) || (fields != null && fields.length != units.length)) {
+			throw new IllegalArgumentException("fields and units lengths must be equal");
+		}
+		this.fields = fields;
+		this.units = units;
+	}
+
+	public void setFieldSeparator(String fieldSeparator) {
+		this.fieldSeparator = fieldSeparator;
+	}
+
+	public void setDecimalPlaces(int decimalPlaces) {
+		this.decimalPlaces = decimalPlaces;
+	}
+
+	public void setExponentialNotation(boolean exponentialNotation) {
+		this.exponentialNotation = exponentialNotation;
+	}
+
+	public void setCommentStarter(String commentStarter) {
+		this.commentStarter = commentStarter;
+	}
+
+	public void setSimulationComments(boolean simulationComments) {
+		this.simulationComments = simulationComments;
+	}
+
+	public void setFieldComments(boolean fieldComments) {
+		this.fieldComments = fieldComments;
+	}
+
+	public void setEventComments(boolean eventComments) {
+		this.eventComments = eventComments;
+	}
+
+	/**
+	 * @param compressed	whether to compress the written files with gzip
+	 */
+	public void setCompressed(boolean compressed) {
+		this.compressed = compressed;
+	}
+
+	/**
+	 * @param threadCount	the number of simulations to format in parallel
+	 */
+	public void setThreadCount(int threadCount) {
+		if (threadCount < 1) {
+			throw new IllegalArgumentException("Thread count must be positive, was " + threadCount);
+		}
+		this.threadCount = threadCount;
+	}
+
+	/**
+	 * Export each simulation into its own file in a directory.  The files are named by
+	 * the index and name of the simulation.
+	 *
+	 * @param simulations	the simulations to export.
+	 * @param directory		the directory to write the files to, created if necessary.
+	 * @return				the written files, in the order of the simulations.
+	 * @throws IOException	if an I/O exception occurs.
+	 */
+	public List<File> exportSeparate(List<Simulation> simulations, File directory) throws IOException {
+		Files.createDirectories(directory.toPath());
+
+		List<File> files = new ArrayList<>();
+		List<Future<?>> futures = new ArrayList<>();
+		ExecutorService executor = createExecutor(simulations.size());
+		try {
+			for (int i = 0; i < simulations.size(); i++) {
+				Simulation simulation = simulations.get(i);
+				if (simulation.getSimulatedData() == null) {
+					continue;
+				}
+				File file = new File(directory, getFileName(i + 1, simulation));
+				files.add(file);
+				futures.add(executor.submit(() -> {
+					exportSimulation(simulation, file);
+					return null;
+				}));
+			}
+			for (Future<?> future : futures) {
+				getResult(future);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		return files;
+	}
+
+	/**
+	 * Export the simulations into a single file in long format.  The simulations are formatted
+	 * in parallel and written in their order.
+	 *
+	 * @param simulations	the simulations to export.
+	 * @param file			the file to write.
+	 * @throws IOException	if an I/O exception occurs.
+	 */
+	public void exportCombined(List<Simulation> simulations, File file) throws IOException {
+		final FlightDataType[] exportFields;
+		final Unit[] exportUnits;
+		if (fields != null) {
+			exportFields = fields;
+			exportUnits = units;
+		} else {
+			exportFields = getAllTypes(simulations);
+			exportUnits = getSIUnits(exportFields);
+		}
+
+		ExecutorService executor = createExecutor(simulations.size());
+		try (Writer writer = createWriter(file)) {
+			if (fieldComments) {
+				StringBuilder sb = new StringBuilder();
+				sb.append(commentStarter).append(" Simulation").append(fieldSeparator).append("Branch");
+				for (int i = 0; i < exportFields.length; i++) {
+					sb.append(fieldSeparator);
+					appendFieldName(sb, exportFields[i], exportUnits[i]);
+				}
+				sb.append(NEWLINE);
+				writer.append(sb);
+			}
+
+			// Keep a limited number of formatted simulations in memory while writing them in order
+			Deque<Future<StringBuilder>> pending = new ArrayDeque<>();
+			for (Simulation simulation : simulations) {
+				if (simulation.getSimulatedData() == null) {
+					continue;
+				}
+				if (pending.size() >= 2 * threadCount) {
+					writer.append(getResult(pending.removeFirst()));
+				}
+				pending.add(executor.submit(() -> formatCombined(simulation, exportFields, exportUnits)));
+			}
+			while (!pending.isEmpty()) {
+				writer.append(getResult(pending.removeFirst()));
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private void exportSimulation(Simulation simulation, File file) throws IOException {
+		FlightData data = simulation.getSimulatedData();
+		StringBuilder sb = new StringBuilder(BUFFER_SIZE);
+		try (Writer writer = createWriter(file)) {
+			for (FlightDataBranch branch : data.getBranches()) {
+				FlightDataType[] exportFields = (fields != null) ? fields : branch.getTypes();
+				Unit[] exportUnits = (fields != null) ? units : getSIUnits(exportFields);
+
+				if (data.getBranchCount() > 1) {
+					appendComment(sb, "Branch: " + branch.getName());
+				}
+				if (simulationComments) {
+					StringWriter comments = new StringWriter();
+					PrintWriter pw = new PrintWriter(comments);
+					CSVExport.writeSimulationComments(pw, simulation, branch, exportFields, commentStarter);
+					pw.flush();
+					sb.append(comments.getBuffer());
+				}
+				if (simulationComments && fieldComments) {
+					sb.append(commentStarter).append(NEWLINE);
+				}
+				if (fieldComments) {
+					sb.append(commentStarter).append(' ');
+					for (int i = 0; i < exportFields.length; i++) {
+						if (i > 0) {
+							sb.append(fieldSeparator);
+						}
+						appendFieldName(sb, exportFields[i], exportUnits[i]);
+					}
+					sb.append(NEWLINE);
+				}
+				appendBranch(sb, writer, null, branch, exportFields, exportUnits);
+			}
+			writer.append(sb);
+		}
+	}
+
+	private StringBuilder formatCombined(Simulation simulation, FlightDataType[] exportFields, Unit[] exportUnits)
+			throws IOException {
+		StringBuilder sb = new StringBuilder(BUFFER_SIZE);
+		String simulationName = quote(simulation.getName());
+		for (FlightDataBranch branch : simulation.getSimulatedData().getBranches()) {
+			String prefix = simulationName + fieldSeparator + quote(branch.getName()) + fieldSeparator;
+			appendBranch(sb, null, prefix, branch, exportFields, exportUnits);
+		}
+		return sb;
+	}
+
+	/**
+	 * Append the rows of a branch, interleaved with the event comments.  If a writer is given,
+	 * the buffer is written to it and cleared whenever it is full.
+	 */
+	private void appendBranch(StringBuilder sb, Writer writer, String prefix, FlightDataBranch branch,
+			FlightDataType[] exportFields, Unit[] exportUnits) throws IOException {
+		DoubleBuffer time = branch.getBuffer(FlightDataType.TYPE_TIME);
+		int n = branch.getLength();
+
+		DoubleBuffer[] values = new DoubleBuffer[exportFields.length];
+		for (int i = 0; i < exportFields.length; i++) {
+			values[i] = branch.getBuffer(exportFields[i]);
+		}
+
+		List<FlightEvent> events = eventComments ? new ArrayList<>(branch.getEvents()) : Collections.emptyList();
+		Collections.sort(events);
+		int eventPosition = 0;
+
+		// If time information is not available, write the events before the data
+		if (time == null) {
+			for (FlightEvent event : events) {
+				appendEvent(sb, event);
+			}
+			eventPosition = events.size();
+		}
+
+		for (int pos = 0; pos < n; pos++) {
+			if (time != null) {
+				double t = time.get(pos);
+				while (eventPosition < events.size() && events.get(eventPosition).getTime() <= t) {
+					appendEvent(sb, events.get(eventPosition));
+					eventPosition++;
+				}
+			}
+
+			if (prefix != null) {
+				sb.append(prefix);
+			}
+			for (int i = 0; i < exportFields.length; i++) {
+				if (i > 0) {
+					sb.append(fieldSeparator);
+				}
+				double value = (values[i] != null) ? values[i].get(pos) : Double.NaN;
+				TextUtil.appendDouble(sb, exportUnits[i].toUnit(value), decimalPlaces, exponentialNotation);
+			}
+			sb.append(NEWLINE);
+
+			if (writer != null && sb.length() >= BUFFER_SIZE - 1024) {
+				writer.append(sb);
+				sb.setLength(0);
+			}
+		}
+
+		while (eventPosition < events.size()) {
+			appendEvent(sb, events.get(eventPosition));
+			eventPosition++;
+		}
+	}
+
+	private void appendEvent(StringBuilder sb, FlightEvent event) {
+		sb.append(commentStarter).append(" Event ").append(event.getType().name())
+				.append(" occurred at t=").append(TextUtil.doubleToString(event.getTime())).append(" seconds");
+		if (event.getType() == FlightEvent.Type.SIM_WARN) {
+			sb.append(": ").append((Warning) event.getData());
+		}
+		sb.append(NEWLINE);
+	}
+
+	private void appendComment(StringBuilder sb, String comment) {
+		sb.append(commentStarter).append(' ').append(comment).append(NEWLINE);
+	}
+
+	private static void appendFieldName(StringBuilder sb, FlightDataType field, Unit unit) {
+		sb.append(field.getName()).append(" (").append(unit.getUnit()).append(')');
+	}
+
+	private Writer createWriter(File file) throws IOException {
+		OutputStream os = new FileOutputStream(file);
+		try {
+			os = compressed ? new GZIPOutputStream(os, BUFFER_SIZE) : new BufferedOutputStream(os, BUFFER_SIZE);
+		} catch (IOException e) {
+			os.close();
+			throw e;
+		}
+		return new OutputStreamWriter(os, StandardCharsets.UTF_8);
+	}
+
+	private String getFileName(int index, Simulation simulation) {
+		String name = simulation.getName().replaceAll("[^A-Za-z0-9._-]+", "_");
+		return index + "_" + name + (compressed ? ".csv.gz" : ".csv");
+	}
+
+	/**
+	 * Quote a value if it contains the field separator or quotes.
+	 */
+	private String quote(String s) {
+		if (!s.contains(fieldSeparator) && !s.contains("\"")) {
+			return s;
+		}
+		return "\"" + s.replace("\"", "\"\"") + "\"";
+	}
+
+	private ExecutorService createExecutor(int tasks) {
+		return Executors.newFixedThreadPool(Math.min(threadCount, Math.max(tasks, 1)), new DaemonThreadFactory("CSVExport"));
+	}
+
+	private static <T> T getResult(Future<T> future) throws IOException {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Export was interrupted", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw new BugException(cause);
+		}
+	}
+
+	private static FlightDataType[] getAllTypes(List<Simulation> simulations) {
+		// Types of different custom expressions may compare as equal, so sort only after collecting them
+		Set<FlightDataType> types = new LinkedHashSet<>();
+		for (Simulation simulation : simulations) {
+			FlightData data = simulation.getSimulatedData();
+			if (data == null) {
+				continue;
+			}
+			for (FlightDataBranch branch : data.getBranches()) {
+				Collections.addAll(types, branch.getTypes());
+			}
+		}
+		FlightDataType[] array = types.toArray(new FlightDataType[0]);
+		Arrays.sort(array);
+		return array;
+	}
+
+	private static Unit[] getSIUnits(FlightDataType[] types) {
+		Unit[] units = new Unit[types.length];
+		for (int i = 0; i < types.length; i++) {
+			units[i] = types[i].getUnitGroup().getSIUnit();
+		}
+		return units;
+	}
+}
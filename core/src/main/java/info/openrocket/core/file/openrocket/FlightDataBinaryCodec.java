@@ -0,0 +1,228 @@
+package info.openrocket.core.file.openrocket;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.DoubleBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import info.openrocket.core.simulation.DataColumn;
+import info.openrocket.core.simulation.FlightDataBranch;
+import info.openrocket.core.simulation.FlightDataType;
+
+/**
+ * Encoder and decoder of the binary flight data entries stored in the OpenRocket zip container.
+ * <p>
+ * An entry contains the values of one flight data branch stored column by column.  The values
+ * are rounded to {@link #MANTISSA_BITS} bits of mantissa, which is well above the precision of
+ * the textual data points, without rounding finite values to infinity.  After this the sign,
+ * exponent and mantissa bits of consecutive values are delta encoded.  Smoothly varying columns are encoded using the second order
+ * difference instead.  The differences are stored as zig-zag encoded variable length integers,
+ * and the entry is further compressed by the zip container.
+ * <p>
+ * The layout of an entry is:
+ * <pre>
+ *   int     magic number "ORFD"
+ *   byte    format version
+ *   byte    number of dropped mantissa bits
+ *   varint  number of columns
+ *   varint  number of values per column
+ *   per column:
+ *     byte     order of the difference (1 or 2)
+ *     varint[] the differences
+ * </pre>
+ * The columns are in the order of the data types listed in the <code>types</code> attribute of
+ * the referring <code>databranch</code> element.
+ */
+public final class FlightDataBinaryCodec {
+
+	private static final int MAGIC = 0x4f524644;
+	private static final int VERSION = 1;
+
+	/** Number of mantissa bits stored, out of the 52 bits of a double */
+	public static final int MANTISSA_BITS = 24;
+	private static final int DROPPED_BITS = 52 - MANTISSA_BITS;
+
+	private static final long CANONICAL_NAN_BITS = Double.doubleToLongBits(Double.NaN);
+	/** The exponent bits of a quantized value, which are all set for infinity and NaN */
+	private static final long QUANTIZED_EXPONENT_MASK = 0x7FF0000000000000L >> DROPPED_BITS;
+
+	private FlightDataBinaryCodec() {
+	}
+
+	/**
+	 * Write the values of the given types of a branch.
+	 *
+	 * @param out		the stream to write to.  The stream is flushed but not closed.
+	 * @param branch	the branch to write.
+	 * @param types		the data types to write, in order.
+	 * @throws IOException	if an I/O error occurs.
+	 */
+	public static void write(OutputStream out, FlightDataBranch branch, FlightDataType[] types) throws IOException {
+		BufferedOutputStream os = new BufferedOutputStream(out);
+		int length = branch.getLength();
+
+		os.write(MAGIC >>> 24);
+		os.write(MAGIC >>> 16);
+		os.write(MAGIC >>> 8);
+		os.write(MAGIC);
+		os.write(VERSION);
+		os.write(DROPPED_BITS);
+		writeVarLong(os, types.length);
+		writeVarLong(os, length);
+
+		long[] quantized = new long[length];
+		for (FlightDataType type : types) {
+			DoubleBuffer data = branch.getBuffer(type);
+			for (int i = 0; i < length; i++) {
+				quantized[i] = quantize(data != null ? data.get(i) : Double.NaN);
+			}
+
+			// Use the second order difference if it is more compact
+			long firstOrderSize = 0;
+			long secondOrderSize = 0;
+			for (int i = 0; i < length; i++) {
+				firstOrderSize += varLongSize(difference(quantized, i, 1));
+				secondOrderSize += varLongSize(difference(quantized, i, 2));
+			}
+			int order = (secondOrderSize < firstOrderSize) ? 2 : 1;
+
+			os.write(order);
+			for (int i = 0; i < length; i++) {
+				writeVarLong(os, difference(quantized, i, order));
+			}
+		}
+		os.flush();
+	}
+
+	/**
+	 * Read the values of a branch.
+	 *
+	 * @param in		the stream to read from.  The stream is not closed.
+	 * @param types		the data types of the columns, in order.
+	 * @return			the columns by data type.
+	 * @throws IOException	if an I/O error occurs or the data is not valid.
+	 */
+	public static Map<FlightDataType, DataColumn> read(InputStream in, FlightDataType[] types) throws IOException {
+		InputStream is = new BufferedInputStream(in);
+
+		int magic = (readByte(is) << 24) | (readByte(is) << 16) | (readByte(is) << 8) | readByte(is);
+		if (magic != MAGIC) {
+			throw new IOException("Not an OpenRocket flight data entry");
+		}
+		int version = readByte(is);
+		if (version != VERSION) {
+			throw new IOException("Unsupported flight data entry version " + version);
+		}
+		int droppedBits = readByte(is);
+		if (droppedBits > 52) {
+			throw new IOException("Invalid flight data precision " + droppedBits);
+		}
+		long columnCount = readVarLong(is);
+		if (columnCount != types.length) {
+			throw new IOException("Flight data entry has " + columnCount + " columns, expected " + types.length);
+		}
+		long length = readVarLong(is);
+		if (length < 0 || length > Integer.MAX_VALUE) {
+			throw new IOException("Invalid flight data length " + length);
+		}
+
+		Map<FlightDataType, DataColumn> columns = new LinkedHashMap<>();
+		long[] quantized = new long[(int) length];
+		for (FlightDataType type : types) {
+			int order = readByte(is);
+			if (order != 1 && order != 2) {
+				throw new IOException("Invalid flight data difference order " + order);
+			}
+
+			double[] values = new double[quantized.length];
+			for (int i = 0; i < quantized.length; i++) {
+				long prediction;
+				if (i == 0) {
+					prediction = 0;
+				} else if (order == 1 || i == 1) {
+					prediction = quantized[i - 1];
+				} else {
+					prediction = 2 * quantized[i - 1] - quantized[i - 2];
+				}
+				quantized[i] = prediction + readVarLong(is);
+				values[i] = Double.longBitsToDouble(quantized[i] << droppedBits);
+			}
+			columns.put(type, DataColumn.of(values));
+		}
+		return columns;
+	}
+
+	/**
+	 * Round the value to the stored precision and return the sign, exponent and remaining
+	 * mantissa bits as a (signed) integer.  Finite values remain finite.
+	 */
+	private static long quantize(double value) {
+		long bits = Double.isNaN(value) ? CANONICAL_NAN_BITS : Double.doubleToRawLongBits(value);
+		// Rounding may carry over to the exponent, which correctly rounds up to the next binade
+		long quantized = (bits + (1L << (DROPPED_BITS - 1))) >> DROPPED_BITS;
+		// Values close to Double.MAX_VALUE would round up to infinity; use the largest finite value instead
+		if (!Double.isInfinite(value) && !Double.isNaN(value) &&
+				(quantized & QUANTIZED_EXPONENT_MASK) == QUANTIZED_EXPONENT_MASK) {
+			quantized--;
+		}
+		return quantized;
+	}
+
+	/**
+	 * Return the difference of the given order at an index.  The first values are stored
+	 * using a lower order difference.
+	 */
+	private static long difference(long[] values, int index, int order) {
+		if (index == 0) {
+			return values[0];
+		}
+		if (order == 1 || index == 1) {
+			return values[index] - values[index - 1];
+		}
+		return values[index] - 2 * values[index - 1] + values[index - 2];
+	}
+
+	private static int varLongSize(long value) {
+		long v = (value << 1) ^ (value >> 63);
+		int size = 1;
+		while ((v & ~0x7FL) != 0) {
+			v >>>= 7;
+			size++;
+		}
+		return size;
+	}
+
+	private static void writeVarLong(OutputStream os, long value) throws IOException {
+		long v = (value << 1) ^ (value >> 63);
+		while ((v & ~0x7FL) != 0) {
+			os.write((int) ((v & 0x7F) | 0x80));
+			v >>>= 7;
+		}
+		os.write((int) v);
+	}
+
+	private static long readVarLong(InputStream is) throws IOException {
+		long v = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			int b = readByte(is);
+			v |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return (v >>> 1) ^ -(v & 1);
+			}
+		}
+		throw new IOException("Malformed variable length integer");
+	}
+
+	private static int readByte(InputStream is) throws IOException {
+		int b = is.read();
+		if (b < 0) {
+			throw new EOFException("Unexpected end of flight data entry");
+		}
+		return b;
+	}
+}
@@ -7,9 +7,12 @@ import java.io.OutputStreamWriter;
 import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import info.openrocket.core.file.openrocket.savers.PhotoStudioSaver;
 import info.openrocket.core.logging.ErrorSet;
@@ -25,6 +28,7 @@ import info.openrocket.core.logging.Warning;
 import info.openrocket.core.document.OpenRocketDocument;
 import info.openrocket.core.document.Simulation;
 import info.openrocket.core.document.StorageOptions;
+import info.openrocket.core.document.StorageOptions.FlightDataFormat;
 import info.openrocket.core.file.RocketSaver;
 import info.openrocket.core.rocketcomponent.Rocket;
 import info.openrocket.core.rocketcomponent.RocketComponent;
@@ -33,6 +37,7 @@ import info.openrocket.core.simulation.FlightDataBranch;
 import info.openrocket.core.simulation.FlightDataType;
 import info.openrocket.core.simulation.FlightEvent;
 import info.openrocket.core.simulation.SimulationOptions;
+import info.openrocket.core.simulation.SimulationStepperMethod;
 import info.openrocket.core.simulation.customexpression.CustomExpression;
 import info.openrocket.core.simulation.extension.SimulationExtension;
 import info.openrocket.core.util.BugException;
@@ -57,6 +62,9 @@ public class OpenRocketSaver extends RocketSaver {
 	private static final String METHOD_PACKAGE = "info.openrocket.core.file.openrocket.savers";
 	private static final String METHOD_SUFFIX = "Saver";
 	public static final String INDENT = "  ";
+
+	/** Directory of the binary flight data entries within the zip container */
+	public static final String FLIGHT_DATA_DIRECTORY = "flightdata/";
 	
 	
 	// Estimated storage used by different portions
@@ -64,11 +72,54 @@ public class OpenRocketSaver extends RocketSaver {
 	private static final int BYTES_PER_COMPONENT_COMPRESSED = 80;
 	private static final int BYTES_PER_SIMULATION_COMPRESSED = 100;
 	private static final int BYTES_PER_DATAPOINT_COMPRESSED = 100;
+	private static final int BYTES_PER_BINARY_DATAPOINT_COMPRESSED = 40;
 	
 	
 	private int indent;
 	private Writer dest;
 	
+	/** The branches to store as binary entries by entry name, or null to store the data as text */
+	private Map<String, FlightDataBranch> flightDataEntries = null;
+	
+	/**
+	 * Save the document as an entry of a zip container.  If the storage options specify the
+	 * binary flight data format, each data branch is stored as a separate binary entry after
+	 * the document entry.  Otherwise this is equivalent to saving the document entry using
+	 * {@link #save(OutputStream, OpenRocketDocument, StorageOptions, WarningSet, ErrorSet)}.
+	 * 
+	 * @param output		the zip stream to write to.
+	 * @param entryName		the name of the document entry.
+	 * @param document		the document to save.
+	 * @param options		the storage options.
+	 * @param warnings		list to store save warnings to.
+	 * @param errors		list to store save errors to.
+	 * @throws IOException	in case of an I/O error.
+	 */
+	public void save(ZipOutputStream output, String entryName, OpenRocketDocument document, StorageOptions options,
+			WarningSet warnings, ErrorSet errors) throws IOException {
+		
+		if (options.getFlightDataFormat() == FlightDataFormat.BINARY) {
+			flightDataEntries = new LinkedHashMap<>();
+		}
+		
+		try {
+			output.putNextEntry(new ZipEntry(entryName));
+			save(output, document, options, warnings, errors);
+			output.closeEntry();
+			
+			if (flightDataEntries != null) {
+				for (Map.Entry<String, FlightDataBranch> entry : flightDataEntries.entrySet()) {
+					FlightDataBranch branch = entry.getValue();
+					output.putNextEntry(new ZipEntry(entry.getKey()));
+					FlightDataBinaryCodec.write(output, branch, branch.getTypes());
+					output.closeEntry();
+				}
+			}
+		} finally {
+			flightDataEntries = null;
+		}
+	}
+	
 	@Override
 	public void save(OutputStream output, OpenRocketDocument document, StorageOptions options, WarningSet warnings, ErrorSet errors) throws IOException {
 		
@@ -125,6 +176,30 @@ public class OpenRocketSaver extends RocketSaver {
 		dest.flush();
 	}
 	
+	/**
+	 * Write the inputs of a simulation, that is the rocket design, the custom expressions and
+	 * the conditions and extensions of the simulation, without the name or the results of the
+	 * simulation.  Simulations with the same definition produce the same results.
+	 * 
+	 * @param output				the writer to write to.  The writer is flushed but not closed.
+	 * @param simulation			the simulation.
+	 * @param customExpressions		the custom expressions of the document.
+	 * @throws IOException			in case of an I/O error.
+	 */
+	public void saveSimulationDefinition(Writer output, Simulation simulation, List<CustomExpression> customExpressions)
+			throws IOException {
+		dest = output;
+		indent = 0;
+		
+		saveComponent(simulation.getRocket());
+		for (CustomExpression exp : customExpressions) {
+			saveCustomExpressionDatatype(exp);
+		}
+		saveSimulationConditions(simulation);
+		
+		dest.flush();
+	}
+	
 	/*
 	 * Save all the custom expressions
 	 */
@@ -197,7 +272,11 @@ public class OpenRocketSaver extends RocketSaver {
 			}
 		}
 		
-		size += pointCount * BYTES_PER_DATAPOINT_COMPRESSED;
+		if (options.getFlightDataFormat() == FlightDataFormat.BINARY) {
+			size += pointCount * BYTES_PER_BINARY_DATAPOINT_COMPRESSED;
+		} else {
+			size += pointCount * BYTES_PER_DATAPOINT_COMPRESSED;
+		}
 		
 		return size;
 	}
@@ -316,8 +395,6 @@ public class OpenRocketSaver extends RocketSaver {
 	
 	
 	private void saveSimulation(Simulation simulation, boolean saveSimulationData) throws IOException {
-		SimulationOptions cond = simulation.getOptions();
-
 		Simulation.Status simStatus;
 		simStatus = saveSimulationData ? simulation.getStatus() : Simulation.Status.NOT_SIMULATED;
 
@@ -330,6 +407,82 @@ public class OpenRocketSaver extends RocketSaver {
 		writeln("<simulator>RK4Simulator</simulator>");
 		writeln("<calculator>BarrowmanCalculator</calculator>");
 		
+		saveSimulationConditions(simulation);
+		
+		// Write basic simulation data
+		
+		FlightData data = simulation.getSimulatedData();
+		if (data != null) {
+			String str = "<flightdata";
+			if (!Double.isNaN(data.getMaxAltitude()))
+				str += " maxaltitude=\"" + TextUtil.doubleToString(data.getMaxAltitude()) + "\"";
+			if (!Double.isNaN(data.getMaxVelocity()))
+				str += " maxvelocity=\"" + TextUtil.doubleToString(data.getMaxVelocity()) + "\"";
+			if (!Double.isNaN(data.getMaxAcceleration()))
+				str += " maxacceleration=\"" + TextUtil.doubleToString(data.getMaxAcceleration()) + "\"";
+			if (!Double.isNaN(data.getMaxMachNumber()))
+				str += " maxmach=\"" + TextUtil.doubleToString(data.getMaxMachNumber()) + "\"";
+			if (!Double.isNaN(data.getTimeToApogee()))
+				str += " timetoapogee=\"" + TextUtil.doubleToString(data.getTimeToApogee()) + "\"";
+			if (!Double.isNaN(data.getFlightTime()))
+				str += " flighttime=\"" + TextUtil.doubleToString(data.getFlightTime()) + "\"";
+			if (!Double.isNaN(data.getGroundHitVelocity()))
+				str += " groundhitvelocity=\"" + TextUtil.doubleToString(data.getGroundHitVelocity()) + "\"";
+			if (!Double.isNaN(data.getLaunchRodVelocity()))
+				str += " launchrodvelocity=\"" + TextUtil.doubleToString(data.getLaunchRodVelocity()) + "\"";
+			if (!Double.isNaN(data.getDeploymentVelocity()))
+				str += " deploymentvelocity=\"" + TextUtil.doubleToString(data.getDeploymentVelocity()) + "\"";
+			if (!Double.isNaN(data.getOptimumDelay()))
+				str += " optimumdelay=\"" + TextUtil.doubleToString(data.getOptimumDelay()) + "\"";
+			str += ">";
+			writeln(str);
+			indent++;
+			
+			for (Warning w : data.getWarningSet()) {
+				writeln("<warning>");
+				indent++;
+
+				writeElement("id", w.getID().toString());
+				writeElement("description", w.getMessageDescription());
+				writeElement("priority", w.getPriority());
+
+				if (null != w.getSources()) {
+					for (RocketComponent c : w.getSources()) {
+						writeElement("source", c.getID());
+					}
+				}
+
+				// We write the whole string content for backwards compatibility with old versions
+				writeln(TextUtil.escapeXML(w.toString()));
+
+				indent--;
+				writeln("</warning>");
+			}
+			
+			// Check whether to store data
+			if ((simulation.getStatus() == Simulation.Status.EXTERNAL) || // Always store external data
+				saveSimulationData) {
+				for (int i = 0; i < data.getBranchCount(); i++) {
+					FlightDataBranch branch = data.getBranch(i);
+					saveFlightDataBranch(branch);
+				}
+			}
+			
+			indent--;
+			writeln("</flightdata>");
+		}
+		
+		indent--;
+		writeln("</simulation>");
+		
+	}
+
+	/**
+	 * Save the conditions and the extensions of a simulation.
+	 */
+	private void saveSimulationConditions(Simulation simulation) throws IOException {
+		SimulationOptions cond = simulation.getOptions();
+		
 		writeln("<conditions>");
 		indent++;
 		
@@ -382,6 +535,12 @@ public class OpenRocketSaver extends RocketSaver {
 		}
 		
 		writeElement("timestep", cond.getTimeStep());
+		if (cond.getStepperMethod() != SimulationStepperMethod.RK4) {
+			writeElement("steppermethod", cond.getStepperMethod().name().toLowerCase(Locale.ENGLISH));
+		}
+		if (cond.isTabulatedAerodynamics()) {
+			writeElement("tabulatedaerodynamics", true);
+		}
 		
 		indent--;
 		writeln("</conditions>");
@@ -399,75 +558,8 @@ public class OpenRocketSaver extends RocketSaver {
 			indent--;
 			writeln("</extension>");
 		}
-		
-		// Write basic simulation data
-		
-		FlightData data = simulation.getSimulatedData();
-		if (data != null) {
-			String str = "<flightdata";
-			if (!Double.isNaN(data.getMaxAltitude()))
-				str += " maxaltitude=\"" + TextUtil.doubleToString(data.getMaxAltitude()) + "\"";
-			if (!Double.isNaN(data.getMaxVelocity()))
-				str += " maxvelocity=\"" + TextUtil.doubleToString(data.getMaxVelocity()) + "\"";
-			if (!Double.isNaN(data.getMaxAcceleration()))
-				str += " maxacceleration=\"" + TextUtil.doubleToString(data.getMaxAcceleration()) + "\"";
-			if (!Double.isNaN(data.getMaxMachNumber()))
-				str += " maxmach=\"" + TextUtil.doubleToString(data.getMaxMachNumber()) + "\"";
-			if (!Double.isNaN(data.getTimeToApogee()))
-				str += " timetoapogee=\"" + TextUtil.doubleToString(data.getTimeToApogee()) + "\"";
-			if (!Double.isNaN(data.getFlightTime()))
-				str += " flighttime=\"" + TextUtil.doubleToString(data.getFlightTime()) + "\"";
-			if (!Double.isNaN(data.getGroundHitVelocity()))
-				str += " groundhitvelocity=\"" + TextUtil.doubleToString(data.getGroundHitVelocity()) + "\"";
-			if (!Double.isNaN(data.getLaunchRodVelocity()))
-				str += " launchrodvelocity=\"" + TextUtil.doubleToString(data.getLaunchRodVelocity()) + "\"";
-			if (!Double.isNaN(data.getDeploymentVelocity()))
-				str += " deploymentvelocity=\"" + TextUtil.doubleToString(data.getDeploymentVelocity()) + "\"";
-			if (!Double.isNaN(data.getOptimumDelay()))
-				str += " optimumdelay=\"" + TextUtil.doubleToString(data.getOptimumDelay()) + "\"";
-			str += ">";
-			writeln(str);
-			indent++;
-			
-			for (Warning w : data.getWarningSet()) {
-				writeln("<warning>");
-				indent++;
-
-				writeElement("id", w.getID().toString());
-				writeElement("description", w.getMessageDescription());
-				writeElement("priority", w.getPriority());
-
-				if (null != w.getSources()) {
-					for (RocketComponent c : w.getSources()) {
-						writeElement("source", c.getID());
-					}
-				}
-
-				// We write the whole string content for backwards compatibility with old versions
-				writeln(TextUtil.escapeXML(w.toString()));
-
-				indent--;
-				writeln("</warning>");
-			}
-			
-			// Check whether to store data
-			if ((simulation.getStatus() == Simulation.Status.EXTERNAL) || // Always store external data
-				saveSimulationData) {
-				for (int i = 0; i < data.getBranchCount(); i++) {
-					FlightDataBranch branch = data.getBranch(i);
-					saveFlightDataBranch(branch);
-				}
-			}
-			
-			indent--;
-			writeln("</flightdata>");
-		}
-		
-		indent--;
-		writeln("</simulation>");
-		
 	}
-
+	
 	private void savePhotoSettings(Map<String, String> p) throws IOException {
 		log.debug("Saving Photo Settings");
 
@@ -576,12 +668,6 @@ public class OpenRocketSaver extends RocketSaver {
 		if (types.length == 0)
 			return;
 		
-		// Retrieve the data from the branch
-		List<List<Double>> data = new ArrayList<>(types.length);
-		for (FlightDataType type : types) {
-			data.add(branch.get(type));
-		}
-		
 		// Build the <databranch> tag
 		StringBuilder sb = new StringBuilder();
 		sb.append("<databranch name=\"");
@@ -616,7 +702,18 @@ public class OpenRocketSaver extends RocketSaver {
 				sb.append(",");
 			sb.append(TextUtil.escapeXML(types[i].getName()));
 		}
-		sb.append("\">");
+		sb.append("\"");
+		
+		// Reference the binary entry holding the data
+		String dataEntry = null;
+		if (flightDataEntries != null) {
+			dataEntry = FLIGHT_DATA_DIRECTORY + (flightDataEntries.size() + 1) + ".bin";
+			flightDataEntries.put(dataEntry, branch);
+			sb.append(" datafile=\"");
+			sb.append(TextUtil.escapeXML(dataEntry));
+			sb.append("\"");
+		}
+		sb.append(">");
 		writeln(sb.toString());
 		indent++;
 		
@@ -642,9 +739,16 @@ public class OpenRocketSaver extends RocketSaver {
 		}
 		
 		// Write the data
-		int length = branch.getLength();
-		for (int i = 0; i < length; i++) {
-			writeDataPointString(data, i, sb);
+		if (dataEntry == null) {
+			List<List<Double>> data = new ArrayList<>(types.length);
+			for (FlightDataType type : types) {
+				data.add(branch.get(type));
+			}
+			
+			int length = branch.getLength();
+			for (int i = 0; i < length; i++) {
+				writeDataPointString(data, i, sb);
+			}
 		}
 		
 		indent--;
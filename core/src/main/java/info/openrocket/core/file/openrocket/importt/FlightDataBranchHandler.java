@@ -1,5 +1,8 @@
 package info.openrocket.core.file.openrocket.importt;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.HashMap;
 import java.util.UUID;
 
@@ -7,7 +10,9 @@ import info.openrocket.core.logging.Message;
 import info.openrocket.core.logging.SimulationAbort;
 import info.openrocket.core.logging.SimulationAbort.Cause;
 import info.openrocket.core.logging.WarningSet;
+import info.openrocket.core.document.StorageOptions.FlightDataFormat;
 import info.openrocket.core.file.DocumentLoadingContext;
+import info.openrocket.core.file.openrocket.FlightDataBinaryCodec;
 import info.openrocket.core.file.simplesax.AbstractElementHandler;
 import info.openrocket.core.file.simplesax.ElementHandler;
 import info.openrocket.core.file.simplesax.PlainTextHandler;
@@ -21,24 +26,33 @@ import info.openrocket.core.simulation.FlightEvent.Type;
 import info.openrocket.core.simulation.customexpression.CustomExpression;
 import info.openrocket.core.startup.Application;
 import info.openrocket.core.unit.UnitGroup;
+import info.openrocket.core.util.DecalNotFoundException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 class FlightDataBranchHandler extends AbstractElementHandler {
-	@SuppressWarnings("unused")
 	private final DocumentLoadingContext context;
 	private final FlightDataType[] types;
 	private final FlightDataBranch branch;
 	
+	/** The index of the databranch element within the flightdata element */
+	private final int branchIndex;
+	/** Whether to parse the data points only once they are needed */
+	private boolean deferDataPoints;
+	private boolean hasDataFile = false;
+	private int dataPointCount = 0;
+	
 	private static final Logger log = LoggerFactory.getLogger(FlightDataBranchHandler.class);
 	private final SingleSimulationHandler simHandler;
 	private static final Translator trans = Application.getTranslator();
 
 	public FlightDataBranchHandler(String name, String typeList, SingleSimulationHandler simHandler,
-			DocumentLoadingContext context) {
+			DocumentLoadingContext context, int branchIndex) {
 		this.simHandler = simHandler;
 		this.context = context;
+		this.branchIndex = branchIndex;
+		this.deferDataPoints = (simHandler.getFlightDataLoader() != null);
 		String[] split = typeList.split(",");
 		types = new FlightDataType[split.length];
 		for (int i = 0; i < split.length; i++) {
@@ -68,6 +82,34 @@ class FlightDataBranchHandler extends AbstractElementHandler {
 		branch.setOptimumAltitude(optimumAltitude);
 	}
 	
+	/**
+	 * Load the data points of the branch from a binary entry of the document container.
+	 * The entry is read immediately, as the container may change once loaded, but it is
+	 * decoded only once the data points are first needed.
+	 * 
+	 * @param dataFile	the name of the entry.
+	 * @param warnings	the warning set to add warnings to.
+	 */
+	public void setDataFile(String dataFile, WarningSet warnings) {
+		hasDataFile = true;
+		final byte[] bytes;
+		try (InputStream is = context.getAttachmentFactory().getAttachment(dataFile).getBytes()) {
+			bytes = is.readAllBytes();
+		} catch (DecalNotFoundException | IOException e) {
+			log.warn("Unable to read flight data entry " + dataFile, e);
+			warnings.add("Unable to read flight data of branch '" + branch.getName() + "', ignoring.");
+			return;
+		}
+		final FlightDataType[] columnTypes = types.clone();
+		branch.setValueSource(() -> {
+			log.debug("Loading flight data of branch '" + branch.getName() + "' from " + dataFile);
+			return FlightDataBinaryCodec.read(new ByteArrayInputStream(bytes), columnTypes);
+		});
+		
+		// Keep storing the data in the same format
+		context.getOpenRocketDocument().getDefaultStorageOptions().setFlightDataFormat(FlightDataFormat.BINARY);
+	}
+	
 	// Find the full flight data type given name only
 	// Note: this way of doing it requires that custom expressions always come before flight data in the file,
 	// not the nicest but this is always the case anyway.
@@ -108,6 +150,10 @@ class FlightDataBranchHandler extends AbstractElementHandler {
 	}
 	
 	public FlightDataBranch getBranch() {
+		if (deferDataPoints && !hasDataFile && dataPointCount > 0) {
+			branch.setValueSource(simHandler.getFlightDataLoader().addBranch(
+					simHandler.getSimulationIndex(), branchIndex, types));
+		}
 		branch.immute();
 		return branch;
 	}
@@ -116,8 +162,14 @@ class FlightDataBranchHandler extends AbstractElementHandler {
 	public ElementHandler openElement(String element, HashMap<String, String> attributes,
 			WarningSet warnings) {
 		
-		if (element.equals("datapoint"))
+		if (element.equals("datapoint")) {
+			if (deferDataPoints) {
+				// Only count the points, they are parsed from the document once needed
+				dataPointCount++;
+				return null;
+			}
 			return PlainTextHandler.INSTANCE;
+		}
 		if (element.equals("event"))
 			return PlainTextHandler.INSTANCE;
 		
@@ -183,13 +235,33 @@ class FlightDataBranchHandler extends AbstractElementHandler {
 		}
 		
 		// element == "datapoint"
+		double[] values = parseDataPoint(content, types.length, warnings);
+		if (values == null) {
+			return;
+		}
 		
+		// Add point to branch
+		branch.addPoint();
+		for (int i = 0; i < types.length; i++) {
+			branch.setValue(types[i], values[i]);
+		}
+	}
+	
+	/**
+	 * Parse the values of a datapoint element.
+	 * 
+	 * @param content	the content of the element.
+	 * @param count		the number of values expected.
+	 * @param warnings	the warning set to add warnings to.
+	 * @return			the values, or <code>null</code> if the data point is invalid.
+	 */
+	static double[] parseDataPoint(String content, int count, WarningSet warnings) {
 		
 		// Check line format
 		String[] split = content.split(",");
-		if (split.length != types.length) {
+		if (split.length != count) {
 			warnings.add("Data point did not contain correct amount of values, ignoring point.");
-			return;
+			return null;
 		}
 		
 		// Parse the doubles
@@ -199,14 +271,9 @@ class FlightDataBranchHandler extends AbstractElementHandler {
 				values[i] = DocumentConfig.stringToDouble(split[i]);
 			} catch (NumberFormatException e) {
 				warnings.add("Data point format error, ignoring point.");
-				return;
+				return null;
 			}
 		}
-		
-		// Add point to branch
-		branch.addPoint();
-		for (int i = 0; i < types.length; i++) {
-			branch.setValue(types[i], values[i]);
-		}
+		return values;
 	}
 }
@@ -0,0 +1,242 @@
+package info.openrocket.core.file.openrocket.importt;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+import info.openrocket.core.file.DocumentLoadingContext.DocumentSource;
+import info.openrocket.core.file.simplesax.AbstractElementHandler;
+import info.openrocket.core.file.simplesax.ElementHandler;
+import info.openrocket.core.file.simplesax.PlainTextHandler;
+import info.openrocket.core.file.simplesax.SimpleSAX;
+import info.openrocket.core.logging.WarningSet;
+import info.openrocket.core.simulation.DataBranch;
+import info.openrocket.core.simulation.DataColumn;
+import info.openrocket.core.simulation.FlightDataType;
+
+/**
+ * Loads the data points of the flight data branches of an OpenRocket document.  The data
+ * points, which are the bulk of the document, are only counted when the document is loaded.
+ * When the values of any branch are first accessed, the document is parsed again, ignoring
+ * all other elements, and the data points of all branches that have not been loaded yet are
+ * read in the same pass.  The values are kept until they are accessed by their branch.
+ */
+class FlightDataBranchLoader {
+	private static final Logger log = LoggerFactory.getLogger(FlightDataBranchLoader.class);
+
+	private final DocumentSource source;
+
+	/** The data types of all branches, by position in the document */
+	private final Map<BranchKey, FlightDataType[]> branches = new HashMap<>();
+	/** The branches that have not been read from the document yet */
+	private final Map<BranchKey, FlightDataType[]> pending = new HashMap<>();
+	/** The branches that have been read but not yet accessed by their branch */
+	private final Map<BranchKey, Map<FlightDataType, DataColumn>> loaded = new HashMap<>();
+
+	/**
+	 * @param source	the source of the document.
+	 */
+	FlightDataBranchLoader(DocumentSource source) {
+		this.source = source;
+	}
+
+	/**
+	 * Add a branch whose data points are to be loaded once they are accessed.
+	 *
+	 * @param simulationIndex	the index of the simulation element within the simulations element.
+	 * @param branchIndex		the index of the databranch element within the flightdata element.
+	 * @param types				the data types of the values of a data point, in order.
+	 * @return					the source of the values of the branch.
+	 */
+	synchronized DataBranch.ValueSource<FlightDataType> addBranch(int simulationIndex, int branchIndex,
+			FlightDataType[] types) {
+		final BranchKey key = new BranchKey(simulationIndex, branchIndex);
+		branches.put(key, types.clone());
+		pending.put(key, types.clone());
+		return () -> read(key);
+	}
+
+	/**
+	 * Return the values of a branch, reading them together with all branches that have not
+	 * been read yet unless they have already been read.
+	 */
+	private synchronized Map<FlightDataType, DataColumn> read(BranchKey key) throws IOException {
+		Map<FlightDataType, DataColumn> columns = loaded.remove(key);
+		if (columns != null) {
+			return columns;
+		}
+
+		// A branch is read again only when it is shared by clones of the branch
+		Map<BranchKey, FlightDataType[]> toRead = new HashMap<>(pending);
+		toRead.put(key, branches.get(key));
+		pending.clear();
+		readDocument(toRead);
+
+		columns = loaded.remove(key);
+		if (columns == null) {
+			throw new IOException("Branch " + key.branchIndex() + " of simulation " + key.simulationIndex() +
+					" not found in document");
+		}
+		return columns;
+	}
+
+	/**
+	 * Read the given branches from the document into {@link #loaded}.
+	 */
+	private void readDocument(Map<BranchKey, FlightDataType[]> toRead) throws IOException {
+		long t0 = System.currentTimeMillis();
+		SearchHandler handler = new SearchHandler(0, -1, toRead);
+		WarningSet warnings = new WarningSet();
+
+		try (InputStream is = source.openDocument()) {
+			SimpleSAX.readXML(new InputSource(is), handler, warnings);
+		} catch (SAXException e) {
+			// Parsing is stopped using an exception once all branches have been read
+			if (handler.remaining[0] > 0) {
+				throw new IOException("Unable to parse flight data: " + e.getMessage(), e);
+			}
+		}
+
+		if (!warnings.isEmpty()) {
+			log.warn("Warnings while loading flight data: " + warnings);
+		}
+		log.debug("Loaded " + (toRead.size() - handler.remaining[0]) + " flight data branches in " +
+				(System.currentTimeMillis() - t0) + " ms");
+	}
+
+
+	/**
+	 * The position of a databranch element within the document.
+	 */
+	private record BranchKey(int simulationIndex, int branchIndex) {
+	}
+
+	/**
+	 * Handler descending to the branches along the openrocket / simulations / simulation /
+	 * flightdata / databranch elements.
+	 */
+	private class SearchHandler extends AbstractElementHandler {
+		private final int depth;
+		private final int simulationIndex;
+		/** The number of branches left to read, shared by all handlers of the pass */
+		private final int[] remaining;
+		private final Map<BranchKey, FlightDataType[]> toRead;
+		private int count = 0;
+
+		SearchHandler(int depth, int simulationIndex, Map<BranchKey, FlightDataType[]> toRead) {
+			this(depth, simulationIndex, toRead, new int[] { toRead.size() });
+		}
+
+		private SearchHandler(int depth, int simulationIndex, Map<BranchKey, FlightDataType[]> toRead,
+				int[] remaining) {
+			this.depth = depth;
+			this.simulationIndex = simulationIndex;
+			this.toRead = toRead;
+			this.remaining = remaining;
+		}
+
+		@Override
+		public ElementHandler openElement(String element, HashMap<String, String> attributes, WarningSet warnings) {
+			switch (depth) {
+				case 0:
+					return element.equals("openrocket") ? child(-1) : null;
+				case 1:
+					return element.equals("simulations") ? child(-1) : null;
+				case 2:
+					return element.equals("simulation") ? child(count++) : null;
+				case 3:
+					return element.equals("flightdata") ? child(simulationIndex) : null;
+				case 4:
+					if (!element.equals("databranch")) {
+						return null;
+					}
+					BranchKey key = new BranchKey(simulationIndex, count++);
+					FlightDataType[] types = toRead.get(key);
+					return types != null ? new BranchHandler(key, types, remaining) : null;
+				default:
+					return null;
+			}
+		}
+
+		private SearchHandler child(int simulationIndex) {
+			return new SearchHandler(depth + 1, simulationIndex, toRead, remaining);
+		}
+
+		@Override
+		public void closeElement(String element, HashMap<String, String> attributes, String content,
+				WarningSet warnings) throws SAXException {
+			if (remaining[0] == 0) {
+				throw new BranchesLoadedException();
+			}
+		}
+	}
+
+	/**
+	 * Handler reading the data points of a branch.
+	 */
+	private class BranchHandler extends AbstractElementHandler {
+		private final BranchKey key;
+		private final FlightDataType[] types;
+		private final int[] remaining;
+		private final DataColumn[] columns;
+
+		BranchHandler(BranchKey key, FlightDataType[] types, int[] remaining) {
+			this.key = key;
+			this.types = types;
+			this.remaining = remaining;
+			this.columns = new DataColumn[types.length];
+			for (int i = 0; i < columns.length; i++) {
+				columns[i] = new DataColumn();
+			}
+		}
+
+		@Override
+		public ElementHandler openElement(String element, HashMap<String, String> attributes, WarningSet warnings) {
+			if (element.equals("datapoint")) {
+				return PlainTextHandler.INSTANCE;
+			}
+			return null;
+		}
+
+		@Override
+		public void closeElement(String element, HashMap<String, String> attributes, String content,
+				WarningSet warnings) {
+			if (!element.equals("datapoint")) {
+				return;
+			}
+			double[] values = FlightDataBranchHandler.parseDataPoint(content, types.length, warnings);
+			if (values == null) {
+				return;
+			}
+			for (int i = 0; i < columns.length; i++) {
+				columns[i].add(Double.NaN);
+				columns[i].setLast(values[i]);
+			}
+		}
+
+		@Override
+		public void endHandler(String element, HashMap<String, String> attributes, String content,
+				WarningSet warnings) {
+			Map<FlightDataType, DataColumn> map = new LinkedHashMap<>();
+			for (int i = 0; i < types.length; i++) {
+				map.put(types[i], columns[i]);
+			}
+			loaded.put(key, map);
+			remaining[0]--;
+		}
+	}
+
+	/**
+	 * Thrown to stop parsing the rest of the document once all branches have been read.
+	 */
+	private static class BranchesLoadedException extends SAXException {
+		private static final long serialVersionUID = 1L;
+	}
+}
@@ -20,6 +20,7 @@ class FlightDataHandler extends AbstractElementHandler {
 	private FlightDataBranchHandler dataHandler;
 	private final WarningSet warningSet = new WarningSet();
 	private final List<FlightDataBranch> branches = new ArrayList<>();
+	private int branchCount = 0;
 	
 	private final SingleSimulationHandler simHandler;
 	private FlightData data;
@@ -42,13 +43,14 @@ class FlightDataHandler extends AbstractElementHandler {
 			return new WarningHandler(context.getOpenRocketDocument().getRocket(), warningSet);
 		}
 		if (element.equals("databranch")) {
+			int branchIndex = branchCount++;
 			if (attributes.get("name") == null || attributes.get("types") == null) {
 				warnings.add("Illegal flight data definition, ignoring.");
 				return null;
 			}
 			dataHandler = new FlightDataBranchHandler(attributes.get("name"),
 					attributes.get("types"),
-					simHandler, context);
+					simHandler, context, branchIndex);
 			
 			if (attributes.get("optimumAltitude") != null) {
 				double optimumAltitude = Double.NaN;
@@ -66,6 +68,9 @@ class FlightDataHandler extends AbstractElementHandler {
 				}
 				dataHandler.setTimeToOptimumAltitude(timeToOptimumAltitude);
 			}
+			if (attributes.get("datafile") != null) {
+				dataHandler.setDataFile(attributes.get("datafile"), warnings);
+			}
 			return dataHandler;
 		}
 		
@@ -80,7 +85,8 @@ class FlightDataHandler extends AbstractElementHandler {
 		
 		if (element.equals("databranch")) {
 			FlightDataBranch branch = dataHandler.getBranch();
-			if (branch.getLength() > 0) {
+			// Do not load deferred data only to check whether it is empty
+			if (branch.hasDeferredValues() || branch.getLength() > 0) {
 				branches.add(branch);
 			}
 			//		} else if (element.equals("warning")) {
@@ -95,7 +101,14 @@ class FlightDataHandler extends AbstractElementHandler {
 	public void endHandler(String element, HashMap<String, String> attributes,
 			String content, WarningSet warnings) {
 
-		if (branches.size() > 0) {
+		boolean deferred = false;
+		for (FlightDataBranch branch : branches) {
+			deferred |= branch.hasDeferredValues();
+		}
+		
+		// Use the stored summary values for deferred data if available, computing them
+		// would load the data
+		if (branches.size() > 0 && (!deferred || attributes.get("maxaltitude") == null)) {
 			data = new FlightData(branches.toArray(new FlightDataBranch[0]));
 		} else {
 			double maxAltitude = Double.NaN;
@@ -152,6 +165,9 @@ class FlightDataHandler extends AbstractElementHandler {
 
 			data = new FlightData(maxAltitude, maxVelocity, maxAcceleration, maxMach,
 					timeToApogee, flightTime, groundHitVelocity, launchRodVelocity, deploymentVelocity, optimumDelay);
+			for (FlightDataBranch branch : branches) {
+				data.addBranch(branch);
+			}
 		}
 		
 		data.getWarningSet().addAll(warningSet);
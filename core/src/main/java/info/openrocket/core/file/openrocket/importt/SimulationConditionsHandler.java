@@ -11,6 +11,7 @@ import info.openrocket.core.models.wind.WindModelType;
 import info.openrocket.core.rocketcomponent.FlightConfigurationId;
 import info.openrocket.core.rocketcomponent.Rocket;
 import info.openrocket.core.simulation.SimulationOptions;
+import info.openrocket.core.simulation.SimulationStepperMethod;
 import info.openrocket.core.util.GeodeticComputationStrategy;
 
 class SimulationConditionsHandler extends AbstractElementHandler {
@@ -144,6 +145,16 @@ class SimulationConditionsHandler extends AbstractElementHandler {
 					options.setTimeStep(d);
 				}
 			}
+			case "steppermethod" -> {
+				SimulationStepperMethod method = (SimulationStepperMethod) DocumentConfig.findEnum(content,
+						SimulationStepperMethod.class);
+				if (method != null) {
+					options.setStepperMethod(method);
+				} else {
+					warnings.add("Unknown simulation stepper method '" + content + "'");
+				}
+			}
+			case "tabulatedaerodynamics" -> options.setTabulatedAerodynamics(Boolean.parseBoolean(content));
 		}
 	}
 }
\ No newline at end of file
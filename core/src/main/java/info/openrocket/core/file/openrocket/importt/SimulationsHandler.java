@@ -15,10 +15,15 @@ class SimulationsHandler extends AbstractElementHandler {
 	private final DocumentLoadingContext context;
 	private final OpenRocketDocument doc;
 	private SingleSimulationHandler handler;
+	private int simulationCount = 0;
+	/** The loader of the deferred flight data of all simulations, or null if data is loaded immediately */
+	private final FlightDataBranchLoader flightDataLoader;
 
 	public SimulationsHandler(OpenRocketDocument doc, DocumentLoadingContext context) {
 		this.doc = doc;
 		this.context = context;
+		this.flightDataLoader = context.getDocumentSource() != null ?
+				new FlightDataBranchLoader(context.getDocumentSource()) : null;
 	}
 
 	@Override
@@ -30,7 +35,7 @@ class SimulationsHandler extends AbstractElementHandler {
 			return null;
 		}
 
-		handler = new SingleSimulationHandler(doc, context);
+		handler = new SingleSimulationHandler(doc, context, simulationCount++, flightDataLoader);
 		return handler;
 	}
 
@@ -30,6 +30,11 @@ class SingleSimulationHandler extends AbstractElementHandler {
 
 	private final OpenRocketDocument doc;
 
+	/** The index of the simulation element within the simulations element */
+	private final int simulationIndex;
+	/** The loader of deferred flight data, or null if data is loaded immediately */
+	private final FlightDataBranchLoader flightDataLoader;
+
 	private String name;
 
 	private SimulationConditionsHandler conditionHandler;
@@ -38,15 +43,26 @@ class SingleSimulationHandler extends AbstractElementHandler {
 
 	private final List<SimulationExtension> extensions = new ArrayList<>();
 
-	public SingleSimulationHandler(OpenRocketDocument doc, DocumentLoadingContext context) {
+	public SingleSimulationHandler(OpenRocketDocument doc, DocumentLoadingContext context, int simulationIndex,
+			FlightDataBranchLoader flightDataLoader) {
 		this.doc = doc;
 		this.context = context;
+		this.simulationIndex = simulationIndex;
+		this.flightDataLoader = flightDataLoader;
 	}
 
 	public OpenRocketDocument getDocument() {
 		return doc;
 	}
 
+	public int getSimulationIndex() {
+		return simulationIndex;
+	}
+
+	public FlightDataBranchLoader getFlightDataLoader() {
+		return flightDataLoader;
+	}
+
 	@Override
 	public ElementHandler openElement(String element, HashMap<String, String> attributes,
 			WarningSet warnings) {
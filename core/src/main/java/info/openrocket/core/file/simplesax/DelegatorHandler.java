@@ -53,7 +53,9 @@ class DelegatorHandler extends DefaultHandler {
 		if (h != null) {
 			handlerStack.push(h);
 		} else {
-			// Start ignoring elements
+			// Start ignoring elements, the layer is not removed in endElement
+			elementData.pop();
+			elementAttributes.pop();
 			ignore++;
 		}
 	}
@@ -489,7 +489,17 @@ public class ObjUtils {
      * @param obj The obj file to remove the offset from
      */
     public static void removeVertexOffset(DefaultObj obj, CoordTransform transformer) {
-        final FloatTupleBounds bounds = obj.getVertexBounds();
+        removeVertexOffset(obj, getVertexOffset(obj.getVertexBounds(), transformer));
+    }
+
+    /**
+     * Returns the positional offset of vertices with the given bounds, as removed by
+     * {@link #removeVertexOffset(DefaultObj, CoordTransform)}.
+     * @param bounds The bounds of the vertices
+     * @param transformer The coordinate transformer, used to determine the axial axis
+     * @return The offset of the vertices
+     */
+    public static FloatTuple getVertexOffset(FloatTupleBounds bounds, CoordTransform transformer) {
         final FloatTuple min = bounds.getMin();
         final FloatTuple max = bounds.getMax();
 
@@ -524,6 +534,19 @@ public class ObjUtils {
         final float offsetY = (maxY + minY) / 2;
         final float offsetZ = (maxZ + minZ) / 2;
 
+        return new DefaultFloatTuple(offsetX, offsetY, offsetZ);
+    }
+
+    /**
+     * Subtracts the given offset from all vertices of the obj.
+     * @param obj The obj file to remove the offset from
+     * @param offset The offset to remove
+     */
+    public static void removeVertexOffset(DefaultObj obj, FloatTuple offset) {
+        final float offsetX = offset.getX();
+        final float offsetY = offset.getY();
+        final float offsetZ = offset.getZ();
+
         for (int i = 0; i < obj.getNumVertices(); i++) {
             FloatTuple vertex = obj.getVertex(i);
             final float x = vertex.getX() - offsetX;
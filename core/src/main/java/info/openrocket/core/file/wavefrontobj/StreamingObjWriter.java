@@ -0,0 +1,142 @@
+package info.openrocket.core.file.wavefrontobj;
+
+import de.javagl.obj.FloatTuples;
+import de.javagl.obj.ObjFace;
+import de.javagl.obj.ReadableObj;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Writes OBJ data to a stream in separate chunks, e.g. one chunk per rocket component, so that the
+ * complete model never has to be held in memory. The vertex, texture coordinate and normal indices of the
+ * faces of a chunk are offset by the number of vertices, texture coordinates and normals written before it.
+ * <p>
+ * Each chunk is written as its vertices, texture coordinates and normals, followed by its faces. Group and
+ * material changes are only written when they differ from the previously written ones.
+ */
+public class StreamingObjWriter implements Closeable {
+    private static final String DEFAULT_GROUP = "default";
+
+    private final Writer writer;
+
+    private int numVertices = 0;
+    private int numTexCoords = 0;
+    private int numNormals = 0;
+    private int numFaces = 0;
+
+    private Set<String> activeGroupNames = Set.of(DEFAULT_GROUP);
+    private String activeMaterialGroupName = null;
+
+    /**
+     * Create a new writer. The stream is closed when this writer is closed.
+     *
+     * @param outputStream The stream to write to
+     * @param mtlFileNames The names of the MTL files referenced by the OBJ data, may be empty
+     * @throws IOException If an IO error occurs
+     */
+    public StreamingObjWriter(OutputStream outputStream, Collection<String> mtlFileNames) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(outputStream));
+        if (!mtlFileNames.isEmpty()) {
+            writer.write("mtllib " + String.join(" ", mtlFileNames) + "\n");
+        }
+    }
+
+    /**
+     * Append a chunk of OBJ data. The indices of the faces of the chunk refer to the vertices, texture
+     * coordinates and normals of the chunk itself.
+     *
+     * @param chunk The OBJ data to write
+     * @throws IOException If an IO error occurs
+     */
+    public void write(ReadableObj chunk) throws IOException {
+        for (int i = 0; i < chunk.getNumVertices(); i++) {
+            writer.write("v ");
+            writer.write(FloatTuples.createString(chunk.getVertex(i)));
+            writer.write('\n');
+        }
+        for (int i = 0; i < chunk.getNumTexCoords(); i++) {
+            writer.write("vt ");
+            writer.write(FloatTuples.createString(chunk.getTexCoord(i)));
+            writer.write('\n');
+        }
+        for (int i = 0; i < chunk.getNumNormals(); i++) {
+            writer.write("vn ");
+            writer.write(FloatTuples.createString(chunk.getNormal(i)));
+            writer.write('\n');
+        }
+
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < chunk.getNumFaces(); i++) {
+            ObjFace face = chunk.getFace(i);
+
+            Set<String> groupNames = chunk.getActivatedGroupNames(face);
+            if (groupNames != null && !groupNames.equals(activeGroupNames)) {
+                writer.write("g " + String.join(" ", groupNames) + "\n");
+                activeGroupNames = groupNames;
+            }
+
+            String materialGroupName = chunk.getActivatedMaterialGroupName(face);
+            if (materialGroupName != null && !materialGroupName.equals(activeMaterialGroupName)) {
+                writer.write("usemtl " + materialGroupName + "\n");
+                activeMaterialGroupName = materialGroupName;
+            }
+
+            sb.setLength(0);
+            appendFace(sb, face);
+            writer.write(sb.toString());
+        }
+
+        numVertices += chunk.getNumVertices();
+        numTexCoords += chunk.getNumTexCoords();
+        numNormals += chunk.getNumNormals();
+        numFaces += chunk.getNumFaces();
+    }
+
+    /**
+     * Append a face line, with its indices offset by the number of elements written before the current chunk.
+     */
+    private void appendFace(StringBuilder sb, ObjFace face) {
+        sb.append('f');
+        for (int j = 0; j < face.getNumVertices(); j++) {
+            sb.append(' ').append(face.getVertexIndex(j) + numVertices + 1);
+            if (face.containsTexCoordIndices()) {
+                sb.append('/').append(face.getTexCoordIndex(j) + numTexCoords + 1);
+            }
+            if (face.containsNormalIndices()) {
+                if (!face.containsTexCoordIndices()) {
+                    sb.append('/');
+                }
+                sb.append('/').append(face.getNormalIndex(j) + numNormals + 1);
+            }
+        }
+        sb.append('\n');
+    }
+
+    public int getNumVertices() {
+        return numVertices;
+    }
+
+    public int getNumTexCoords() {
+        return numTexCoords;
+    }
+
+    public int getNumNormals() {
+        return numNormals;
+    }
+
+    public int getNumFaces() {
+        return numFaces;
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
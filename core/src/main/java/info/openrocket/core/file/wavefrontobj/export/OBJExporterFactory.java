@@ -1,13 +1,15 @@
 package info.openrocket.core.file.wavefrontobj.export;
 
-import de.javagl.obj.ObjWriter;
+import de.javagl.obj.FloatTuple;
 import info.openrocket.core.appearance.Appearance;
 import info.openrocket.core.appearance.defaults.DefaultAppearance;
 import info.openrocket.core.file.wavefrontobj.CoordTransform;
 import info.openrocket.core.file.wavefrontobj.DefaultMtl;
 import info.openrocket.core.file.wavefrontobj.DefaultMtlWriter;
 import info.openrocket.core.file.wavefrontobj.DefaultObj;
+import info.openrocket.core.file.wavefrontobj.FloatTupleBounds;
 import info.openrocket.core.file.wavefrontobj.ObjUtils;
+import info.openrocket.core.file.wavefrontobj.StreamingObjWriter;
 import info.openrocket.core.file.wavefrontobj.TriangulationHelper;
 import info.openrocket.core.file.wavefrontobj.export.components.BodyTubeExporter;
 import info.openrocket.core.file.wavefrontobj.export.components.FinSetExporter;
@@ -26,16 +28,16 @@ import info.openrocket.core.rocketcomponent.BodyTube;
 import info.openrocket.core.rocketcomponent.ComponentAssembly;
 import info.openrocket.core.rocketcomponent.FinSet;
 import info.openrocket.core.rocketcomponent.FlightConfiguration;
-import info.openrocket.core.rocketcomponent.InstanceContext;
-import info.openrocket.core.rocketcomponent.InstanceMap;
 import info.openrocket.core.rocketcomponent.LaunchLug;
 import info.openrocket.core.rocketcomponent.MassObject;
 import info.openrocket.core.rocketcomponent.MotorMount;
 import info.openrocket.core.rocketcomponent.RailButton;
 import info.openrocket.core.rocketcomponent.RingComponent;
+import info.openrocket.core.rocketcomponent.Rocket;
 import info.openrocket.core.rocketcomponent.RocketComponent;
 import info.openrocket.core.rocketcomponent.Transition;
 import info.openrocket.core.rocketcomponent.TubeFinSet;
+import info.openrocket.core.util.DaemonThreadFactory;
 import info.openrocket.core.util.FileUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -44,13 +46,20 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Deque;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Exporter for rocket components to a Wavefront OBJ file.
@@ -75,6 +84,9 @@ public class OBJExporterFactory {
 
     private static final Logger log = LoggerFactory.getLogger(OBJExporterFactory.class);
 
+    // Lock for the appearance export, which is not thread-safe
+    private static final Object APPEARANCE_LOCK = new Object();
+
     // The different exporters for each component
     private static final Map<Class<? extends RocketComponent>, ExporterFactory<?>> EXPORTER_MAP = Map.of(
             BodyTube.class, (ExporterFactory<BodyTube>) BodyTubeExporter::new,
@@ -106,139 +118,287 @@ public class OBJExporterFactory {
 
     /**
      * Performs the actual exporting.
+     * <p>
+     * The meshes of the components are generated in parallel. Components lazily calculate and cache their
+     * geometry, so each export thread works on its own copy of the rocket. When exporting to a single file, the
+     * meshes are written to the file in component order as soon as they are ready, so only a limited number of
+     * component meshes is held in memory at any time. The exception is removing the position offset, which
+     * depends on the bounds of all meshes.
      */
     public void doExport() {
-        DefaultObj obj = new DefaultObj();
-        Map<String, DefaultObj> objFileMap;
-        Map<DefaultObj, List<DefaultMtl>> materials = new HashMap<>();
-        materials.put(obj, new ArrayList<>());
-        boolean exportAsSeparateFiles = this.options.isExportAsSeparateFiles();
-
-        if (exportAsSeparateFiles) {
-            objFileMap = new HashMap<>();
-        } else {
-            objFileMap = Map.of(this.file.getAbsolutePath(), obj);
+        List<RocketComponent> exportComponents = getComponentsToExport();
+        List<String> groupNames = new ArrayList<>(exportComponents.size());
+        int idx = 1;
+        for (RocketComponent component : exportComponents) {
+            groupNames.add(sanitizeGroupName(idx + "_" + component.getName()));
+            idx++;
         }
 
-        // Get all the components to export
-        Set<RocketComponent> componentsToExport = new HashSet<>(this.components);
-        if (this.options.isExportChildren()) {
-            for (RocketComponent component : this.components) {
-                componentsToExport.addAll(component.getAllChildren());
-            }
+        // At most one task per thread runs at a time, so one rocket copy per thread suffices
+        int threads = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), exportComponents.size()));
+        BlockingQueue<FlightConfiguration> configurations = new ArrayBlockingQueue<>(threads);
+        for (int i = 0; i < threads; i++) {
+            Rocket copy = this.configuration.getRocket().copyWithOriginalID();
+            configurations.add(this.configuration.clone(copy));
         }
 
-        // Sort the components according to how they are ordered in the rocket (component tree)
-        Set<RocketComponent> sortedComponents = sortComponents(componentsToExport);
-
-        int idx = 1;
-        for (RocketComponent component : sortedComponents) {
-            if (component instanceof ComponentAssembly) {
-                continue;
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new DaemonThreadFactory("OBJExport"));
+        try {
+            if (this.options.isExportAsSeparateFiles()) {
+                exportSeparateFiles(executor, configurations, exportComponents, groupNames);
+            } else {
+                exportSingleFile(executor, threads, configurations, exportComponents, groupNames);
             }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
 
-            // Don't export inactive components
-            if (!this.configuration.isComponentActive(component)) {
-                continue;
-            }
-
-            // Get the instance transforms
-            InstanceMap map = configuration.getActiveInstances();
-            ArrayList<InstanceContext> contexts = map.get(component);
-            contexts.get(0).transform.getXrotation();
-
-            // If separate export, create a new OBJ for each component
-            if (exportAsSeparateFiles) {
-                obj = new DefaultObj();
-                materials.put(obj, new ArrayList<>());
-            }
-
-            // Component exporting
-            String groupName = idx + "_" + component.getName();
-            groupName = sanitizeGroupName(groupName);
-            handleComponent(obj, this.configuration, this.options.getTransformer(), component, groupName,
-                    materials.get(obj), this.options.getLOD(), options, warnings);
-
-            // If separate export, add this object to the map of objects to export
-            if (exportAsSeparateFiles) {
-                String path = FileUtils.removeExtension(this.file.getAbsolutePath()) + "_" + groupName + ".obj";
-                objFileMap.put(path, obj);
-            }
+    /**
+     * Export each component to its own OBJ (and MTL) file.
+     */
+    private void exportSeparateFiles(ExecutorService executor, BlockingQueue<FlightConfiguration> configurations,
+                                     List<RocketComponent> exportComponents, List<String> groupNames) {
+        List<Future<ComponentMesh>> futures = new ArrayList<>(exportComponents.size());
+        for (int i = 0; i < exportComponents.size(); i++) {
+            final RocketComponent component = exportComponents.get(i);
+            final String groupName = groupNames.get(i);
+            futures.add(executor.submit(() -> {
+                ComponentMesh mesh = createMesh(configurations, component, groupName);
+
+                // Remove position offset
+                if (options.isRemoveOffset()) {
+                    // Because of some rotation and translation operations when creating the meshes, the bounds can be inaccurate.
+                    // Therefore, we will recalculate them to be sure.
+                    mesh.obj.recalculateAllVertexBounds();
+                    ObjUtils.removeVertexOffset(mesh.obj, options.getTransformer());
+                }
+                scaleMesh(mesh);
+
+                String filePath = FileUtils.removeExtension(file.getAbsolutePath()) + "_" + groupName + ".obj";
+                List<String> mtlFileNames = List.of();
+                if (options.isExportAppearance()) {
+                    String mtlFilePath = FileUtils.removeExtension(filePath) + ".mtl";
+                    writeMtl(mesh.materials, mtlFilePath);
+                    mtlFileNames = List.of(mtlFilePath);
+                }
+                try (StreamingObjWriter writer = new StreamingObjWriter(new FileOutputStream(filePath, false), mtlFileNames)) {
+                    writer.write(mesh.obj);
+                }
+                return mesh;
+            }));
+        }
 
-            idx++;
+        for (Future<ComponentMesh> future : futures) {
+            this.warnings.addAll(getResult(future).warnings);
         }
+    }
 
-        // Apply export options and write the OBJ files
-        for (Map.Entry<String, DefaultObj> entry : objFileMap.entrySet()) {
-            String filePath = entry.getKey();
-            obj = entry.getValue();
-
-            // Triangulate mesh
-            if (this.options.isTriangulate()) {
-                ObjUtils.TriangulationMethod triangulationMethod = this.options.getTriangulationMethod();
-                if (triangulationMethod == ObjUtils.TriangulationMethod.DELAUNAY) {
-                    obj = TriangulationHelper.constrainedDelaunayTriangulate(obj);
-                } else if (triangulationMethod == ObjUtils.TriangulationMethod.SIMPLE) {
-                    obj = TriangulationHelper.simpleTriangulate(obj);
-                } else {
-                    throw new IllegalArgumentException("Unsupported triangulation method: " + triangulationMethod);
+    /**
+     * Export all components to one OBJ file, streaming the component meshes to the file in component order.
+     */
+    private void exportSingleFile(ExecutorService executor, int threads, BlockingQueue<FlightConfiguration> configurations,
+                                  List<RocketComponent> exportComponents, List<String> groupNames) {
+        String filePath = this.file.getAbsolutePath();
+        String mtlFilePath = FileUtils.removeExtension(filePath) + ".mtl";
+        List<String> mtlFileNames = this.options.isExportAppearance() ? List.of(mtlFilePath) : List.of();
+        List<DefaultMtl> materials = new ArrayList<>();
+
+        try (StreamingObjWriter writer = new StreamingObjWriter(new FileOutputStream(filePath, false), mtlFileNames)) {
+            if (this.options.isRemoveOffset()) {
+                // The offset depends on the bounds of all meshes, so all meshes are created before writing any
+                List<ComponentMesh> meshes = new ArrayList<>(exportComponents.size());
+                for (Future<ComponentMesh> future : submitMeshes(executor, configurations, exportComponents, groupNames)) {
+                    meshes.add(getResult(future));
+                }
+                FloatTuple offset = getVertexOffset(meshes);
+                for (ComponentMesh mesh : meshes) {
+                    ObjUtils.removeVertexOffset(mesh.obj, offset);
+                    scaleMesh(mesh);
+                    writeMesh(writer, mesh, materials);
+                }
+            } else {
+                Deque<Future<ComponentMesh>> pending = new ArrayDeque<>();
+                for (int i = 0; i < exportComponents.size(); i++) {
+                    if (pending.size() >= 2 * threads) {
+                        writeMesh(writer, getResult(pending.removeFirst()), materials);
+                    }
+                    final RocketComponent component = exportComponents.get(i);
+                    final String groupName = groupNames.get(i);
+                    pending.add(executor.submit(() -> {
+                        ComponentMesh mesh = createMesh(configurations, component, groupName);
+                        scaleMesh(mesh);
+                        return mesh;
+                    }));
+                }
+                while (!pending.isEmpty()) {
+                    writeMesh(writer, getResult(pending.removeFirst()), materials);
                 }
             }
+            log.debug("Exported {} vertices and {} faces to {}", writer.getNumVertices(), writer.getNumFaces(), filePath);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
 
-            // Remove position offset
-            if (this.options.isRemoveOffset()) {
+        // Export materials
+        if (this.options.isExportAppearance()) {
+            writeMtl(materials, mtlFilePath);
+        }
+    }
+
+    /**
+     * Submits the creation of the meshes of all components, with their vertex bounds recalculated.
+     */
+    private List<Future<ComponentMesh>> submitMeshes(ExecutorService executor, BlockingQueue<FlightConfiguration> configurations,
+                                                     List<RocketComponent> exportComponents, List<String> groupNames) {
+        List<Future<ComponentMesh>> futures = new ArrayList<>(exportComponents.size());
+        for (int i = 0; i < exportComponents.size(); i++) {
+            final RocketComponent component = exportComponents.get(i);
+            final String groupName = groupNames.get(i);
+            futures.add(executor.submit(() -> {
+                ComponentMesh mesh = createMesh(configurations, component, groupName);
                 // Because of some rotation and translation operations when creating the meshes, the bounds can be inaccurate.
                 // Therefore, we will recalculate them to be sure.
-                // Is a bit computationally expensive, but it's the only way to be sure...
-                obj.recalculateAllVertexBounds();
+                mesh.obj.recalculateAllVertexBounds();
+                return mesh;
+            }));
+        }
+        return futures;
+    }
 
-                ObjUtils.removeVertexOffset(obj, this.options.getTransformer());
+    /**
+     * Returns the offset to remove from the vertices of all meshes, based on their combined bounds.
+     */
+    private FloatTuple getVertexOffset(List<ComponentMesh> meshes) {
+        FloatTupleBounds bounds = new FloatTupleBounds();
+        for (ComponentMesh mesh : meshes) {
+            if (mesh.obj.getNumVertices() > 0) {
+                bounds.updateBounds(mesh.obj.getVertexBounds().getMin());
+                bounds.updateBounds(mesh.obj.getVertexBounds().getMax());
             }
+        }
+        return ObjUtils.getVertexOffset(bounds, this.options.getTransformer());
+    }
 
-            // Perform scaling
-            if (Float.compare(options.getScaling(), 1) != 0) {
-                ObjUtils.scaleVertices(obj, options.getScaling());
+    /**
+     * Creates the mesh of a component from one of the rocket copies, which is taken from the queue for the duration
+     * of the call.
+     * @param configurations the configurations of the rocket copies that are not in use
+     * @param component the component of the original rocket to create the mesh of
+     * @param groupName the group name of the component
+     * @return the mesh
+     */
+    private ComponentMesh createMesh(BlockingQueue<FlightConfiguration> configurations, RocketComponent component,
+                                     String groupName) throws InterruptedException {
+        FlightConfiguration config = configurations.take();
+        try {
+            RocketComponent copy = config.getRocket().findComponent(component.getID());
+            if (copy == null) {
+                throw new IllegalStateException("Component " + component.getName() + " not found in rocket copy");
             }
+            return createMesh(config, copy, groupName, this.options.isExportAppearance());
+        } finally {
+            configurations.add(config);
+        }
+    }
 
-            // Export materials
-            if (options.isExportAppearance()) {
-                String mtlFilePath = FileUtils.removeExtension(filePath) + ".mtl";
-                List<DefaultMtl> mtls = materials.get(obj);
-                if (mtls != null) {
-                    try (OutputStream mtlOutputStream = new FileOutputStream(mtlFilePath, false)) {
-                        DefaultMtlWriter.write(mtls, mtlOutputStream);
-                    } catch (IOException e) {
-                        throw new RuntimeException(e);
-                    }
-                } else {
-                    log.debug("No materials to export for {}", filePath);
-                }
-                obj.setMtlFileNames(List.of(mtlFilePath));
+    /**
+     * Creates the (triangulated) mesh of a single component.
+     * @param config the flight configuration of the rocket of the component
+     * @param component the component to create the mesh of
+     * @param groupName the group name of the component
+     * @param exportAppearance whether to export the appearance of the component
+     * @return the mesh
+     */
+    private ComponentMesh createMesh(FlightConfiguration config, RocketComponent component, String groupName,
+                                     boolean exportAppearance) {
+        ComponentMesh mesh = new ComponentMesh();
+        handleComponent(mesh.obj, config, this.options.getTransformer(), component, groupName,
+                mesh.materials, this.options.getLOD(), this.options, exportAppearance, mesh.warnings);
+
+        // Triangulate mesh
+        if (this.options.isTriangulate()) {
+            ObjUtils.TriangulationMethod triangulationMethod = this.options.getTriangulationMethod();
+            if (triangulationMethod == ObjUtils.TriangulationMethod.DELAUNAY) {
+                mesh.obj = TriangulationHelper.constrainedDelaunayTriangulate(mesh.obj);
+            } else if (triangulationMethod == ObjUtils.TriangulationMethod.SIMPLE) {
+                mesh.obj = TriangulationHelper.simpleTriangulate(mesh.obj);
+            } else {
+                throw new IllegalArgumentException("Unsupported triangulation method: " + triangulationMethod);
             }
+        }
 
-            // Write the OBJ file
-            writeObj(obj, filePath);
+        return mesh;
+    }
 
-            // Reset the material
-            if (options.isExportAppearance()) {
-                obj.resetToBlankMaterial();
-            }
+    private void scaleMesh(ComponentMesh mesh) {
+        if (Float.compare(this.options.getScaling(), 1) != 0) {
+            ObjUtils.scaleVertices(mesh.obj, this.options.getScaling());
         }
     }
 
-    private static void writeObj(DefaultObj obj, String filePath) {
-        try (OutputStream objOutputStream = new FileOutputStream(filePath, false)) {
-            ObjWriter.write(obj, objOutputStream);
+    private void writeMesh(StreamingObjWriter writer, ComponentMesh mesh, List<DefaultMtl> materials) throws IOException {
+        writer.write(mesh.obj);
+        materials.addAll(mesh.materials);
+        this.warnings.addAll(mesh.warnings);
+    }
+
+    private static void writeMtl(List<DefaultMtl> materials, String mtlFilePath) {
+        try (OutputStream mtlOutputStream = new FileOutputStream(mtlFilePath, false)) {
+            DefaultMtlWriter.write(materials, mtlOutputStream);
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
     }
 
+    private static <T> T getResult(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("OBJ export was interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new RuntimeException(cause);
+        }
+    }
+
+    /**
+     * Returns the components to export, sorted according to how they are ordered in the rocket (component tree).
+     * Component assemblies and inactive components are not exported.
+     */
+    private List<RocketComponent> getComponentsToExport() {
+        Set<RocketComponent> componentsToExport = new HashSet<>(this.components);
+        if (this.options.isExportChildren()) {
+            for (RocketComponent component : this.components) {
+                componentsToExport.addAll(component.getAllChildren());
+            }
+        }
+
+        List<RocketComponent> exportComponents = new ArrayList<>();
+        for (RocketComponent component : sortComponents(componentsToExport)) {
+            if (component instanceof ComponentAssembly) {
+                continue;
+            }
+
+            // Don't export inactive components
+            if (!this.configuration.isComponentActive(component)) {
+                continue;
+            }
+
+            exportComponents.add(component);
+        }
+        return exportComponents;
+    }
+
     @SuppressWarnings("unchecked") // This is safe because of the structure we set up.
     private <T extends RocketComponent> void handleComponent(DefaultObj obj, FlightConfiguration config, CoordTransform transformer,
                                                              T component, String groupName, List<DefaultMtl> materials,
                                                              ObjUtils.LevelOfDetail LOD, OBJExportOptions options,
-                                                             WarningSet warnings) {
+                                                             boolean exportAppearance, WarningSet warnings) {
         ExporterFactory<T> factory = null;
         Class<?> currentClass = component.getClass();
 
@@ -253,7 +413,7 @@ public class OBJExporterFactory {
         }
 
         // Export material
-        if (options.isExportAppearance()) {
+        if (exportAppearance) {
             String materialName = "mat_" + groupName;
 
             // Get the component appearance
@@ -262,8 +422,7 @@ public class OBJExporterFactory {
                 appearance = DefaultAppearance.getDefaultAppearance(component);
             }
 
-            AppearanceExporter appearanceExporter = new AppearanceExporter(obj, appearance, file, options, materialName, materials);
-            appearanceExporter.doExport();
+            exportAppearance(obj, appearance, materialName, materials);
         }
 
         // Export component
@@ -277,11 +436,10 @@ public class OBJExporterFactory {
             Motor motor = motoConfig.getMotor();
 
             // Export the motor appearance
-            if (options.isExportAppearance() && motor != null) {
+            if (exportAppearance && motor != null) {
                 String materialName = "mat_" + groupName + "_" + motor.getMotorName();
                 Appearance appearance = DefaultAppearance.getDefaultAppearance(motor);
-                AppearanceExporter appearanceExporter = new AppearanceExporter(obj, appearance, file, options, materialName, materials);
-                appearanceExporter.doExport();
+                exportAppearance(obj, appearance, materialName, materials);
             }
 
             // Export the motor geometry
@@ -290,6 +448,17 @@ public class OBJExporterFactory {
         }
     }
 
+    /**
+     * Export an appearance to the materials. The appearance export writes decal files and uses shared default
+     * appearances, so it is serialized between the export threads.
+     */
+    private void exportAppearance(DefaultObj obj, Appearance appearance, String materialName, List<DefaultMtl> materials) {
+        synchronized (APPEARANCE_LOCK) {
+            AppearanceExporter appearanceExporter = new AppearanceExporter(obj, appearance, file, options, materialName, materials);
+            appearanceExporter.doExport();
+        }
+    }
+
     /**
      * Sort a set of components according to how they are ordered in the rocket (component tree).
      * @param components components to sort
@@ -325,6 +494,15 @@ public class OBJExporterFactory {
         }
     }
 
+    /**
+     * The mesh of a single component, with its materials and the warnings that occurred while creating it.
+     */
+    private static class ComponentMesh {
+        private DefaultObj obj = new DefaultObj();
+        private final List<DefaultMtl> materials = new ArrayList<>();
+        private final WarningSet warnings = new WarningSet();
+    }
+
     interface ExporterFactory<T extends RocketComponent> {
         RocketComponentExporter<T> create(DefaultObj obj, FlightConfiguration config, CoordTransform transformer,
                                           T component, String groupName, ObjUtils.LevelOfDetail LOD, WarningSet warnings);
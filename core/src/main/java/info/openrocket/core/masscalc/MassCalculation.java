@@ -2,6 +2,7 @@ package info.openrocket.core.masscalc;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
 import info.openrocket.core.motor.Motor;
@@ -210,10 +211,12 @@ public class MassCalculation {
 		// If we do have MotorClusterStates, we need to adjust
 		// time according to motor ignition time.
 		double motorTime = simulationTime;
+		MotorClusterState motorState = null;
 		if (activeMotorList != null) {
 			for (MotorClusterState currentMotorState : activeMotorList ) {
 				if (currentMotorState.getMotor() == motor) {
 					motorTime = currentMotorState.getMotorTime(simulationTime);
+					motorState = currentMotorState;
 					break;
 				}
 			}
@@ -230,14 +233,14 @@ public class MassCalculation {
 		double eachCMx;  // CoM from beginning of motor
 		
 		if ( this.type.includesMotorCasing && this.type.includesPropellant ){
-			eachMass = motor.getTotalMass( motorTime );
-			eachCMx = motor.getCMx( motorTime);
+			eachMass = getMotorMass( motor, motorState, motorTime );
+			eachCMx = getMotorCMx( motor, motorState, motorTime );
 		}else if( this.type.includesMotorCasing ) {
 			eachMass = motor.getTotalMass( Motor.PSEUDO_TIME_BURNOUT );
 			eachCMx = motor.getCMx( Motor.PSEUDO_TIME_BURNOUT );
 		} else {
-			final double eachMotorMass = motor.getTotalMass( motorTime );
-			final double eachMotorCMx = motor.getCMx( motorTime ); // CoM from beginning of motor
+			final double eachMotorMass = getMotorMass( motor, motorState, motorTime );
+			final double eachMotorCMx = getMotorCMx( motor, motorState, motorTime ); // CoM from beginning of motor
 			final double eachCasingMass = motor.getBurnoutMass();
 			final double eachCasingCMx = motor.getBurnoutCGx();
 			
@@ -282,6 +285,26 @@ public class MassCalculation {
 		
 		return this;
 	}
+
+	/**
+	 * Return the mass of a motor, using the thrust curve cursor of the motor state during a simulation.
+	 */
+	private static double getMotorMass(final Motor motor, final MotorClusterState motorState, final double motorTime) {
+		if (motorState != null) {
+			return motorState.getMotorMass(motorTime);
+		}
+		return motor.getTotalMass(motorTime);
+	}
+
+	/**
+	 * Return the CM position of a motor, using the thrust curve cursor of the motor state during a simulation.
+	 */
+	private static double getMotorCMx(final Motor motor, final MotorClusterState motorState, final double motorTime) {
+		if (motorState != null) {
+			return motorState.getMotorCMx(motorTime);
+		}
+		return motor.getCMx(motorTime);
+	}
 	
 	/**
 	 * Returns the mass and inertia data for this component and all subcomponents.
@@ -471,6 +494,54 @@ public class MassCalculation {
 		return this;
 	}
 	
+	/**
+	 * Collect the motor mounts of the tree, each as a calculation of the mount data in the
+	 * rocket frame.  The mounts are collected in the same order as they are visited by
+	 * {@link #calculateMotors()}, so merging the mount data yields the same motor mass data.
+	 * <p>
+	 * The mounts depend only on the rocket structure, so they can be reused while the motor
+	 * state changes during a simulation, see {@link #calculateMotors(List)}.
+	 *
+	 * @param mounts	the list to add the motor mounts to
+	 */
+	void collectMotorMounts(final List<MassCalculation> mounts) {
+		final RocketComponent component = this.root;
+		final Transformation parentTransform = this.transform;
+
+		if (component.isMotorMount()) {
+			mounts.add(this.copy(component, parentTransform));
+		}
+
+		final int instanceCount = component.getInstanceCount();
+		Coordinate[] instanceLocations = component.getInstanceLocations();
+		for (int instanceNumber = 0; instanceNumber < instanceCount; ++instanceNumber) {
+			Coordinate currentLocation = instanceLocations[instanceNumber];
+			Transformation currentTransform = parentTransform.applyTransformation(Transformation.getTranslationTransform(currentLocation));
+
+			for (RocketComponent child : component.getChildren()) {
+				copy(child, currentTransform).collectMotorMounts(mounts);
+			}
+		}
+	}
+
+	/**
+	 * Calculate the motor data of previously collected motor mounts, using the type, time
+	 * and motor states of this calculation.
+	 *
+	 * @param mounts	the motor mounts, see {@link #collectMotorMounts(List)}
+	 * @return			this calculation
+	 */
+	MassCalculation calculateMotors(final List<MassCalculation> mounts) {
+		for (MassCalculation mount : mounts) {
+			MassCalculation motor = this.copy(mount.root, mount.transform);
+			motor.calculateMountData();
+			if (MIN_MASS < motor.getMass()) {
+				this.merge(motor);
+			}
+		}
+		return this;
+	}
+
 	/** 
 	 * MOI Calculation needs to be a two-step process:
 	 * (1) calculate overall Center-of-Mass (CM) first (down inline with data-gathering)
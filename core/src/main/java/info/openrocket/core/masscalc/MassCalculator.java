@@ -1,21 +1,40 @@
 package info.openrocket.core.masscalc;
 
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import info.openrocket.core.motor.Motor;
 import info.openrocket.core.rocketcomponent.FlightConfiguration;
+import info.openrocket.core.rocketcomponent.FlightConfigurationId;
+import info.openrocket.core.rocketcomponent.Rocket;
 import info.openrocket.core.simulation.MotorClusterState;
 import info.openrocket.core.simulation.SimulationStatus;
+import info.openrocket.core.util.BugException;
+import info.openrocket.core.util.Coordinate;
 import info.openrocket.core.util.MathUtil;
 import info.openrocket.core.util.ModID;
 import info.openrocket.core.util.Monitorable;
 import info.openrocket.core.util.Transformation;
 public class MassCalculator implements Monitorable {
+	private static final Logger log = LoggerFactory.getLogger(MassCalculator.class);
 
 	public static final double MIN_MASS = MathUtil.EPSILON;
 
+	/**
+	 * Whether to compare the incrementally calculated mass data of simulations with a full
+	 * calculation on every step.  Enabled by the system property "openrocket.debug.masscalc".
+	 */
+	private static final boolean PARITY_CHECK = System.getProperty("openrocket.debug.masscalc") != null;
+	private static final double PARITY_TOLERANCE = 1e-9;
+
 	/*
 	 * Cached data. All CG data is in absolute coordinates. All moments of inertia
 	 * are relative to their respective CG.
@@ -27,6 +46,9 @@ public class MassCalculator implements Monitorable {
 
 	private final ModID modID = ModID.ZERO;
 
+	// The structure of the most recently simulated rocket and configuration
+	private volatile StructureCache structureCache = null;
+
 	////////////////// Constructors ///////////////////
 	public MassCalculator() {
 	}
@@ -99,6 +121,131 @@ public class MassCalculator implements Monitorable {
 		return calculate(MassCalculation.Type.MOTOR, status);
 	}
 
+	////////////////// Simulation mass properties ///////////////////
+
+	/**
+	 * Calculates the mass data of the rocket's structure during a simulation.  The structure
+	 * only changes when the rocket or the active stages change (e.g. at stage separation), so
+	 * the result is cached for each combination of active stages and reused by later steps
+	 * and later simulations of the same rocket.
+	 * 
+	 * @param status the current simulation status
+	 * @return the mass data of the structure, equal to {@link #calculateStructure(FlightConfiguration)}
+	 */
+	public RigidBody getStructureMass(final SimulationStatus status) {
+		final FlightConfiguration config = status.getConfiguration();
+		final RigidBody structure = getStructureCache(config).getStructure(config);
+		if (PARITY_CHECK) {
+			checkParity("structure", structure, calculateStructure(config));
+		}
+		return structure;
+	}
+
+	/**
+	 * Calculates the mass data of all motors during a simulation.  Only the motor mounts,
+	 * which are cached with the structure, are evaluated at the current motor times instead of
+	 * walking the whole rocket.
+	 * 
+	 * @param status the current simulation status
+	 * @return the mass data of the motors, equal to {@link #calculateMotor(SimulationStatus)}
+	 */
+	public RigidBody getMotorMass(final SimulationStatus status) {
+		final FlightConfiguration config = status.getConfiguration();
+		final StructureCache cache = getStructureCache(config);
+		MassCalculation calculation = new MassCalculation(MassCalculation.Type.MOTOR, config,
+				status.getSimulationTime(), status.getActiveMotors(), config.getRocket(), Transformation.IDENTITY, null);
+		calculation.calculateMotors(cache.motorMounts);
+		final RigidBody motors = calculation.calculateMomentOfInertia();
+		if (PARITY_CHECK) {
+			checkParity("motor", motors, calculateMotor(status));
+		}
+		return motors;
+	}
+
+	private StructureCache getStructureCache(final FlightConfiguration config) {
+		StructureCache cache = structureCache;
+		if (cache == null || !cache.isValid(config)) {
+			cache = new StructureCache(config);
+			structureCache = cache;
+		}
+		return cache;
+	}
+
+	/**
+	 * Return the stage activeness of a flight configuration, used as the key of the
+	 * cached structure mass data.
+	 */
+	private static BitSet getActiveStages(final FlightConfiguration config) {
+		final BitSet activeStages = new BitSet();
+		for (int stageNumber = 0; stageNumber < config.getStageCount(); stageNumber++) {
+			if (config.isStageActive(stageNumber)) {
+				activeStages.set(stageNumber);
+			}
+		}
+		return activeStages;
+	}
+
+	/**
+	 * Compare incrementally calculated mass data with the full calculation.
+	 *
+	 * @throws BugException if the mass data differ
+	 */
+	static void checkParity(final String name, final RigidBody incremental, final RigidBody full) {
+		if (!isClose(incremental.getMass(), full.getMass()) ||
+				!isClose(incremental.getCM(), full.getCM()) ||
+				!isClose(incremental.getIxx(), full.getIxx()) ||
+				!isClose(incremental.getIyy(), full.getIyy()) ||
+				!isClose(incremental.getIzz(), full.getIzz())) {
+			log.error("Incremental " + name + " mass data " + incremental + " differs from full calculation " + full);
+			throw new BugException("Incremental " + name + " mass data " + incremental +
+					" differs from full calculation " + full);
+		}
+	}
+
+	private static boolean isClose(final Coordinate a, final Coordinate b) {
+		return isClose(a.x, b.x) && isClose(a.y, b.y) && isClose(a.z, b.z);
+	}
+
+	private static boolean isClose(final double a, final double b) {
+		return Math.abs(a - b) <= PARITY_TOLERANCE * Math.max(1, Math.max(Math.abs(a), Math.abs(b)));
+	}
+
+	/**
+	 * The structure mass data and the motor mounts of a rocket and flight configuration ID,
+	 * valid while the rocket is unchanged.  The simulations of a configuration each use a
+	 * clone of it, and the stages are activated and deactivated during a simulation, so
+	 * neither the configuration object nor its modification ID is compared.  The motor mounts
+	 * are evaluated with the active stages of each calculation, and the structure mass data
+	 * is cached for each combination of active stages.
+	 */
+	private static final class StructureCache {
+		private final Rocket rocket;
+		private final ModID rocketModID;
+		private final FlightConfigurationId configId;
+		private final Map<BitSet, RigidBody> structures = new ConcurrentHashMap<>();
+		private final List<MassCalculation> motorMounts = new ArrayList<>();
+
+		StructureCache(final FlightConfiguration config) {
+			this.rocket = config.getRocket();
+			this.rocketModID = rocket.getModID();
+			this.configId = config.getId();
+
+			MassCalculation calculation = new MassCalculation(MassCalculation.Type.MOTOR, config, 0, null,
+					rocket, Transformation.IDENTITY, null);
+			calculation.collectMotorMounts(motorMounts);
+		}
+
+		boolean isValid(final FlightConfiguration config) {
+			return this.rocket == config.getRocket() &&
+					this.rocketModID == rocket.getModID() &&
+					this.configId.equals(config.getId());
+		}
+
+		RigidBody getStructure(final FlightConfiguration config) {
+			return structures.computeIfAbsent(getActiveStages(config), stages -> calculateStructure(config));
+		}
+	}
+
 	////////////////// Mass property Wrappers ///////////////////
 	// all mass calculation calls should probably call through one of these two
 	////////////////// wrappers.
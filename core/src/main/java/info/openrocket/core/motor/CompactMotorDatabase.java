@@ -0,0 +1,449 @@
+package info.openrocket.core.motor;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import info.openrocket.core.util.Coordinate;
+
+/**
+ * A compact binary database of thrust curve motors.
+ * <p>
+ * The database starts with a fixed-width index record per motor, holding the motor
+ * information and statistics needed for listing and filtering motors.  The index can be
+ * scanned without decoding any thrust curves.  Motors created from the database decode
+ * their time, thrust and CG points from the database on first use.
+ * <p>
+ * The file layout (all values big-endian) is:
+ * <ul>
+ * <li>header: magic, version, motor count, record size, string count, string table offset,
+ *     reserved</li>
+ * <li>index: one record of {@link #RECORD_SIZE} bytes per motor</li>
+ * <li>string table: the length in bytes and UTF-8 bytes of each string, referenced by
+ *     index from the records, -1 for <code>null</code></li>
+ * <li>data: for each motor, the standard delays followed by the time, thrust, CG x, y, z
+ *     and mass points</li>
+ * </ul>
+ * Files are memory-mapped when possible.  The version must be incremented whenever the
+ * layout changes.
+ */
+public final class CompactMotorDatabase {
+
+	/** "ORMD" */
+	private static final int MAGIC = 0x4F524D44;
+	public static final int VERSION = 1;
+
+	private static final int HEADER_SIZE = 28;
+	static final int RECORD_SIZE = 144;
+
+	// Record field offsets
+	private static final int MANUFACTURER = 0;
+	private static final int DESIGNATION = 4;
+	private static final int COMMON_NAME = 8;
+	private static final int CODE = 12;
+	private static final int DESCRIPTION = 16;
+	private static final int CASE_INFO = 20;
+	private static final int PROPELLANT_INFO = 24;
+	private static final int DIGEST = 28;
+	private static final int TYPE = 32;
+	private static final int AVAILABLE = 33;
+	private static final int IMPULSE_CLASS = 34;
+	private static final int DELAY_COUNT = 36;
+	private static final int SAMPLE_COUNT = 40;
+	private static final int DATA_OFFSET = 44;
+	private static final int DIAMETER = 48;
+	private static final int LENGTH = 56;
+	private static final int INITIAL_MASS = 64;
+	private static final int MAX_THRUST = 72;
+	private static final int BURN_TIME_ESTIMATE = 80;
+	private static final int AVERAGE_THRUST = 88;
+	private static final int TOTAL_IMPULSE = 96;
+	private static final int LAUNCH_CGX = 104;
+	private static final int LAUNCH_MASS = 112;
+	private static final int BURNOUT_CGX = 120;
+	private static final int BURNOUT_MASS = 128;
+	private static final int BURN_TIME = 136;
+
+	private static final Motor.Type[] TYPES = Motor.Type.values();
+
+	private final ByteBuffer buffer;
+	private final int count;
+	private final String[] strings;
+	// Manufacturers by string index, looked up on first use
+	private final Manufacturer[] manufacturers;
+
+	private CompactMotorDatabase(ByteBuffer buffer) throws IOException {
+		this.buffer = buffer;
+		if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+			throw new IOException("Not a motor database");
+		}
+		int version = buffer.getInt(4);
+		if (version != VERSION) {
+			throw new IOException("Unsupported motor database version " + version + ", expected " + VERSION);
+		}
+		this.count = buffer.getInt(8);
+		if (buffer.getInt(12) != RECORD_SIZE) {
+			throw new IOException("Invalid motor database record size " + buffer.getInt(12));
+		}
+
+		// The strings are few and shared by many motors, so they are decoded once
+		this.strings = new String[buffer.getInt(16)];
+		int position = buffer.getInt(20);
+		for (int i = 0; i < strings.length; i++) {
+			int length = buffer.getInt(position);
+			byte[] bytes = new byte[length];
+			for (int j = 0; j < length; j++) {
+				bytes[j] = buffer.get(position + 4 + j);
+			}
+			strings[i] = new String(bytes, StandardCharsets.UTF_8);
+			position += 4 + length;
+		}
+		this.manufacturers = new Manufacturer[strings.length];
+	}
+
+	/**
+	 * Open a motor database file.  The file is memory-mapped, so its contents are not
+	 * read into the heap.
+	 *
+	 * @param file	the database file.
+	 * @return		the database.
+	 * @throws IOException	if the file cannot be read or is not a supported motor database.
+	 */
+	public static CompactMotorDatabase open(File file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			return new CompactMotorDatabase(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		}
+	}
+
+	/**
+	 * Read a motor database from a stream, e.g. a resource within a jar file that cannot be
+	 * memory-mapped.  The stream is not closed.
+	 *
+	 * @param is	the stream to read.
+	 * @return		the database.
+	 * @throws IOException	if the stream cannot be read or is not a supported motor database.
+	 */
+	public static CompactMotorDatabase read(InputStream is) throws IOException {
+		return new CompactMotorDatabase(ByteBuffer.wrap(is.readAllBytes()));
+	}
+
+	/**
+	 * Write motors as a motor database.  The stream is not closed.
+	 *
+	 * @param motors	the motors to write.
+	 * @param os		the stream to write to.
+	 * @throws IOException	if writing fails.
+	 */
+	public static void write(List<ThrustCurveMotor> motors, OutputStream os) throws IOException {
+		Map<String, Integer> stringIndex = new LinkedHashMap<>();
+		int[][] stringRefs = new int[motors.size()][];
+		for (int i = 0; i < motors.size(); i++) {
+			ThrustCurveMotor m = motors.get(i);
+			String[] values = { m.getManufacturer().getDisplayName(), m.getDesignation(), m.getCommonName(),
+					m.getCode(), m.getDescription(), m.getCaseInfo(), m.getPropellantInfo(), m.getDigest() };
+			stringRefs[i] = new int[values.length];
+			for (int j = 0; j < values.length; j++) {
+				if (values[j] == null) {
+					stringRefs[i][j] = -1;
+				} else {
+					stringRefs[i][j] = stringIndex.computeIfAbsent(values[j], s -> stringIndex.size());
+				}
+			}
+		}
+
+		List<byte[]> stringBytes = new ArrayList<>();
+		int stringTableSize = 0;
+		for (String s : stringIndex.keySet()) {
+			byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+			stringBytes.add(bytes);
+			stringTableSize += 4 + bytes.length;
+		}
+
+		final int stringTableOffset = HEADER_SIZE + motors.size() * RECORD_SIZE;
+		int dataOffset = stringTableOffset + stringTableSize;
+
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os));
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		out.writeInt(motors.size());
+		out.writeInt(RECORD_SIZE);
+		out.writeInt(stringBytes.size());
+		out.writeInt(stringTableOffset);
+		out.writeInt(0);
+
+		for (int i = 0; i < motors.size(); i++) {
+			ThrustCurveMotor m = motors.get(i);
+			Coordinate[] cg = m.getCGPoints();
+			double[] time = m.getTimePoints();
+			for (int ref : stringRefs[i]) {
+				out.writeInt(ref);
+			}
+			out.writeByte(m.getMotorType().ordinal());
+			out.writeByte(m.isAvailable() ? 1 : 0);
+			out.writeByte(computeImpulseClass(m.getTotalImpulseEstimate()));
+			out.writeByte(0);
+			out.writeInt(m.getStandardDelays().length);
+			out.writeInt(time.length);
+			out.writeInt(dataOffset);
+			out.writeDouble(m.getDiameter());
+			out.writeDouble(m.getLength());
+			out.writeDouble(m.getInitialMass());
+			out.writeDouble(m.getMaxThrustEstimate());
+			out.writeDouble(m.getBurnTimeEstimate());
+			out.writeDouble(m.getAverageThrustEstimate());
+			out.writeDouble(m.getTotalImpulseEstimate());
+			out.writeDouble(cg[0].x);
+			out.writeDouble(cg[0].weight);
+			out.writeDouble(cg[cg.length - 1].x);
+			out.writeDouble(cg[cg.length - 1].weight);
+			out.writeDouble(time[time.length - 1]);
+
+			dataOffset += 8 * (m.getStandardDelays().length + 6 * time.length);
+		}
+
+		for (byte[] bytes : stringBytes) {
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+
+		for (ThrustCurveMotor m : motors) {
+			for (double d : m.getStandardDelays()) {
+				out.writeDouble(d);
+			}
+			for (double t : m.getTimePoints()) {
+				out.writeDouble(t);
+			}
+			for (double f : m.getThrustPoints()) {
+				out.writeDouble(f);
+			}
+			Coordinate[] cg = m.getCGPoints();
+			for (Coordinate c : cg) {
+				out.writeDouble(c.x);
+			}
+			for (Coordinate c : cg) {
+				out.writeDouble(c.y);
+			}
+			for (Coordinate c : cg) {
+				out.writeDouble(c.z);
+			}
+			for (Coordinate c : cg) {
+				out.writeDouble(c.weight);
+			}
+		}
+		out.flush();
+	}
+
+	/**
+	 * Return the impulse class letter of a total impulse, 'A' for impulses up to 2.5 Ns,
+	 * 'B' up to 5 Ns and so on, up to 'O'.
+	 */
+	static char computeImpulseClass(double totalImpulse) {
+		char impulseClass = 'A';
+		double limit = 2.5;
+		while (totalImpulse > limit && impulseClass < 'O') {
+			impulseClass++;
+			limit *= 2;
+		}
+		return impulseClass;
+	}
+
+	/**
+	 * Return the number of motors in the database.
+	 */
+	public int size() {
+		return count;
+	}
+
+	/**
+	 * Return all motors of the database.  The thrust curves of the motors are decoded on
+	 * first use.
+	 */
+	public List<ThrustCurveMotor> getMotors() {
+		List<ThrustCurveMotor> motors = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			motors.add(getMotor(i));
+		}
+		return motors;
+	}
+
+	/**
+	 * Return a motor of the database.  The thrust curve of the motor is decoded on first use.
+	 */
+	public ThrustCurveMotor getMotor(int index) {
+		return new ThrustCurveMotor(this, index);
+	}
+
+	////////  Index access
+
+	public Manufacturer getManufacturer(int index) {
+		int ref = buffer.getInt(record(index) + MANUFACTURER);
+		Manufacturer manufacturer = manufacturers[ref];
+		if (manufacturer == null) {
+			// Manufacturers are unique, so a concurrent lookup yields the same object
+			manufacturer = Manufacturer.getManufacturer(strings[ref]);
+			manufacturers[ref] = manufacturer;
+		}
+		return manufacturer;
+	}
+
+	public String getDesignation(int index) {
+		return getString(index, DESIGNATION);
+	}
+
+	public String getCommonName(int index) {
+		return getString(index, COMMON_NAME);
+	}
+
+	public String getCode(int index) {
+		return getString(index, CODE);
+	}
+
+	public String getDescription(int index) {
+		return getString(index, DESCRIPTION);
+	}
+
+	public String getCaseInfo(int index) {
+		return getString(index, CASE_INFO);
+	}
+
+	public String getPropellantInfo(int index) {
+		return getString(index, PROPELLANT_INFO);
+	}
+
+	public String getDigest(int index) {
+		return getString(index, DIGEST);
+	}
+
+	public Motor.Type getMotorType(int index) {
+		return TYPES[buffer.get(record(index) + TYPE)];
+	}
+
+	public boolean isAvailable(int index) {
+		return buffer.get(record(index) + AVAILABLE) != 0;
+	}
+
+	/**
+	 * Return the impulse class letter of a motor, see {@link #computeImpulseClass(double)}.
+	 */
+	public char getImpulseClass(int index) {
+		return (char) buffer.get(record(index) + IMPULSE_CLASS);
+	}
+
+	public int getSampleSize(int index) {
+		return buffer.getInt(record(index) + SAMPLE_COUNT);
+	}
+
+	public double getDiameter(int index) {
+		return getDouble(index, DIAMETER);
+	}
+
+	public double getLength(int index) {
+		return getDouble(index, LENGTH);
+	}
+
+	public double getInitialMass(int index) {
+		return getDouble(index, INITIAL_MASS);
+	}
+
+	public double getMaxThrustEstimate(int index) {
+		return getDouble(index, MAX_THRUST);
+	}
+
+	public double getBurnTimeEstimate(int index) {
+		return getDouble(index, BURN_TIME_ESTIMATE);
+	}
+
+	public double getAverageThrustEstimate(int index) {
+		return getDouble(index, AVERAGE_THRUST);
+	}
+
+	public double getTotalImpulseEstimate(int index) {
+		return getDouble(index, TOTAL_IMPULSE);
+	}
+
+	public double getLaunchCGx(int index) {
+		return getDouble(index, LAUNCH_CGX);
+	}
+
+	public double getLaunchMass(int index) {
+		return getDouble(index, LAUNCH_MASS);
+	}
+
+	public double getBurnoutCGx(int index) {
+		return getDouble(index, BURNOUT_CGX);
+	}
+
+	public double getBurnoutMass(int index) {
+		return getDouble(index, BURNOUT_MASS);
+	}
+
+	public double getBurnTime(int index) {
+		return getDouble(index, BURN_TIME);
+	}
+
+	////////  Data access
+
+	public double[] getStandardDelays(int index) {
+		return getDoubles(buffer.getInt(record(index) + DATA_OFFSET), buffer.getInt(record(index) + DELAY_COUNT));
+	}
+
+	public double[] getTimePoints(int index) {
+		return getDoubles(getCurveOffset(index), getSampleSize(index));
+	}
+
+	public double[] getThrustPoints(int index) {
+		int n = getSampleSize(index);
+		return getDoubles(getCurveOffset(index) + 8 * n, n);
+	}
+
+	public Coordinate[] getCGPoints(int index) {
+		int n = getSampleSize(index);
+		int offset = getCurveOffset(index) + 16 * n;
+		Coordinate[] cg = new Coordinate[n];
+		for (int i = 0; i < n; i++) {
+			cg[i] = new Coordinate(buffer.getDouble(offset + 8 * i), buffer.getDouble(offset + 8 * (n + i)),
+					buffer.getDouble(offset + 8 * (2 * n + i)), buffer.getDouble(offset + 8 * (3 * n + i)));
+		}
+		return cg;
+	}
+
+	private int record(int index) {
+		if (index < 0 || index >= count) {
+			throw new IndexOutOfBoundsException("index=" + index + " size=" + count);
+		}
+		return HEADER_SIZE + index * RECORD_SIZE;
+	}
+
+	private String getString(int index, int field) {
+		int ref = buffer.getInt(record(index) + field);
+		return (ref < 0) ? null : strings[ref];
+	}
+
+	private double getDouble(int index, int field) {
+		return buffer.getDouble(record(index) + field);
+	}
+
+	private int getCurveOffset(int index) {
+		int record = record(index);
+		return buffer.getInt(record + DATA_OFFSET) + 8 * buffer.getInt(record + DELAY_COUNT);
+	}
+
+	private double[] getDoubles(int offset, int n) {
+		double[] values = new double[n];
+		for (int i = 0; i < n; i++) {
+			values[i] = buffer.getDouble(offset + 8 * i);
+		}
+		return values;
+	}
+}
@@ -1,5 +1,7 @@
 package info.openrocket.core.motor;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.text.Collator;
 import java.util.Arrays;
@@ -61,6 +63,69 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	private double unitRotationalInertia;
 	private double unitLongitudinalInertia;
 
+	/** The total impulse from ignition up to each time point, computed on demand after deserialization */
+	private transient volatile double[] cumulativeImpulse;
+
+	/** The database the thrust curve is decoded from on first use, null once the curve is available */
+	private transient volatile CompactMotorDatabase curveDatabase;
+	private transient int curveIndex;
+
+	private ThrustCurveMotor() {
+	}
+
+	/**
+	 * Create a motor of a compact motor database.  The motor information and statistics are
+	 * read from the database index, the thrust curve is decoded on first use.
+	 */
+	ThrustCurveMotor(CompactMotorDatabase database, int index) {
+		digest = database.getDigest(index);
+		manufacturer = database.getManufacturer(index);
+		code = database.getCode(index);
+		commonName = database.getCommonName(index);
+		designation = database.getDesignation(index);
+		description = database.getDescription(index);
+		type = database.getMotorType(index);
+		delays = database.getStandardDelays(index);
+		diameter = database.getDiameter(index);
+		length = database.getLength(index);
+		caseInfo = database.getCaseInfo(index);
+		propellantInfo = database.getPropellantInfo(index);
+		initialMass = database.getInitialMass(index);
+		maxThrust = database.getMaxThrustEstimate(index);
+		burnTimeEstimate = database.getBurnTimeEstimate(index);
+		averageThrust = database.getAverageThrustEstimate(index);
+		totalImpulse = database.getTotalImpulseEstimate(index);
+		available = database.isAvailable(index);
+		unitRotationalInertia = Inertia.filledCylinderRotational(diameter / 2);
+		unitLongitudinalInertia = Inertia.filledCylinderLongitudinal(diameter / 2, length);
+
+		curveDatabase = database;
+		curveIndex = index;
+	}
+
+	/**
+	 * Decode the thrust curve from the motor database, if not done yet.
+	 */
+	private void loadCurve() {
+		if (curveDatabase == null) {
+			return;
+		}
+		synchronized (this) {
+			CompactMotorDatabase database = curveDatabase;
+			if (database != null) {
+				time = database.getTimePoints(curveIndex);
+				thrust = database.getThrustPoints(curveIndex);
+				cg = database.getCGPoints(curveIndex);
+				curveDatabase = null;
+			}
+		}
+	}
+
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		loadCurve();
+		out.defaultWriteObject();
+	}
+
 	public static class Builder {
 
 		ThrustCurveMotor motor = new ThrustCurveMotor();
@@ -279,6 +344,7 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	 * @return an array of time points where the thrust is sampled
 	 */
 	public double[] getTimePoints() {
+		loadCurve();
 		return time.clone();
 	}
 
@@ -295,6 +361,7 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	 * @return a pseudo index to this motor's data.
 	 */
 	protected double getPseudoIndex(final double motorTime) {
+		loadCurve();
 		if ((time.length == 0) || (0 > motorTime)) {
 			return Double.NaN;
 		}
@@ -304,17 +371,45 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 		return ((double) lowerIndex) + fraction;
 	}
 
+	/**
+	 * Return the index of the last time point at or before the given time, or zero if the
+	 * time is before the first time point.
+	 */
 	private int getIndex(final double motorTime) {
+		if (!(motorTime >= time[0])) {
+			return 0;
+		}
+
 		int lowerBoundIndex = 0;
-		int upperBoundIndex = 0;
-		while ((upperBoundIndex < time.length) && (motorTime >= time[upperBoundIndex])) {
-			lowerBoundIndex = upperBoundIndex;
-			++upperBoundIndex;
+		int upperBoundIndex = time.length - 1;
+		while (lowerBoundIndex < upperBoundIndex) {
+			final int middleIndex = (lowerBoundIndex + upperBoundIndex + 1) >>> 1;
+			if (motorTime >= time[middleIndex]) {
+				lowerBoundIndex = middleIndex;
+			} else {
+				upperBoundIndex = middleIndex - 1;
+			}
 		}
 
 		return lowerBoundIndex;
 	}
 
+	/**
+	 * Return the index of the last time point at or before the given time, starting the search
+	 * from the index of a previous lookup.  Times at or slightly after the previous lookup are
+	 * found in constant time, other times using a binary search.
+	 */
+	private int getIndex(final double motorTime, final int previousIndex) {
+		if (previousIndex >= 0 && previousIndex < time.length && time[previousIndex] <= motorTime) {
+			for (int index = previousIndex; index < Math.min(previousIndex + 2, time.length); index++) {
+				if (index + 1 == time.length || motorTime < time[index + 1]) {
+					return index;
+				}
+			}
+		}
+		return getIndex(motorTime);
+	}
+
 	private double getIndexFraction(final double motorTime, final int index) {
 		final double SNAP_DISTANCE = 0.0001;
 
@@ -345,49 +440,63 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 
 	@Override
 	public double getAverageThrust(final double startTime, final double endTime) {
+		loadCurve();
+		return getAverageThrust(startTime, endTime, getIndex(startTime), getIndex(endTime));
+	}
 
-		int timeIndex = 0;
-
-		while (timeIndex < time.length - 1 && startTime > time[timeIndex + 1]) {
-			timeIndex++;
-		}
-
-		if (timeIndex == time.length - 1) {
+	/**
+	 * Compute the average thrust over an interval from the cumulative impulse.
+	 * 
+	 * @param startIndex	the index of the last time point at or before the start time.
+	 * @param endIndex		the index of the last time point at or before the end time.
+	 */
+	private double getAverageThrust(final double startTime, final double endTime, final int startIndex,
+			final int endIndex) {
+		if (startTime > time[time.length - 1]) {
 			return 0.0;
 		}
 
-		if (endTime <= time[timeIndex + 1]) {
-			// we are completely within this time slice so the computation of the average is
-			// pretty easy:
-			double startThrust = MathUtil.map(startTime, time[timeIndex], time[timeIndex + 1], thrust[timeIndex],
-					thrust[timeIndex + 1]);
-			double endThrust = MathUtil.map(endTime, time[timeIndex], time[timeIndex + 1], thrust[timeIndex],
-					thrust[timeIndex + 1]);
-			return (startThrust + endThrust) / 2.0;
+		if (!(endTime > startTime)) {
+			// Empty interval, use the thrust at the ends
+			return (getThrust(startTime, startIndex) + getThrust(endTime, endIndex)) / 2.0;
 		}
 
-		double impulse = 0.0;
-
-		// portion from startTime through time[timeIndex+1]
-		double startThrust = MathUtil.map(startTime, time[timeIndex], time[timeIndex + 1], thrust[timeIndex],
-				thrust[timeIndex + 1]);
-		impulse = (time[timeIndex + 1] - startTime) * (startThrust + thrust[timeIndex + 1]) / 2.0;
+		return (getImpulse(endTime, endIndex) - getImpulse(startTime, startIndex)) / (endTime - startTime);
+	}
 
-		// Now add the whole steps;
-		timeIndex++;
-		while (timeIndex < time.length - 1 && endTime >= time[timeIndex + 1]) {
-			impulse += (time[timeIndex + 1] - time[timeIndex]) * (thrust[timeIndex] + thrust[timeIndex + 1]) / 2.0;
-			timeIndex++;
+	/**
+	 * Return the linearly interpolated thrust at a time, with zero thrust after the end of
+	 * the thrust curve.
+	 */
+	private double getThrust(final double motorTime, final int index) {
+		if (index == time.length - 1) {
+			return (motorTime > time[index]) ? 0.0 : thrust[index];
 		}
+		return MathUtil.map(motorTime, time[index], time[index + 1], thrust[index], thrust[index + 1]);
+	}
 
-		// Now add the bit after the last time index
-		if (timeIndex < time.length - 1) {
-			double endThrust = MathUtil.map(endTime, time[timeIndex], time[timeIndex + 1], thrust[timeIndex],
-					thrust[timeIndex + 1]);
-			impulse += (endTime - time[timeIndex]) * (thrust[timeIndex] + endThrust) / 2.0;
+	/**
+	 * Return the total impulse from ignition up to a time.
+	 */
+	private double getImpulse(final double motorTime, final int index) {
+		final double[] impulse = getCumulativeImpulse();
+		if (index == time.length - 1) {
+			return impulse[index];
 		}
+		final double thrustAtTime = getThrust(motorTime, index);
+		return impulse[index] + (motorTime - time[index]) * (thrust[index] + thrustAtTime) / 2.0;
+	}
 
-		return impulse / (endTime - startTime);
+	private double[] getCumulativeImpulse() {
+		double[] impulse = cumulativeImpulse;
+		if (impulse == null) {
+			impulse = new double[time.length];
+			for (int i = 1; i < time.length; i++) {
+				impulse[i] = impulse[i - 1] + (time[i] - time[i - 1]) * (thrust[i - 1] + thrust[i]) / 2.0;
+			}
+			cumulativeImpulse = impulse;
+		}
+		return impulse;
 	}
 
 	@Override
@@ -404,6 +513,70 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 		return this.interpolateCenterOfMassAtIndex(pseudoIndex).x;
 	}
 
+	/**
+	 * Return a new cursor for evaluating this thrust curve at successive times.
+	 */
+	public Cursor createCursor() {
+		loadCurve();
+		return new Cursor();
+	}
+
+	/**
+	 * A cursor for evaluating the thrust curve at successive times.  The cursor remembers the
+	 * position of the previous lookup, so evaluating the curve at increasing times, as done
+	 * during a simulation, takes constant time.  Other lookups fall back to a binary search.
+	 * <p>
+	 * A cursor is not thread-safe, each simulation must use its own cursor.
+	 */
+	public final class Cursor {
+		private int index = 0;
+
+		private Cursor() {
+		}
+
+		public ThrustCurveMotor getMotor() {
+			return ThrustCurveMotor.this;
+		}
+
+		private double getPseudoIndex(final double motorTime) {
+			if (0 > motorTime) {
+				return Double.NaN;
+			}
+			index = getIndex(motorTime, index);
+			return ((double) index) + getIndexFraction(motorTime, index);
+		}
+
+		/**
+		 * @see ThrustCurveMotor#getThrust(double)
+		 */
+		public double getThrust(final double motorTime) {
+			return ThrustCurveMotor.interpolateAtIndex(thrust, getPseudoIndex(motorTime));
+		}
+
+		/**
+		 * @see ThrustCurveMotor#getTotalMass(double)
+		 */
+		public double getTotalMass(final double motorTime) {
+			return interpolateCenterOfMassAtIndex(getPseudoIndex(motorTime)).weight;
+		}
+
+		/**
+		 * @see ThrustCurveMotor#getCMx(double)
+		 */
+		public double getCMx(final double motorTime) {
+			return interpolateCenterOfMassAtIndex(getPseudoIndex(motorTime)).x;
+		}
+
+		/**
+		 * @see ThrustCurveMotor#getAverageThrust(double, double)
+		 */
+		public double getAverageThrust(final double startTime, final double endTime) {
+			final int startIndex = getIndex(startTime, index);
+			index = getIndex(endTime, startIndex);
+			return ThrustCurveMotor.this.getAverageThrust(startTime, endTime, startIndex, index);
+		}
+	}
+
 	public String getCaseInfo() {
 		return caseInfo;
 	}
@@ -434,6 +607,7 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	 * @return an array of thrust samples
 	 */
 	public double[] getThrustPoints() {
+		loadCurve();
 		return thrust.clone();
 	}
 
@@ -446,6 +620,7 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	// }
 
 	public Coordinate[] getCGPoints() {
+		loadCurve();
 		return cg;
 	}
 
@@ -543,26 +718,46 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 
 	@Override
 	public double getLaunchCGx() {
+		CompactMotorDatabase database = curveDatabase;
+		if (database != null) {
+			return database.getLaunchCGx(curveIndex);
+		}
 		return cg[0].x;// cgx[0];
 	}
 
 	@Override
 	public double getBurnoutCGx() {
+		CompactMotorDatabase database = curveDatabase;
+		if (database != null) {
+			return database.getBurnoutCGx(curveIndex);
+		}
 		return cg[cg.length - 1].x;// cgx[ cg.length - 1];
 	}
 
 	@Override
 	public double getLaunchMass() {
+		CompactMotorDatabase database = curveDatabase;
+		if (database != null) {
+			return database.getLaunchMass(curveIndex);
+		}
 		return cg[0].weight;// mass[0];
 	}
 
 	@Override
 	public double getBurnoutMass() {
+		CompactMotorDatabase database = curveDatabase;
+		if (database != null) {
+			return database.getBurnoutMass(curveIndex);
+		}
 		return cg[cg.length - 1].weight; // mass[mass.length - 1];
 	}
 
 	@Override
 	public double getBurnTime() {
+		CompactMotorDatabase database = curveDatabase;
+		if (database != null) {
+			return database.getBurnTime(curveIndex);
+		}
 		return time[time.length - 1];
 	}
 
@@ -644,7 +839,7 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	}
 
 	public int getDataSize() {
-		return this.time.length;
+		return getSampleSize();
 	}
 
 	@Override
@@ -673,7 +868,7 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	}
 
 	public double getCutOffTime() {
-		return time[time.length - 1];
+		return getBurnTime();
 	}
 
 	public boolean isAvailable() {
@@ -684,6 +879,8 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	 * Compute the general statistics of this motor.
 	 */
 	private void computeStatistics() {
+		cumulativeImpulse = null;
+		getCumulativeImpulse();
 
 		// Maximum thrust
 		maxThrust = 0;
@@ -811,6 +1008,10 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	 * @return return the size of the data arrays
 	 */
 	public int getSampleSize() {
+		CompactMotorDatabase database = curveDatabase;
+		if (database != null) {
+			return database.getSampleSize(curveIndex);
+		}
 		return time.length;
 	}
 
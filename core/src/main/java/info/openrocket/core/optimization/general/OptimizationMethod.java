@@ -0,0 +1,80 @@
+package info.openrocket.core.optimization.general;
+
+import java.util.Locale;
+
+import info.openrocket.core.l10n.Translator;
+import info.openrocket.core.optimization.general.multidim.CMAESOptimizer;
+import info.openrocket.core.optimization.general.multidim.DifferentialEvolutionOptimizer;
+import info.openrocket.core.optimization.general.multidim.MultidirectionalSearchOptimizer;
+import info.openrocket.core.optimization.general.onedim.GoldenSectionSearchOptimizer;
+import info.openrocket.core.startup.Application;
+
+/**
+ * The optimization algorithm used to search for the optimum of a function.
+ */
+public enum OptimizationMethod {
+
+	/**
+	 * Golden section search for one-dimensional problems and multidirectional search
+	 * for multidimensional problems.
+	 */
+	DIRECT_SEARCH {
+		@Override
+		public FunctionOptimizer createOptimizer(ParallelFunctionCache cache, int dimensions) {
+			if (dimensions == 1) {
+				return new GoldenSectionSearchOptimizer(cache);
+			}
+			return new MultidirectionalSearchOptimizer(cache);
+		}
+	},
+
+	/**
+	 * Covariance matrix adaptation evolution strategy.
+	 */
+	CMAES {
+		@Override
+		public FunctionOptimizer createOptimizer(ParallelFunctionCache cache, int dimensions) {
+			return new CMAESOptimizer(cache);
+		}
+	},
+
+	/**
+	 * Differential evolution.
+	 */
+	DIFFERENTIAL_EVOLUTION {
+		@Override
+		public FunctionOptimizer createOptimizer(ParallelFunctionCache cache, int dimensions) {
+			return new DifferentialEvolutionOptimizer(cache);
+		}
+	};
+
+	private static final Translator trans = Application.getTranslator();
+
+	/**
+	 * Create an optimizer of this type.
+	 *
+	 * @param cache			the function cache used to evaluate the function
+	 * @param dimensions	the dimensionality of the optimization problem
+	 * @return				a new optimizer
+	 */
+	public abstract FunctionOptimizer createOptimizer(ParallelFunctionCache cache, int dimensions);
+
+	/**
+	 * Return the name of this optimization method.
+	 */
+	public String getName() {
+		return trans.get(name().toLowerCase(Locale.ENGLISH) + ".name");
+	}
+
+	/**
+	 * Return a description of this optimization method.
+	 */
+	public String getDescription() {
+		return trans.get(name().toLowerCase(Locale.ENGLISH) + ".desc");
+	}
+
+	@Override
+	public String toString() {
+		return getName();
+	}
+}
@@ -0,0 +1,419 @@
+package info.openrocket.core.optimization.general.multidim;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import info.openrocket.core.optimization.general.FunctionCache;
+import info.openrocket.core.optimization.general.FunctionOptimizer;
+import info.openrocket.core.optimization.general.OptimizationController;
+import info.openrocket.core.optimization.general.OptimizationException;
+import info.openrocket.core.optimization.general.ParallelFunctionCache;
+import info.openrocket.core.optimization.general.Point;
+import info.openrocket.core.util.MathUtil;
+import info.openrocket.core.util.Statistics;
+
+/**
+ * An implementation of the covariance matrix adaptation evolution strategy (CMA-ES)
+ * by Hansen and Ostermeier, following "The CMA Evolution Strategy: A Tutorial" by Hansen.
+ * <p>
+ * Each generation of candidate points is sampled from a multivariate normal distribution,
+ * and the whole generation is computed in parallel using the function cache.  The mean,
+ * step size and covariance matrix of the distribution are then adapted based on the best
+ * candidates.  Candidates outside the unit hypercube are evaluated at the nearest point of
+ * the hypercube; of two candidates with equal function values the one closer to the
+ * hypercube is ranked better.
+ * <p>
+ * The step size reported to the optimization controller is the standard deviation of the
+ * distribution along its longest axis.
+ * <p>
+ * The optimization can be aborted by interrupting the current thread.
+ */
+public class CMAESOptimizer implements FunctionOptimizer, Statistics {
+	private static final Logger log = LoggerFactory.getLogger(CMAESOptimizer.class);
+
+	/** Default initial standard deviation, relative to the unit hypercube. */
+	private static final double DEFAULT_INITIAL_SIGMA = 0.3;
+
+	private ParallelFunctionCache functionExecutor;
+
+	private Random random = new Random();
+	private int populationSize = 0;
+	private double initialSigma = DEFAULT_INITIAL_SIGMA;
+
+	private Point optimum = null;
+	private double optimumValue = Double.NaN;
+
+	private int generationCount = 0;
+	private int evaluationCount = 0;
+	private int sigmaIncreases = 0;
+
+	public CMAESOptimizer() {
+		// No-op
+	}
+
+	public CMAESOptimizer(ParallelFunctionCache functionCache) {
+		this.functionExecutor = functionCache;
+	}
+
+	/**
+	 * Set the seed of the random candidate generation.
+	 */
+	public void setSeed(long seed) {
+		this.random = new Random(seed);
+	}
+
+	public int getPopulationSize() {
+		return populationSize;
+	}
+
+	/**
+	 * Set the number of candidates per generation.  Zero selects the default of 4 + 3 ln(n)
+	 * candidates, where n is the dimensionality of the problem.  Larger populations make better
+	 * use of parallel function evaluation and are more robust on multimodal functions.
+	 */
+	public void setPopulationSize(int populationSize) {
+		if (populationSize < 0 || populationSize == 1) {
+			throw new IllegalArgumentException("Invalid population size " + populationSize);
+		}
+		this.populationSize = populationSize;
+	}
+
+	public double getInitialSigma() {
+		return initialSigma;
+	}
+
+	public void setInitialSigma(double initialSigma) {
+		if (!(initialSigma > 0)) {
+			throw new IllegalArgumentException("Invalid initial sigma " + initialSigma);
+		}
+		this.initialSigma = initialSigma;
+	}
+
+	@Override
+	public void optimize(Point initial, OptimizationController control) throws OptimizationException {
+		final int n = initial.dim();
+		final int lambda = (populationSize > 0) ? populationSize : 4 + (int) (3 * Math.log(n));
+		final int mu = lambda / 2;
+
+		// Recombination weights
+		double[] weights = new double[mu];
+		double sum = 0;
+		for (int i = 0; i < mu; i++) {
+			weights[i] = Math.log(mu + 0.5) - Math.log(i + 1);
+			sum += weights[i];
+		}
+		double sumSquares = 0;
+		for (int i = 0; i < mu; i++) {
+			weights[i] /= sum;
+			sumSquares += weights[i] * weights[i];
+		}
+		final double mueff = 1 / sumSquares;
+
+		// Adaptation parameters
+		final double cc = (4 + mueff / n) / (n + 4 + 2 * mueff / n);
+		final double cs = (mueff + 2) / (n + mueff + 5);
+		final double c1 = 2 / (MathUtil.pow2(n + 1.3) + mueff);
+		final double cmu = Math.min(1 - c1, 2 * (mueff - 2 + 1 / mueff) / (MathUtil.pow2(n + 2) + mueff));
+		final double damps = 1 + 2 * Math.max(0, Math.sqrt((mueff - 1) / (n + 1)) - 1) + cs;
+		final double chiN = Math.sqrt(n) * (1 - 1.0 / (4 * n) + 1.0 / (21 * n * n));
+
+		log.info("Starting CMA-ES optimization at " + initial + " with population size " + lambda);
+
+		double[] mean = clamp(initial.asArray());
+		double sigma = initialSigma;
+		double[] pc = new double[n];
+		double[] ps = new double[n];
+		double[][] C = identity(n);
+		double[][] B = identity(n);
+		double[] D = new double[n];
+		Arrays.fill(D, 1);
+
+		try {
+			optimum = new Point(mean);
+			functionExecutor.compute(optimum);
+			functionExecutor.waitFor(optimum);
+			optimumValue = functionExecutor.getValue(optimum);
+			evaluationCount++;
+
+			final double[][] x = new double[lambda][n];
+			final double[][] y = new double[lambda][n];
+			final double[] distance = new double[lambda];
+			final Point[] candidates = new Point[lambda];
+			final Integer[] order = new Integer[lambda];
+
+			int generation = 0;
+			boolean continueOptimization = true;
+			while (continueOptimization) {
+				generation++;
+				generationCount++;
+
+				// Sample a new generation x = mean + sigma * B * D * z
+				List<Point> points = new ArrayList<>(lambda);
+				for (int k = 0; k < lambda; k++) {
+					double[] z = new double[n];
+					for (int i = 0; i < n; i++) {
+						z[i] = D[i] * random.nextGaussian();
+					}
+					for (int i = 0; i < n; i++) {
+						double v = 0;
+						for (int j = 0; j < n; j++) {
+							v += B[i][j] * z[j];
+						}
+						y[k][i] = v;
+						x[k][i] = mean[i] + sigma * v;
+					}
+					double[] clamped = clamp(x[k]);
+					distance[k] = distance2(x[k], clamped);
+					candidates[k] = new Point(clamped);
+					points.add(candidates[k]);
+					order[k] = k;
+				}
+
+				functionExecutor.compute(points);
+				functionExecutor.waitFor(points);
+				evaluationCount += lambda;
+
+				final double[] values = new double[lambda];
+				for (int k = 0; k < lambda; k++) {
+					values[k] = functionExecutor.getValue(candidates[k]);
+				}
+				Arrays.sort(order, (a, b) -> {
+					int c = Double.compare(values[a], values[b]);
+					return (c != 0) ? c : Double.compare(distance[a], distance[b]);
+				});
+
+				Point previous = optimum;
+				double previousValue = optimumValue;
+				if (values[order[0]] < optimumValue) {
+					optimum = candidates[order[0]];
+					optimumValue = values[order[0]];
+				}
+
+				// Move the mean to the weighted average of the best candidates
+				double[] step = new double[n];
+				for (int i = 0; i < mu; i++) {
+					double[] yi = y[order[i]];
+					for (int j = 0; j < n; j++) {
+						step[j] += weights[i] * yi[j];
+					}
+				}
+				for (int j = 0; j < n; j++) {
+					mean[j] += sigma * step[j];
+				}
+
+				// Update the evolution paths, using C^(-1/2) = B * D^-1 * B^T
+				double[] invSqrtStep = new double[n];
+				for (int i = 0; i < n; i++) {
+					double v = 0;
+					for (int j = 0; j < n; j++) {
+						v += B[j][i] * step[j];
+					}
+					invSqrtStep[i] = v / D[i];
+				}
+				double psLength2 = 0;
+				for (int i = 0; i < n; i++) {
+					double v = 0;
+					for (int j = 0; j < n; j++) {
+						v += B[i][j] * invSqrtStep[j];
+					}
+					ps[i] = (1 - cs) * ps[i] + Math.sqrt(cs * (2 - cs) * mueff) * v;
+					psLength2 += ps[i] * ps[i];
+				}
+				double psLength = Math.sqrt(psLength2);
+				boolean hsig = psLength / Math.sqrt(1 - Math.pow(1 - cs, 2.0 * generation)) / chiN
+						< 1.4 + 2.0 / (n + 1);
+				for (int i = 0; i < n; i++) {
+					pc[i] = (1 - cc) * pc[i] + (hsig ? Math.sqrt(cc * (2 - cc) * mueff) * step[i] : 0);
+				}
+
+				// Rank-one and rank-mu update of the covariance matrix
+				double hsigCorrection = hsig ? 0 : c1 * cc * (2 - cc);
+				for (int i = 0; i < n; i++) {
+					for (int j = 0; j <= i; j++) {
+						double rankMu = 0;
+						for (int k = 0; k < mu; k++) {
+							double[] yk = y[order[k]];
+							rankMu += weights[k] * yk[i] * yk[j];
+						}
+						double v = (1 - c1 - cmu) * C[i][j] + c1 * pc[i] * pc[j] + hsigCorrection * C[i][j] + cmu * rankMu;
+						C[i][j] = v;
+						C[j][i] = v;
+					}
+				}
+
+				// Adapt the step size
+				double factor = Math.exp((cs / damps) * (psLength / chiN - 1));
+				if (factor > 1) {
+					sigmaIncreases++;
+				}
+				sigma *= factor;
+
+				// Decompose C = B * D^2 * B^T
+				eigenDecomposition(C, B, D);
+				for (int i = 0; i < n; i++) {
+					D[i] = MathUtil.safeSqrt(D[i]);
+				}
+
+				double maxD = 0;
+				for (double d : D) {
+					maxD = Math.max(maxD, d);
+				}
+				double stepSize = sigma * maxD;
+
+				log.debug("Generation " + generation + ": best value " + values[order[0]] + " at "
+						+ candidates[order[0]] + ", step size " + stepSize);
+
+				continueOptimization = control.stepTaken(previous, previousValue, optimum, optimumValue, stepSize);
+
+				if (Thread.interrupted()) {
+					throw new InterruptedException();
+				}
+			}
+
+		} catch (InterruptedException e) {
+			log.info("Optimization was interrupted with InterruptedException");
+		}
+
+		log.info("Finishing optimization at point " + optimum + " value = " + optimumValue);
+		log.info("Optimization statistics: " + getStatistics());
+	}
+
+	/**
+	 * Compute the eigenvalues and eigenvectors of a symmetric matrix using the cyclic Jacobi method.
+	 * The problems solved are of low dimensionality, so the simple method is sufficient.
+	 *
+	 * @param matrix		the symmetric matrix, which is not modified.
+	 * @param vectors		the matrix to store the eigenvectors in, as columns.
+	 * @param values		the array to store the eigenvalues in.
+	 */
+	static void eigenDecomposition(double[][] matrix, double[][] vectors, double[] values) {
+		final int n = values.length;
+		double[][] a = new double[n][];
+		for (int i = 0; i < n; i++) {
+			a[i] = matrix[i].clone();
+			Arrays.fill(vectors[i], 0);
+			vectors[i][i] = 1;
+		}
+
+		for (int sweep = 0; sweep < 50; sweep++) {
+			double offDiagonal = 0;
+			for (int i = 0; i < n; i++) {
+				for (int j = i + 1; j < n; j++) {
+					offDiagonal += a[i][j] * a[i][j];
+				}
+			}
+			if (offDiagonal < 1e-30) {
+				break;
+			}
+
+			for (int p = 0; p < n; p++) {
+				for (int q = p + 1; q < n; q++) {
+					if (a[p][q] == 0) {
+						continue;
+					}
+					double theta = (a[q][q] - a[p][p]) / (2 * a[p][q]);
+					double t = Math.signum(theta) / (Math.abs(theta) + Math.sqrt(theta * theta + 1));
+					if (theta == 0) {
+						t = 1;
+					}
+					double c = 1 / Math.sqrt(t * t + 1);
+					double s = t * c;
+
+					for (int k = 0; k < n; k++) {
+						double akp = a[k][p];
+						double akq = a[k][q];
+						a[k][p] = c * akp - s * akq;
+						a[k][q] = s * akp + c * akq;
+					}
+					for (int k = 0; k < n; k++) {
+						double apk = a[p][k];
+						double aqk = a[q][k];
+						a[p][k] = c * apk - s * aqk;
+						a[q][k] = s * apk + c * aqk;
+					}
+					for (int k = 0; k < n; k++) {
+						double vkp = vectors[k][p];
+						double vkq = vectors[k][q];
+						vectors[k][p] = c * vkp - s * vkq;
+						vectors[k][q] = s * vkp + c * vkq;
+					}
+				}
+			}
+		}
+
+		for (int i = 0; i < n; i++) {
+			// Guard against slightly negative eigenvalues caused by rounding errors
+			values[i] = Math.max(a[i][i], 1e-20);
+		}
+	}
+
+	private static double[][] identity(int n) {
+		double[][] m = new double[n][n];
+		for (int i = 0; i < n; i++) {
+			m[i][i] = 1;
+		}
+		return m;
+	}
+
+	private static double[] clamp(double[] x) {
+		double[] c = new double[x.length];
+		for (int i = 0; i < x.length; i++) {
+			c[i] = MathUtil.clamp(x[i], 0, 1);
+		}
+		return c;
+	}
+
+	private static double distance2(double[] a, double[] b) {
+		double d = 0;
+		for (int i = 0; i < a.length; i++) {
+			d += MathUtil.pow2(a[i] - b[i]);
+		}
+		return d;
+	}
+
+	@Override
+	public Point getOptimumPoint() {
+		if (optimum == null) {
+			throw new IllegalStateException("Optimization has not been called");
+		}
+		return optimum;
+	}
+
+	@Override
+	public double getOptimumValue() {
+		return functionExecutor.getValue(getOptimumPoint());
+	}
+
+	@Override
+	public FunctionCache getFunctionCache() {
+		return functionExecutor;
+	}
+
+	@Override
+	public void setFunctionCache(FunctionCache functionCache) {
+		if (!(functionCache instanceof ParallelFunctionCache)) {
+			throw new IllegalArgumentException("Function cache needs to be a ParallelFunctionCache: " + functionCache);
+		}
+		this.functionExecutor = (ParallelFunctionCache) functionCache;
+	}
+
+	@Override
+	public String getStatistics() {
+		return "CMAESOptimizer[generationCount=" + generationCount +
+				", evaluationCount=" + evaluationCount +
+				", sigmaIncreases=" + sigmaIncreases + "]";
+	}
+
+	@Override
+	public void resetStatistics() {
+		generationCount = 0;
+		evaluationCount = 0;
+		sigmaIncreases = 0;
+	}
+
+}
@@ -0,0 +1,282 @@
+package info.openrocket.core.optimization.general.multidim;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import info.openrocket.core.optimization.general.FunctionCache;
+import info.openrocket.core.optimization.general.FunctionOptimizer;
+import info.openrocket.core.optimization.general.OptimizationController;
+import info.openrocket.core.optimization.general.OptimizationException;
+import info.openrocket.core.optimization.general.ParallelFunctionCache;
+import info.openrocket.core.optimization.general.Point;
+import info.openrocket.core.util.MathUtil;
+import info.openrocket.core.util.Statistics;
+
+/**
+ * A population based optimizer implementing the differential evolution algorithm
+ * (DE/rand/1/bin) by Storn and Price.
+ * <p>
+ * The population is initialized with the start point and random points within the unit
+ * hypercube.  On each generation a trial point is created for every member of the population
+ * by adding the scaled difference of two random members to a third one, and crossing the
+ * result over with the member.  All trial points of a generation are computed in parallel
+ * using the function cache, after which each member is replaced by its trial point if the trial
+ * point is at least as good.  Trial coordinates outside the hypercube are moved halfway between
+ * the member and the violated bound.
+ * <p>
+ * The step size reported to the optimization controller is the largest extent of the
+ * population along any coordinate axis.
+ * <p>
+ * The optimization can be aborted by interrupting the current thread.
+ */
+public class DifferentialEvolutionOptimizer implements FunctionOptimizer, Statistics {
+	private static final Logger log = LoggerFactory.getLogger(DifferentialEvolutionOptimizer.class);
+
+	/** Default differential weight. */
+	private static final double DEFAULT_DIFFERENTIAL_WEIGHT = 0.7;
+	/** Default crossover probability. */
+	private static final double DEFAULT_CROSSOVER_PROBABILITY = 0.9;
+
+	private ParallelFunctionCache functionExecutor;
+
+	private Random random = new Random();
+	private int populationSize = 0;
+	private double differentialWeight = DEFAULT_DIFFERENTIAL_WEIGHT;
+	private double crossoverProbability = DEFAULT_CROSSOVER_PROBABILITY;
+
+	private final List<Point> population = new ArrayList<>();
+	private Point optimum = null;
+	private double optimumValue = Double.NaN;
+
+	private int generationCount = 0;
+	private int evaluationCount = 0;
+	private int replacementCount = 0;
+
+	public DifferentialEvolutionOptimizer() {
+		// No-op
+	}
+
+	public DifferentialEvolutionOptimizer(ParallelFunctionCache functionCache) {
+		this.functionExecutor = functionCache;
+	}
+
+	/**
+	 * Set the seed of the random population and trial point generation.
+	 */
+	public void setSeed(long seed) {
+		this.random = new Random(seed);
+	}
+
+	public int getPopulationSize() {
+		return populationSize;
+	}
+
+	/**
+	 * Set the size of the population.  Zero selects the default of max(8, 5n) members,
+	 * where n is the dimensionality of the problem.
+	 */
+	public void setPopulationSize(int populationSize) {
+		if (populationSize != 0 && populationSize < 4) {
+			throw new IllegalArgumentException("Population size must be at least 4, was " + populationSize);
+		}
+		this.populationSize = populationSize;
+	}
+
+	public double getDifferentialWeight() {
+		return differentialWeight;
+	}
+
+	public void setDifferentialWeight(double differentialWeight) {
+		if (!(differentialWeight > 0 && differentialWeight <= 2)) {
+			throw new IllegalArgumentException("Invalid differential weight " + differentialWeight);
+		}
+		this.differentialWeight = differentialWeight;
+	}
+
+	public double getCrossoverProbability() {
+		return crossoverProbability;
+	}
+
+	public void setCrossoverProbability(double crossoverProbability) {
+		if (!(crossoverProbability >= 0 && crossoverProbability <= 1)) {
+			throw new IllegalArgumentException("Invalid crossover probability " + crossoverProbability);
+		}
+		this.crossoverProbability = crossoverProbability;
+	}
+
+	@Override
+	public void optimize(Point initial, OptimizationController control) throws OptimizationException {
+		final int n = initial.dim();
+		final int size = (populationSize > 0) ? populationSize : Math.max(8, 5 * n);
+
+		log.info("Starting differential evolution optimization at " + initial + " with population size " + size);
+
+		try {
+			// Initialize the population
+			population.clear();
+			double[] start = initial.asArray();
+			for (int i = 0; i < n; i++) {
+				start[i] = MathUtil.clamp(start[i], 0, 1);
+			}
+			population.add(new Point(start));
+			for (int k = 1; k < size; k++) {
+				double[] p = new double[n];
+				for (int i = 0; i < n; i++) {
+					p[i] = random.nextDouble();
+				}
+				population.add(new Point(p));
+			}
+			functionExecutor.compute(population);
+			functionExecutor.waitFor(population);
+			evaluationCount += size;
+
+			double[] values = new double[size];
+			optimum = population.get(0);
+			optimumValue = Double.POSITIVE_INFINITY;
+			for (int k = 0; k < size; k++) {
+				values[k] = functionExecutor.getValue(population.get(k));
+				if (values[k] < optimumValue) {
+					optimum = population.get(k);
+					optimumValue = values[k];
+				}
+			}
+
+			List<Point> trials = new ArrayList<>(size);
+			boolean continueOptimization = true;
+			while (continueOptimization) {
+				generationCount++;
+
+				// Create the trial points of the generation
+				trials.clear();
+				for (int k = 0; k < size; k++) {
+					trials.add(createTrial(k, n, size));
+				}
+
+				functionExecutor.compute(trials);
+				functionExecutor.waitFor(trials);
+				evaluationCount += size;
+
+				// Selection
+				Point previous = optimum;
+				double previousValue = optimumValue;
+				for (int k = 0; k < size; k++) {
+					Point trial = trials.get(k);
+					double value = functionExecutor.getValue(trial);
+					if (value <= values[k]) {
+						population.set(k, trial);
+						values[k] = value;
+						replacementCount++;
+						if (value < optimumValue) {
+							optimum = trial;
+							optimumValue = value;
+						}
+					}
+				}
+
+				double stepSize = 0;
+				for (int i = 0; i < n; i++) {
+					double min = Double.POSITIVE_INFINITY;
+					double max = Double.NEGATIVE_INFINITY;
+					for (Point p : population) {
+						min = Math.min(min, p.get(i));
+						max = Math.max(max, p.get(i));
+					}
+					stepSize = Math.max(stepSize, max - min);
+				}
+
+				log.debug("Generation " + generationCount + ": best value " + optimumValue + " at " + optimum +
+						", population extent " + stepSize);
+
+				continueOptimization = control.stepTaken(previous, previousValue, optimum, optimumValue, stepSize);
+
+				if (Thread.interrupted()) {
+					throw new InterruptedException();
+				}
+			}
+
+		} catch (InterruptedException e) {
+			log.info("Optimization was interrupted with InterruptedException");
+		}
+
+		log.info("Finishing optimization at point " + optimum + " value = " + optimumValue);
+		log.info("Optimization statistics: " + getStatistics());
+	}
+
+	private Point createTrial(int target, int n, int size) {
+		int a, b, c;
+		do {
+			a = random.nextInt(size);
+		} while (a == target);
+		do {
+			b = random.nextInt(size);
+		} while (b == target || b == a);
+		do {
+			c = random.nextInt(size);
+		} while (c == target || c == a || c == b);
+
+		Point x = population.get(target);
+		Point pa = population.get(a);
+		Point pb = population.get(b);
+		Point pc = population.get(c);
+
+		double[] trial = x.asArray();
+		int forced = random.nextInt(n);
+		for (int i = 0; i < n; i++) {
+			if (i == forced || random.nextDouble() < crossoverProbability) {
+				double v = pa.get(i) + differentialWeight * (pb.get(i) - pc.get(i));
+				if (v < 0) {
+					v = x.get(i) / 2;
+				} else if (v > 1) {
+					v = (x.get(i) + 1) / 2;
+				}
+				trial[i] = v;
+			}
+		}
+		return new Point(trial);
+	}
+
+	@Override
+	public Point getOptimumPoint() {
+		if (optimum == null) {
+			throw new IllegalStateException("Optimization has not been called, population is empty");
+		}
+		return optimum;
+	}
+
+	@Override
+	public double getOptimumValue() {
+		return functionExecutor.getValue(getOptimumPoint());
+	}
+
+	@Override
+	public FunctionCache getFunctionCache() {
+		return functionExecutor;
+	}
+
+	@Override
+	public void setFunctionCache(FunctionCache functionCache) {
+		if (!(functionCache instanceof ParallelFunctionCache)) {
+			throw new IllegalArgumentException("Function cache needs to be a ParallelFunctionCache: " + functionCache);
+		}
+		this.functionExecutor = (ParallelFunctionCache) functionCache;
+	}
+
+	@Override
+	public String getStatistics() {
+		return "DifferentialEvolutionOptimizer[generationCount=" + generationCount +
+				", evaluationCount=" + evaluationCount +
+				", replacementCount=" + replacementCount + "]";
+	}
+
+	@Override
+	public void resetStatistics() {
+		generationCount = 0;
+		evaluationCount = 0;
+		replacementCount = 0;
+	}
+
+}
@@ -11,6 +11,7 @@ import info.openrocket.core.document.Simulation;
 import info.openrocket.core.optimization.general.Function;
 import info.openrocket.core.optimization.general.OptimizationException;
 import info.openrocket.core.optimization.general.Point;
+import info.openrocket.core.rocketcomponent.CopyOnWriteRocket;
 import info.openrocket.core.unit.UnitGroup;
 import info.openrocket.core.unit.Value;
 import info.openrocket.core.util.Pair;
@@ -28,6 +29,11 @@ public class RocketOptimizationFunction implements Function {
 
 	/*
 	 * NOTE: This class must be thread-safe!!!
+	 *
+	 * The base simulation itself is only accessed while synchronized on it.  Each evaluating thread keeps
+	 * a working copy of the base rocket, which is restored to the state of the base rocket for each
+	 * evaluation instead of being deep copied.  The working copy is lent to one evaluation at a time, and
+	 * is simulated directly instead of being copied again by the simulation engine.
 	 */
 
 	private final Simulation baseSimulation;
@@ -36,6 +42,8 @@ public class RocketOptimizationFunction implements Function {
 	private final SimulationDomain domain;
 	private final SimulationModifier[] modifiers;
 
+	private final ThreadLocal<WorkingRocket> threadRocket = ThreadLocal.withInitial(WorkingRocket::new);
+
 	private final List<RocketOptimizationListener> listeners = new ArrayList<>();
 
 	/**
@@ -64,12 +72,6 @@ public class RocketOptimizationFunction implements Function {
 	@Override
 	public double evaluate(Point point) throws InterruptedException, OptimizationException {
 
-		/*
-		 * parameterValue is the computed parameter value (e.g. altitude)
-		 * goalValue is the value that needs to be minimized
-		 */
-		double goalValue, parameterValue;
-
 		log.debug("Computing optimization function value at point " + point);
 
 		// Create the new simulation based on the point
@@ -80,6 +82,21 @@ public class RocketOptimizationFunction implements Function {
 		}
 
 		final Simulation simulation = newSimulationInstance(baseSimulation);
+		try {
+			return evaluateSimulation(simulation, point, p);
+		} finally {
+			releaseSimulationInstance();
+		}
+	}
+
+	private double evaluateSimulation(Simulation simulation, Point point, double[] p)
+			throws InterruptedException, OptimizationException {
+
+		/*
+		 * parameterValue is the computed parameter value (e.g. altitude)
+		 * goalValue is the value that needs to be minimized
+		 */
+		double goalValue, parameterValue;
 
 		for (int i = 0; i < modifiers.length; i++) {
 			modifiers[i].modify(simulation, p[i]);
@@ -122,14 +139,40 @@ public class RocketOptimizationFunction implements Function {
 	}
 
 	/**
-	 * Returns a new deep copy of the simulation and rocket.
+	 * Returns a new copy of the simulation, with a rocket identical to the simulation's rocket.
+	 * The rocket is the working copy of the current thread, which is restored by the next call,
+	 * so the returned simulation must only be used until {@link #releaseSimulationInstance()}
+	 * is called.  The rocket is simulated without copying it.
 	 * <p>
 	 * Note: This method is package-private for unit testing purposes.
 	 *
-	 * @return a new deep copy of the simulation and rocket
+	 * @return a new copy of the simulation and rocket
+	 * @throws IllegalStateException if the working copy of the current thread has not been released
 	 */
 	Simulation newSimulationInstance(Simulation simulation) {
-		return simulation.duplicateSimulation(simulation.getRocket().copyWithOriginalID());
+		WorkingRocket working = threadRocket.get();
+		if (working.inUse) {
+			throw new IllegalStateException("The working copy of the rocket is still in use");
+		}
+
+		final Simulation copy;
+		synchronized (simulation) {
+			if (working.rocket == null || working.rocket.getSource() != simulation.getRocket()) {
+				working.rocket = new CopyOnWriteRocket(simulation.getRocket());
+			}
+			copy = simulation.duplicateSimulation(working.rocket.getRocket());
+		}
+		copy.setCopyRocket(false);
+		working.inUse = true;
+		return copy;
+	}
+
+	/**
+	 * Release the working copy of the current thread once the simulation returned by
+	 * {@link #newSimulationInstance(Simulation)} is no longer used.
+	 */
+	private void releaseSimulationInstance() {
+		threadRocket.get().inUse = false;
 	}
 
 	/**
@@ -168,4 +211,12 @@ public class RocketOptimizationFunction implements Function {
 			l.evaluated(p, values, domainReference, parameterValue, goalValue);
 		}
 	}
+
+	/**
+	 * The working copy of the rocket of one evaluating thread.
+	 */
+	private static class WorkingRocket {
+		private CopyOnWriteRocket rocket = null;
+		private boolean inUse = false;
+	}
 }
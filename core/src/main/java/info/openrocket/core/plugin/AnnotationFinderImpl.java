@@ -1,24 +1,160 @@
 package info.openrocket.core.plugin;
 
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.lang.annotation.Annotation;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.jar.JarFile;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import io.github.classgraph.ClassGraph;
 import io.github.classgraph.ScanResult;
 
 /**
- * An AnnotationFinder that uses annotation-detector library to scan
- * the class path. Compatible with the JIJ loader.
+ * An AnnotationFinder that reads the annotated types from the indexes written at
+ * compile time by the plugin index annotation processor.  Compatible with the JIJ loader.
+ * <p>
+ * User plugin jars that do not contain an index are scanned individually.  If no index
+ * is found at all (e.g. when running from an IDE without annotation processing),
+ * the whole class path is scanned.
  */
 public class AnnotationFinderImpl implements AnnotationFinder {
+	private static final Logger log = LoggerFactory.getLogger(AnnotationFinderImpl.class);
+
+	/**
+	 * The resource directory of the indexes.  The index of an annotation is the file named
+	 * after the annotation type, listing the binary names of the annotated types, one per line.
+	 */
+	public static final String INDEX_DIRECTORY = "META-INF/annotations/";
 
 	@Override
 	public List<Class<?>> findAnnotatedTypes(Class<? extends Annotation> annotation) {
-		List<Class<?>> classes;
-		try (ScanResult scanResult = new ClassGraph().enableAllInfo().scan()) {
-			classes = new ArrayList<>(scanResult.getClassesWithAnnotation(annotation.getName()).loadClasses());
+		List<File> pluginJars = Collections.emptyList();
+		if (PluginHelper.getPluginDirectory().isDirectory()) {
+			pluginJars = PluginHelper.getPluginJars();
+		}
+		return findAnnotatedTypes(annotation, getClassLoader(), pluginJars);
+	}
+
+	/**
+	 * Find the types annotated with the given annotation.
+	 *
+	 * @param annotation	the annotation to look for
+	 * @param loader		the class loader to read the indexes from and load the types with
+	 * @param pluginJars	the user plugin jars, which must be on the class path of the loader
+	 * @return				the annotated types
+	 */
+	static List<Class<?>> findAnnotatedTypes(Class<? extends Annotation> annotation, ClassLoader loader,
+			List<File> pluginJars) {
+		long t0 = System.currentTimeMillis();
+		String index = INDEX_DIRECTORY + annotation.getName();
+
+		Set<String> names = new LinkedHashSet<>();
+		boolean indexFound = readIndexes(loader, index, names);
+
+		List<Class<?>> classes = new ArrayList<>();
+		if (!indexFound) {
+			log.warn("No index found for " + annotation.getName() + ", scanning the class path");
+			try (ScanResult scanResult = new ClassGraph().enableAllInfo().overrideClassLoaders(loader).scan()) {
+				classes.addAll(scanResult.getClassesWithAnnotation(annotation.getName()).loadClasses());
+			}
+			return classes;
+		}
+
+		for (String name : names) {
+			try {
+				classes.add(Class.forName(name, false, loader));
+			} catch (ClassNotFoundException | LinkageError e) {
+				log.warn("Unable to load indexed class " + name, e);
+			}
 		}
+
+		for (File jar : getUnindexedJars(pluginJars, index)) {
+			log.info("Scanning plugin jar " + jar + " without an index");
+			try (ScanResult scanResult = new ClassGraph().enableClassInfo().enableAnnotationInfo()
+					.overrideClassLoaders(loader).acceptJars(jar.getName()).scan()) {
+				for (Class<?> c : scanResult.getClassesWithAnnotation(annotation.getName()).loadClasses()) {
+					if (!classes.contains(c)) {
+						classes.add(c);
+					}
+				}
+			}
+		}
+
+		log.debug("Found " + classes.size() + " types annotated with " + annotation.getSimpleName() + " in " +
+				(System.currentTimeMillis() - t0) + " ms");
 		return classes;
 	}
+
+	/**
+	 * Read the class names of all indexes on the class path.
+	 *
+	 * @return	whether any index was found.
+	 */
+	private static boolean readIndexes(ClassLoader loader, String index, Set<String> names) {
+		boolean found = false;
+		try {
+			Enumeration<URL> urls = loader.getResources(index);
+			while (urls.hasMoreElements()) {
+				URL url = urls.nextElement();
+				found = true;
+				try (InputStream is = url.openStream()) {
+					readIndex(is, names);
+				} catch (IOException e) {
+					log.warn("Unable to read plugin index " + url, e);
+				}
+			}
+		} catch (IOException e) {
+			log.warn("Unable to find plugin indexes", e);
+		}
+		return found;
+	}
+
+	static void readIndex(InputStream is, Set<String> names) throws IOException {
+		BufferedReader reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8));
+		String line;
+		while ((line = reader.readLine()) != null) {
+			line = line.trim();
+			if (!line.isEmpty() && !line.startsWith("#")) {
+				names.add(line);
+			}
+		}
+	}
+
+	/**
+	 * Return the plugin jars that do not contain the index.  Jars that cannot be read are skipped.
+	 */
+	private static List<File> getUnindexedJars(List<File> pluginJars, String index) {
+		List<File> unindexed = new ArrayList<>();
+		for (File jar : pluginJars) {
+			try (JarFile jarFile = new JarFile(jar)) {
+				if (jarFile.getEntry(index) == null) {
+					unindexed.add(jar);
+				}
+			} catch (IOException e) {
+				log.warn("Unable to open plugin jar " + jar, e);
+			}
+		}
+		return unindexed;
+	}
+
+	private static ClassLoader getClassLoader() {
+		ClassLoader loader = Thread.currentThread().getContextClassLoader();
+		if (loader == null) {
+			loader = AnnotationFinderImpl.class.getClassLoader();
+		}
+		return loader;
+	}
 }
@@ -13,9 +13,16 @@ public class PluginHelper {
 	private static final String PLUGIN_DIRECTORY = "Plugins";
 	private static final String PLUGIN_EXTENSION = ".jar";
 
-	public static List<File> getPluginJars() {
+	/**
+	 * Return the directory of the user plugin jars.  The directory is not created.
+	 */
+	public static File getPluginDirectory() {
 		File userDir = SystemInfo.getUserApplicationDirectory();
-		File pluginDir = new File(userDir, PLUGIN_DIRECTORY);
+		return new File(userDir, PLUGIN_DIRECTORY);
+	}
+
+	public static List<File> getPluginJars() {
+		File pluginDir = getPluginDirectory();
 		if (!pluginDir.exists()) {
 			pluginDir.mkdirs();
 		}
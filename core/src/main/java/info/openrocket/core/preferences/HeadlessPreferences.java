@@ -0,0 +1,198 @@
+package info.openrocket.core.preferences;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.prefs.AbstractPreferences;
+import java.util.prefs.BackingStoreException;
+import java.util.prefs.Preferences;
+
+import info.openrocket.core.material.Material;
+import info.openrocket.core.preset.ComponentPreset;
+
+import com.google.inject.Singleton;
+
+/**
+ * Application preferences for running without a user interface, e.g. from the command line.
+ * <p>
+ * The preferences are kept in memory only, so every run starts from the default values
+ * regardless of the preferences stored by the user on the machine.  No user-defined
+ * thrust curves or component presets are loaded unless they are set explicitly.
+ */
+@Singleton
+public class HeadlessPreferences extends ApplicationPreferences {
+
+	private final Preferences node = new MemoryPreferences(null, "");
+	private final Set<Material> userMaterials = new HashSet<>();
+
+	public HeadlessPreferences() {
+		node.put(USER_THRUST_CURVES_KEY, "");
+		node.put(USER_COMPONENT_PRESETS_KEY, "");
+	}
+
+	@Override
+	public boolean getBoolean(String key, boolean defaultValue) {
+		return node.getBoolean(key, defaultValue);
+	}
+
+	@Override
+	public void putBoolean(String key, boolean value) {
+		node.putBoolean(key, value);
+	}
+
+	@Override
+	public int getInt(String key, int defaultValue) {
+		return node.getInt(key, defaultValue);
+	}
+
+	@Override
+	public void putInt(String key, int value) {
+		node.putInt(key, value);
+	}
+
+	@Override
+	public double getDouble(String key, double defaultValue) {
+		return node.getDouble(key, defaultValue);
+	}
+
+	@Override
+	public void putDouble(String key, double value) {
+		node.putDouble(key, value);
+	}
+
+	@Override
+	public String getString(String key, String defaultValue) {
+		return node.get(key, defaultValue);
+	}
+
+	@Override
+	public void putString(String key, String value) {
+		if (value == null) {
+			node.remove(key);
+		} else {
+			node.put(key, value);
+		}
+	}
+
+	@Override
+	public String getString(String directory, String key, String defaultValue) {
+		return node.node(directory).get(key, defaultValue);
+	}
+
+	@Override
+	public void putString(String directory, String key, String value) {
+		if (value == null) {
+			node.node(directory).remove(key);
+		} else {
+			node.node(directory).put(key, value);
+		}
+	}
+
+	@Override
+	public Preferences getNode(String nodeName) {
+		return node.node(nodeName);
+	}
+
+	@Override
+	public Preferences getPreferences() {
+		return node;
+	}
+
+	@Override
+	public synchronized void addUserMaterial(Material m) {
+		userMaterials.add(m);
+	}
+
+	@Override
+	public synchronized Set<Material> getUserMaterials() {
+		return new HashSet<>(userMaterials);
+	}
+
+	@Override
+	public synchronized void removeUserMaterial(Material m) {
+		userMaterials.remove(m);
+	}
+
+	@Override
+	public void setComponentFavorite(ComponentPreset preset, ComponentPreset.Type type, boolean favorite) {
+		Preferences prefs = node.node("favoritePresets").node(type.name());
+		if (favorite) {
+			prefs.putBoolean(preset.preferenceKey(), true);
+		} else {
+			prefs.remove(preset.preferenceKey());
+		}
+	}
+
+	@Override
+	public Set<String> getComponentFavorites(ComponentPreset.Type type) {
+		Preferences prefs = node.node("favoritePresets").node(type.name());
+		Set<String> collection = new HashSet<>();
+		try {
+			collection.addAll(Set.of(prefs.keys()));
+		} catch (BackingStoreException ignore) {
+			// Not thrown by the in-memory preferences
+		}
+		return collection;
+	}
+
+
+	/**
+	 * A preference node that is stored in memory only.
+	 */
+	private static class MemoryPreferences extends AbstractPreferences {
+		private final Map<String, String> values = new HashMap<>();
+		private final Map<String, MemoryPreferences> children = new HashMap<>();
+
+		private MemoryPreferences(MemoryPreferences parent, String name) {
+			super(parent, name);
+		}
+
+		@Override
+		protected void putSpi(String key, String value) {
+			values.put(key, value);
+		}
+
+		@Override
+		protected String getSpi(String key) {
+			return values.get(key);
+		}
+
+		@Override
+		protected void removeSpi(String key) {
+			values.remove(key);
+		}
+
+		@Override
+		protected void removeNodeSpi() {
+			values.clear();
+			children.clear();
+			if (parent() != null) {
+				((MemoryPreferences) parent()).children.remove(name());
+			}
+		}
+
+		@Override
+		protected String[] keysSpi() {
+			return values.keySet().toArray(new String[0]);
+		}
+
+		@Override
+		protected String[] childrenNamesSpi() {
+			return children.keySet().toArray(new String[0]);
+		}
+
+		@Override
+		protected AbstractPreferences childSpi(String name) {
+			return children.computeIfAbsent(name, n -> new MemoryPreferences(this, n));
+		}
+
+		@Override
+		protected void syncSpi() {
+		}
+
+		@Override
+		protected void flushSpi() {
+		}
+	}
+}
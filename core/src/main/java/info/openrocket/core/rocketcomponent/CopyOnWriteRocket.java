@@ -0,0 +1,148 @@
+package info.openrocket.core.rocketcomponent;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * A reusable working copy of a source rocket.
+ * <p>
+ * The working copy may be freely modified.  Every modification is tracked through the
+ * component change events of the copy, and {@link #getRocket()} brings the working copy back
+ * to the state of the source rocket by re-copying only the subtrees that were modified, instead
+ * of deep copying the entire rocket every time.  Components themselves cannot be shared between
+ * rockets, since each component is linked to its parent.
+ * <p>
+ * The source rocket must not be modified while this object is in use, and modifications of the
+ * working copy that do not fire a change event are not detected.  This class is not thread-safe;
+ * use a separate instance for each thread.
+ */
+public class CopyOnWriteRocket implements ComponentChangeListener {
+
+	private final Rocket source;
+	private Rocket rocket = null;
+
+	/** IDs of the components that have been modified in the working copy */
+	private final Set<UUID> changed = new HashSet<>();
+	/** Whether the component tree or the rocket itself has been modified */
+	private boolean structureChanged = false;
+	/** Whether the working copy is being restored, in which case events are ignored */
+	private boolean restoring = false;
+
+	/**
+	 * Sole constructor.
+	 *
+	 * @param source	the rocket of which to keep a working copy
+	 */
+	public CopyOnWriteRocket(Rocket source) {
+		this.source = source;
+	}
+
+	/**
+	 * Return the rocket of which a working copy is kept.
+	 */
+	public Rocket getSource() {
+		return source;
+	}
+
+	/**
+	 * Return the working copy, restored to the state of the source rocket.  The returned rocket
+	 * is the same instance as returned by previous calls whenever possible.
+	 *
+	 * @return	a rocket identical to the source rocket
+	 */
+	public Rocket getRocket() {
+		if (rocket == null || structureChanged || !rocket.isEventsEnabled()) {
+			copySource();
+		} else if (!changed.isEmpty() && !restoreChanged()) {
+			copySource();
+		}
+		changed.clear();
+		structureChanged = false;
+		return rocket;
+	}
+
+	@Override
+	public void componentChanged(ComponentChangeEvent e) {
+		if (restoring) {
+			return;
+		}
+		RocketComponent component = e.getSource();
+		if (e.isTreeChange() || e.isTreeChildrenChange() || e.isUndoChange() ||
+				component == null || component instanceof Rocket) {
+			structureChanged = true;
+		} else {
+			changed.add(component.getID());
+		}
+	}
+
+	private void copySource() {
+		rocket = source.copyWithOriginalID();
+		rocket.addComponentChangeListener(this);
+	}
+
+	/**
+	 * Replace the modified subtrees of the working copy with new copies from the source rocket.
+	 *
+	 * @return	whether the working copy was restored, or false if a full copy is required
+	 */
+	private boolean restoreChanged() {
+		// Only the outermost modified components need to be copied
+		List<RocketComponent> outermost = new ArrayList<>();
+		for (UUID id : changed) {
+			RocketComponent component = rocket.findComponent(id);
+			if (component == null || component.getParent() == null) {
+				return false;
+			}
+			if (!hasChangedAncestor(component)) {
+				outermost.add(component);
+			}
+		}
+
+		for (RocketComponent component : outermost) {
+			RocketComponent original = source.findComponent(component.getID());
+			if (original == null) {
+				return false;
+			}
+			RocketComponent copy = original.copyWithOriginalID();
+			RocketComponent parent = component.parent;
+			int index = indexOfExact(parent.children, component);
+			if (index < 0) {
+				return false;
+			}
+			parent.children.set(index, copy);
+			copy.parent = parent;
+			component.parent = null;
+		}
+
+		// Recompute the stages, positions and flight configurations of the restored components.
+		// A single tree change event does all of this and also invalidates the modification IDs.
+		restoring = true;
+		try {
+			rocket.fireComponentChangeEvent(ComponentChangeEvent.TREE_CHANGE);
+		} finally {
+			restoring = false;
+		}
+		return true;
+	}
+
+	private boolean hasChangedAncestor(RocketComponent component) {
+		for (RocketComponent c = component.getParent(); c != null; c = c.getParent()) {
+			if (changed.contains(c.getID())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static int indexOfExact(List<RocketComponent> list, RocketComponent component) {
+		for (int i = 0; i < list.size(); i++) {
+			if (list.get(i) == component) {
+				return i;
+			}
+		}
+		return -1;
+	}
+}
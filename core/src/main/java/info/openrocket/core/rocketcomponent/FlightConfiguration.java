@@ -1,8 +1,10 @@
 package info.openrocket.core.rocketcomponent;
 
 import java.util.ArrayDeque;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
@@ -73,6 +75,12 @@ public class FlightConfiguration implements FlightConfigurableParameter<FlightCo
 	final private InstanceMap activeInstances = new InstanceMap();
 	final private InstanceMap extraRenderInstances = new InstanceMap(); // Extra instances to be rendered, besides the
 																		// active instances
+	// The instance transformations of each component, with the values they were computed from
+	final private Map<RocketComponent, InstanceNode> instanceNodes = new IdentityHashMap<>();
+
+	/** Change types that can not affect the instances of the components */
+	private static final int INSTANCE_INDEPENDENT_CHANGES = ComponentChangeEvent.NONFUNCTIONAL_CHANGE |
+			ComponentChangeEvent.TEXTURE_CHANGE | ComponentChangeEvent.GRAPHIC_CHANGE;
 
 	private ModID boundsModID = ModID.INVALID;
 	private BoundingBox cachedBoundsAerodynamic = new BoundingBox(); // Bounding box of all aerodynamic components
@@ -436,43 +444,141 @@ public class FlightConfiguration implements FlightConfigurableParameter<FlightCo
 	private void updateActiveInstances() {
 		activeInstances.clear();
 		extraRenderInstances.clear();
-		getActiveContextListAt(this.rocket, activeInstances, Transformation.IDENTITY);
+		instanceNodes.clear();
+		updateInstances(this.rocket, new Transformation[] { Transformation.IDENTITY }, true);
 	}
 
-	private InstanceMap getActiveContextListAt(final RocketComponent component, final InstanceMap results,
-			final Transformation parentTransform) {
+	/**
+	 * Update the instances of the components whose position, instances or activeness changed, and of their
+	 * children.  The instances of the other components are kept.
+	 */
+	private void updateChangedInstances() {
+		if (instanceNodes.isEmpty()) {
+			updateActiveInstances();
+			return;
+		}
+		updateInstances(this.rocket, new Transformation[] { Transformation.IDENTITY }, false);
+	}
 
-		final int instanceCount = component.getInstanceCount();
+	/**
+	 * Update the instances of a component and its children.
+	 *
+	 * @param component the component to update
+	 * @param parentTransforms the transformations of all instances of the parent component
+	 * @param parentChanged whether the instances of the parent component changed, in which case the instances of
+	 *                      the component are always recomputed
+	 */
+	private void updateInstances(final RocketComponent component, final Transformation[] parentTransforms,
+			final boolean parentChanged) {
+		final Coordinate position = component.getPosition();
 		final Coordinate[] allOffsets = component.getInstanceOffsets();
 		final double[] allAngles = component.getInstanceAngles();
+		final boolean active = this.isComponentActive(component);
+		// Boosters with no children are marked as inactive, but still need to be rendered.
+		// See GitHub issue #1980 for more information.
+		final boolean extraRender = !active && component instanceof ParallelStage
+				&& stages.get(component.getStageNumber()).active;
+
+		InstanceNode node = instanceNodes.get(component);
+		final boolean changed = parentChanged || node == null
+				|| !node.matches(position, allOffsets, allAngles, active, extraRender);
+
+		if (changed) {
+			node = new InstanceNode(position, allOffsets, allAngles, active, extraRender,
+					getInstanceTransforms(component, parentTransforms, position, allOffsets, allAngles));
+			instanceNodes.put(component, node);
+
+			final int instanceCount = allOffsets.length;
+			final java.util.ArrayList<InstanceContext> contexts = new java.util.ArrayList<>(node.transforms.length);
+			for (int i = 0; i < node.transforms.length; i++) {
+				contexts.add(new InstanceContext(component, i % instanceCount, node.transforms[i]));
+			}
+			if (active) {
+				activeInstances.put(component, contexts);
+				extraRenderInstances.remove(component);
+			} else if (extraRender) {
+				extraRenderInstances.put(component, contexts);
+				activeInstances.remove(component);
+			} else {
+				activeInstances.remove(component);
+				extraRenderInstances.remove(component);
+			}
+		}
+
+		for (RocketComponent child : component.getChildren()) {
+			updateInstances(child, node.transforms, changed);
+		}
+	}
 
-		final Transformation compLocTransform = Transformation.getTranslationTransform(component.getPosition());
-		final Transformation componentTransform = parentTransform.applyTransformation(compLocTransform);
-
-		// generate the Instance's Context:
-		for (int currentInstanceNumber = 0; currentInstanceNumber < instanceCount; currentInstanceNumber++) {
-			final Transformation offsetTransform = Transformation
-					.getTranslationTransform(allOffsets[currentInstanceNumber]);
-			final Transformation angleTransform = Transformation.getAxialRotation(allAngles[currentInstanceNumber]);
-			final Transformation currentTransform = componentTransform.applyTransformation(offsetTransform)
-					.applyTransformation(angleTransform);
-
-			// constructs entry in-place if this component is active
-			if (this.isComponentActive(component)) {
-				results.emplace(component, currentInstanceNumber, currentTransform);
-			} else if (component instanceof ParallelStage && stages.get(component.getStageNumber()).active) {
-				// Boosters with no children are marked as inactive, but still need to be
-				// rendered.
-				// See GitHub issue #1980 for more information.
-				extraRenderInstances.emplace(component, currentInstanceNumber, currentTransform);
+	/**
+	 * Returns the transformations of all instances of a component.  For each instance of the parent, this contains
+	 * the transformations of the instances of the component.
+	 */
+	private static Transformation[] getInstanceTransforms(final RocketComponent component,
+			final Transformation[] parentTransforms, final Coordinate position, final Coordinate[] allOffsets,
+			final double[] allAngles) {
+		final int instanceCount = component.getInstanceCount();
+		final Transformation compLocTransform = Transformation.getTranslationTransform(position);
+		final Transformation[] transforms = new Transformation[parentTransforms.length * instanceCount];
+
+		int index = 0;
+		for (Transformation parentTransform : parentTransforms) {
+			final Transformation componentTransform = parentTransform.applyTransformation(compLocTransform);
+
+			for (int currentInstanceNumber = 0; currentInstanceNumber < instanceCount; currentInstanceNumber++) {
+				final Transformation offsetTransform = Transformation
+						.getTranslationTransform(allOffsets[currentInstanceNumber]);
+				final Transformation angleTransform = Transformation.getAxialRotation(allAngles[currentInstanceNumber]);
+				transforms[index++] = componentTransform.applyTransformation(offsetTransform)
+						.applyTransformation(angleTransform);
 			}
+		}
 
-			for (RocketComponent child : component.getChildren()) {
-				getActiveContextListAt(child, results, currentTransform);
+		return transforms;
+	}
+
+	/**
+	 * The transformations of all instances of a component, and the values they were computed from.
+	 */
+	private static class InstanceNode {
+		private final Coordinate position;
+		private final Coordinate[] offsets;
+		private final double[] angles;
+		private final boolean active;
+		private final boolean extraRender;
+		private final Transformation[] transforms;
+
+		private InstanceNode(Coordinate position, Coordinate[] offsets, double[] angles, boolean active,
+				boolean extraRender, Transformation[] transforms) {
+			this.position = position;
+			this.offsets = offsets;
+			this.angles = angles;
+			this.active = active;
+			this.extraRender = extraRender;
+			this.transforms = transforms;
+		}
+
+		/**
+		 * Returns whether the instances computed from the given values are the same as these.  The coordinates are
+		 * compared exactly, as Coordinate.equals allows for a small difference.
+		 */
+		private boolean matches(Coordinate position, Coordinate[] offsets, double[] angles, boolean active,
+				boolean extraRender) {
+			if (this.active != active || this.extraRender != extraRender || !Arrays.equals(this.angles, angles)
+					|| !isSame(this.position, position) || this.offsets.length != offsets.length) {
+				return false;
+			}
+			for (int i = 0; i < offsets.length; i++) {
+				if (!isSame(this.offsets[i], offsets[i])) {
+					return false;
+				}
 			}
+			return true;
 		}
 
-		return results;
+		private static boolean isSame(Coordinate a, Coordinate b) {
+			return Double.compare(a.x, b.x) == 0 && Double.compare(a.y, b.y) == 0 && Double.compare(a.z, b.z) == 0;
+		}
 	}
 
 	/**
@@ -561,7 +667,7 @@ public class FlightConfiguration implements FlightConfigurableParameter<FlightCo
 
 		updateStages();
 		updateMotors();
-		updateActiveInstances();
+		updateChangedInstances();
 	}
 
 	/**
@@ -571,7 +677,7 @@ public class FlightConfiguration implements FlightConfigurableParameter<FlightCo
 		modID = new ModID();
 	}
 
-	private void updateStages() {
+	/* package-local */ void updateStages() {
 		Map<Integer, FlightConfiguration.StageFlags> stagesBackup = new HashMap<>(this.stages);
 		this.stages.clear();
 		for (AxialStage curStage : this.rocket.getStageList()) {
@@ -694,6 +800,24 @@ public class FlightConfiguration implements FlightConfigurableParameter<FlightCo
 		updateActiveInstances();
 	}
 
+	/**
+	 * Update the configuration after a change of the rocket.  Unlike {@link #update()}, only the instances of the
+	 * components that are affected by the change are recomputed.
+	 *
+	 * @param cce the change of the rocket
+	 */
+	public void update(ComponentChangeEvent cce) {
+		updateStages();
+		updateMotors();
+
+		if (cce.isTreeChange() || cce.isTreeChildrenChange() || cce.isUndoChange()) {
+			// The components may have been added, removed or replaced
+			updateActiveInstances();
+		} else if ((cce.getType() & ~INSTANCE_INDEPENDENT_CHANGES) != 0) {
+			updateChangedInstances();
+		}
+	}
+
 	/**
 	 * Return true if rocket has a RecoveryDevice
 	 */
@@ -599,7 +599,7 @@ public class Rocket extends ComponentAssembly {
 				RocketComponent next = iterator.next();
 				next.componentChanged(cce);
 			}
-			updateConfigurations(ids);
+			updateConfigurations(ids, cce);
 
 			notifyAllListeners(cce);
 
@@ -613,6 +613,23 @@ public class Rocket extends ComponentAssembly {
 		fireComponentChangeEvent(cce, null);
 	}
 	
+	/**
+	 * Update the stages when a component changes.  The components are positioned based on the
+	 * active stages of the selected configuration, so the stages of the flight configurations are
+	 * updated here.  The rest of the flight configurations is updated for the event by
+	 * {@link #fireComponentChangeEvent(ComponentChangeEvent, FlightConfigurationId[])} after all
+	 * components have been notified.
+	 */
+	@Override
+	protected void componentChanged(ComponentChangeEvent e) {
+		checkState();
+		updateStageNumbers();
+		updateStageMap();
+		for (FlightConfiguration config : configSet) {
+			config.updateStages();
+		}
+	}
+
 	@Override
 	public void update() {
 		updateStageNumbers();
@@ -664,26 +681,35 @@ public class Rocket extends ComponentAssembly {
 	 * Update the flight configurations.
 	 *
 	 * @param ids IDs of the flight configurations to update, or null to update all.
+	 * @param cce the change to update the configurations for, or null to update them completely.
 	 */
-	private void updateConfigurations(FlightConfigurationId[] ids) {
+	private void updateConfigurations(FlightConfigurationId[] ids, ComponentChangeEvent cce) {
 		if (ids == null) {
 			for (FlightConfiguration config : configSet) {
-				config.update();
+				updateConfiguration(config, cce);
 			}
 			return;
 		}
 		for (FlightConfiguration config : configSet) {
 			for (FlightConfigurationId id : ids) {
 				if (config.getId().equals(id)) {
-					config.update();
+					updateConfiguration(config, cce);
 					break;
 				}
 			}
 		}
 	}
+
+	private static void updateConfiguration(FlightConfiguration config, ComponentChangeEvent cce) {
+		if (cce == null) {
+			config.update();
+		} else {
+			config.update(cce);
+		}
+	}
 	
 	private void updateConfigurations() {
-		updateConfigurations(null);
+		updateConfigurations(null, null);
 	}
 
 	private void notifyAllListeners(final ComponentChangeEvent cce) {
@@ -1001,6 +1027,13 @@ public class Rocket extends ComponentAssembly {
 		this.update();
 	}
 	
+	/**
+	 * Return whether this rocket produces change events.
+	 */
+	public boolean isEventsEnabled() {
+		return this.eventsEnabled;
+	}
+
 	/** 
 	 * STUB.  would enable the monitoring, relay and production of events in this rocket instance.
 	 */
@@ -7,6 +7,7 @@ import javax.script.ScriptException;
 import com.oracle.truffle.js.scriptengine.GraalJSScriptEngine;
 
 import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
 import org.graalvm.polyglot.HostAccess;
 
 import java.util.Arrays;
@@ -27,13 +28,35 @@ public class GraalJSScriptEngineFactory implements ScriptEngineFactory {
     private static final List mimeTypes;
     private static final List extensions;
 
+    /**
+     * The polyglot engine shared by all script engines.  Creating the engine is expensive, and
+     * sharing it lets the contexts of different simulations reuse the parsed and compiled code
+     * of the same script.  Each script engine still has its own context, so script state is
+     * never shared between simulations.
+     */
+    private static volatile Engine polyglotEngine;
+
     public GraalJSScriptEngineFactory() {
     }
 
+    private static Engine getPolyglotEngine() {
+        Engine engine = polyglotEngine;
+        if (engine == null) {
+            synchronized (GraalJSScriptEngineFactory.class) {
+                engine = polyglotEngine;
+                if (engine == null) {
+                    engine = Engine.newBuilder().build();
+                    polyglotEngine = engine;
+                }
+            }
+        }
+        return engine;
+    }
+
     public ScriptEngine getScriptEngine() {
         // https://github.com/oracle/graaljs/blob/master/docs/user/RunOnJDK.md
         // https://github.com/oracle/graaljs/blob/master/docs/user/ScriptEngine.md#setting-options-via-bindings
-        ScriptEngine engine = GraalJSScriptEngine.create(null,
+        ScriptEngine engine = GraalJSScriptEngine.create(getPolyglotEngine(),
                 Context.newBuilder("js")
                         .allowHostAccess(HostAccess.ALL)
                         .allowHostClassLookup(s -> true)
@@ -52,7 +75,7 @@ public class GraalJSScriptEngineFactory implements ScriptEngineFactory {
     }
 
     public String getEngineVersion() {
-        return ((GraalJSScriptEngine) getScriptEngine()).getPolyglotEngine().getVersion();
+        return getPolyglotEngine().getVersion();
     }
 
     public List<String> getExtensions() {
@@ -104,6 +104,19 @@ public abstract class AbstractSimulationStepper implements SimulationStepper {
 		return gravity;
 	}
 
+	/**
+	 * Return the mass calculator of the simulation, which caches the structure mass data
+	 * between steps.
+	 */
+	private static MassCalculator getMassCalculator(SimulationStatus status) {
+		MassCalculator massCalculator = status.getSimulationConditions().getMassCalculator();
+		if (massCalculator == null) {
+			massCalculator = new MassCalculator();
+			status.getSimulationConditions().setMassCalculator(massCalculator);
+		}
+		return massCalculator;
+	}
+
 	/**
 	 * Compute the mass data to use, allowing listeners to override.
 	 * 
@@ -120,7 +133,7 @@ public abstract class AbstractSimulationStepper implements SimulationStepper {
 			return structureMass;
 		}
 
-		structureMass = MassCalculator.calculateStructure(status.getConfiguration());
+		structureMass = getMassCalculator(status).getStructureMass(status);
 
 		// Call post-listener
 		structureMass = SimulationListenerHelper.firePostMassCalculation(status, structureMass);
@@ -141,7 +154,7 @@ public abstract class AbstractSimulationStepper implements SimulationStepper {
 			return motorMass;
 		}
 
-		motorMass = MassCalculator.calculateMotor(status);
+		motorMass = getMassCalculator(status).getMotorMass(status);
 
 				
 		// Call post-listener
@@ -21,6 +21,7 @@ import info.openrocket.core.rocketcomponent.FlightConfiguration;
 import info.openrocket.core.rocketcomponent.FlightConfigurationId;
 import info.openrocket.core.rocketcomponent.MotorMount;
 import info.openrocket.core.rocketcomponent.RecoveryDevice;
+import info.openrocket.core.rocketcomponent.Rocket;
 import info.openrocket.core.rocketcomponent.RocketComponent;
 import info.openrocket.core.rocketcomponent.StageSeparationConfiguration;
 import info.openrocket.core.simulation.exception.SimulationException;
@@ -36,8 +37,8 @@ public class BasicEventSimulationEngine implements SimulationEngine {
 	private static final Translator trans = Application.getTranslator();
 	private static final Logger log = LoggerFactory.getLogger(BasicEventSimulationEngine.class);
 	
-	// TODO: MEDIUM: Allow selecting steppers
-	private final SimulationStepper flightStepper = new RK4SimulationStepper();
+	final RK4SimulationStepper flightStepper = new RK4SimulationStepper();
+	final RK45SimulationStepper adaptiveFlightStepper = new RK45SimulationStepper();
 	private final SimulationStepper landingStepper = new BasicLandingStepper();
 	private final SimulationStepper tumbleStepper = new BasicTumbleStepper();
 	private final SimulationStepper groundStepper = new GroundStepper();
@@ -62,12 +63,21 @@ public class BasicEventSimulationEngine implements SimulationEngine {
 
 		// Set up flight data
 		flightData = new FlightData();
+
+		// Discard any state left over if this engine is reused for several simulations
+		toSimulate.clear();
+		flightStepper.reset();
+		adaptiveFlightStepper.reset();
 			
 		try {
 			// Set up rocket configuration
 			this.fcid = simulationConditions.getFlightConfigurationID();
-			FlightConfiguration origConfig = simulationConditions.getRocket().getFlightConfiguration(this.fcid);
-			FlightConfiguration simulationConfig = origConfig.clone(simulationConditions.getRocket().copyWithOriginalID());
+			Rocket rocket = simulationConditions.getRocket();
+			FlightConfiguration origConfig = rocket.getFlightConfiguration(this.fcid);
+			if (simulationConditions.getSimulation().isCopyRocket()) {
+				rocket = rocket.copyWithOriginalID();
+			}
+			FlightConfiguration simulationConfig = origConfig.clone(rocket);
 			simulationConfig.copyStages(origConfig); // Clone the stage activation configuration
 			
 			currentStatus = new SimulationStatus(simulationConfig, simulationConditions);
@@ -148,6 +158,16 @@ public class BasicEventSimulationEngine implements SimulationEngine {
 		}
 	}
 	
+	/**
+	 * Return the stepper for the free flight selected in the simulation conditions.
+	 */
+	private SimulationStepper getFlightStepper() {
+		if (currentStatus.getSimulationConditions().getStepperMethod() == SimulationStepperMethod.RK45) {
+			return adaptiveFlightStepper;
+		}
+		return flightStepper;
+	}
+	
 	private void simulateLoop() throws SimulationException {
 
 		// Initialize the simulation. We'll use the flight stepper unless we're already
@@ -155,7 +175,7 @@ public class BasicEventSimulationEngine implements SimulationEngine {
 		if (currentStatus.isLanded())
 			currentStepper = groundStepper;
 		else
-			currentStepper = flightStepper;
+			currentStepper = getFlightStepper();
 		
 		currentStatus = currentStepper.initialize(currentStatus);
 		double previousSimulationTime = currentStatus.getSimulationTime();
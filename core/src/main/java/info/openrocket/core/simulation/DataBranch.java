@@ -1,13 +1,16 @@
 package info.openrocket.core.simulation;
 
-import info.openrocket.core.util.ArrayList;
 import info.openrocket.core.util.ModID;
 import info.openrocket.core.util.Monitorable;
 import info.openrocket.core.util.Mutable;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
 import java.lang.reflect.Array;
+import java.nio.DoubleBuffer;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -18,14 +21,38 @@ import java.util.Set;
  * @param <T> the type of data in this branch
  */
 public abstract class DataBranch<T extends DataType> implements Monitorable {
+	private static final Logger log = LoggerFactory.getLogger(DataBranch.class);
+
+	/**
+	 * A source of stored values of a branch.  Used for loading the values only once they
+	 * are first accessed.
+	 *
+	 * @param <T> the type of data in the branch
+	 */
+	public interface ValueSource<T extends DataType> {
+		/**
+		 * Read the values of the branch.
+		 *
+		 * @return	the columns of the branch by data type, all of the same length.
+		 * @throws IOException	if the values could not be read.
+		 */
+		Map<T, DataColumn> read() throws IOException;
+	}
+
 	protected final String name;
-	protected final Map<T, ArrayList<Double>> values = new LinkedHashMap<>();
-	protected final Map<T, Double> maxValues = new HashMap<>();
-	protected final Map<T, Double> minValues = new HashMap<>();
+	protected final Map<T, DataColumn> values = new LinkedHashMap<>();
+	/** The columns of {@link #values} in insertion order, for allocation-free iteration in {@link #addPoint()} */
+	private DataColumn[] columns = new DataColumn[0];
+	private int length = 0;
 
 	protected final Mutable mutable = new Mutable();
 	protected ModID modID = ModID.INVALID;
 
+	/** The source of the values that have not been loaded yet, or null if they have been loaded */
+	private volatile ValueSource<T> valueSource = null;
+	/** The error that prevented loading the values from their source, or null */
+	private volatile IOException loadError = null;
+
 	/**
 	 * Sole constructor.  Defines the name of the DataBranch and at least one variable type.
 	 *
@@ -54,39 +81,133 @@ public abstract class DataBranch<T extends DataType> implements Monitorable {
 			throw new IllegalArgumentException("Value type " + type + " already exists.");
 		}
 
-		values.put(type, new ArrayList<>());
-		minValues.put(type, Double.NaN);
-		maxValues.put(type, Double.NaN);
+		putColumn(type, DataColumn.ofNaN(getLength()));
 	}
 
 	/**
-	 * Adds a new point into the data branch.  The value for all types is set to NaN by default.
+	 * Store the column of a data type, replacing any previous column of that type.
 	 *
+	 * @param type		the data type.
+	 * @param column	the column holding the values of the type.
+	 */
+	protected void putColumn(T type, DataColumn column) {
+		values.put(type, column);
+		columns = values.values().toArray(new DataColumn[0]);
+	}
+
+	/**
+	 * Remove all data types and values from this branch.
+	 */
+	protected void clearValues() {
+		values.clear();
+		columns = new DataColumn[0];
+		length = 0;
+	}
+
+	/**
+	 * Set the number of data points in this branch.  Used by subclasses that populate
+	 * the columns directly.
+	 */
+	protected void setLength(int length) {
+		this.length = length;
+	}
+
+	/**
+	 * Defer loading the values of this branch until they are first accessed.  The columns
+	 * read from the source replace the current columns of the same type, the data types of
+	 * the branch should therefore already be defined.
+	 *
+	 * @param source	the source of the values.
 	 * @throws IllegalStateException	if this object has been made immutable.
 	 */
-	public void addPoint() {
+	public void setValueSource(ValueSource<T> source) {
 		mutable.check();
+		this.valueSource = source;
+	}
 
-		for (Map.Entry<T, ArrayList<Double>> entry : values.entrySet()) {
-			sanityCheckValues(entry.getKey(), Double.NaN);
-			entry.getValue().add(Double.NaN);
-		}
-		modID = new ModID();
+	/**
+	 * Return the source of the values of this branch, or <code>null</code> if the values
+	 * have been loaded.
+	 */
+	protected ValueSource<T> getValueSource() {
+		return valueSource;
 	}
 
-	private void sanityCheckValues(T type, Double value) {
-		ArrayList<Double> list = values.get(type);
+	/**
+	 * Return whether the values of this branch have not been loaded from their
+	 * {@link ValueSource} yet.
+	 */
+	public boolean hasDeferredValues() {
+		return valueSource != null;
+	}
 
-		if (list == null) {
-			list = new info.openrocket.core.util.ArrayList<>();
-			int n = getLength();
-			for (int i = 0; i < n; i++) {
-				list.add(Double.NaN);
+	/**
+	 * Load the values of this branch if their loading has been deferred.  This is called
+	 * implicitly when accessing the values, so calling this is necessary only for loading
+	 * the values while their source is still available.  If the values cannot be read the
+	 * branch is left empty and the error is available from {@link #getLoadError()}.
+	 */
+	public void loadValues() {
+		if (valueSource == null) {
+			return;
+		}
+		synchronized (this) {
+			ValueSource<T> source = valueSource;
+			if (source == null) {
+				return;
+			}
+			try {
+				Map<T, DataColumn> read = source.read();
+				int readLength = -1;
+				for (Map.Entry<T, DataColumn> entry : read.entrySet()) {
+					if (readLength >= 0 && entry.getValue().size() != readLength) {
+						throw new IOException("Column " + entry.getKey() + " has " + entry.getValue().size() +
+								" values, expected " + readLength);
+					}
+					readLength = entry.getValue().size();
+				}
+				for (Map.Entry<T, DataColumn> entry : read.entrySet()) {
+					putColumn(entry.getKey(), entry.getValue());
+				}
+				if (readLength > 0) {
+					// Pad any types missing from the source with NaN
+					for (T type : values.keySet()) {
+						if (!read.containsKey(type)) {
+							putColumn(type, DataColumn.ofNaN(readLength));
+						}
+					}
+					length = readLength;
+				}
+			} catch (IOException e) {
+				log.warn("Unable to load the values of branch '" + name + "'", e);
+				loadError = e;
 			}
-			values.put(type, list);
-			minValues.put(type, value);
-			maxValues.put(type, value);
+			valueSource = null;
+		}
+	}
+
+	/**
+	 * Return the error that prevented loading the values of this branch from their
+	 * {@link ValueSource}, or <code>null</code> if the values were loaded or have not
+	 * been loaded yet.
+	 */
+	public IOException getLoadError() {
+		return loadError;
+	}
+
+	/**
+	 * Adds a new point into the data branch.  The value for all types is set to NaN by default.
+	 *
+	 * @throws IllegalStateException	if this object has been made immutable.
+	 */
+	public void addPoint() {
+		mutable.check();
+
+		for (DataColumn column : columns) {
+			column.add(Double.NaN);
 		}
+		length++;
+		modID = new ModID();
 	}
 
 	/**
@@ -100,30 +221,13 @@ public abstract class DataBranch<T extends DataType> implements Monitorable {
 	public void setValue(T type, double value) {
 		mutable.check();
 
-		ArrayList<Double> list = values.computeIfAbsent(type, k -> {
-			ArrayList<Double> newList = new ArrayList<>();
-			int n = getLength();
-			for (int i = 0; i < n; i++) {
-				newList.add(Double.NaN);
-			}
-			minValues.put(k, Double.NaN);
-			maxValues.put(k, Double.NaN);
-			return newList;
-		});
-
-		if (list.size() > 0) {
-			list.set(list.size() - 1, value);
+		DataColumn column = values.get(type);
+		if (column == null) {
+			column = DataColumn.ofNaN(getLength());
+			putColumn(type, column);
 		}
 
-		double min = minValues.get(type);
-		double max = maxValues.get(type);
-
-		if (Double.isNaN(min) || (value < min)) {
-			minValues.put(type, value);
-		}
-		if (Double.isNaN(max) || (value > max)) {
-			maxValues.put(type, value);
-		}
+		column.setLast(value);
 		modID = new ModID();
 	}
 
@@ -136,10 +240,28 @@ public abstract class DataBranch<T extends DataType> implements Monitorable {
 	 * 				the variable type hasn't been added to this branch.
 	 */
 	public List<Double> get(T type) {
-		ArrayList<Double> list = values.get(type);
-		if (list == null)
+		loadValues();
+		DataColumn column = values.get(type);
+		if (column == null)
+			return null;
+		return column.toList();
+	}
+
+	/**
+	 * Return a read-only view of the values of the specified variable type.  The view is
+	 * backed by the primitive storage of this branch, so no values are copied.  Points added
+	 * after this call are not visible through the returned buffer.
+	 *
+	 * @param type	the variable type.
+	 * @return		a read-only buffer of the variable values, or <code>null</code> if
+	 * 				the variable type hasn't been added to this branch.
+	 */
+	public DoubleBuffer getBuffer(T type) {
+		loadValues();
+		DataColumn column = values.get(type);
+		if (column == null)
 			return null;
-		return list.clone();
+		return column.asBuffer();
 	}
 
 	/**
@@ -152,11 +274,11 @@ public abstract class DataBranch<T extends DataType> implements Monitorable {
 		if (index < 0 || index >= getLength()) {
 			throw new IllegalArgumentException("Index out of bounds");
 		}
-		ArrayList<Double> list = values.get(type);
-		if (list == null) {
+		DataColumn column = values.get(type);
+		if (column == null) {
 			return null;
 		}
-		return list.get(index);
+		return column.get(index);
 	}
 
 	/**
@@ -167,10 +289,11 @@ public abstract class DataBranch<T extends DataType> implements Monitorable {
 	 * @return		the last value in this branch, or NaN.
 	 */
 	public double getLast(T type) {
-		ArrayList<Double> list = values.get(type);
-		if (list == null || list.isEmpty())
+		loadValues();
+		DataColumn column = values.get(type);
+		if (column == null)
 			return Double.NaN;
-		return list.get(list.size() - 1);
+		return column.getLast();
 	}
 
 	/**
@@ -181,10 +304,11 @@ public abstract class DataBranch<T extends DataType> implements Monitorable {
 	 * @return		the minimum value in this branch, or NaN.
 	 */
 	public double getMinimum(T type) {
-		Double v = minValues.get(type);
-		if (v == null)
+		loadValues();
+		DataColumn column = values.get(type);
+		if (column == null)
 			return Double.NaN;
-		return v;
+		return column.getMinimum();
 	}
 
 	/**
@@ -195,20 +319,19 @@ public abstract class DataBranch<T extends DataType> implements Monitorable {
 	 * @return		the maximum value in this branch, or NaN.
 	 */
 	public double getMaximum(T type) {
-		Double v = maxValues.get(type);
-		if (v == null)
+		loadValues();
+		DataColumn column = values.get(type);
+		if (column == null)
 			return Double.NaN;
-		return v;
+		return column.getMaximum();
 	}
 
 	/**
 	 * Return the number of data points in this branch.
 	 */
 	public int getLength() {
-		for (ArrayList<Double> doubles : values.values()) {
-			return doubles.size();
-		}
-		return 0;
+		loadValues();
+		return length;
 	}
 
 	/**
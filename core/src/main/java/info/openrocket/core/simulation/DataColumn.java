@@ -0,0 +1,184 @@
+package info.openrocket.core.simulation;
+
+import java.nio.DoubleBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+import info.openrocket.core.util.ArrayList;
+import info.openrocket.core.util.BugException;
+
+/**
+ * A growable column of primitive <code>double</code> values, used as the backing storage of
+ * a single data type in a {@link DataBranch}.  The minimum and maximum of the values set
+ * through {@link #setLast(double)} are tracked inline, so they never require a scan.
+ * <p>
+ * This class is not thread-safe.
+ */
+public class DataColumn implements Cloneable {
+	private static final int DEFAULT_CAPACITY = 64;
+
+	private double[] data;
+	private int size = 0;
+	private double min = Double.NaN;
+	private double max = Double.NaN;
+
+	public DataColumn() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	public DataColumn(int initialCapacity) {
+		this.data = new double[Math.max(initialCapacity, 1)];
+	}
+
+	/**
+	 * Create a column containing <code>length</code> NaN values.
+	 *
+	 * @param length	the number of NaN values to pre-fill the column with.
+	 * @return			the new column.
+	 */
+	public static DataColumn ofNaN(int length) {
+		DataColumn column = new DataColumn(Math.max(length, DEFAULT_CAPACITY));
+		Arrays.fill(column.data, 0, length, Double.NaN);
+		column.size = length;
+		return column;
+	}
+
+	/**
+	 * Create a column containing the given values.  The array is used as the backing
+	 * storage of the column, so it must not be modified afterwards.  All non-NaN values
+	 * are included in the minimum and maximum values.
+	 *
+	 * @param values	the values of the column.
+	 * @return			the new column.
+	 */
+	public static DataColumn of(double[] values) {
+		DataColumn column = new DataColumn(0);
+		if (values.length > 0) {
+			column.data = values;
+		}
+		column.size = values.length;
+		for (double value : values) {
+			if (Double.isNaN(value)) {
+				continue;
+			}
+			if (Double.isNaN(column.min) || value < column.min) {
+				column.min = value;
+			}
+			if (Double.isNaN(column.max) || value > column.max) {
+				column.max = value;
+			}
+		}
+		return column;
+	}
+
+	/**
+	 * Append a value to the end of this column.  The value is NOT included in the
+	 * minimum and maximum values, use {@link #setLast(double)} for that.
+	 *
+	 * @param value		the value to append.
+	 */
+	public void add(double value) {
+		if (size == data.length) {
+			data = Arrays.copyOf(data, data.length + (data.length >> 1) + 1);
+		}
+		data[size++] = value;
+	}
+
+	/**
+	 * Set the last value of this column and update the minimum and maximum values.  If the
+	 * column is empty only the minimum and maximum values are updated.
+	 *
+	 * @param value		the value to set.
+	 */
+	public void setLast(double value) {
+		if (size > 0) {
+			data[size - 1] = value;
+		}
+		if (Double.isNaN(min) || value < min) {
+			min = value;
+		}
+		if (Double.isNaN(max) || value > max) {
+			max = value;
+		}
+	}
+
+	/**
+	 * Return the value at the specified index.
+	 *
+	 * @param index		the data index.
+	 * @return			the value at the index.
+	 * @throws IndexOutOfBoundsException	if the index is out of range.
+	 */
+	public double get(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+		return data[index];
+	}
+
+	/**
+	 * Return the last value of this column, or NaN if the column is empty.
+	 */
+	public double getLast() {
+		if (size == 0) {
+			return Double.NaN;
+		}
+		return data[size - 1];
+	}
+
+	public double getMinimum() {
+		return min;
+	}
+
+	public double getMaximum() {
+		return max;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Return a read-only view of the values in this column.  The view shares the backing
+	 * array of this column and does not copy any data.  Values appended to the column after
+	 * this call are not visible through the view.
+	 *
+	 * @return	a read-only buffer containing the values of this column.
+	 */
+	public DoubleBuffer asBuffer() {
+		return DoubleBuffer.wrap(data, 0, size).slice().asReadOnlyBuffer();
+	}
+
+	/**
+	 * Return a copy of the values in this column.
+	 */
+	public double[] toArray() {
+		return Arrays.copyOf(data, size);
+	}
+
+	/**
+	 * Return a copy of the values in this column as a list of boxed values.
+	 */
+	public List<Double> toList() {
+		ArrayList<Double> list = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			list.add(data[i]);
+		}
+		return list;
+	}
+
+	@Override
+	public DataColumn clone() {
+		try {
+			DataColumn clone = (DataColumn) super.clone();
+			clone.data = Arrays.copyOf(data, Math.max(size, 1));
+			return clone;
+		} catch (CloneNotSupportedException e) {
+			throw new BugException("CloneNotSupportedException", e);
+		}
+	}
+}
@@ -0,0 +1,55 @@
+package info.openrocket.core.simulation;
+
+import java.util.Random;
+
+/**
+ * A random distribution used to perturb a simulation parameter in a Monte Carlo run.
+ *
+ * @see MonteCarloSimulationRunner
+ */
+@FunctionalInterface
+public interface Dispersion {
+
+	/**
+	 * Draw a single sample from this distribution.
+	 *
+	 * @param random	the random number generator to use.
+	 * @return			the sampled value.
+	 */
+	double sample(Random random);
+
+	/**
+	 * A distribution that always returns the same value.
+	 *
+	 * @param value		the value to return.
+	 */
+	static Dispersion fixed(double value) {
+		return random -> value;
+	}
+
+	/**
+	 * A normal (Gaussian) distribution.
+	 *
+	 * @param mean		the mean of the distribution.
+	 * @param sigma		the standard deviation of the distribution.
+	 */
+	static Dispersion normal(double mean, double sigma) {
+		if (sigma < 0) {
+			throw new IllegalArgumentException("Standard deviation must be non-negative, was " + sigma);
+		}
+		return random -> mean + sigma * random.nextGaussian();
+	}
+
+	/**
+	 * A uniform distribution between two values.
+	 *
+	 * @param min		the lower bound (inclusive).
+	 * @param max		the upper bound (exclusive).
+	 */
+	static Dispersion uniform(double min, double max) {
+		if (max < min) {
+			throw new IllegalArgumentException("Upper bound " + max + " is smaller than lower bound " + min);
+		}
+		return random -> min + (max - min) * random.nextDouble();
+	}
+}
@@ -74,12 +74,10 @@ public class FlightDataBranch extends DataBranch<FlightDataType> {
 	 * @param srcComponent 	the component that is the source of this branch (used for copying events)
 	 */
 	private void copyValuesFromBranch(FlightDataBranch srcBranch, RocketComponent srcComponent) {
-		this.values.clear();
+		clearValues();
 
 		// Need to have at least one type to set up values
-		values.put(FlightDataType.TYPE_TIME, new ArrayList<>());
-		minValues.put(FlightDataType.TYPE_TIME, Double.NaN);
-		maxValues.put(FlightDataType.TYPE_TIME, Double.NaN);
+		addType(FlightDataType.TYPE_TIME);
 
 		if (srcBranch == null) {
 			return;
@@ -246,7 +244,8 @@ public class FlightDataBranch extends DataBranch<FlightDataType> {
 		if (Double.isNaN(time)) {
 			return -1;
 		}
-		List<Double> times = get(FlightDataType.TYPE_TIME);
+		loadValues();
+		DataColumn times = values.get(FlightDataType.TYPE_TIME);
 		if (times == null) {
 			return -1;
 		}
@@ -261,11 +260,16 @@ public class FlightDataBranch extends DataBranch<FlightDataType> {
 	public FlightDataBranch clone() {
 		FlightDataType[] types = getTypes();
 		FlightDataBranch clone = new FlightDataBranch(name, types);
-		for (Map.Entry<FlightDataType, ArrayList<Double>> entry : values.entrySet()) {
-			clone.values.put(entry.getKey(), entry.getValue().clone());
+		ValueSource<FlightDataType> source = getValueSource();
+		if (source != null) {
+			// Share the source instead of loading the values
+			clone.setValueSource(source);
+		} else {
+			for (Map.Entry<FlightDataType, DataColumn> entry : values.entrySet()) {
+				clone.putColumn(entry.getKey(), entry.getValue().clone());
+			}
+			clone.setLength(getLength());
 		}
-		clone.minValues.putAll(minValues);
-		clone.maxValues.putAll(maxValues);
 		clone.events.addAll(events);
 		clone.timeToOptimumAltitude = timeToOptimumAltitude;
 		clone.optimumAltitude = optimumAltitude;
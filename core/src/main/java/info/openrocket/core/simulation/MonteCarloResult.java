@@ -0,0 +1,122 @@
+package info.openrocket.core.simulation;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+import info.openrocket.core.simulation.exception.SimulationException;
+
+/**
+ * The summary of a single sample of a Monte Carlo run.  Only the scalar results are kept,
+ * the flight data of the sample is discarded once the summary has been created.
+ *
+ * @see MonteCarloSimulationRunner
+ */
+public class MonteCarloResult {
+	private final int sampleIndex;
+	private final double apogee;
+	private final double maxVelocity;
+	private final double landingX;
+	private final double landingY;
+	private final double landingLatitude;
+	private final double landingLongitude;
+	private final Map<FlightEvent.Type, Double> eventTimes;
+	private final SimulationException exception;
+
+	MonteCarloResult(int sampleIndex, FlightData data, SimulationException exception) {
+		this.sampleIndex = sampleIndex;
+		this.exception = exception;
+
+		Map<FlightEvent.Type, Double> times = new EnumMap<>(FlightEvent.Type.class);
+		if (data == null || data.getBranchCount() == 0) {
+			this.apogee = Double.NaN;
+			this.maxVelocity = Double.NaN;
+			this.landingX = Double.NaN;
+			this.landingY = Double.NaN;
+			this.landingLatitude = Double.NaN;
+			this.landingLongitude = Double.NaN;
+		} else {
+			FlightDataBranch sustainer = data.getBranch(0);
+			this.apogee = data.getMaxAltitude();
+			this.maxVelocity = data.getMaxVelocity();
+			this.landingX = sustainer.getLast(FlightDataType.TYPE_POSITION_X);
+			this.landingY = sustainer.getLast(FlightDataType.TYPE_POSITION_Y);
+			this.landingLatitude = sustainer.getLast(FlightDataType.TYPE_LATITUDE);
+			this.landingLongitude = sustainer.getLast(FlightDataType.TYPE_LONGITUDE);
+			for (FlightEvent event : sustainer.getEvents()) {
+				times.putIfAbsent(event.getType(), event.getTime());
+			}
+		}
+		this.eventTimes = Collections.unmodifiableMap(times);
+	}
+
+	/**
+	 * Return the index of this sample within the Monte Carlo run.
+	 */
+	public int getSampleIndex() {
+		return sampleIndex;
+	}
+
+	public double getApogee() {
+		return apogee;
+	}
+
+	public double getMaxVelocity() {
+		return maxVelocity;
+	}
+
+	/**
+	 * Return the landing position east of the launch site, in meters.
+	 */
+	public double getLandingX() {
+		return landingX;
+	}
+
+	/**
+	 * Return the landing position north of the launch site, in meters.
+	 */
+	public double getLandingY() {
+		return landingY;
+	}
+
+	public double getLandingLatitude() {
+		return landingLatitude;
+	}
+
+	public double getLandingLongitude() {
+		return landingLongitude;
+	}
+
+	/**
+	 * Return the time of the first occurrence of each flight event in the sustainer branch.
+	 */
+	public Map<FlightEvent.Type, Double> getEventTimes() {
+		return eventTimes;
+	}
+
+	/**
+	 * Return the time of the first occurrence of an event type, or NaN if it did not occur.
+	 */
+	public double getEventTime(FlightEvent.Type type) {
+		Double time = eventTimes.get(type);
+		return (time != null) ? time : Double.NaN;
+	}
+
+	/**
+	 * Return the exception that aborted this sample, or <code>null</code> if it completed normally.
+	 */
+	public SimulationException getException() {
+		return exception;
+	}
+
+	public boolean isSuccessful() {
+		return exception == null;
+	}
+
+	@Override
+	public String toString() {
+		return "MonteCarloResult [sample=" + sampleIndex + ", apogee=" + apogee + ", maxVelocity=" + maxVelocity
+				+ ", landing=(" + landingX + ", " + landingY + ")"
+				+ (exception != null ? ", exception=" + exception.getMessage() : "") + "]";
+	}
+}
@@ -0,0 +1,335 @@
+package info.openrocket.core.simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import info.openrocket.core.aerodynamics.AerodynamicCalculator;
+import info.openrocket.core.aerodynamics.AerodynamicForces;
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.masscalc.MassCalculator;
+import info.openrocket.core.masscalc.RigidBody;
+import info.openrocket.core.models.gravity.GravityModel;
+import info.openrocket.core.models.gravity.WGSGravityModel;
+import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.simulation.exception.SimulationCancelledException;
+import info.openrocket.core.simulation.exception.SimulationException;
+import info.openrocket.core.simulation.listeners.AbstractSimulationListener;
+import info.openrocket.core.simulation.listeners.system.InterruptListener;
+import info.openrocket.core.util.BugException;
+import info.openrocket.core.util.Coordinate;
+import info.openrocket.core.util.MathUtil;
+
+/**
+ * Runs a batch of randomly perturbed simulations (a Monte Carlo dispersion analysis) based
+ * on a set of base simulation conditions.
+ * <p>
+ * Each sample draws a value from every configured {@link Dispersion}:
+ * <ul>
+ * <li>an additional constant wind with a dispersed speed and direction, added to the wind model</li>
+ * <li>offsets to the launch rod angle and direction</li>
+ * <li>a factor applied to the motor thrust (i.e. the total impulse)</li>
+ * <li>a factor applied to the mass and moments of inertia of the rocket</li>
+ * <li>a factor applied to the drag coefficient computed by the aerodynamic calculator</li>
+ * </ul>
+ * The samples are simulated in parallel in a fork-join pool.  Each worker thread uses its own
+ * copy of the rocket, and reuses one simulation engine (and hence one set of steppers) and one
+ * aerodynamic calculator and mass calculator for all the samples it runs.  The samples are
+ * simulated directly on the copy of the worker, so the structure mass data cached by the mass
+ * calculator is reused between them.  Only a {@link MonteCarloResult} summary of each sample is
+ * kept; it is handed to the result consumer as soon as the sample has finished.
+ * <p>
+ * The samples are seeded from the base seed and the sample index, so a run is reproducible
+ * regardless of the number of threads used.
+ */
+public class MonteCarloSimulationRunner {
+	private static final Logger log = LoggerFactory.getLogger(MonteCarloSimulationRunner.class);
+
+	private static final long SEED_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+	private final SimulationConditions baseConditions;
+	private final int sampleCount;
+
+	private Dispersion windSpeed = Dispersion.fixed(0);
+	private Dispersion windDirection = Dispersion.fixed(0);
+	private Dispersion launchRodAngle = Dispersion.fixed(0);
+	private Dispersion launchRodDirection = Dispersion.fixed(0);
+	private Dispersion impulseFactor = Dispersion.fixed(1);
+	private Dispersion massFactor = Dispersion.fixed(1);
+	private Dispersion cdFactor = Dispersion.fixed(1);
+
+	private long seed = 0;
+	private int threadCount = Runtime.getRuntime().availableProcessors();
+
+	private volatile boolean cancelled = false;
+
+	/**
+	 * Sole constructor.
+	 *
+	 * @param baseConditions	the conditions to perturb.  The conditions must be associated with a
+	 * 							simulation, see {@link SimulationConditions#setSimulation(Simulation)}.
+	 * @param sampleCount		the number of samples to simulate.
+	 */
+	public MonteCarloSimulationRunner(SimulationConditions baseConditions, int sampleCount) {
+		if (baseConditions.getSimulation() == null) {
+			throw new IllegalArgumentException("Simulation conditions are not associated with a simulation");
+		}
+		if (sampleCount <= 0) {
+			throw new IllegalArgumentException("Sample count must be positive, was " + sampleCount);
+		}
+		this.baseConditions = baseConditions;
+		this.sampleCount = sampleCount;
+	}
+
+	/**
+	 * Set the dispersion of an additional constant wind, added to the wind model of the base conditions.
+	 *
+	 * @param speed			the wind speed in m/s.
+	 * @param direction		the wind direction in radians, 0 = north.
+	 */
+	public void setWindDispersion(Dispersion speed, Dispersion direction) {
+		this.windSpeed = speed;
+		this.windDirection = direction;
+	}
+
+	/**
+	 * Set the dispersion of the launch rod angle and direction, as offsets in radians to the
+	 * values of the base conditions.
+	 */
+	public void setLaunchRodDispersion(Dispersion angle, Dispersion direction) {
+		this.launchRodAngle = angle;
+		this.launchRodDirection = direction;
+	}
+
+	/**
+	 * Set the dispersion of the factor applied to the thrust of all motors.
+	 */
+	public void setImpulseDispersion(Dispersion factor) {
+		this.impulseFactor = factor;
+	}
+
+	/**
+	 * Set the dispersion of the factor applied to the mass and moments of inertia of the rocket.
+	 */
+	public void setMassDispersion(Dispersion factor) {
+		this.massFactor = factor;
+	}
+
+	/**
+	 * Set the dispersion of the factor applied to the drag coefficient of the rocket.
+	 */
+	public void setCDDispersion(Dispersion factor) {
+		this.cdFactor = factor;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+
+	public int getThreadCount() {
+		return threadCount;
+	}
+
+	public void setThreadCount(int threadCount) {
+		if (threadCount <= 0) {
+			throw new IllegalArgumentException("Thread count must be positive, was " + threadCount);
+		}
+		this.threadCount = threadCount;
+	}
+
+	public int getSampleCount() {
+		return sampleCount;
+	}
+
+	/**
+	 * Request cancellation of a running batch.  Samples that have not yet started are skipped,
+	 * samples that are already running are completed.
+	 */
+	public void cancel() {
+		cancelled = true;
+	}
+
+	/**
+	 * Run all samples and block until they have completed.  The consumer is called once for each
+	 * sample, in order of completion, and never concurrently.
+	 *
+	 * @param consumer	the consumer of the per-sample results.
+	 * @throws SimulationCancelledException	if the run was cancelled or the calling thread was interrupted.
+	 */
+	public void run(Consumer<MonteCarloResult> consumer) throws SimulationCancelledException {
+		cancelled = false;
+
+		final ThreadLocal<Worker> workers = ThreadLocal.withInitial(Worker::new);
+		final Object consumerLock = new Object();
+
+		List<Callable<Void>> tasks = new ArrayList<>(sampleCount);
+		for (int i = 0; i < sampleCount; i++) {
+			final int index = i;
+			tasks.add(() -> {
+				if (cancelled) {
+					return null;
+				}
+				MonteCarloResult result = workers.get().simulate(index);
+				synchronized (consumerLock) {
+					consumer.accept(result);
+				}
+				return null;
+			});
+		}
+
+		ForkJoinPool pool = new ForkJoinPool(Math.min(threadCount, sampleCount));
+		try {
+			List<Future<Void>> futures = pool.invokeAll(tasks);
+			for (Future<Void> future : futures) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			cancelled = true;
+			throw new SimulationCancelledException("Monte Carlo run was interrupted.");
+		} catch (ExecutionException e) {
+			throw new BugException("Monte Carlo sample failed", e.getCause());
+		} finally {
+			pool.shutdownNow();
+		}
+
+		if (cancelled) {
+			throw new SimulationCancelledException("Monte Carlo run was cancelled.");
+		}
+	}
+
+	/**
+	 * Run all samples and return their results ordered by sample index.
+	 *
+	 * @throws SimulationCancelledException	if the run was cancelled or the calling thread was interrupted.
+	 */
+	public List<MonteCarloResult> run() throws SimulationCancelledException {
+		MonteCarloResult[] results = new MonteCarloResult[sampleCount];
+		run(result -> results[result.getSampleIndex()] = result);
+		return List.of(results);
+	}
+
+
+	/**
+	 * The state reused by one worker thread for all the samples it simulates.
+	 */
+	private class Worker {
+		private final BasicEventSimulationEngine engine = new BasicEventSimulationEngine();
+		private final AerodynamicCalculator aerodynamicCalculator;
+		private final MassCalculator massCalculator = new MassCalculator();
+		private final GravityModel gravityModel;
+		private final Simulation simulation;
+
+		Worker() {
+			Simulation baseSimulation = baseConditions.getSimulation();
+			// The rocket and simulation are not thread-safe, so copy them one thread at a time
+			synchronized (baseSimulation) {
+				Rocket rocket = baseSimulation.getRocket().copyWithOriginalID();
+				this.simulation = baseSimulation.duplicateSimulation(rocket);
+			}
+			// The copy is private to this worker, so the engine need not copy it for each sample
+			this.simulation.setCopyRocket(false);
+			this.aerodynamicCalculator = baseConditions.getAerodynamicCalculator().newInstance();
+			// The WGS model caches the last position, so each thread needs its own instance
+			if (baseConditions.getGravityModel() instanceof WGSGravityModel) {
+				this.gravityModel = new WGSGravityModel();
+			} else {
+				this.gravityModel = baseConditions.getGravityModel();
+			}
+		}
+
+		MonteCarloResult simulate(int index) {
+			Random random = new Random(seed + index * SEED_MULTIPLIER);
+
+			SimulationConditions conditions = baseConditions.clone();
+			conditions.setSimulation(simulation);
+			conditions.setAerodynamicCalculator(aerodynamicCalculator);
+			conditions.setMassCalculator(massCalculator);
+			conditions.setGravityModel(gravityModel);
+			conditions.setWindModel(baseConditions.getWindModel().clone());
+			conditions.setRandomSeed(random.nextInt());
+
+			conditions.setLaunchRodAngle(MathUtil.clamp(baseConditions.getLaunchRodAngle() + launchRodAngle.sample(random),
+					-SimulationOptions.MAX_LAUNCH_ROD_ANGLE, SimulationOptions.MAX_LAUNCH_ROD_ANGLE));
+			conditions.setLaunchRodDirection(baseConditions.getLaunchRodDirection() + launchRodDirection.sample(random));
+
+			double speed = windSpeed.sample(random);
+			double direction = windDirection.sample(random);
+			DispersionListener listener = new DispersionListener(
+					new Coordinate(speed * Math.sin(direction), speed * Math.cos(direction), 0),
+					impulseFactor.sample(random), massFactor.sample(random), cdFactor.sample(random));
+			conditions.getSimulationListenerList().add(listener);
+			conditions.getSimulationListenerList().add(InterruptListener.INSTANCE);
+
+			SimulationException exception = null;
+			try {
+				engine.simulate(conditions);
+			} catch (SimulationException e) {
+				log.debug("Monte Carlo sample " + index + " failed: " + e.getMessage());
+				exception = e;
+			}
+			return new MonteCarloResult(index, engine.getFlightData(), exception);
+		}
+	}
+
+
+	/**
+	 * Applies the dispersed values of one sample to the simulation.
+	 */
+	private static class DispersionListener extends AbstractSimulationListener {
+		private final Coordinate windOffset;
+		private final double impulseFactor;
+		private final double massFactor;
+		private final double cdFactor;
+
+		DispersionListener(Coordinate windOffset, double impulseFactor, double massFactor, double cdFactor) {
+			this.windOffset = windOffset;
+			this.impulseFactor = impulseFactor;
+			this.massFactor = massFactor;
+			this.cdFactor = cdFactor;
+		}
+
+		@Override
+		public Coordinate postWindModel(SimulationStatus status, Coordinate wind) {
+			return wind.add(windOffset);
+		}
+
+		@Override
+		public double postSimpleThrustCalculation(SimulationStatus status, double thrust) {
+			return thrust * impulseFactor;
+		}
+
+		@Override
+		public RigidBody postMassCalculation(SimulationStatus status, RigidBody massData) {
+			if (massFactor == 1) {
+				return massData;
+			}
+			Coordinate cm = massData.getCenterOfMass();
+			return new RigidBody(cm.setWeight(cm.weight * massFactor), massData.getIxx() * massFactor,
+					massData.getIyy() * massFactor, massData.getIzz() * massFactor);
+		}
+
+		@Override
+		public AerodynamicForces postAerodynamicCalculation(SimulationStatus status, AerodynamicForces forces) {
+			forces.setCD(forces.getCD() * cdFactor);
+			forces.setCDaxial(forces.getCDaxial() * cdFactor);
+			return forces;
+		}
+
+		@Override
+		public boolean isSystemListener() {
+			return true;
+		}
+	}
+}
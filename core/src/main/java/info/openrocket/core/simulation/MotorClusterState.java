@@ -4,6 +4,7 @@ import info.openrocket.core.motor.IgnitionEvent;
 import info.openrocket.core.motor.Motor;
 import info.openrocket.core.motor.MotorConfiguration;
 import info.openrocket.core.motor.MotorConfigurationId;
+import info.openrocket.core.motor.ThrustCurveMotor;
 import info.openrocket.core.rocketcomponent.FlightConfiguration;
 import info.openrocket.core.rocketcomponent.MotorMount;
 import info.openrocket.core.rocketcomponent.RocketComponent;
@@ -15,6 +16,8 @@ public class MotorClusterState {
 	final protected MotorConfiguration config;
 	final protected int motorCount;
 	final protected double thrustDuration;
+	// cursor for the successive thrust curve lookups of the simulation, null for other motors
+	final private ThrustCurveMotor.Cursor cursor;
 
 	// for state:
 	protected double ignitionTime = Double.NaN;
@@ -28,6 +31,11 @@ public class MotorClusterState {
 		this.motor = this.config.getMotor();
 		this.motorCount = this.config.getMotorCount();
 		this.thrustDuration = this.motor.getBurnTimeEstimate();
+		if (this.motor instanceof ThrustCurveMotor) {
+			this.cursor = ((ThrustCurveMotor) this.motor).createCursor();
+		} else {
+			this.cursor = null;
+		}
 
 		this.reset();
 	}
@@ -135,6 +143,9 @@ public class MotorClusterState {
 			double motorEndTime = this.getMotorTime(endSimulationTime);
 
 			int instanceCount = this.config.getMount().getLocations().length;
+			if (cursor != null) {
+				return instanceCount * cursor.getAverageThrust(motorStartTime, motorEndTime);
+			}
 			return instanceCount * motor.getAverageThrust(motorStartTime, motorEndTime);
 		} else {
 			return 0.00;
@@ -150,6 +161,9 @@ public class MotorClusterState {
 	public double getThrust(final double simulationTime) {
 		if (this.currentState.isThrusting()) {
 			double motorTime = this.getMotorTime(simulationTime);
+			if (cursor != null) {
+				return this.motorCount * cursor.getThrust(motorTime);
+			}
 			return this.motorCount * motor.getThrust(motorTime);
 
 		} else {
@@ -157,6 +171,32 @@ public class MotorClusterState {
 		}
 	}
 
+	/**
+	 * Return the mass of a single motor at a motor time.
+	 * 
+	 * @param motorTime time since ignition
+	 * @return the mass of the motor
+	 */
+	public double getMotorMass(final double motorTime) {
+		if (cursor != null) {
+			return cursor.getTotalMass(motorTime);
+		}
+		return motor.getTotalMass(motorTime);
+	}
+
+	/**
+	 * Return the CM position of a single motor at a motor time, measured from the front of the motor.
+	 * 
+	 * @param motorTime time since ignition
+	 * @return the CM position of the motor
+	 */
+	public double getMotorCMx(final double motorTime) {
+		if (cursor != null) {
+			return cursor.getCMx(motorTime);
+		}
+		return motor.getCMx(motorTime);
+	}
+
 	public boolean isPlugged() {
 		return (this.config.getEjectionDelay() == Motor.PLUGGED_DELAY);
 	}
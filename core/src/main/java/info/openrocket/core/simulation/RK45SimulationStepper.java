@@ -0,0 +1,428 @@
+package info.openrocket.core.simulation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import info.openrocket.core.l10n.Translator;
+import info.openrocket.core.simulation.exception.SimulationCalculationException;
+import info.openrocket.core.simulation.exception.SimulationException;
+import info.openrocket.core.startup.Application;
+import info.openrocket.core.util.BugException;
+import info.openrocket.core.util.Coordinate;
+import info.openrocket.core.util.MathUtil;
+import info.openrocket.core.util.Quaternion;
+import info.openrocket.core.util.WorldCoordinate;
+
+/**
+ * A flight stepper using the Dormand-Prince 5(4) embedded Runge-Kutta method with an
+ * adaptive time step.  The forces are computed exactly as by {@link RK4SimulationStepper}.
+ * <p>
+ * The step length is selected so that the difference between the fifth and fourth order
+ * solutions stays within a relative tolerance and an absolute tolerance specific to each
+ * part of the state (position, velocity, orientation and rotation velocity).  This replaces
+ * the angle and roll rate limits of the RK4 stepper, allowing long steps during coasting.
+ * <p>
+ * The step is limited in the same way as by the RK4 stepper before scheduled events in the
+ * event queue, and while on the launch guide to 1/10th of its length.  Apogee and ground hit
+ * are approached with at most the user-selected time step, so that they are found as
+ * accurately as with RK4.
+ * <p>
+ * A step whose stages result in NaN values, e.g. because the trial step is too long for the
+ * models, is rejected and retried with a shorter step like a step with a too large error.  Only
+ * if this also happens with the minimum step length is the NaN reported as a bug.
+ * <p>
+ * Every attempted step requires seven acceleration calculations.  The last of these is made
+ * at the end of the step, but it is not reused for the next step, since events may change
+ * the rocket between the steps.
+ */
+public class RK45SimulationStepper extends RK4SimulationStepper {
+
+	private static final Logger log = LoggerFactory.getLogger(RK45SimulationStepper.class);
+	private static final Translator trans = Application.getTranslator();
+
+	/** Default relative tolerance of all state values */
+	public static final double DEFAULT_RELATIVE_TOLERANCE = 1.0e-3;
+	/** Default absolute tolerance of the position (m) */
+	public static final double DEFAULT_POSITION_TOLERANCE = 1.0e-2;
+	/** Default absolute tolerance of the velocity (m/s) */
+	public static final double DEFAULT_VELOCITY_TOLERANCE = 1.0e-2;
+	/** Default absolute tolerance of the orientation (rad) */
+	public static final double DEFAULT_ORIENTATION_TOLERANCE = 1.0e-3;
+	/** Default absolute tolerance of the rotation velocity (rad/s) */
+	public static final double DEFAULT_ROTATION_VELOCITY_TOLERANCE = 1.0e-2;
+
+	/**
+	 * The maximum time step as a multiple of the user-selected time step, which keeps
+	 * the flight data dense enough for plotting.
+	 */
+	private static final double MAX_TIME_STEP_FACTOR = 20;
+
+	private static final double SAFETY_FACTOR = 0.9;
+	private static final double MIN_STEP_FACTOR = 0.2;
+	private static final double MAX_STEP_FACTOR = 5.0;
+
+	/*
+	 * Dormand-Prince coefficients.  The weights of the fifth order solution are the
+	 * coefficients of the last stage, so the last stage is evaluated at the end of the step.
+	 */
+	private static final double[] C = { 0, 1.0 / 5, 3.0 / 10, 4.0 / 5, 8.0 / 9, 1, 1 };
+	private static final double[][] A = {
+			{},
+			{ 1.0 / 5 },
+			{ 3.0 / 40, 9.0 / 40 },
+			{ 44.0 / 45, -56.0 / 15, 32.0 / 9 },
+			{ 19372.0 / 6561, -25360.0 / 2187, 64448.0 / 6561, -212.0 / 729 },
+			{ 9017.0 / 3168, -355.0 / 33, 46732.0 / 5247, 49.0 / 176, -5103.0 / 18656 },
+			{ 35.0 / 384, 0, 500.0 / 1113, 125.0 / 192, -2187.0 / 6784, 11.0 / 84 }
+	};
+	/** Difference between the weights of the fifth and fourth order solutions */
+	private static final double[] E = {
+			71.0 / 57600, 0, -71.0 / 16695, 71.0 / 1920, -17253.0 / 339200, 22.0 / 525, -1.0 / 40
+	};
+	private static final int STAGES = C.length;
+
+	private double relativeTolerance = DEFAULT_RELATIVE_TOLERANCE;
+	private double positionTolerance = DEFAULT_POSITION_TOLERANCE;
+	private double velocityTolerance = DEFAULT_VELOCITY_TOLERANCE;
+	private double orientationTolerance = DEFAULT_ORIENTATION_TOLERANCE;
+	private double rotationVelocityTolerance = DEFAULT_ROTATION_VELOCITY_TOLERANCE;
+
+	/** The step length proposed by the error control for the next step, NaN before the first step */
+	private double nextTimeStep = Double.NaN;
+
+	// Derivatives of the stages
+	private final RK4Parameters parameters = new RK4Parameters();
+	private final Coordinate[] a = new Coordinate[STAGES];
+	private final Coordinate[] v = new Coordinate[STAGES];
+	private final Coordinate[] ra = new Coordinate[STAGES];
+	private final Coordinate[] rv = new Coordinate[STAGES];
+
+	/** Whether the stages of a trial step are being computed, in which case NaN values reject the step */
+	private boolean trialStep = false;
+
+	private int evaluations = 0;
+	private int rejectedSteps = 0;
+
+	public double getRelativeTolerance() {
+		return relativeTolerance;
+	}
+
+	public void setRelativeTolerance(double relativeTolerance) {
+		this.relativeTolerance = relativeTolerance;
+	}
+
+	/**
+	 * Set the absolute tolerances of the different parts of the state.
+	 *
+	 * @param position			tolerance of the position (m)
+	 * @param velocity			tolerance of the velocity (m/s)
+	 * @param orientation		tolerance of the orientation (rad)
+	 * @param rotationVelocity	tolerance of the rotation velocity (rad/s)
+	 */
+	public void setAbsoluteTolerances(double position, double velocity, double orientation, double rotationVelocity) {
+		this.positionTolerance = position;
+		this.velocityTolerance = velocity;
+		this.orientationTolerance = orientation;
+		this.rotationVelocityTolerance = rotationVelocity;
+	}
+
+	/**
+	 * Return the number of acceleration calculations made since the last reset.
+	 */
+	public int getEvaluationCount() {
+		return evaluations;
+	}
+
+	/**
+	 * Return the number of steps rejected by the error control since the last reset.
+	 */
+	public int getRejectedStepCount() {
+		return rejectedSteps;
+	}
+
+	@Override
+	void reset() {
+		super.reset();
+		nextTimeStep = Double.NaN;
+		evaluations = 0;
+		rejectedSteps = 0;
+	}
+
+	@Override
+	public SimulationStatus initialize(SimulationStatus original) {
+		nextTimeStep = Double.NaN;
+		return super.initialize(original);
+	}
+
+	@Override
+	public void step(SimulationStatus status, double maxTimeStep) throws SimulationException {
+
+		/*
+		 * Get the current atmospheric conditions
+		 */
+		calculateFlightConditions(status, store);
+		store.atmosphericConditions = store.flightConditions.getAtmosphericConditions();
+
+		//// First stage, k1 = f(t, y)
+		computeStage(status, 0);
+		store.storeData(status);
+
+		SimulationConditions conditions = status.getSimulationConditions();
+		// If the user selected a really small timestep, use MIN_TIME_STEP instead.
+		final double timeStep = MathUtil.max(conditions.getTimeStep(), MIN_TIME_STEP);
+		final double minTimeStep = timeStep / 20;
+		final double proposal = Double.isNaN(nextTimeStep) ? timeStep : nextTimeStep;
+
+		double h = MathUtil.min(proposal, getMaximumTimeStep(status, maxTimeStep, timeStep));
+		boolean rejected = false;
+		SimulationStatus result;
+		double error;
+		while (true) {
+			h = clampToEvent(status, h, minTimeStep);
+
+			// If we've wound up with a too-small timestep, increase it avoid numerical instability even at the
+			// cost of not being *quite* on an event
+			if (h < minTimeStep) {
+				log.trace("Too small time step " + h + ", using " + minTimeStep + " instead.");
+				h = minTimeStep;
+			}
+			checkNaN(h);
+			store.timeStep = h;
+
+			result = integrate(status, h);
+			error = (result != null) ? estimateError(status, result, h) : Double.NaN;
+			if (error <= 1) {
+				break;
+			}
+			if (h <= minTimeStep) {
+				if (!Double.isFinite(error)) {
+					throw new BugException("Simulation resulted in not-a-number (NaN) value at the minimum time step "
+							+ h + ", please report a bug.");
+				}
+				break;
+			}
+			if (!Double.isFinite(error)) {
+				error = Double.POSITIVE_INFINITY;
+			}
+
+			rejected = true;
+			rejectedSteps++;
+			double shorter = h * MathUtil.max(MIN_STEP_FACTOR, SAFETY_FACTOR * Math.pow(error, -0.2));
+			log.trace("Rejected time step " + h + " (error " + error + "), retrying with " + shorter);
+			h = shorter;
+		}
+
+		// Select the next step length.  Do not grow the step after a rejection, and do not
+		// let a step shortened by the limits shorten the following ones.
+		double factor = (error > 0) ? SAFETY_FACTOR * Math.pow(error, -0.2) : MAX_STEP_FACTOR;
+		factor = MathUtil.clamp(factor, MIN_STEP_FACTOR, rejected ? 1 : MAX_STEP_FACTOR);
+		nextTimeStep = h * factor;
+		if (!rejected && h < proposal) {
+			nextTimeStep = MathUtil.max(nextTimeStep, proposal);
+		}
+		log.trace("Selected time step " + h + " (error " + error + "), next time step " + nextTimeStep);
+
+		status.setRocketPosition(result.getRocketPosition());
+		status.setRocketVelocity(result.getRocketVelocity());
+		status.setRocketRotationVelocity(result.getRocketRotationVelocity());
+		status.setRocketOrientationQuaternion(result.getRocketOrientationQuaternion().normalizeIfNecessary());
+
+		WorldCoordinate w = conditions.getLaunchSite();
+		w = conditions.getGeodeticComputation().addCoordinate(w, status.getRocketPosition());
+		status.setRocketWorldPosition(w);
+
+		if (!(0 <= h)) {
+			// Also catches NaN
+			throw new IllegalArgumentException("Stepping backwards in time, timestep=" + h);
+		}
+		status.setSimulationTime(status.getSimulationTime() + h);
+
+		// Store data.  The data store contains the values of the last stage, which is
+		// evaluated at the end of the step.
+		status.getFlightDataBranch().addPoint();
+		status.storeData();
+		store.storeData(status);
+
+		// Verify that values don't run out of range
+		if (status.getRocketVelocity().length2() > 1.0e18 ||
+				status.getRocketPosition().length2() > 1.0e18 ||
+				status.getRocketRotationVelocity().length2() > 1.0e18) {
+			throw new SimulationCalculationException(trans.get("error.valuesTooLarge"), status.getFlightDataBranch());
+		}
+	}
+
+	/**
+	 * Return the upper limit of the next time step, which is the minimum of
+	 * <ul>
+	 * <li>the value of maxTimeStep</li>
+	 * <li>MAX_TIME_STEP_FACTOR times the user-specified time step</li>
+	 * <li>the time to travel 1/10th of the launch rod length if still on the launch rod</li>
+	 * <li>the estimated time to apogee or ground hit, but at least the user-specified time step</li>
+	 * </ul>
+	 */
+	private double getMaximumTimeStep(SimulationStatus status, double maxTimeStep, double timeStep) {
+		double max = MathUtil.min(maxTimeStep, MAX_TIME_STEP_FACTOR * timeStep);
+
+		Coordinate velocity = status.getRocketVelocity();
+		if (!status.isLaunchRodCleared()) {
+			max = MathUtil.min(max, status.getSimulationConditions().getLaunchRodLength() / velocity.length() / 10);
+		}
+
+		if (velocity.z > 0 && a[0].z < 0) {
+			max = MathUtil.min(max, MathUtil.max(-velocity.z / a[0].z, timeStep));
+		} else if (velocity.z < 0) {
+			max = MathUtil.min(max, MathUtil.max(-status.getRocketPosition().z / velocity.z, timeStep));
+		}
+		return max;
+	}
+
+	/**
+	 * If we have a scheduled event coming up before the end of our timestep, truncate step
+	 * else if the time from the end of our timestep to the next scheduled event time is less than
+	 * minTimeStep, stretch it
+	 */
+	private static double clampToEvent(SimulationStatus status, double timeStep, double minTimeStep) {
+		FlightEvent nextEvent = status.getEventQueue().peek();
+		if (nextEvent != null) {
+			double nextEventTime = nextEvent.getTime();
+			if (status.getSimulationTime() + timeStep > nextEventTime) {
+				timeStep = nextEventTime - status.getSimulationTime();
+				log.trace("scheduled event at " + nextEventTime + " truncates timestep to " + timeStep);
+			} else if ((status.getSimulationTime() + timeStep < nextEventTime) &&
+					(status.getSimulationTime() + timeStep + minTimeStep > nextEventTime)) {
+				timeStep = nextEventTime - status.getSimulationTime();
+				log.trace("Scheduled event at " + nextEventTime + " stretches timestep to " + timeStep);
+			}
+		}
+		return timeStep;
+	}
+
+	/**
+	 * Compute the stages 2 to 7 for the step length h and return the status at the end
+	 * of the step, which is the status of the last stage, or null if a stage resulted in
+	 * NaN values.
+	 */
+	private SimulationStatus integrate(SimulationStatus status, double h) throws SimulationException {
+		SimulationStatus stage = null;
+		trialStep = true;
+		try {
+			for (int i = 1; i < STAGES; i++) {
+				stage = stageStatus(status, A[i], C[i] * h, h);
+				computeStage(stage, i);
+			}
+		} catch (TrialStepNaNException e) {
+			log.trace("Trial step " + h + " resulted in NaN values");
+			return null;
+		} finally {
+			trialStep = false;
+		}
+		return stage;
+	}
+
+	@Override
+	protected void checkNaN(double d) {
+		if (trialStep && Double.isNaN(d)) {
+			throw TrialStepNaNException.INSTANCE;
+		}
+		super.checkNaN(d);
+	}
+
+	@Override
+	protected void checkNaN(Coordinate c) {
+		if (trialStep && c.isNaN()) {
+			throw TrialStepNaNException.INSTANCE;
+		}
+		super.checkNaN(c);
+	}
+
+	@Override
+	protected void checkNaN(Quaternion q) {
+		if (trialStep && q.isNaN()) {
+			throw TrialStepNaNException.INSTANCE;
+		}
+		super.checkNaN(q);
+	}
+
+	/**
+	 * Compute the derivatives of a stage into the stage arrays.
+	 */
+	private void computeStage(SimulationStatus status, int i) throws SimulationException {
+		computeParameters(status, store, parameters);
+		evaluations++;
+		a[i] = parameters.a;
+		v[i] = parameters.v;
+		ra[i] = parameters.ra;
+		rv[i] = parameters.rv;
+	}
+
+	/**
+	 * Return a copy of the status advanced by the time <code>c</code> using the stage derivatives
+	 * weighted by <code>w</code>.
+	 */
+	private SimulationStatus stageStatus(SimulationStatus status, double[] w, double c, double h) {
+		SimulationStatus status2 = status.clone();
+		status2.setSimulationTime(status.getSimulationTime() + c);
+		status2.setRocketPosition(weightedSum(status.getRocketPosition(), v, w, h));
+		status2.setRocketVelocity(weightedSum(status.getRocketVelocity(), a, w, h));
+		Coordinate rotation = weightedSum(Coordinate.NUL, rv, w, h);
+		status2.setRocketOrientationQuaternion(status.getRocketOrientationQuaternion()
+				.multiplyLeftRotation(rotation.x, rotation.y, rotation.z));
+		status2.setRocketRotationVelocity(weightedSum(status.getRocketRotationVelocity(), ra, w, h));
+		return status2;
+	}
+
+	/**
+	 * Return the error of the step relative to the tolerances as the root mean square over
+	 * all state values.  The step is acceptable if the error is at most one.
+	 */
+	private double estimateError(SimulationStatus status, SimulationStatus result, double h) {
+		double sum = 0;
+		sum += errorRatio(weightedSum(Coordinate.NUL, v, E, h), status.getRocketPosition(),
+				result.getRocketPosition(), positionTolerance, relativeTolerance);
+		sum += errorRatio(weightedSum(Coordinate.NUL, a, E, h), status.getRocketVelocity(),
+				result.getRocketVelocity(), velocityTolerance, relativeTolerance);
+		sum += errorRatio(weightedSum(Coordinate.NUL, rv, E, h), Coordinate.NUL, Coordinate.NUL,
+				orientationTolerance, 0);
+		sum += errorRatio(weightedSum(Coordinate.NUL, ra, E, h), status.getRocketRotationVelocity(),
+				result.getRocketRotationVelocity(), rotationVelocityTolerance, relativeTolerance);
+		return Math.sqrt(sum / 12);
+	}
+
+	/**
+	 * Return the sum of the squared errors of the components relative to their tolerances.
+	 */
+	private static double errorRatio(Coordinate error, Coordinate y0, Coordinate y1, double atol, double rtol) {
+		double x = error.x / (atol + rtol * MathUtil.max(Math.abs(y0.x), Math.abs(y1.x)));
+		double y = error.y / (atol + rtol * MathUtil.max(Math.abs(y0.y), Math.abs(y1.y)));
+		double z = error.z / (atol + rtol * MathUtil.max(Math.abs(y0.z), Math.abs(y1.z)));
+		return x * x + y * y + z * z;
+	}
+
+	/**
+	 * Return <code>c</code> plus the sum of the derivatives <code>d</code> weighted by
+	 * <code>w</code>, multiplied by <code>h</code>.
+	 */
+	private static Coordinate weightedSum(Coordinate c, Coordinate[] d, double[] w, double h) {
+		double x = 0, y = 0, z = 0, weight = 0;
+		for (int i = 0; i < w.length; i++) {
+			if (w[i] != 0) {
+				x += w[i] * d[i].x;
+				y += w[i] * d[i].y;
+				z += w[i] * d[i].z;
+				weight += w[i] * d[i].weight;
+			}
+		}
+		return new Coordinate(c.x + x * h, c.y + y * h, c.z + z * h, c.weight + weight * h);
+	}
+
+	/**
+	 * Thrown by the NaN checks to abort the computation of a trial step, which is then rejected.
+	 */
+	private static class TrialStepNaNException extends RuntimeException {
+		private static final TrialStepNaNException INSTANCE = new TrialStepNaNException();
+
+		private TrialStepNaNException() {
+			super(null, null, false, false);
+		}
+	}
+}
@@ -57,9 +57,57 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 	private static final double MAX_ROLL_RATE_CHANGE = 2 * Math.PI / 180;
 	private static final double MAX_PITCH_YAW_CHANGE = 4 * Math.PI / 180;
 	
+	/**
+	 * Whether new steppers use the original implementation of the RK4 step, which creates
+	 * new buffers, coordinates and quaternions for every intermediate calculation.  Intended
+	 * for comparing the two implementations, set with the system property
+	 * <code>openrocket.debug.legacyrk4</code>.
+	 */
+	private static final boolean LEGACY_STEP = Boolean.getBoolean("openrocket.debug.legacyrk4");
+	
 	private Random random;
 	DataStore store = new DataStore();
 	
+	/*
+	 * Buffers reused between steps unless the original implementation of the step is used.
+	 * The results of the two implementations are bit-identical.
+	 */
+	private boolean legacyStep = LEGACY_STEP;
+	private final double[] dt = new double[8];
+	private final RK4Parameters[] parameters = {
+			new RK4Parameters(), new RK4Parameters(), new RK4Parameters(), new RK4Parameters()
+	};
+	private FlightConditions flightConditions;
+	
+	/**
+	 * Return whether this stepper uses the original implementation of the RK4 step.
+	 */
+	public boolean isLegacyStep() {
+		return legacyStep;
+	}
+	
+	/**
+	 * Set whether this stepper uses the original implementation of the RK4 step.
+	 * <p>
+	 * By default the time step array, the RK4 parameter holders and the flight conditions
+	 * are reused between steps, and the intermediate states and the weighted sum are computed
+	 * without temporary coordinates and quaternions.  Each sub-step still copies the
+	 * simulation status, since listeners may retain it, and creates the resulting immutable
+	 * coordinates, the orientation and the acceleration data.  Both implementations produce
+	 * bit-identical results; the original implementation is retained for comparison.
+	 */
+	public void setLegacyStep(boolean legacyStep) {
+		this.legacyStep = legacyStep;
+	}
+	
+	/**
+	 * Discard the state carried over from a previous simulation, so that this stepper can
+	 * be reused for a new simulation with the same results as a fresh instance.
+	 */
+	void reset() {
+		store = new DataStore();
+	}
+
 	@Override
 	public SimulationStatus initialize(SimulationStatus original) {
 		
@@ -89,8 +137,7 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 
 		////////  Perform RK4 integration:  ////////
 		
-		SimulationStatus status2;
-		RK4Parameters k1, k2, k3, k4;
+		RK4Parameters k1;
 
 		/*
 		 * Get the current atmospheric conditions
@@ -104,7 +151,7 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 
 		//// First position, k1 = f(t, y)
 		
-		k1 = computeParameters(status, store);
+		k1 = computeParameters(status, store, legacyStep ? new RK4Parameters() : parameters[0]);
 		store.storeData(status);
 		
 		/*
@@ -123,7 +170,7 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 		 * 
 		 * The step is still at least 1/20th of the user-selected time step.
 		 */
-		double[] dt = new double[8];
+		double[] dt = legacyStep ? new double[8] : this.dt;
 		Arrays.fill(dt, Double.MAX_VALUE);
 
 		// If the user selected a really small timestep, use MIN_TIME_STEP instead.
@@ -181,6 +228,44 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 
 
 
+		if (legacyStep) {
+			integrateOriginal(status, k1);
+		} else {
+			integrate(status, k1);
+		}
+		
+		WorldCoordinate w = status.getSimulationConditions().getLaunchSite();
+		w = status.getSimulationConditions().getGeodeticComputation().addCoordinate(w, status.getRocketPosition());
+		status.setRocketWorldPosition(w);
+		
+		if (!(0 <= store.timeStep)) {
+			// Also catches NaN
+			throw new IllegalArgumentException("Stepping backwards in time, timestep=" + store.timeStep);
+		}
+		status.setSimulationTime(status.getSimulationTime() + store.timeStep);
+		
+		// Store data
+		// TODO: MEDIUM: Store acceleration etc of entire RK4 step, store should be cloned or something...
+		status.getFlightDataBranch().addPoint();
+		status.storeData();
+		store.storeData(status);
+		
+		// Verify that values don't run out of range
+		if (status.getRocketVelocity().length2() > 1.0e18 ||
+				status.getRocketPosition().length2() > 1.0e18 ||
+				status.getRocketRotationVelocity().length2() > 1.0e18) {
+			throw new SimulationCalculationException(trans.get("error.valuesTooLarge"), status.getFlightDataBranch());
+		}
+	}
+
+	/**
+	 * Compute the positions k2, k3 and k4 and update the status with the weighted sum of
+	 * all four, creating new intermediate objects for every operation.
+	 */
+	private void integrateOriginal(SimulationStatus status, RK4Parameters k1) throws SimulationException {
+		SimulationStatus status2;
+		RK4Parameters k2, k3, k4;
+		
 		//// Second position, k2 = f(t + h/2, y + k1*h/2)
 		
 		status2 = status.clone();
@@ -190,7 +275,7 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 		status2.setRocketOrientationQuaternion(status.getRocketOrientationQuaternion().multiplyLeft(Quaternion.rotation(k1.rv.multiply(store.timeStep / 2))));
 		status2.setRocketRotationVelocity(status.getRocketRotationVelocity().add(k1.ra.multiply(store.timeStep / 2)));
 		
-		k2 = computeParameters(status2, store);
+		k2 = computeParameters(status2, store, new RK4Parameters());
 		
 
 		//// Third position, k3 = f(t + h/2, y + k2*h/2)
@@ -202,7 +287,7 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 		status2.setRocketOrientationQuaternion(status2.getRocketOrientationQuaternion().multiplyLeft(Quaternion.rotation(k2.rv.multiply(store.timeStep / 2))));
 		status2.setRocketRotationVelocity(status.getRocketRotationVelocity().add(k2.ra.multiply(store.timeStep / 2)));
 		
-		k3 = computeParameters(status2, store);
+		k3 = computeParameters(status2, store, new RK4Parameters());
 		
 
 		//// Fourth position, k4 = f(t + h, y + k3*h)
@@ -214,7 +299,7 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 		status2.setRocketOrientationQuaternion(status2.getRocketOrientationQuaternion().multiplyLeft(Quaternion.rotation(k3.rv.multiply(store.timeStep))));
 		status2.setRocketRotationVelocity(status.getRocketRotationVelocity().add(k3.ra.multiply(store.timeStep)));
 		
-		k4 = computeParameters(status2, store);
+		k4 = computeParameters(status2, store, new RK4Parameters());
 		
 
 		//// Sum all together,  y(n+1) = y(n) + h*(k1 + 2*k2 + 2*k3 + k4)/6
@@ -229,39 +314,72 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 		status.setRocketPosition(status.getRocketPosition().add(deltaP));
 		status.setRocketRotationVelocity(status.getRocketRotationVelocity().add(deltaR));
 		status.setRocketOrientationQuaternion(status.getRocketOrientationQuaternion().multiplyLeft(Quaternion.rotation(deltaO)).normalizeIfNecessary());
+	}
+	
+	/**
+	 * Compute the positions k2, k3 and k4 and update the status with the weighted sum of
+	 * all four.  This performs exactly the same floating point operations as the original
+	 * implementation {@link #integrateOriginal(SimulationStatus, RK4Parameters)}, but operates on the vector
+	 * components directly instead of creating intermediate coordinates and quaternions.
+	 */
+	private void integrate(SimulationStatus status, RK4Parameters k1) throws SimulationException {
+		final double timeStep = store.timeStep;
 		
-		WorldCoordinate w = status.getSimulationConditions().getLaunchSite();
-		w = status.getSimulationConditions().getGeodeticComputation().addCoordinate(w, status.getRocketPosition());
-		status.setRocketWorldPosition(w);
+		//// Second position, k2 = f(t + h/2, y + k1*h/2)
+		RK4Parameters k2 = computeParameters(intermediateStatus(status, k1, timeStep / 2), store, parameters[1]);
 		
-		if (!(0 <= store.timeStep)) {
-			// Also catches NaN
-			throw new IllegalArgumentException("Stepping backwards in time, timestep=" + store.timeStep);
-		}
-		status.setSimulationTime(status.getSimulationTime() + store.timeStep);
+		//// Third position, k3 = f(t + h/2, y + k2*h/2)
+		RK4Parameters k3 = computeParameters(intermediateStatus(status, k2, timeStep / 2), store, parameters[2]);
 		
-		// Store data
-		// TODO: MEDIUM: Store acceleration etc of entire RK4 step, store should be cloned or something...
-		status.getFlightDataBranch().addPoint();
-		status.storeData();
-		store.storeData(status);
+		//// Fourth position, k4 = f(t + h, y + k3*h)
+		RK4Parameters k4 = computeParameters(intermediateStatus(status, k3, timeStep), store, parameters[3]);
 		
-		// Verify that values don't run out of range
-		if (status.getRocketVelocity().length2() > 1.0e18 ||
-				status.getRocketPosition().length2() > 1.0e18 ||
-				status.getRocketRotationVelocity().length2() > 1.0e18) {
-			throw new SimulationCalculationException(trans.get("error.valuesTooLarge"), status.getFlightDataBranch());
-		}
+		//// Sum all together,  y(n+1) = y(n) + h*(k1 + 2*k2 + 2*k3 + k4)/6
+		final double h = timeStep / 6;
+		status.setRocketVelocity(weightedSum(status.getRocketVelocity(), k1.a, k2.a, k3.a, k4.a, h));
+		status.setRocketPosition(weightedSum(status.getRocketPosition(), k1.v, k2.v, k3.v, k4.v, h));
+		status.setRocketRotationVelocity(weightedSum(status.getRocketRotationVelocity(), k1.ra, k2.ra, k3.ra, k4.ra, h));
+		status.setRocketOrientationQuaternion(status.getRocketOrientationQuaternion().multiplyLeftRotation(
+				((k2.rv.x + k3.rv.x) * 2 + k1.rv.x + k4.rv.x) * h,
+				((k2.rv.y + k3.rv.y) * 2 + k1.rv.y + k4.rv.y) * h,
+				((k2.rv.z + k3.rv.z) * 2 + k1.rv.z + k4.rv.z) * h).normalizeIfNecessary());
 	}
 	
+	/**
+	 * Return a copy of the status advanced by the time <code>h</code> using the derivatives <code>k</code>.
+	 */
+	private static SimulationStatus intermediateStatus(SimulationStatus status, RK4Parameters k, double h) {
+		SimulationStatus status2 = status.clone();
+		status2.setSimulationTime(status.getSimulationTime() + h);
+		status2.setRocketPosition(addScaled(status.getRocketPosition(), k.v, h));
+		status2.setRocketVelocity(addScaled(status.getRocketVelocity(), k.a, h));
+		status2.setRocketOrientationQuaternion(status.getRocketOrientationQuaternion()
+				.multiplyLeftRotation(k.rv.x * h, k.rv.y * h, k.rv.z * h));
+		status2.setRocketRotationVelocity(addScaled(status.getRocketRotationVelocity(), k.ra, h));
+		return status2;
+	}
 	
-
-
-
-	private RK4Parameters computeParameters(SimulationStatus status, DataStore dataStore)
+	/**
+	 * Return <code>c.add(d.multiply(m))</code>.
+	 */
+	private static Coordinate addScaled(Coordinate c, Coordinate d, double m) {
+		return new Coordinate(c.x + d.x * m, c.y + d.y * m, c.z + d.z * m, c.weight + d.weight * m);
+	}
+	
+	/**
+	 * Return <code>c.add(k2.add(k3).multiply(2).add(k1).add(k4).multiply(h))</code>.
+	 */
+	private static Coordinate weightedSum(Coordinate c, Coordinate k1, Coordinate k2, Coordinate k3,
+			Coordinate k4, double h) {
+		return new Coordinate(
+				c.x + ((k2.x + k3.x) * 2 + k1.x + k4.x) * h,
+				c.y + ((k2.y + k3.y) * 2 + k1.y + k4.y) * h,
+				c.z + ((k2.z + k3.z) * 2 + k1.z + k4.z) * h,
+				c.weight + ((k2.weight + k3.weight) * 2 + k1.weight + k4.weight) * h);
+	}
+	
+	RK4Parameters computeParameters(SimulationStatus status, DataStore dataStore, RK4Parameters params)
 			throws SimulationException {
-		RK4Parameters params = new RK4Parameters();
-		
 		// Call pre-listeners
 		store.accelerationData = SimulationListenerHelper.firePreAccelerationCalculation(status);
 
@@ -429,7 +547,7 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 	 * Additionally the fields thetaRotation and lateralPitchRate are defined in
 	 * the data store, and can be used after calling this method.
 	 */
-	private void calculateFlightConditions(SimulationStatus status, DataStore store)
+	void calculateFlightConditions(SimulationStatus status, DataStore store)
 			throws SimulationException {
 		
 		// Call pre listeners, allow complete override
@@ -446,8 +564,18 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 
 		//// Atmospheric conditions
 		AtmosphericConditions atmosphere = modelAtmosphericConditions(status);
-		store.flightConditions = new FlightConditions(status.getConfiguration());
-		store.flightConditions.setAtmosphericConditions(atmosphere);
+		if (legacyStep) {
+			store.flightConditions = new FlightConditions(status.getConfiguration());
+			store.flightConditions.setAtmosphericConditions(atmosphere);
+		} else {
+			if (flightConditions == null) {
+				flightConditions = new FlightConditions(status.getConfiguration());
+				flightConditions.setAtmosphericConditions(atmosphere);
+			} else {
+				flightConditions.reset(status.getConfiguration(), atmosphere);
+			}
+			store.flightConditions = flightConditions;
+		}
 		
 
 		//// Local wind speed and direction
@@ -506,7 +634,7 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 		
 	}
 
-	private static class RK4Parameters {
+	static class RK4Parameters {
 		/** Linear acceleration */
 		public Coordinate a;
 		/** Linear velocity */
@@ -57,6 +57,7 @@ public class SimulationConditions implements Monitorable, Cloneable {
 
 	private double timeStep = RK4SimulationStepper.RECOMMENDED_TIME_STEP;
 	private double maximumAngleStep = RK4SimulationStepper.RECOMMENDED_ANGLE_STEP;
+	private SimulationStepperMethod stepperMethod = SimulationStepperMethod.RK4;
 
 
 	private List<SimulationListener> simulationListeners = new ArrayList<>();
@@ -219,6 +220,20 @@ public class SimulationConditions implements Monitorable, Cloneable {
 		this.modID = new ModID();
 	}
 
+	public SimulationStepperMethod getStepperMethod() {
+		return stepperMethod;
+	}
+
+	public void setStepperMethod(SimulationStepperMethod stepperMethod) {
+		if (this.stepperMethod == stepperMethod)
+			return;
+		if (stepperMethod == null) {
+			throw new IllegalArgumentException("stepper method cannot be null");
+		}
+		this.stepperMethod = stepperMethod;
+		this.modID = new ModID();
+	}
+
 	public int getRandomSeed() {
 		return randomSeed;
 	}
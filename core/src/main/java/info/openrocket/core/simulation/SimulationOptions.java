@@ -13,7 +13,9 @@ import info.openrocket.core.preferences.ApplicationPreferences;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import info.openrocket.core.aerodynamics.AerodynamicCalculator;
 import info.openrocket.core.aerodynamics.BarrowmanCalculator;
+import info.openrocket.core.aerodynamics.TabulatedAerodynamicCalculator;
 import info.openrocket.core.masscalc.MassCalculator;
 import info.openrocket.core.models.atmosphere.AtmosphericModel;
 import info.openrocket.core.models.atmosphere.ExtendedISAModel;
@@ -75,6 +77,8 @@ public class SimulationOptions implements ChangeSource, Cloneable, SimulationOpt
 	
 	private double timeStep = preferences.getTimeStep();
 	private double maximumAngle = RK4SimulationStepper.RECOMMENDED_ANGLE_STEP;
+	private SimulationStepperMethod stepperMethod = SimulationStepperMethod.RK4;
+	private boolean tabulatedAerodynamics = false;
 	
 	private int randomSeed = new Random().nextInt();
 
@@ -295,6 +299,35 @@ public class SimulationOptions implements ChangeSource, Cloneable, SimulationOpt
 		fireChangeEvent();
 	}
 
+	public SimulationStepperMethod getStepperMethod() {
+		return stepperMethod;
+	}
+
+	public void setStepperMethod(SimulationStepperMethod stepperMethod) {
+		if (this.stepperMethod == stepperMethod)
+			return;
+		if (stepperMethod == null) {
+			throw new IllegalArgumentException("stepper method cannot be null");
+		}
+		this.stepperMethod = stepperMethod;
+		fireChangeEvent();
+	}
+
+	/**
+	 * Return whether the aerodynamic coefficients are interpolated from tables computed once
+	 * for each configuration, instead of being computed at every simulation step.
+	 */
+	public boolean isTabulatedAerodynamics() {
+		return tabulatedAerodynamics;
+	}
+
+	public void setTabulatedAerodynamics(boolean tabulatedAerodynamics) {
+		if (this.tabulatedAerodynamics == tabulatedAerodynamics)
+			return;
+		this.tabulatedAerodynamics = tabulatedAerodynamics;
+		fireChangeEvent();
+	}
+
 	public double getMaximumStepAngle() {
 		return maximumAngle;
 	}
@@ -426,6 +459,14 @@ public class SimulationOptions implements ChangeSource, Cloneable, SimulationOpt
 			isChanged = true;
 			this.geodeticComputation = src.geodeticComputation;
 		}
+		if (this.stepperMethod != src.stepperMethod) {
+			isChanged = true;
+			this.stepperMethod = src.stepperMethod;
+		}
+		if (this.tabulatedAerodynamics != src.tabulatedAerodynamics) {
+			isChanged = true;
+			this.tabulatedAerodynamics = src.tabulatedAerodynamics;
+		}
 
 		if (isChanged) {
 			// Only copy the randomSeed if something else has changed.
@@ -455,6 +496,8 @@ public class SimulationOptions implements ChangeSource, Cloneable, SimulationOpt
 				MathUtil.equals(this.launchTemperature, o.launchTemperature) &&
 				MathUtil.equals(this.maximumAngle, o.maximumAngle) &&
 				MathUtil.equals(this.timeStep, o.timeStep)) &&
+				this.stepperMethod == o.stepperMethod &&
+				this.tabulatedAerodynamics == o.tabulatedAerodynamics &&
 				this.windModelType == o.windModelType &&
 				this.averageWindModel.equals(o.averageWindModel) &&
 				this.multiLevelPinkNoiseWindModel.equals(o.multiLevelPinkNoiseWindModel);
@@ -512,11 +555,16 @@ public class SimulationOptions implements ChangeSource, Cloneable, SimulationOpt
 		GravityModel gravityModel = new WGSGravityModel();
 		conditions.setGravityModel(gravityModel);
 
-		conditions.setAerodynamicCalculator(new BarrowmanCalculator());
+		AerodynamicCalculator aerodynamicCalculator = new BarrowmanCalculator();
+		if (isTabulatedAerodynamics()) {
+			aerodynamicCalculator = new TabulatedAerodynamicCalculator(aerodynamicCalculator);
+		}
+		conditions.setAerodynamicCalculator(aerodynamicCalculator);
 		conditions.setMassCalculator(new MassCalculator());
 
 		conditions.setTimeStep(getTimeStep());
 		conditions.setMaximumAngleStep(getMaximumStepAngle());
+		conditions.setStepperMethod(getStepperMethod());
 
 		return conditions;
 	}
@@ -540,6 +588,8 @@ public class SimulationOptions implements ChangeSource, Cloneable, SimulationOpt
 				.concat(String.format("    launchPressure:  %f\n", launchPressure))
 				.concat(String.format("    timeStep:  %f\n", timeStep))
 				.concat(String.format("    maximumAngle:  %f\n", maximumAngle))
+				.concat("    stepperMethod:  " + stepperMethod.name() + "\n")
+				.concat(String.format("    tabulatedAerodynamics:  %b\n", tabulatedAerodynamics))
 				.concat("]\n");
 	}
 
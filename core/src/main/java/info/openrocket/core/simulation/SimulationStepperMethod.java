@@ -0,0 +1,43 @@
+package info.openrocket.core.simulation;
+
+import java.util.Locale;
+
+import info.openrocket.core.l10n.Translator;
+import info.openrocket.core.startup.Application;
+
+/**
+ * The numerical integration method used for the free flight of the rocket.
+ */
+public enum SimulationStepperMethod {
+
+	/**
+	 * Fourth order Runge-Kutta integration with a fixed time step.
+	 */
+	RK4,
+
+	/**
+	 * Dormand-Prince fifth order Runge-Kutta integration with an adaptive time step.
+	 */
+	RK45;
+
+	private static final Translator trans = Application.getTranslator();
+
+	/**
+	 * Return the name of this integration method.
+	 */
+	public String getName() {
+		return trans.get(name().toLowerCase(Locale.ENGLISH) + ".name");
+	}
+
+	/**
+	 * Return a description of this integration method.
+	 */
+	public String getDescription() {
+		return trans.get(name().toLowerCase(Locale.ENGLISH) + ".desc");
+	}
+
+	@Override
+	public String toString() {
+		return getName();
+	}
+}
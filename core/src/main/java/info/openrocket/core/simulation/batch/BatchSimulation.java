@@ -0,0 +1,332 @@
+package info.openrocket.core.simulation.batch;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import info.openrocket.core.document.OpenRocketDocument;
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.document.SimulationResultCache;
+import info.openrocket.core.file.GeneralRocketLoader;
+import info.openrocket.core.file.RocketLoadException;
+import info.openrocket.core.file.StreamingCSVExport;
+import info.openrocket.core.plugin.PluginModule;
+import info.openrocket.core.startup.Application;
+import info.openrocket.core.startup.ExceptionHandler;
+import info.openrocket.core.startup.HeadlessModule;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+
+/**
+ * Command line entry point for running the simulations of OpenRocket documents without
+ * a display, e.g. for regression runs on a build server.
+ * <p>
+ * Usage:
+ * <pre>
+ * BatchSimulation [options] file.ork...
+ *   -s, --simulation NAME|INDEX   simulation to run, may be repeated (default: all)
+ *   -t, --threads N               number of parallel simulations (default: number of processors)
+ *   -o, --output FILE             summary file (default: standard output)
+ *   -f, --format csv|json         summary format (default: by output file extension, otherwise csv)
+ *   -d, --data DIR                write the flight data of each simulation as CSV into DIR
+ *   -D, --data-file FILE          write the flight data of all simulations into one CSV file,
+ *                                 compressed if FILE ends with .gz
+ *   -m, --motors PATH             user thrust curve file or directory, may be repeated
+ *   -c, --cache DIR               reuse the results of unchanged simulations stored in DIR
+ * </pre>
+ * The exit code is {@link #EXIT_OK} if all simulations ran without warnings, {@link #EXIT_WARNINGS}
+ * if any produced warnings, {@link #EXIT_FAILURES} if any failed and {@link #EXIT_ERROR} if the
+ * arguments were invalid or a document could not be loaded.
+ */
+public class BatchSimulation {
+	private static final Logger log = LoggerFactory.getLogger(BatchSimulation.class);
+
+	public static final int EXIT_OK = 0;
+	public static final int EXIT_WARNINGS = 1;
+	public static final int EXIT_FAILURES = 2;
+	public static final int EXIT_ERROR = 3;
+
+	private final List<File> files = new ArrayList<>();
+	private final List<String> selection = new ArrayList<>();
+	private final List<File> motorFiles = new ArrayList<>();
+	private int threads = Runtime.getRuntime().availableProcessors();
+	private File output = null;
+	private String format = null;
+	private File dataDirectory = null;
+	private File dataFile = null;
+	private File cacheDirectory = null;
+
+	public static void main(String[] args) {
+		System.exit(new BatchSimulation().run(args, System.out, System.err));
+	}
+
+	/**
+	 * Run the batch simulation with the given command line arguments.
+	 *
+	 * @return	the exit code
+	 */
+	public int run(String[] args, PrintStream out, PrintStream err) {
+		try {
+			parseArguments(args);
+		} catch (IllegalArgumentException e) {
+			err.println("Error: " + e.getMessage());
+			printUsage(err);
+			return EXIT_ERROR;
+		}
+
+		initializeApplication();
+
+		List<BatchSimulationResult> results = new ArrayList<>();
+		BatchSimulationRunner runner = new BatchSimulationRunner();
+		runner.setThreadCount(threads);
+		if (cacheDirectory != null) {
+			SimulationResultCache cache = new SimulationResultCache();
+			cache.setDirectory(cacheDirectory);
+			runner.setResultCache(cache);
+		}
+		long t0 = System.currentTimeMillis();
+		for (File file : files) {
+			OpenRocketDocument document;
+			try {
+				document = new GeneralRocketLoader(file).load();
+			} catch (RocketLoadException e) {
+				log.error("Unable to load " + file, e);
+				err.println("Error: unable to load " + file + ": " + e.getMessage());
+				return EXIT_ERROR;
+			}
+
+			List<Simulation> simulations;
+			try {
+				simulations = selectSimulations(document, selection);
+			} catch (IllegalArgumentException e) {
+				err.println("Error: " + file.getName() + ": " + e.getMessage());
+				return EXIT_ERROR;
+			}
+
+			try {
+				results.addAll(runner.run(file.getName(), document, simulations));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				err.println("Error: interrupted");
+				return EXIT_ERROR;
+			}
+		}
+		log.info("Ran " + results.size() + " simulations in " + (System.currentTimeMillis() - t0) + " ms");
+
+		try {
+			writeResults(results, out);
+		} catch (IOException e) {
+			err.println("Error: unable to write results: " + e.getMessage());
+			return EXIT_ERROR;
+		}
+
+		return getExitCode(results);
+	}
+
+	/**
+	 * Return the exit code for the results of the simulations.
+	 */
+	public static int getExitCode(List<BatchSimulationResult> results) {
+		int code = EXIT_OK;
+		for (BatchSimulationResult result : results) {
+			switch (result.getStatus()) {
+				case FAILED:
+					return EXIT_FAILURES;
+				case WARNING:
+					code = EXIT_WARNINGS;
+					break;
+				default:
+					break;
+			}
+		}
+		return code;
+	}
+
+	/**
+	 * Return the simulations of a document selected by name or by 1-based index.
+	 * All simulations are returned if the selection is empty.
+	 *
+	 * @throws IllegalArgumentException	if a selected simulation does not exist
+	 */
+	public static List<Simulation> selectSimulations(OpenRocketDocument document, List<String> selection) {
+		if (selection.isEmpty()) {
+			return new ArrayList<>(document.getSimulations());
+		}
+
+		List<Simulation> simulations = new ArrayList<>();
+		for (String s : selection) {
+			Simulation simulation = null;
+			for (Simulation sim : document.getSimulations()) {
+				if (sim.getName().equals(s)) {
+					simulation = sim;
+					break;
+				}
+			}
+			if (simulation == null && s.matches("\\d+")) {
+				int index = Integer.parseInt(s);
+				if (index >= 1 && index <= document.getSimulationCount()) {
+					simulation = document.getSimulation(index - 1);
+				}
+			}
+			if (simulation == null) {
+				throw new IllegalArgumentException("no simulation '" + s + "'");
+			}
+			if (!simulations.contains(simulation)) {
+				simulations.add(simulation);
+			}
+		}
+		return simulations;
+	}
+
+	private void parseArguments(String[] args) {
+		for (int i = 0; i < args.length; i++) {
+			String arg = args[i];
+			switch (arg) {
+				case "-s", "--simulation" -> selection.add(getValue(args, ++i, arg));
+				case "-t", "--threads" -> {
+					try {
+						threads = Integer.parseInt(getValue(args, ++i, arg));
+					} catch (NumberFormatException e) {
+						throw new IllegalArgumentException("invalid thread count " + args[i]);
+					}
+					if (threads < 1) {
+						throw new IllegalArgumentException("invalid thread count " + threads);
+					}
+				}
+				case "-o", "--output" -> output = new File(getValue(args, ++i, arg));
+				case "-f", "--format" -> {
+					format = getValue(args, ++i, arg).toLowerCase();
+					if (!format.equals("csv") && !format.equals("json")) {
+						throw new IllegalArgumentException("unknown format " + format);
+					}
+				}
+				case "-d", "--data" -> dataDirectory = new File(getValue(args, ++i, arg));
+				case "-D", "--data-file" -> dataFile = new File(getValue(args, ++i, arg));
+				case "-m", "--motors" -> motorFiles.add(new File(getValue(args, ++i, arg)));
+				case "-c", "--cache" -> cacheDirectory = new File(getValue(args, ++i, arg));
+				default -> {
+					if (arg.startsWith("-")) {
+						throw new IllegalArgumentException("unknown option " + arg);
+					}
+					files.add(new File(arg));
+				}
+			}
+		}
+
+		if (files.isEmpty()) {
+			throw new IllegalArgumentException("no files given");
+		}
+		if (format == null) {
+			format = (output != null && output.getName().toLowerCase().endsWith(".json")) ? "json" : "csv";
+		}
+	}
+
+	private static String getValue(String[] args, int i, String option) {
+		if (i >= args.length) {
+			throw new IllegalArgumentException("missing value for " + option);
+		}
+		return args[i];
+	}
+
+	private void initializeApplication() {
+		Application.setExceptionHandler(new LoggingExceptionHandler());
+
+		HeadlessModule module = new HeadlessModule();
+		Injector injector = Guice.createInjector(module, new PluginModule());
+		Application.setInjector(injector);
+		if (!motorFiles.isEmpty()) {
+			Application.getPreferences().setUserThrustCurveFiles(motorFiles);
+		}
+		module.startLoader();
+	}
+
+	private void writeResults(List<BatchSimulationResult> results, PrintStream out) throws IOException {
+		if (dataDirectory != null) {
+			if (!dataDirectory.isDirectory() && !dataDirectory.mkdirs()) {
+				throw new IOException("unable to create directory " + dataDirectory);
+			}
+			for (BatchSimulationResult result : results) {
+				BatchSimulationReport.writeFlightData(result, dataDirectory);
+			}
+		}
+
+		if (dataFile != null) {
+			List<Simulation> simulations = new ArrayList<>();
+			for (BatchSimulationResult result : results) {
+				simulations.add(result.getSimulation());
+			}
+			StreamingCSVExport export = new StreamingCSVExport();
+			export.setDecimalPlaces(6);
+			export.setCompressed(dataFile.getName().toLowerCase().endsWith(".gz"));
+			export.setThreadCount(threads);
+			export.exportCombined(simulations, dataFile);
+		}
+
+		if (output != null) {
+			try (Writer writer = new OutputStreamWriter(new FileOutputStream(output), StandardCharsets.UTF_8)) {
+				writeSummary(results, writer);
+			}
+		} else {
+			Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+			writeSummary(results, writer);
+			writer.flush();
+		}
+	}
+
+	private void writeSummary(List<BatchSimulationResult> results, Writer writer) {
+		if (format.equals("json")) {
+			BatchSimulationReport.writeJSON(results, writer);
+		} else {
+			BatchSimulationReport.writeCSV(results, writer);
+		}
+	}
+
+	private static void printUsage(PrintStream err) {
+		err.println("Usage: BatchSimulation [options] file.ork...");
+		err.println("  -s, --simulation NAME|INDEX   simulation to run, may be repeated (default: all)");
+		err.println("  -t, --threads N               number of parallel simulations");
+		err.println("  -o, --output FILE             summary file (default: standard output)");
+		err.println("  -f, --format csv|json         summary format");
+		err.println("  -d, --data DIR                write the flight data of each simulation as CSV into DIR");
+		err.println("  -D, --data-file FILE          write the flight data of all simulations into one CSV file,");
+		err.println("                                compressed if FILE ends with .gz");
+		err.println("  -m, --motors PATH             user thrust curve file or directory, may be repeated");
+		err.println("  -c, --cache DIR               reuse the results of unchanged simulations stored in DIR");
+	}
+
+	/**
+	 * Logs errors reported through the Application instead of displaying them.
+	 */
+	private static class LoggingExceptionHandler implements ExceptionHandler {
+
+		@Override
+		public void handleErrorCondition(String message) {
+			log.error(message);
+		}
+
+		@Override
+		public void handleErrorCondition(String message, Throwable exception) {
+			log.error(message, exception);
+		}
+
+		@Override
+		public void handleErrorCondition(Throwable exception) {
+			log.error("Error occurred", exception);
+		}
+
+		@Override
+		public void uncaughtException(Thread thread, Throwable throwable) {
+			log.error("Uncaught exception in thread " + thread.getName(), throwable);
+		}
+	}
+}
@@ -0,0 +1,196 @@
+package info.openrocket.core.simulation.batch;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import info.openrocket.core.file.CSVExport;
+import info.openrocket.core.simulation.FlightData;
+import info.openrocket.core.simulation.FlightDataBranch;
+import info.openrocket.core.simulation.FlightDataType;
+import info.openrocket.core.unit.Unit;
+
+import jakarta.json.Json;
+import jakarta.json.stream.JsonGenerator;
+
+/**
+ * Writes the results of batch simulations as summary tables and flight data files.
+ * All values are written in SI units.
+ */
+public final class BatchSimulationReport {
+
+	private static final String[] SUMMARY_NAMES = {
+			"maxAltitude", "maxVelocity", "maxAcceleration", "maxMachNumber", "timeToApogee", "flightTime",
+			"groundHitVelocity", "launchRodVelocity", "deploymentVelocity", "optimumDelay" };
+
+	private BatchSimulationReport() {
+	}
+
+	/**
+	 * Write a summary of the results as CSV, one line per simulation.
+	 */
+	public static void writeCSV(List<BatchSimulationResult> results, Writer out) {
+		PrintWriter writer = new PrintWriter(out);
+		writer.print("document,index,name,status,timeMillis,warnings");
+		for (String name : SUMMARY_NAMES) {
+			writer.print("," + name);
+		}
+		writer.println(",error");
+
+		for (BatchSimulationResult result : results) {
+			FlightData data = result.getFlightData();
+			writer.print(quote(result.getDocumentName()) + "," + result.getIndex() + "," + quote(result.getName()) +
+					"," + result.getStatus() + "," + result.getTimeMillis() + "," + getWarningCount(result));
+			double[] values = getSummaryValues(data);
+			for (double value : values) {
+				writer.print(",");
+				if (!Double.isNaN(value)) {
+					writer.print(value);
+				}
+			}
+			writer.println("," + quote(getErrorMessage(result)));
+		}
+		writer.flush();
+	}
+
+	/**
+	 * Write the results as a JSON array, one object per simulation, including the warnings.
+	 */
+	public static void writeJSON(List<BatchSimulationResult> results, Writer out) {
+		try (JsonGenerator generator = Json.createGeneratorFactory(Map.of(JsonGenerator.PRETTY_PRINTING, true))
+				.createGenerator(new NonClosingWriter(out))) {
+			generator.writeStartArray();
+			for (BatchSimulationResult result : results) {
+				FlightData data = result.getFlightData();
+				generator.writeStartObject()
+						.write("document", result.getDocumentName())
+						.write("index", result.getIndex())
+						.write("name", result.getName())
+						.write("status", result.getStatus().name())
+						.write("timeMillis", result.getTimeMillis());
+				if (data != null) {
+					double[] values = getSummaryValues(data);
+					for (int i = 0; i < SUMMARY_NAMES.length; i++) {
+						if (Double.isFinite(values[i])) {
+							generator.write(SUMMARY_NAMES[i], values[i]);
+						} else {
+							generator.writeNull(SUMMARY_NAMES[i]);
+						}
+					}
+				}
+				generator.writeStartArray("warnings");
+				if (result.getWarnings() != null) {
+					result.getWarnings().forEach(w -> generator.write(w.toString()));
+				}
+				generator.writeEnd();
+				if (result.getError() != null) {
+					generator.write("error", getErrorMessage(result));
+				}
+				generator.writeEnd();
+			}
+			generator.writeEnd();
+		}
+	}
+
+	/**
+	 * Write the flight data of a simulation as CSV files in a directory, one file per branch.
+	 *
+	 * @return	the number of files written
+	 */
+	public static int writeFlightData(BatchSimulationResult result, File directory) throws IOException {
+		FlightData data = result.getFlightData();
+		if (data == null) {
+			return 0;
+		}
+
+		String baseName = sanitize(stripExtension(result.getDocumentName())) + "_" + result.getIndex() + "_" +
+				sanitize(result.getName());
+		for (int i = 0; i < data.getBranchCount(); i++) {
+			FlightDataBranch branch = data.getBranch(i);
+			FlightDataType[] types = branch.getTypes();
+			Unit[] units = new Unit[types.length];
+			for (int j = 0; j < types.length; j++) {
+				units[j] = types[j].getUnitGroup().getSIUnit();
+			}
+
+			String fileName = baseName + (data.getBranchCount() > 1 ? "_" + (i + 1) : "") + ".csv";
+			try (OutputStream os = new BufferedOutputStream(new FileOutputStream(new File(directory, fileName)))) {
+				CSVExport.exportCSV(os, result.getSimulation(), branch, types, units, ",", 6, false, "#",
+						true, true, true);
+			}
+		}
+		return data.getBranchCount();
+	}
+
+	/**
+	 * Return the summary values of flight data in the order of SUMMARY_NAMES, NaN if not available.
+	 */
+	private static double[] getSummaryValues(FlightData data) {
+		if (data == null) {
+			double[] values = new double[SUMMARY_NAMES.length];
+			Arrays.fill(values, Double.NaN);
+			return values;
+		}
+		return new double[] {
+				data.getMaxAltitude(),
+				data.getMaxVelocity(),
+				data.getMaxAcceleration(),
+				data.getMaxMachNumber(),
+				data.getTimeToApogee(),
+				data.getFlightTime(),
+				data.getGroundHitVelocity(),
+				data.getLaunchRodVelocity(),
+				data.getDeploymentVelocity(),
+				data.getOptimumDelay() };
+	}
+
+	private static int getWarningCount(BatchSimulationResult result) {
+		return (result.getWarnings() != null) ? result.getWarnings().size() : 0;
+	}
+
+	private static String getErrorMessage(BatchSimulationResult result) {
+		Throwable error = result.getError();
+		if (error == null) {
+			return "";
+		}
+		return (error.getMessage() != null) ? error.getMessage() : error.getClass().getSimpleName();
+	}
+
+	private static String quote(String s) {
+		if (s.indexOf(',') < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0) {
+			return s;
+		}
+		return "\"" + s.replace("\"", "\"\"") + "\"";
+	}
+
+	private static String stripExtension(String name) {
+		int dot = name.lastIndexOf('.');
+		return (dot > 0) ? name.substring(0, dot) : name;
+	}
+
+	private static String sanitize(String name) {
+		return name.replaceAll("[^A-Za-z0-9._-]+", "_");
+	}
+
+	/**
+	 * Prevents the JSON generator from closing the underlying writer.
+	 */
+	private static class NonClosingWriter extends FilterWriter {
+		private NonClosingWriter(Writer out) {
+			super(out);
+		}
+
+		@Override
+		public void close() throws IOException {
+			flush();
+		}
+	}
+}
@@ -0,0 +1,100 @@
+package info.openrocket.core.simulation.batch;
+
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.logging.WarningSet;
+import info.openrocket.core.simulation.FlightData;
+
+/**
+ * The outcome of a single simulation run by a {@link BatchSimulationRunner}.
+ */
+public class BatchSimulationResult {
+
+	public enum Status {
+		/** The simulation ran without warnings */
+		OK,
+		/** The simulation ran, but produced critical or normal warnings */
+		WARNING,
+		/** The simulation failed with an exception */
+		FAILED
+	}
+
+	private final String documentName;
+	private final int index;
+	private final Simulation simulation;
+	private final long timeMillis;
+	private final Throwable error;
+
+	public BatchSimulationResult(String documentName, int index, Simulation simulation, long timeMillis,
+			Throwable error) {
+		this.documentName = documentName;
+		this.index = index;
+		this.simulation = simulation;
+		this.timeMillis = timeMillis;
+		this.error = error;
+	}
+
+	/**
+	 * @return the name of the document containing the simulation
+	 */
+	public String getDocumentName() {
+		return documentName;
+	}
+
+	/**
+	 * @return the 1-based index of the simulation in its document
+	 */
+	public int getIndex() {
+		return index;
+	}
+
+	public Simulation getSimulation() {
+		return simulation;
+	}
+
+	public String getName() {
+		return simulation.getName();
+	}
+
+	/**
+	 * @return the wall-clock time taken by the simulation, in milliseconds
+	 */
+	public long getTimeMillis() {
+		return timeMillis;
+	}
+
+	/**
+	 * @return the exception that caused the simulation to fail, or <code>null</code>
+	 */
+	public Throwable getError() {
+		return error;
+	}
+
+	/**
+	 * @return the simulated flight data, or <code>null</code> if the simulation failed
+	 */
+	public FlightData getFlightData() {
+		if (error != null) {
+			return null;
+		}
+		return simulation.getSimulatedData();
+	}
+
+	/**
+	 * @return the warnings of the simulation, or <code>null</code> if the simulation failed
+	 */
+	public WarningSet getWarnings() {
+		FlightData data = getFlightData();
+		return (data != null) ? data.getWarningSet() : null;
+	}
+
+	public Status getStatus() {
+		if (error != null || getFlightData() == null) {
+			return Status.FAILED;
+		}
+		WarningSet warnings = getWarnings();
+		if (warnings.getNrOfCriticalWarnings() + warnings.getNrOfNormalWarnings() > 0) {
+			return Status.WARNING;
+		}
+		return Status.OK;
+	}
+}
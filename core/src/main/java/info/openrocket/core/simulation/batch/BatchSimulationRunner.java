@@ -0,0 +1,108 @@
+package info.openrocket.core.simulation.batch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import info.openrocket.core.document.OpenRocketDocument;
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.document.SimulationResultCache;
+import info.openrocket.core.simulation.customexpression.CustomExpressionSimulationListener;
+import info.openrocket.core.util.BugException;
+import info.openrocket.core.util.DaemonThreadFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs simulations on a pool of worker threads without any user interface.
+ * <p>
+ * The simulations are run in the same way as by the simulation run dialog, including the
+ * custom expressions of their documents.  A failing simulation does not stop the others;
+ * its exception is recorded in its result instead.  If a result cache is set, simulations
+ * whose inputs were simulated before are restored from it instead of being run.
+ */
+public class BatchSimulationRunner {
+	private static final Logger log = LoggerFactory.getLogger(BatchSimulationRunner.class);
+
+	private int threadCount = Runtime.getRuntime().availableProcessors();
+	private SimulationResultCache resultCache = null;
+
+	public int getThreadCount() {
+		return threadCount;
+	}
+
+	/**
+	 * @param threadCount	the number of simulations to run in parallel
+	 */
+	public void setThreadCount(int threadCount) {
+		if (threadCount < 1) {
+			throw new IllegalArgumentException("Thread count must be positive, was " + threadCount);
+		}
+		this.threadCount = threadCount;
+	}
+
+	public SimulationResultCache getResultCache() {
+		return resultCache;
+	}
+
+	/**
+	 * @param resultCache	the cache of simulation results, or <code>null</code> to always simulate
+	 */
+	public void setResultCache(SimulationResultCache resultCache) {
+		this.resultCache = resultCache;
+	}
+
+	/**
+	 * Run simulations of a document and wait for all of them to finish.
+	 *
+	 * @param documentName	the name of the document, used in the results
+	 * @param document		the document containing the simulations
+	 * @param simulations	the simulations to run
+	 * @return				the results, in the order of the simulations
+	 */
+	public List<BatchSimulationResult> run(String documentName, OpenRocketDocument document,
+			List<Simulation> simulations) throws InterruptedException {
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(threadCount, Math.max(simulations.size(), 1)),
+				new DaemonThreadFactory("BatchSimulation"));
+		try {
+			List<Future<BatchSimulationResult>> futures = new ArrayList<>();
+			for (Simulation simulation : simulations) {
+				final int index = document.getSimulationIndex(simulation) + 1;
+				futures.add(executor.submit(() -> simulate(documentName, document, index, simulation)));
+			}
+
+			List<BatchSimulationResult> results = new ArrayList<>();
+			for (Future<BatchSimulationResult> future : futures) {
+				try {
+					results.add(future.get());
+				} catch (ExecutionException e) {
+					// simulate() catches all exceptions itself
+					throw new BugException(e.getCause());
+				}
+			}
+			return results;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private BatchSimulationResult simulate(String documentName, OpenRocketDocument document, int index,
+			Simulation simulation) {
+		log.info("Running simulation " + index + " '" + simulation.getName() + "' of " + documentName);
+		Throwable error = null;
+		long t0 = System.nanoTime();
+		try {
+			simulation.simulate(resultCache, new CustomExpressionSimulationListener(document.getCustomExpressions()));
+		} catch (Throwable e) {
+			log.warn("Simulation " + index + " '" + simulation.getName() + "' of " + documentName + " failed", e);
+			error = e;
+		}
+		long time = (System.nanoTime() - t0) / 1000000;
+		log.info("Simulation " + index + " '" + simulation.getName() + "' of " + documentName + " took " + time + " ms");
+		return new BatchSimulationResult(documentName, index, simulation, time, error);
+	}
+}
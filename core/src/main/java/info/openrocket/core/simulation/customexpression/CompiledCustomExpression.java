@@ -0,0 +1,56 @@
+package info.openrocket.core.simulation.customexpression;
+
+import info.openrocket.core.simulation.FlightDataBranch;
+import info.openrocket.core.simulation.FlightDataType;
+import info.openrocket.core.simulation.SimulationStatus;
+
+import de.congrace.exp4j.CompiledExpression;
+
+/**
+ * A custom expression compiled for evaluation during a single simulation.  The variables
+ * used by the expression are bound to fixed slots, which are filled with the last values of
+ * their flight data types or with the values of index sub-expressions before each evaluation.
+ * <p>
+ * This class is not thread-safe.
+ */
+final class CompiledCustomExpression {
+
+	private final CompiledExpression program;
+	private final FlightDataType[] types;
+	private final CustomExpression[] indexExpressions;
+	private final double[] values;
+
+	/**
+	 * @param program			the compiled expression.
+	 * @param types				the flight data types of the slots, or null for slots of index expressions.
+	 * @param indexExpressions	the index expressions of the slots, or null for slots of flight data types.
+	 */
+	CompiledCustomExpression(CompiledExpression program, FlightDataType[] types,
+			CustomExpression[] indexExpressions) {
+		this.program = program;
+		this.types = types;
+		this.indexExpressions = indexExpressions;
+		this.values = new double[types.length];
+	}
+
+	/**
+	 * Evaluate the expression using the last variable values from the simulation status.
+	 * Infinite results are returned as NaN, like {@link CustomExpression#evaluateDouble(SimulationStatus)}.
+	 */
+	double evaluate(SimulationStatus status) {
+		FlightDataBranch dataBranch = status.getFlightDataBranch();
+		for (int i = 0; i < values.length; i++) {
+			if (indexExpressions[i] != null) {
+				values[i] = indexExpressions[i].evaluate(status).getDoubleValue();
+			} else {
+				values[i] = dataBranch.getLast(types[i]);
+			}
+		}
+
+		double result = program.evaluate(values);
+		if (Double.isInfinite(result)) {
+			result = Double.NaN;
+		}
+		return result;
+	}
+}
@@ -18,7 +18,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import de.congrace.exp4j.Calculable;
+import de.congrace.exp4j.CompiledExpression;
 import de.congrace.exp4j.ExpressionBuilder;
+import de.congrace.exp4j.PostfixExpression;
 import de.congrace.exp4j.UnknownFunctionException;
 import de.congrace.exp4j.UnparsableExpressionException;
 import de.congrace.exp4j.Variable;
@@ -449,6 +451,54 @@ public class CustomExpression implements Cloneable {
 		return new Variable(name, result);
 	}
 
+	/*
+	 * Compiles this expression for repeated evaluation during a single simulation. Only the
+	 * variables used by the expression are bound, either to their flight data types or to
+	 * index sub-expressions.
+	 * Returns null if the expression cannot be compiled, e.g. when using range expressions
+	 * and functions on them. Such expressions must be evaluated using evaluate(SimulationStatus).
+	 */
+	CompiledCustomExpression compile() {
+		Calculable calc = buildExpression(builder);
+		if (!(calc instanceof PostfixExpression)) {
+			return null;
+		}
+		PostfixExpression postfix = (PostfixExpression) calc;
+		List<String> names = new ArrayList<>(postfix.getUsedVariableNames());
+
+		FlightDataType[] types = new FlightDataType[names.size()];
+		CustomExpression[] indexExpressions = new CustomExpression[names.size()];
+		for (int i = 0; i < names.size(); i++) {
+			String n = names.get(i);
+			for (CustomExpression exp : subExpressions) {
+				if (exp.hash().equals(n)) {
+					if (!(exp instanceof IndexExpression)) {
+						return null;
+					}
+					indexExpressions[i] = exp;
+				}
+			}
+			if (indexExpressions[i] != null) {
+				continue;
+			}
+			for (FlightDataType type : doc.getFlightDataTypes()) {
+				if (type.getSymbol().equals(n)) {
+					types[i] = type;
+					break;
+				}
+			}
+			if (types[i] == null) {
+				return null;
+			}
+		}
+
+		CompiledExpression program = postfix.compile(names);
+		if (program == null) {
+			return null;
+		}
+		return new CompiledCustomExpression(program, types, indexExpressions);
+	}
+
 	/*
 	 * Returns the new flight data type corresponding to this calculated data
 	 * If the unit matches a SI unit string then the datatype will have the
@@ -3,6 +3,7 @@ package info.openrocket.core.simulation.customexpression;
 import java.util.List;
 
 import info.openrocket.core.simulation.FlightDataBranch;
+import info.openrocket.core.simulation.FlightDataType;
 import info.openrocket.core.simulation.SimulationStatus;
 import info.openrocket.core.simulation.exception.SimulationException;
 import info.openrocket.core.simulation.listeners.AbstractSimulationListener;
@@ -15,29 +16,76 @@ public class CustomExpressionSimulationListener extends AbstractSimulationListen
 	private static final Logger log = LoggerFactory.getLogger(CustomExpressionSimulationListener.class);
 	private final List<CustomExpression> expressions;
 
+	// The data types and compiled expressions of the current simulation, null until first needed.
+	// Expressions that cannot be compiled have a null compiled expression.
+	private FlightDataType[] types;
+	private CompiledCustomExpression[] compiled;
+
 	public CustomExpressionSimulationListener(List<CustomExpression> expressions) {
 		super();
 		this.expressions = expressions;
 	}
 
+	@Override
+	public void startSimulation(SimulationStatus status) throws SimulationException {
+		types = null;
+		compiled = null;
+	}
+
 	@Override
 	public void postStep(SimulationStatus status) throws SimulationException {
 		if (expressions == null || expressions.size() == 0) {
 			return;
 		}
+		if (compiled == null) {
+			compileExpressions();
+		}
+
 		// Calculate values for custom expressions
 		FlightDataBranch dataBranch = status.getFlightDataBranch();
-		for (CustomExpression expression : expressions) {
-			double value = expression.evaluateDouble(status);
+		for (int i = 0; i < compiled.length; i++) {
+			double value;
+			if (compiled[i] != null) {
+				value = compiled[i].evaluate(status);
+			} else {
+				value = expressions.get(i).evaluateDouble(status);
+			}
 			// log.debug("Setting value of custom expression "+expression.toString()+" =
 			// "+value);
-			dataBranch.setValue(expression.getType(), value);
+			dataBranch.setValue(types[i], value);
 		}
 	}
 
+	/**
+	 * Compile the expressions once for the simulation, so that they need not be parsed on every step.
+	 */
+	private void compileExpressions() {
+		FlightDataType[] newTypes = new FlightDataType[expressions.size()];
+		CompiledCustomExpression[] newCompiled = new CompiledCustomExpression[expressions.size()];
+		for (int i = 0; i < newCompiled.length; i++) {
+			CustomExpression expression = expressions.get(i);
+			newTypes[i] = expression.getType();
+			newCompiled[i] = expression.compile();
+			if (newCompiled[i] == null) {
+				log.debug("Custom expression " + expression + " cannot be compiled, evaluating it on every step");
+			}
+		}
+		types = newTypes;
+		compiled = newCompiled;
+	}
+
 	@Override
 	public boolean isSystemListener() {
 		return true;
 	}
 
+	@Override
+	public CustomExpressionSimulationListener clone() {
+		CustomExpressionSimulationListener clone = (CustomExpressionSimulationListener) super.clone();
+		// The compiled expressions must not be shared between simulations
+		clone.types = null;
+		clone.compiled = null;
+		return clone;
+	}
+
 }
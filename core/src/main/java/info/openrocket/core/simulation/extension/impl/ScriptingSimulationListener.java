@@ -1,11 +1,15 @@
 package info.openrocket.core.simulation.extension.impl;
 
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 import javax.script.Invocable;
 import javax.script.ScriptException;
 
+import org.graalvm.polyglot.PolyglotException;
+import org.graalvm.polyglot.Value;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -28,6 +32,8 @@ import info.openrocket.core.simulation.listeners.SimulationListener;
 import info.openrocket.core.util.BugException;
 import info.openrocket.core.util.Coordinate;
 
+import com.oracle.truffle.js.scriptengine.GraalJSScriptEngine;
+
 public class ScriptingSimulationListener
 		implements SimulationListener, SimulationComputationListener, SimulationEventListener, Cloneable {
 
@@ -38,9 +44,26 @@ public class ScriptingSimulationListener
 	 * so that unimplemented script methods are not called unnecessarily.
 	 */
 
+	/** The names of all functions a script may define */
+	private static final String[] FUNCTION_NAMES = {
+			"startSimulation", "endSimulation", "preStep", "postStep",
+			"addFlightEvent", "handleFlightEvent", "motorIgnition", "recoveryDeviceDeployment",
+			"preAccelerationCalculation", "preAerodynamicCalculation", "preAtmosphericModel", "preFlightConditions",
+			"preGravityModel", "preMassCalculation", "preSimpleThrustCalculation", "preWindModel",
+			"postAccelerationCalculation", "postAerodynamicCalculation", "postAtmosphericModel",
+			"postFlightConditions", "postGravityModel", "postMassCalculation", "postSimpleThrustCalculation",
+			"postWindModel" };
+
 	private final Invocable invocable;
 	private Set<String> missing = new HashSet<>();
 
+	/*
+	 * The functions defined by a GraalJS script, resolved once per simulation.  Functions not
+	 * in the map are not defined by the script and are skipped.  Null for other script engines,
+	 * which are called through the Invocable interface instead.
+	 */
+	private Map<String, Value> functions = null;
+
 	public ScriptingSimulationListener(Invocable invocable) {
 		this.invocable = invocable;
 	}
@@ -65,6 +88,7 @@ public class ScriptingSimulationListener
 
 	@Override
 	public void startSimulation(SimulationStatus status) throws SimulationException {
+		resolveFunctions();
 		invoke(Void.class, null, "startSimulation", status);
 	}
 
@@ -196,20 +220,46 @@ public class ScriptingSimulationListener
 		return invoke(Coordinate.class, null, "postWindModel", status, wind);
 	}
 
-	@SuppressWarnings("unchecked")
+	/**
+	 * Resolve the functions defined by a GraalJS script, so that they can be called directly
+	 * through their polyglot values instead of being looked up by name on every call.
+	 */
+	private void resolveFunctions() {
+		if (!(invocable instanceof GraalJSScriptEngine engine)) {
+			return;
+		}
+		Value bindings = engine.getPolyglotContext().getBindings("js");
+		Map<String, Value> defined = new HashMap<>();
+		for (String name : FUNCTION_NAMES) {
+			Value function = bindings.getMember(name);
+			if (function != null && function.canExecute()) {
+				defined.put(name, function);
+			}
+		}
+		functions = defined;
+	}
+
 	private <T> T invoke(Class<T> retType, T def, String method, Object... args) throws SimulationException {
+		if (functions == null && invocable instanceof GraalJSScriptEngine) {
+			resolveFunctions();
+		}
+		if (functions != null) {
+			Value function = functions.get(method);
+			if (function == null) {
+				return def;
+			}
+			try {
+				Value result = function.execute(args);
+				return convert(retType, def, method, result.isNull() ? null : result.as(Object.class));
+			} catch (PolyglotException e) {
+				logger.warn("Script exception in " + method + ": " + e, e);
+				throw new SimulationException("Script failed: " + e.getMessage());
+			}
+		}
+
 		try {
 			if (!missing.contains(method)) {
-				Object o = invocable.invokeFunction(method, args);
-				if (o == null) {
-					// Use default/null if function returns nothing
-					return def;
-				} else if (!o.getClass().equals(retType)) {
-					throw new SimulationListenerException("Custom script function " + method + " returned type " +
-							o.getClass().getSimpleName() + ", expected " + retType.getSimpleName());
-				} else {
-					return (T) o;
-				}
+				return convert(retType, def, method, invocable.invokeFunction(method, args));
 			}
 		} catch (NoSuchMethodException e) {
 			missing.add(method);
@@ -221,4 +271,17 @@ public class ScriptingSimulationListener
 		return def;
 	}
 
+	@SuppressWarnings("unchecked")
+	private static <T> T convert(Class<T> retType, T def, String method, Object o) throws SimulationException {
+		if (o == null) {
+			// Use default/null if function returns nothing
+			return def;
+		} else if (!o.getClass().equals(retType)) {
+			throw new SimulationListenerException("Custom script function " + method + " returned type " +
+					o.getClass().getSimpleName() + ", expected " + retType.getSimpleName());
+		} else {
+			return (T) o;
+		}
+	}
+
 }
@@ -0,0 +1,60 @@
+package info.openrocket.core.startup;
+
+import info.openrocket.core.database.ComponentPresetDao;
+import info.openrocket.core.database.ComponentPresetDatabaseLoader;
+import info.openrocket.core.database.MotorDatabaseLoader;
+import info.openrocket.core.database.motor.MotorDatabase;
+import info.openrocket.core.database.motor.ThrustCurveMotorSetDatabase;
+import info.openrocket.core.formatting.RocketDescriptor;
+import info.openrocket.core.formatting.RocketDescriptorImpl;
+import info.openrocket.core.l10n.ResourceBundleTranslator;
+import info.openrocket.core.l10n.Translator;
+import info.openrocket.core.preferences.ApplicationPreferences;
+import info.openrocket.core.preferences.HeadlessPreferences;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Provider;
+import com.google.inject.Scopes;
+
+/**
+ * HeadlessModule is the Guice Module for running OpenRocket without a user interface,
+ * e.g. for batch simulations from the command line.
+ * <p>
+ * The preferences are kept in memory only and the databases are loaded in the background,
+ * blocking the first access until they are loaded.
+ *
+ * <code>
+ * HeadlessModule module = new HeadlessModule();
+ * Application.setInjector(Guice.createInjector(module, new PluginModule()));
+ * module.startLoader();
+ * </code>
+ */
+public class HeadlessModule extends AbstractModule {
+
+	private final ComponentPresetDatabaseLoader presetLoader = new ComponentPresetDatabaseLoader();
+	private final MotorDatabaseLoader motorLoader = new MotorDatabaseLoader();
+
+	@Override
+	protected void configure() {
+		bind(ApplicationPreferences.class).to(HeadlessPreferences.class).in(Scopes.SINGLETON);
+		bind(Translator.class).toInstance(new ResourceBundleTranslator("l10n.messages"));
+		bind(RocketDescriptor.class).to(RocketDescriptorImpl.class).in(Scopes.SINGLETON);
+
+		Provider<ComponentPresetDao> componentDatabaseProvider = presetLoader::getDatabase;
+		bind(ComponentPresetDao.class).toProvider(componentDatabaseProvider).in(Scopes.SINGLETON);
+
+		Provider<ThrustCurveMotorSetDatabase> motorDatabaseProvider = motorLoader::getDatabase;
+		bind(ThrustCurveMotorSetDatabase.class).toProvider(motorDatabaseProvider).in(Scopes.SINGLETON);
+		bind(MotorDatabase.class).toProvider(motorDatabaseProvider).in(Scopes.SINGLETON);
+	}
+
+	/**
+	 * startLoader must be called after the Injector created with this module is registered
+	 * in the Application object, since loading the databases uses the preferences.
+	 */
+	public void startLoader() {
+		presetLoader.startLoading();
+		motorLoader.startLoading();
+	}
+
+}
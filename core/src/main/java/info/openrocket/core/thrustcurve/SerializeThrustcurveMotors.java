@@ -4,7 +4,6 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.ObjectOutputStream;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -14,6 +13,7 @@ import info.openrocket.core.file.iterator.DirectoryIterator;
 import info.openrocket.core.file.iterator.FileIterator;
 import info.openrocket.core.file.motor.GeneralMotorLoader;
 import info.openrocket.core.gui.util.SimpleFileFilter;
+import info.openrocket.core.motor.CompactMotorDatabase;
 import info.openrocket.core.motor.Motor;
 import info.openrocket.core.motor.ThrustCurveMotor;
 import info.openrocket.core.util.Pair;
@@ -56,7 +56,7 @@ public class SerializeThrustcurveMotors {
 		String inputDir = args[0];
 		String outputFile = args[1];
 
-		final List<Motor> allMotors = new ArrayList<>();
+		final List<ThrustCurveMotor> allMotors = new ArrayList<>();
 
 		loadFromLocalMotorFiles(allMotors, inputDir);
 
@@ -64,18 +64,13 @@ public class SerializeThrustcurveMotors {
 
 		File outFile = new File(outputFile);
 
-		FileOutputStream ofs = new FileOutputStream(outFile);
-		final ObjectOutputStream oos = new ObjectOutputStream(ofs);
-
-		oos.writeObject(allMotors);
-
-		oos.flush();
-		ofs.flush();
-		ofs.close();
+		try (FileOutputStream ofs = new FileOutputStream(outFile)) {
+			CompactMotorDatabase.write(allMotors, ofs);
+		}
 
 	}
 
-	public static void loadFromThrustCurve(List<Motor> allMotors) throws SAXException, IOException {
+	public static void loadFromThrustCurve(List<ThrustCurveMotor> allMotors) throws SAXException, IOException {
 
 		SearchRequest searchRequest = new SearchRequest();
 		for (String m : manufacturers) {
@@ -170,7 +165,7 @@ public class SerializeThrustcurveMotors {
 		return b;
 	}
 
-	private static void loadFromLocalMotorFiles(List<Motor> allMotors, String inputDir) throws IOException {
+	private static void loadFromLocalMotorFiles(List<ThrustCurveMotor> allMotors, String inputDir) throws IOException {
 		GeneralMotorLoader loader = new GeneralMotorLoader();
 		FileIterator iterator = DirectoryIterator.findDirectory(inputDir,
 				new SimpleFileFilter("", false, loader.getSupportedExtensions()));
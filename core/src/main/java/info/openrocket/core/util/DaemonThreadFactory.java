@@ -0,0 +1,29 @@
+package info.openrocket.core.util;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A thread factory that creates numbered daemon threads, so that worker threads never
+ * prevent the JVM from exiting.
+ */
+public class DaemonThreadFactory implements ThreadFactory {
+	private final String prefix;
+	private final AtomicInteger count = new AtomicInteger();
+
+	/**
+	 * Sole constructor.
+	 *
+	 * @param prefix	the name prefix of the threads, followed by "-" and the thread number
+	 */
+	public DaemonThreadFactory(String prefix) {
+		this.prefix = prefix;
+	}
+
+	@Override
+	public Thread newThread(Runnable r) {
+		Thread t = new Thread(r, prefix + "-" + count.incrementAndGet());
+		t.setDaemon(true);
+		return t;
+	}
+}
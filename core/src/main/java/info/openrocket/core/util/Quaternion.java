@@ -157,12 +157,38 @@ public class Quaternion {
 	 * @return this quaternion.
 	 */
 	public Quaternion multiplyLeft(Quaternion other) {
+		return multiplyLeft(other.w, other.x, other.y, other.z);
+	}
+
+	/**
+	 * Multiply this quaternion from the left side by the rotation quaternion corresponding
+	 * to the rotation vector (x, y, z).  This is equivalent to
+	 * <code>multiplyLeft(Quaternion.rotation(new Coordinate(x, y, z)))</code>, and produces
+	 * exactly the same result, but avoids creating the intermediate objects.
+	 * 
+	 * @param x the x component of the rotation vector
+	 * @param y the y component of the rotation vector
+	 * @param z the z component of the rotation vector
+	 * @return the product <code>rotation * this</code>.
+	 */
+	public Quaternion multiplyLeftRotation(double x, double y, double z) {
+		// Must match rotation(Coordinate) and Coordinate.length() operation by operation
+		double length = MathUtil.safeSqrt(x * x + y * y + z * z);
+		if (length < 0.000001) {
+			return multiplyLeft(1, 0, 0, 0);
+		}
+		double sin = Math.sin(length / 2);
+		double cos = Math.cos(length / 2);
+		return multiplyLeft(cos, sin * x / length, sin * y / length, sin * z / length);
+	}
+
+	private Quaternion multiplyLeft(double a, double b, double c, double d) {
 		/* other(abcd) * this(wxyz) */
 
-		double newW = (other.w * this.w - other.x * this.x - other.y * this.y - other.z * this.z);
-		double newX = (other.w * this.x + other.x * this.w + other.y * this.z - other.z * this.y);
-		double newY = (other.w * this.y + other.y * this.w + other.z * this.x - other.x * this.z);
-		double newZ = (other.w * this.z + other.z * this.w + other.x * this.y - other.y * this.x);
+		double newW = (a * this.w - b * this.x - c * this.y - d * this.z);
+		double newX = (a * this.x + b * this.w + c * this.z - d * this.y);
+		double newY = (a * this.y + c * this.w + d * this.x - b * this.z);
+		double newZ = (a * this.z + d * this.w + b * this.y - c * this.x);
 
 		return new Quaternion(newW, newX, newY, newZ);
 	}
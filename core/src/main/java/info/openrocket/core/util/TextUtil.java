@@ -7,6 +7,24 @@ import java.util.Locale;
 public class TextUtil {
 	public static final int DEFAULT_DECIMAL_PLACES = 3;
 
+	/** Powers of ten used as decimal scales by appendDouble */
+	private static final long[] POWERS_OF_TEN = {
+			1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L, 100000000L,
+			1000000000L, 10000000000L, 100000000000L, 1000000000000L
+	};
+
+	/** Powers of ten that are exactly representable as double */
+	private static final double[] POWER_OF_TEN_DOUBLES = {
+			1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+			1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+
+	/** Largest scaled value formatted by appendDouble without falling back to String.format */
+	private static final double MAX_FAST_VALUE = 1e12;
+
+	/** Scaled values closer than this to a rounding boundary fall back to String.format */
+	private static final double ROUNDING_MARGIN = 1e-3;
+
 	private static final char[] HEX = {
 			'0', '1', '2', '3', '4', '5', '6', '7',
 			'8', '9', 'a', 'b', 'c', 'd', 'e', 'f'
@@ -107,6 +125,105 @@ public class TextUtil {
 		return doubleToString(d, DEFAULT_DECIMAL_PLACES, true);
 	}
 
+	/**
+	 * Append the double value to a string builder, formatted exactly as by
+	 * {@link #doubleToString(double, int, boolean)}.  The common cases are formatted
+	 * without creating intermediate objects, which makes this considerably faster when
+	 * formatting large amounts of data.  Values that cannot be formatted reliably this
+	 * way, e.g. ones very close to a rounding boundary, are formatted using
+	 * {@link #doubleToString(double, int, boolean)}.
+	 *
+	 * @param sb                    the string builder to append to.
+	 * @param d                     the value to present.
+	 * @param decimalPlaces         the number of decimal places to save the value
+	 *                              with.
+	 * @param isExponentialNotation if true, the value is presented in exponential
+	 *                              notation.
+	 */
+	public static void appendDouble(StringBuilder sb, double d, int decimalPlaces, boolean isExponentialNotation) {
+		if (MathUtil.equals(d, 0)) {
+			sb.append('0');
+			return;
+		}
+		if (Double.isNaN(d) || Double.isInfinite(d) || decimalPlaces < 0 || decimalPlaces >= POWERS_OF_TEN.length) {
+			sb.append(doubleToString(d, decimalPlaces, isExponentialNotation));
+			return;
+		}
+
+		final double abs = Math.abs(d);
+		final long scale = POWERS_OF_TEN[decimalPlaces];
+		final boolean exponential = isExponentialNotation && (abs < 0.001 || abs >= 10000);
+
+		// Scale the value (or its mantissa) so that the decimals to print are in the integer part
+		int exponent = 0;
+		double scaled;
+		if (exponential) {
+			exponent = (int) Math.floor(Math.log10(abs));
+			scaled = scaleMantissa(abs, exponent, scale);
+			// Correct for inaccuracy of log10 near powers of ten
+			if (scaled < scale) {
+				exponent--;
+				scaled = scaleMantissa(abs, exponent, scale);
+			} else if (scaled >= 10 * scale) {
+				exponent++;
+				scaled = scaleMantissa(abs, exponent, scale);
+			}
+		} else {
+			scaled = abs * scale;
+		}
+
+		// Round half up, leaving values close to the boundary to String.format
+		double floor = Math.floor(scaled);
+		double fraction = scaled - floor;
+		if (!(scaled < MAX_FAST_VALUE) || Math.abs(fraction - 0.5) < ROUNDING_MARGIN) {
+			sb.append(doubleToString(d, decimalPlaces, isExponentialNotation));
+			return;
+		}
+		long rounded = (long) floor + (fraction > 0.5 ? 1 : 0);
+		if (exponential && rounded >= 10 * scale) {
+			rounded /= 10;
+			exponent++;
+		}
+
+		if (d < 0) {
+			sb.append('-');
+		}
+		sb.append(rounded / scale);
+		long decimals = rounded % scale;
+		if (decimals != 0) {
+			// Trim trailing zeros
+			int digits = decimalPlaces;
+			while (decimals % 10 == 0) {
+				decimals /= 10;
+				digits--;
+			}
+			sb.append('.');
+			for (long p = POWERS_OF_TEN[digits - 1]; p > decimals; p /= 10) {
+				sb.append('0');
+			}
+			sb.append(decimals);
+		}
+		if (exponential) {
+			sb.append('e');
+			if (exponent != 0) {
+				sb.append(exponent);
+			}
+		}
+	}
+
+	/**
+	 * Return the mantissa of the value for the given exponent multiplied by scale,
+	 * or infinity if the exponent is out of the range handled by appendDouble.
+	 */
+	private static double scaleMantissa(double abs, int exponent, long scale) {
+		if (exponent >= 0 && exponent <= 22) {
+			return abs / POWER_OF_TEN_DOUBLES[exponent] * scale;
+		} else if (exponent < 0 && exponent >= -22) {
+			return abs * POWER_OF_TEN_DOUBLES[-exponent] * scale;
+		}
+		return Double.POSITIVE_INFINITY;
+	}
+
 	/**
 	 * Trims trailing zeros of a string formatted decimal number (can be in
 	 * exponential notation e.g. 1.2000E+06).
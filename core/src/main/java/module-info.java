@@ -84,6 +84,7 @@ open module info.openrocket.core {
 	exports info.openrocket.core.rocketvisitors;
 	exports info.openrocket.core.scripting;
 	exports info.openrocket.core.simulation;
+	exports info.openrocket.core.simulation.batch;
 	exports info.openrocket.core.simulation.customexpression;
 	exports info.openrocket.core.simulation.exception;
 	exports info.openrocket.core.simulation.extension;
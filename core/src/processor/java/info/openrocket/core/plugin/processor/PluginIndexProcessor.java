@@ -0,0 +1,88 @@
+package info.openrocket.core.plugin.processor;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Annotation processor that writes an index of the types annotated with
+ * <code>info.openrocket.core.plugin.Plugin</code> to the class output.
+ * <p>
+ * The index is the resource <code>META-INF/annotations/info.openrocket.core.plugin.Plugin</code>,
+ * listing the binary names of the annotated types, one per line.  It is read by
+ * <code>AnnotationFinderImpl</code> at startup instead of scanning the whole class path.
+ * <p>
+ * This processor is compiled separately from the core module, so it refers to the
+ * annotation by name only.
+ */
+@SupportedAnnotationTypes(PluginIndexProcessor.PLUGIN_ANNOTATION)
+public class PluginIndexProcessor extends AbstractProcessor {
+
+	static final String PLUGIN_ANNOTATION = "info.openrocket.core.plugin.Plugin";
+	static final String INDEX_DIRECTORY = "META-INF/annotations/";
+
+	private final Set<String> types = new TreeSet<>();
+	private final List<Element> originatingElements = new ArrayList<>();
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		if (roundEnv.processingOver()) {
+			writeIndex();
+			return false;
+		}
+
+		TypeElement plugin = processingEnv.getElementUtils().getTypeElement(PLUGIN_ANNOTATION);
+		if (plugin == null) {
+			return false;
+		}
+		for (Element element : roundEnv.getElementsAnnotatedWith(plugin)) {
+			if (element instanceof TypeElement) {
+				types.add(processingEnv.getElementUtils().getBinaryName((TypeElement) element).toString());
+				originatingElements.add(element);
+			}
+		}
+
+		// The annotation is only used for indexing, so claim it to avoid unclaimed annotation warnings
+		return true;
+	}
+
+	private void writeIndex() {
+		if (types.isEmpty()) {
+			return;
+		}
+
+		try {
+			FileObject index = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+					INDEX_DIRECTORY + PLUGIN_ANNOTATION, originatingElements.toArray(new Element[0]));
+			try (Writer writer = new OutputStreamWriter(index.openOutputStream(), StandardCharsets.UTF_8)) {
+				for (String type : types) {
+					writer.write(type);
+					writer.write('\n');
+				}
+			}
+		} catch (IOException e) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+					"Unable to write the plugin index: " + e.getMessage());
+		}
+	}
+}
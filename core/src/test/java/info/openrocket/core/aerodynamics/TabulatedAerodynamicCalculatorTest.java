@@ -0,0 +1,205 @@
+package info.openrocket.core.aerodynamics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.aerodynamics.TabulatedAerodynamicCalculator.Coefficient;
+import info.openrocket.core.aerodynamics.TabulatedAerodynamicCalculator.ErrorReport;
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.logging.WarningSet;
+import info.openrocket.core.rocketcomponent.FinSet;
+import info.openrocket.core.rocketcomponent.FlightConfiguration;
+import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.rocketcomponent.RocketComponent;
+import info.openrocket.core.simulation.BasicEventSimulationEngine;
+import info.openrocket.core.simulation.FlightData;
+import info.openrocket.core.simulation.SimulationConditions;
+import info.openrocket.core.simulation.exception.SimulationException;
+import info.openrocket.core.util.BaseTestCase;
+import info.openrocket.core.util.TestRockets;
+
+public class TabulatedAerodynamicCalculatorTest extends BaseTestCase {
+
+	@Test
+	public void testGridPointsMatchExact() {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		FlightConfiguration config = rocket.getSelectedConfiguration();
+		BarrowmanCalculator exact = new BarrowmanCalculator();
+		TabulatedAerodynamicCalculator tabulated = new TabulatedAerodynamicCalculator(new BarrowmanCalculator());
+		FlightConditions conditions = new FlightConditions(config);
+		WarningSet warnings = new WarningSet();
+
+		for (double mach : new double[] { 0.1, 0.5, 0.95, 1.5 }) {
+			for (double aoa : new double[] { 0, 3, 10, 45 }) {
+				conditions.setMach(mach);
+				conditions.setAOA(Math.toRadians(aoa));
+				AerodynamicForces expected = exact.getAerodynamicForces(config, conditions, warnings);
+				AerodynamicForces actual = tabulated.getAerodynamicForces(config, conditions, warnings);
+
+				String msg = "Mach " + mach + " AoA " + aoa;
+				assertEquals(expected.getCN(), actual.getCN(), 1e-9, msg);
+				assertEquals(expected.getCNa(), actual.getCNa(), 1e-9, msg);
+				assertEquals(expected.getCm(), actual.getCm(), 1e-9, msg);
+				assertEquals(expected.getCP().x, actual.getCP().x, 1e-9, msg);
+				assertEquals(expected.getPressureCD(), actual.getPressureCD(), 1e-9, msg);
+				assertEquals(expected.getBaseCD(), actual.getBaseCD(), 1e-9, msg);
+				// Friction drag is interpolated over the Reynolds number
+				assertEquals(expected.getCD(), actual.getCD(), 0.02 * expected.getCD(), msg);
+				assertEquals(expected.getCDaxial(), actual.getCDaxial(), 0.02 * Math.abs(expected.getCD()), msg);
+				assertEquals(exact.getStallMargin(), tabulated.getStallMargin(), 1e-9, msg);
+			}
+		}
+	}
+
+	@Test
+	public void testErrorReport() {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		FlightConfiguration config = rocket.getSelectedConfiguration();
+		TabulatedAerodynamicCalculator tabulated = new TabulatedAerodynamicCalculator(new BarrowmanCalculator());
+
+		ErrorReport report = tabulated.estimateError(config, new FlightConditions(config), 500, 1234);
+
+		assertEquals(500, report.getSampleCount() + report.getFallbackCount());
+		assertTrue(report.getSampleCount() > 400, report.toString());
+		assertTrue(report.getRMSError(Coefficient.CN) < 0.1, report.toString());
+		assertTrue(report.getRMSError(Coefficient.CM) < 1.0, report.toString());
+		assertTrue(report.getRMSError(Coefficient.CD) < 0.03, report.toString());
+		assertTrue(report.getRMSError(Coefficient.CD_AXIAL) < 0.03, report.toString());
+		for (Coefficient c : Coefficient.values()) {
+			assertTrue(report.getMaxError(c) >= report.getRMSError(c), report.toString());
+		}
+	}
+
+	/**
+	 * With two fins the normal force depends on the lateral wind direction, so the tables
+	 * cannot be used and all queries must be computed exactly.
+	 */
+	@Test
+	public void testThetaDependentFallsBack() {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		for (RocketComponent c : rocket) {
+			if (c instanceof FinSet) {
+				((FinSet) c).setFinCount(2);
+			}
+		}
+		FlightConfiguration config = rocket.getSelectedConfiguration();
+		BarrowmanCalculator exact = new BarrowmanCalculator();
+		TabulatedAerodynamicCalculator tabulated = new TabulatedAerodynamicCalculator(new BarrowmanCalculator());
+
+		ErrorReport report = tabulated.estimateError(config, new FlightConditions(config), 10, 1);
+		assertEquals(0, report.getSampleCount());
+		assertEquals(10, report.getFallbackCount());
+
+		FlightConditions conditions = new FlightConditions(config);
+		conditions.setAOA(Math.toRadians(7));
+		conditions.setTheta(1);
+		WarningSet warnings = new WarningSet();
+		assertEquals(exact.getAerodynamicForces(config, conditions, warnings),
+				tabulated.getAerodynamicForces(config, conditions, warnings));
+	}
+
+	@Test
+	public void testTablesSharedBetweenSimulations() throws SimulationException {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		Simulation simulation = new Simulation(rocket);
+		simulation.setFlightConfigurationId(TestRockets.TEST_FCID_0);
+		simulation.getOptions().setISAAtmosphere(true);
+		simulation.getOptions().setTimeStep(0.05);
+		simulation.getOptions().getAverageWindModel().setAverage(0);
+
+		SimulationConditions conditions = simulation.getOptions().toSimulationConditions();
+		conditions.setSimulation(simulation);
+		BasicEventSimulationEngine engine = new BasicEventSimulationEngine();
+
+		// Each simulation copies the rocket and uses a new calculator, as when run from the user interface
+		int[] exactCount = new int[1];
+		SimulationConditions first = conditions.clone();
+		first.setAerodynamicCalculator(new TabulatedAerodynamicCalculator(new CountingCalculator(exactCount)));
+		engine.simulate(first);
+		int firstCount = exactCount[0];
+
+		exactCount[0] = 0;
+		SimulationConditions second = conditions.clone();
+		second.setAerodynamicCalculator(new TabulatedAerodynamicCalculator(new CountingCalculator(exactCount)));
+		engine.simulate(second);
+		int secondCount = exactCount[0];
+
+		// Only the queries outside the tables are computed exactly in the second simulation
+		assertTrue(secondCount < firstCount / 10, "first " + firstCount + ", second " + secondCount);
+
+		// Changing the design computes new tables
+		exactCount[0] = 0;
+		for (RocketComponent c : rocket) {
+			if (c instanceof FinSet) {
+				((FinSet) c).setFinCount(4);
+			}
+		}
+		SimulationConditions changed = conditions.clone();
+		changed.setAerodynamicCalculator(new TabulatedAerodynamicCalculator(new CountingCalculator(exactCount)));
+		engine.simulate(changed);
+		assertTrue(exactCount[0] > firstCount / 2, "first " + firstCount + ", changed " + exactCount[0]);
+	}
+
+	@Test
+	public void testSimulationOption() {
+		Simulation simulation = new Simulation(TestRockets.makeEstesAlphaIII());
+		assertFalse(simulation.getOptions().toSimulationConditions().getAerodynamicCalculator()
+				instanceof TabulatedAerodynamicCalculator);
+
+		simulation.getOptions().setTabulatedAerodynamics(true);
+		assertTrue(simulation.getOptions().toSimulationConditions().getAerodynamicCalculator()
+				instanceof TabulatedAerodynamicCalculator);
+	}
+
+	@Test
+	public void testSimulationMatchesExact() throws SimulationException {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		Simulation simulation = new Simulation(rocket);
+		simulation.setFlightConfigurationId(TestRockets.TEST_FCID_0);
+		simulation.getOptions().setISAAtmosphere(true);
+		simulation.getOptions().setTimeStep(0.05);
+		simulation.getOptions().getAverageWindModel().setAverage(0);
+
+		SimulationConditions conditions = simulation.getOptions().toSimulationConditions();
+		conditions.setSimulation(simulation);
+
+		BasicEventSimulationEngine engine = new BasicEventSimulationEngine();
+		engine.simulate(conditions.clone());
+		FlightData expected = engine.getFlightData();
+
+		SimulationConditions tabulatedConditions = conditions.clone();
+		tabulatedConditions.setAerodynamicCalculator(new TabulatedAerodynamicCalculator(new BarrowmanCalculator()));
+		engine.simulate(tabulatedConditions);
+		FlightData actual = engine.getFlightData();
+
+		assertEquals(expected.getMaxAltitude(), actual.getMaxAltitude(), 0.01 * expected.getMaxAltitude());
+		assertEquals(expected.getMaxVelocity(), actual.getMaxVelocity(), 0.01 * expected.getMaxVelocity());
+		assertEquals(expected.getTimeToApogee(), actual.getTimeToApogee(), 0.1);
+	}
+
+	/**
+	 * A Barrowman calculator counting the exact evaluations of the aerodynamic forces.
+	 */
+	private static class CountingCalculator extends BarrowmanCalculator {
+		private final int[] count;
+
+		CountingCalculator(int[] count) {
+			this.count = count;
+		}
+
+		@Override
+		public AerodynamicForces getAerodynamicForces(FlightConfiguration configuration, FlightConditions conditions,
+				WarningSet warnings) {
+			count[0]++;
+			return super.getAerodynamicForces(configuration, conditions, warnings);
+		}
+
+		@Override
+		public BarrowmanCalculator newInstance() {
+			return new CountingCalculator(count);
+		}
+	}
+}
@@ -0,0 +1,73 @@
+package info.openrocket.core.componentanalysis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.aerodynamics.BarrowmanCalculator;
+import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.rocketcomponent.RocketComponent;
+import info.openrocket.core.util.BaseTestCase;
+import info.openrocket.core.util.ModID;
+import info.openrocket.core.util.TestRockets;
+
+public class CAParameterSweepTest extends BaseTestCase {
+
+	@Test
+	public void testParallelMatchesSerial() {
+		Rocket rocket = TestRockets.makeFalcon9Heavy();
+		CAParameters parameters = new CAParameters(rocket, 0);
+		parameters.setAOA(Math.toRadians(4));
+
+		CAParameterSweep serialSweep = new CAParameterSweep(parameters, new BarrowmanCalculator(), rocket);
+		serialSweep.setThreadCount(1);
+		CADataBranch serial = serialSweep.sweep(CADomainDataType.MACH, 0.1, 2.0, 0.1, 0.3);
+
+		final ModID modID = rocket.getModID();
+		CAParameterSweep parallelSweep = new CAParameterSweep(parameters, new BarrowmanCalculator(), rocket);
+		parallelSweep.setThreadCount(4);
+		List<Integer> progress = new ArrayList<>();
+		CADataBranch parallel = parallelSweep.sweep(CADomainDataType.MACH, 0.1, 2.0, 0.1, 0.3,
+				(branch, completed, total) -> {
+					assertEquals(completed, branch.getLength());
+					assertEquals(serial.getLength(), total);
+					progress.add(completed);
+				});
+
+		assertEquals(modID, rocket.getModID(), "sweep should not modify the rocket");
+		assertEquals(serial.getLength(), parallel.getLength());
+		assertEquals(serial.getLength(), progress.size());
+		assertEquals(serial.getLength(), (int) progress.get(progress.size() - 1));
+		assertEquals(serial.get(CADomainDataType.MACH), parallel.get(CADomainDataType.MACH));
+
+		for (CADataType type : new CADataType[] { CADataType.CP_X, CADataType.CNa, CADataType.TOTAL_CD,
+				CADataType.ROLL_DAMPING_COEFFICIENT }) {
+			for (RocketComponent component : rocket) {
+				assertEquals(serial.get(type, component), parallel.get(type, component),
+						type + " of " + component.getName());
+			}
+		}
+	}
+
+	@Test
+	public void testInterrupt() {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		CAParameters parameters = new CAParameters(rocket, 0);
+
+		for (int threadCount : new int[] { 1, 4 }) {
+			CAParameterSweep sweep = new CAParameterSweep(parameters, new BarrowmanCalculator(), rocket);
+			sweep.setThreadCount(threadCount);
+			Thread.currentThread().interrupt();
+			try {
+				CADataBranch branch = sweep.sweep(CADomainDataType.MACH, 0.1, 2.0, 0.1, 0.3);
+				assertEquals(0, branch.getLength(), "interrupted sweep with " + threadCount + " threads");
+			} finally {
+				assertTrue(Thread.interrupted(), "interrupt status should be preserved");
+			}
+		}
+	}
+}
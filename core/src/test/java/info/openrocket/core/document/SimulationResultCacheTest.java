@@ -0,0 +1,234 @@
+package info.openrocket.core.document;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.rocketcomponent.RocketComponent;
+import info.openrocket.core.simulation.FlightData;
+import info.openrocket.core.simulation.FlightDataBranch;
+import info.openrocket.core.simulation.FlightDataType;
+import info.openrocket.core.simulation.FlightEvent;
+import info.openrocket.core.simulation.SimulationStatus;
+import info.openrocket.core.simulation.listeners.AbstractSimulationListener;
+import info.openrocket.core.util.BaseTestCase;
+import info.openrocket.core.util.TestRockets;
+
+public class SimulationResultCacheTest extends BaseTestCase {
+
+	private static Simulation createSimulation() {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		Simulation simulation = new Simulation(rocket);
+		simulation.setFlightConfigurationId(TestRockets.TEST_FCID_0);
+		simulation.getOptions().setISAAtmosphere(true);
+		simulation.getOptions().setTimeStep(0.05);
+		return simulation;
+	}
+
+	private static String getKey(Simulation simulation) {
+		return SimulationResultCache.getKey(simulation, Collections.emptyList());
+	}
+
+	@Test
+	public void testKey() {
+		Simulation simulation = createSimulation();
+		String key = getKey(simulation);
+		assertEquals(key, getKey(simulation));
+
+		// The random seed affects the wind, so it is part of the key
+		simulation.getOptions().setRandomSeed(simulation.getOptions().getRandomSeed() + 1);
+		String seedKey = getKey(simulation);
+		assertNotEquals(key, seedKey);
+
+		simulation.getOptions().setLaunchRodLength(simulation.getOptions().getLaunchRodLength() + 0.1);
+		String optionsKey = getKey(simulation);
+		assertNotEquals(seedKey, optionsKey);
+
+		Rocket rocket = simulation.getRocket();
+		rocket.getChild(0).getChild(0).setName("Changed nose cone");
+		assertNotEquals(optionsKey, getKey(simulation));
+	}
+
+	@Test
+	public void testEviction() {
+		SimulationResultCache cache = new SimulationResultCache(2);
+		cache.put("a", new FlightData());
+		cache.put("b", new FlightData());
+		assertNotNull(cache.get("a", null));
+		cache.put("c", new FlightData());
+
+		assertEquals(2, cache.size());
+		assertNotNull(cache.get("a", null));
+		assertNull(cache.get("b", null));
+		assertNotNull(cache.get("c", null));
+	}
+
+	@Test
+	public void testSizeLimit() throws Exception {
+		Simulation simulation = createSimulation();
+		simulation.simulate();
+		FlightData data = simulation.getSimulatedData();
+
+		SimulationResultCache unlimited = new SimulationResultCache();
+		unlimited.put("a", data);
+		long size = unlimited.getSize();
+		assertTrue(size > 0);
+
+		// Only the most recently used results that fit are kept
+		SimulationResultCache cache = new SimulationResultCache(10, 2 * size);
+		cache.put("a", data);
+		cache.put("b", data);
+		assertNotNull(cache.get("a", simulation.getRocket()));
+		cache.put("c", data);
+		assertEquals(2, cache.size());
+		assertEquals(2 * size, cache.getSize());
+		assertNotNull(cache.get("a", simulation.getRocket()));
+		assertNull(cache.get("b", simulation.getRocket()));
+
+		// Results larger than the limit are not kept in memory
+		SimulationResultCache small = new SimulationResultCache(10, size - 1);
+		small.put("a", data);
+		assertEquals(0, small.size());
+		assertEquals(0, small.getSize());
+	}
+
+	@Test
+	public void testRestoreForOtherRocket() throws Exception {
+		SimulationResultCache cache = new SimulationResultCache();
+		Simulation simulation = createSimulation();
+		simulation.simulate(cache);
+		String key = getKey(simulation);
+
+		// The sources of the events are the components of the rocket the results are restored for,
+		// e.g. the copies that replace the components after undoing a change
+		Rocket copy = simulation.getRocket().copyWithOriginalID();
+		FlightData restored = cache.get(key, copy);
+		assertNotNull(restored);
+		int sources = 0;
+		for (FlightEvent event : restored.getBranch(0).getEvents()) {
+			RocketComponent source = event.getSource();
+			if (source != null) {
+				assertSame(copy.findComponent(source.getID()), source);
+				sources++;
+			}
+		}
+		assertTrue(sources > 0);
+
+		// Results with sources that are not in the rocket are not restored
+		assertNull(cache.get(key, TestRockets.makeEstesAlphaIII()));
+		assertEquals(1, cache.size());
+	}
+
+	@Test
+	public void testRestoreFromMemory() throws Exception {
+		SimulationResultCache cache = new SimulationResultCache();
+		AtomicInteger steps = new AtomicInteger();
+
+		Simulation simulation = createSimulation();
+		simulation.simulate(cache, new StepCounter(steps));
+		int simulatedSteps = steps.get();
+		FlightData first = simulation.getSimulatedData();
+		assertTrue(simulatedSteps > 0);
+		assertEquals(1, cache.size());
+		assertEquals(Simulation.Status.UPTODATE, simulation.getStatus());
+
+		simulation.simulate(cache, new StepCounter(steps));
+		assertEquals(simulatedSteps, steps.get());
+		FlightData restored = simulation.getSimulatedData();
+		assertNotSame(first, restored);
+		assertEquals(first.getMaxAltitude(), restored.getMaxAltitude(), 0);
+		assertEquals(first.getFlightTime(), restored.getFlightTime(), 0);
+		assertEquals(Simulation.Status.UPTODATE, simulation.getStatus());
+
+		// A changed simulation is simulated again
+		simulation.getOptions().setLaunchRodLength(simulation.getOptions().getLaunchRodLength() + 0.1);
+		simulation.simulate(cache, new StepCounter(steps));
+		assertTrue(steps.get() > simulatedSteps);
+		assertEquals(2, cache.size());
+	}
+
+	@Test
+	public void testRestoreFromDirectory() throws Exception {
+		File directory = Files.createTempDirectory("simulationResultCache").toFile();
+		SimulationResultCache cache = new SimulationResultCache();
+		cache.setDirectory(directory);
+		Simulation simulation = createSimulation();
+		simulation.simulate(cache);
+		FlightData data = simulation.getSimulatedData();
+		String key = getKey(simulation);
+		assertTrue(new File(directory, key + ".orsim").isFile());
+
+		// A new cache reads the results from the directory
+		SimulationResultCache other = new SimulationResultCache();
+		other.setDirectory(directory);
+		FlightData restored = other.get(key, simulation.getRocket());
+		assertNotNull(restored);
+
+		assertEquals(data.getBranchCount(), restored.getBranchCount());
+		assertEquals(data.getWarningSet().size(), restored.getWarningSet().size());
+		assertEquals(data.getMaxAltitude(), restored.getMaxAltitude(), 0);
+		assertEquals(data.getTimeToApogee(), restored.getTimeToApogee(), 0);
+		for (int b = 0; b < data.getBranchCount(); b++) {
+			FlightDataBranch expected = data.getBranch(b);
+			FlightDataBranch actual = restored.getBranch(b);
+			assertEquals(expected.getName(), actual.getName());
+			assertEquals(expected.getLength(), actual.getLength());
+			assertEquals(expected.get(FlightDataType.TYPE_ALTITUDE), actual.get(FlightDataType.TYPE_ALTITUDE));
+			assertEquals(expected.get(FlightDataType.TYPE_TIME), actual.get(FlightDataType.TYPE_TIME));
+
+			List<FlightEvent> expectedEvents = expected.getEvents();
+			List<FlightEvent> actualEvents = actual.getEvents();
+			assertEquals(expectedEvents.size(), actualEvents.size());
+			for (int i = 0; i < expectedEvents.size(); i++) {
+				assertEquals(expectedEvents.get(i).getType(), actualEvents.get(i).getType());
+				assertEquals(expectedEvents.get(i).getTime(), actualEvents.get(i).getTime(), 0);
+				RocketComponent expectedSource = expectedEvents.get(i).getSource();
+				RocketComponent actualSource = actualEvents.get(i).getSource();
+				if (expectedSource == null) {
+					assertNull(actualSource);
+				} else {
+					assertEquals(expectedSource.getID(), actualSource.getID());
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testInvalidFile() throws Exception {
+		File directory = Files.createTempDirectory("simulationResultCache").toFile();
+		File file = new File(directory, "invalid.orsim");
+		Files.writeString(file.toPath(), "not a result file");
+
+		SimulationResultCache cache = new SimulationResultCache();
+		cache.setDirectory(directory);
+		assertNull(cache.get("invalid", null));
+		assertFalse(file.exists());
+	}
+
+	private static class StepCounter extends AbstractSimulationListener {
+		private final AtomicInteger count;
+
+		private StepCounter(AtomicInteger count) {
+			this.count = count;
+		}
+
+		@Override
+		public void postStep(SimulationStatus status) {
+			count.incrementAndGet();
+		}
+	}
+}
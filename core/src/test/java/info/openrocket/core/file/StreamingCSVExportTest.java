@@ -0,0 +1,129 @@
+package info.openrocket.core.file;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.simulation.FlightData;
+import info.openrocket.core.simulation.FlightDataBranch;
+import info.openrocket.core.simulation.FlightDataType;
+import info.openrocket.core.simulation.FlightEvent;
+import info.openrocket.core.simulation.SimulationOptions;
+import info.openrocket.core.unit.Unit;
+import info.openrocket.core.util.BaseTestCase;
+import info.openrocket.core.util.TestRockets;
+
+public class StreamingCSVExportTest extends BaseTestCase {
+
+	private static final FlightDataType[] TYPES = {
+			FlightDataType.TYPE_TIME,
+			FlightDataType.TYPE_ALTITUDE,
+			FlightDataType.TYPE_VELOCITY_Z
+	};
+
+	private static Simulation createSimulation(Rocket rocket, String name, int length) {
+		FlightDataBranch branch = new FlightDataBranch("Sustainer", TYPES);
+		for (int i = 0; i < length; i++) {
+			double t = i * 0.01;
+			branch.addPoint();
+			branch.setValue(FlightDataType.TYPE_TIME, t);
+			branch.setValue(FlightDataType.TYPE_ALTITUDE, 120 * t - 4.905 * t * t);
+			branch.setValue(FlightDataType.TYPE_VELOCITY_Z, 120 - 9.81 * t);
+		}
+		branch.addEvent(new FlightEvent(FlightEvent.Type.LAUNCH, 0, rocket));
+		branch.addEvent(new FlightEvent(FlightEvent.Type.APOGEE, length * 0.005, rocket));
+		return new Simulation(null, rocket, Simulation.Status.LOADED, name, new SimulationOptions(),
+				new ArrayList<>(), new FlightData(branch));
+	}
+
+	private static List<Simulation> createSimulations() {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		List<Simulation> simulations = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			simulations.add(createSimulation(rocket, "Simulation " + i, 500 + 100 * i));
+		}
+		simulations.add(createSimulation(rocket, "Quoted, \"name\"", 10));
+		return simulations;
+	}
+
+	private static String read(File file, boolean compressed) throws IOException {
+		try (InputStream is = compressed ? new GZIPInputStream(new FileInputStream(file)) : new FileInputStream(file)) {
+			return new String(is.readAllBytes(), StandardCharsets.UTF_8);
+		}
+	}
+
+	@Test
+	public void testSeparateMatchesCSVExport() throws IOException {
+		List<Simulation> simulations = createSimulations();
+		File directory = Files.createTempDirectory("streamingCSVExport").toFile();
+
+		StreamingCSVExport export = new StreamingCSVExport();
+		export.setThreadCount(3);
+		List<File> files = export.exportSeparate(simulations, directory);
+		assertEquals(simulations.size(), files.size());
+
+		for (int i = 0; i < simulations.size(); i++) {
+			Simulation simulation = simulations.get(i);
+			FlightDataBranch branch = simulation.getSimulatedData().getBranch(0);
+			FlightDataType[] types = branch.getTypes();
+			Unit[] units = new Unit[types.length];
+			for (int j = 0; j < types.length; j++) {
+				units[j] = types[j].getUnitGroup().getSIUnit();
+			}
+
+			ByteArrayOutputStream expected = new ByteArrayOutputStream();
+			CSVExport.exportCSV(expected, simulation, branch, types, units, ",", 3, false, "#",
+					true, true, true);
+			assertEquals(expected.toString(StandardCharsets.UTF_8), read(files.get(i), false));
+		}
+	}
+
+	@Test
+	public void testCombined() throws IOException {
+		List<Simulation> simulations = createSimulations();
+		File file = Files.createTempFile("streamingCSVExport", ".csv.gz").toFile();
+
+		Unit[] units = new Unit[TYPES.length];
+		StringBuilder header = new StringBuilder("# Simulation,Branch");
+		for (int i = 0; i < TYPES.length; i++) {
+			units[i] = TYPES[i].getUnitGroup().getSIUnit();
+			header.append(',').append(TYPES[i].getName()).append(" (").append(units[i].getUnit()).append(')');
+		}
+
+		StreamingCSVExport export = new StreamingCSVExport();
+		export.setFields(TYPES, units);
+		export.setEventComments(false);
+		export.setCompressed(true);
+		export.setThreadCount(4);
+		export.exportCombined(simulations, file);
+
+		String[] lines = read(file, true).split(System.lineSeparator());
+		assertEquals(header.toString(), lines[0]);
+
+		int line = 1;
+		for (Simulation simulation : simulations) {
+			FlightDataBranch branch = simulation.getSimulatedData().getBranch(0);
+			String name = simulation.getName().contains(",") ? "\"Quoted, \"\"name\"\"\"" : simulation.getName();
+			for (int i = 0; i < branch.getLength(); i++) {
+				assertTrue(lines[line].startsWith(name + ",Sustainer,"), lines[line]);
+				line++;
+			}
+		}
+		assertEquals(lines.length, line);
+		assertEquals("Simulation 0,Sustainer,0.01,1.2,119.902", lines[2]);
+	}
+}
@@ -0,0 +1,180 @@
+package info.openrocket.core.file.openrocket;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.simulation.DataColumn;
+import info.openrocket.core.simulation.FlightDataBranch;
+import info.openrocket.core.simulation.FlightDataType;
+import info.openrocket.core.util.BaseTestCase;
+
+public class FlightDataBinaryCodecTest extends BaseTestCase {
+
+	private static final FlightDataType[] TYPES = {
+			FlightDataType.TYPE_TIME,
+			FlightDataType.TYPE_ALTITUDE,
+			FlightDataType.TYPE_VELOCITY_Z,
+			FlightDataType.TYPE_WIND_VELOCITY
+	};
+
+	private static FlightDataBranch createBranch(int length) {
+		FlightDataBranch branch = new FlightDataBranch("Test", TYPES);
+		for (int i = 0; i < length; i++) {
+			double t = i * 0.01;
+			branch.addPoint();
+			branch.setValue(FlightDataType.TYPE_TIME, t);
+			branch.setValue(FlightDataType.TYPE_ALTITUDE, 120 * t - 4.905 * t * t);
+			branch.setValue(FlightDataType.TYPE_VELOCITY_Z, 120 - 9.81 * t);
+			branch.setValue(FlightDataType.TYPE_WIND_VELOCITY, 2 + Math.sin(i * 1.7) + Math.cos(i * 0.31));
+		}
+		return branch;
+	}
+
+	private static byte[] encode(FlightDataBranch branch) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		FlightDataBinaryCodec.write(out, branch, TYPES);
+		return out.toByteArray();
+	}
+
+	private static DataColumn encodeAndDecode(double[] values) throws IOException {
+		FlightDataBranch branch = new FlightDataBranch("Special", FlightDataType.TYPE_TIME);
+		for (double value : values) {
+			branch.addPoint();
+			branch.setValue(FlightDataType.TYPE_TIME, value);
+		}
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		FlightDataType[] types = { FlightDataType.TYPE_TIME };
+		FlightDataBinaryCodec.write(out, branch, types);
+		return FlightDataBinaryCodec.read(new ByteArrayInputStream(out.toByteArray()), types)
+				.get(FlightDataType.TYPE_TIME);
+	}
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		FlightDataBranch branch = createBranch(2000);
+		byte[] bytes = encode(branch);
+
+		// Much smaller than the 8 bytes per value of the raw data
+		assertTrue(bytes.length < 2000 * TYPES.length * 4, "Encoded size " + bytes.length);
+
+		Map<FlightDataType, DataColumn> columns = FlightDataBinaryCodec.read(new ByteArrayInputStream(bytes), TYPES);
+		assertEquals(TYPES.length, columns.size());
+		for (FlightDataType type : TYPES) {
+			DataColumn column = columns.get(type);
+			assertEquals(branch.getLength(), column.size());
+			for (int i = 0; i < column.size(); i++) {
+				double expected = branch.getByIndex(type, i);
+				assertEquals(expected, column.get(i), Math.abs(expected) * 1e-7, type + " at " + i);
+			}
+			assertEquals(branch.getMaximum(type), column.getMaximum(), Math.abs(branch.getMaximum(type)) * 1e-7);
+		}
+	}
+
+	@Test
+	public void testSpecialValues() throws IOException {
+		double[] values = { 0, -0.0, Double.NaN, 1e-300, -1e300, -3.5, 3.5, 1 };
+		DataColumn column = encodeAndDecode(values);
+
+		assertEquals(values.length, column.size());
+		for (int i = 0; i < values.length; i++) {
+			if (Double.isNaN(values[i])) {
+				assertTrue(Double.isNaN(column.get(i)));
+			} else {
+				assertEquals(values[i], column.get(i), Math.abs(values[i]) * 1e-7);
+			}
+		}
+		assertEquals(-1e300, column.getMinimum(), 1e293);
+		assertEquals(3.5, column.getMaximum(), 0);
+	}
+
+	@Test
+	public void testExtremeValues() throws IOException {
+		// Infinite values are stored exactly, while the largest finite values must not round to infinity
+		double[] values = { Double.MAX_VALUE, -Double.MAX_VALUE, Math.nextDown(Double.MAX_VALUE),
+				Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY };
+		DataColumn column = encodeAndDecode(values);
+
+		assertEquals(values.length, column.size());
+		for (int i = 0; i < values.length; i++) {
+			if (Double.isInfinite(values[i])) {
+				assertEquals(values[i], column.get(i), 0);
+			} else {
+				assertTrue(Double.isFinite(column.get(i)), "value " + values[i] + " became " + column.get(i));
+				assertEquals(values[i], column.get(i), Math.abs(values[i]) * 1e-7);
+			}
+		}
+	}
+
+	@Test
+	public void testEmptyBranch() throws IOException {
+		byte[] bytes = encode(createBranch(0));
+		Map<FlightDataType, DataColumn> columns = FlightDataBinaryCodec.read(new ByteArrayInputStream(bytes), TYPES);
+		for (FlightDataType type : TYPES) {
+			assertTrue(columns.get(type).isEmpty());
+		}
+	}
+
+	@Test
+	public void testInvalidData() throws IOException {
+		byte[] bytes = encode(createBranch(10));
+
+		FlightDataType[] fewerTypes = { FlightDataType.TYPE_TIME };
+		assertThrows(IOException.class,
+				() -> FlightDataBinaryCodec.read(new ByteArrayInputStream(bytes), fewerTypes));
+
+		byte[] truncated = new byte[bytes.length / 2];
+		System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+		assertThrows(IOException.class,
+				() -> FlightDataBinaryCodec.read(new ByteArrayInputStream(truncated), TYPES));
+
+		byte[] corrupt = bytes.clone();
+		corrupt[0] = '<';
+		assertThrows(IOException.class,
+				() -> FlightDataBinaryCodec.read(new ByteArrayInputStream(corrupt), TYPES));
+	}
+
+	@Test
+	public void testDeferredLoading() throws IOException {
+		FlightDataBranch source = createBranch(100);
+		byte[] bytes = encode(source);
+
+		int[] reads = { 0 };
+		FlightDataBranch branch = new FlightDataBranch("Deferred", TYPES);
+		branch.setValueSource(() -> {
+			reads[0]++;
+			return FlightDataBinaryCodec.read(new ByteArrayInputStream(bytes), TYPES);
+		});
+		branch.immute();
+
+		assertTrue(branch.hasDeferredValues());
+		assertEquals(0, reads[0]);
+
+		assertEquals(100, branch.getLength());
+		assertFalse(branch.hasDeferredValues());
+		assertEquals(source.getLast(FlightDataType.TYPE_ALTITUDE), branch.getLast(FlightDataType.TYPE_ALTITUDE), 1e-5);
+		assertEquals(source.getMaximum(FlightDataType.TYPE_ALTITUDE), branch.getMaximum(FlightDataType.TYPE_ALTITUDE), 1e-5);
+		assertEquals(1, reads[0]);
+	}
+
+	@Test
+	public void testDeferredLoadingFailure() {
+		FlightDataBranch branch = new FlightDataBranch("Missing", TYPES);
+		branch.setValueSource(() -> {
+			throw new IOException("Missing entry");
+		});
+		branch.immute();
+
+		assertEquals(0, branch.getLength());
+		assertEquals(Double.NaN, branch.getLast(FlightDataType.TYPE_TIME), 0);
+	}
+}
@@ -2,6 +2,7 @@ package info.openrocket.core.file.openrocket;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.fail;
@@ -13,7 +14,9 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.List;
 
 import info.openrocket.core.ServicesForTesting;
 import info.openrocket.core.database.ComponentPresetDao;
@@ -24,7 +27,9 @@ import info.openrocket.core.document.OpenRocketDocument;
 import info.openrocket.core.document.OpenRocketDocumentFactory;
 import info.openrocket.core.document.Simulation;
 import info.openrocket.core.document.StorageOptions;
+import info.openrocket.core.document.StorageOptions.FlightDataFormat;
 import info.openrocket.core.file.GeneralRocketLoader;
+import info.openrocket.core.file.GeneralRocketSaver;
 import info.openrocket.core.file.RocketLoadException;
 import info.openrocket.core.file.motor.GeneralMotorLoader;
 import info.openrocket.core.l10n.DebugTranslator;
@@ -38,6 +43,10 @@ import info.openrocket.core.plugin.PluginModule;
 import info.openrocket.core.rocketcomponent.BodyTube;
 import info.openrocket.core.rocketcomponent.FlightConfiguration;
 import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.simulation.FlightData;
+import info.openrocket.core.simulation.FlightDataBranch;
+import info.openrocket.core.simulation.FlightDataType;
+import info.openrocket.core.simulation.SimulationStepperMethod;
 import info.openrocket.core.simulation.extension.impl.ScriptingExtension;
 import info.openrocket.core.simulation.extension.impl.ScriptingUtil;
 import info.openrocket.core.startup.Application;
@@ -327,6 +336,91 @@ public class OpenRocketSaverTest {
 		assertEquals(Simulation.Status.OUTDATED, rocketDocLoaded.getSimulations().get(3).getStatus());
 	}
 	
+	/**
+	 * Test storing the simulated data as binary entries, which are loaded once accessed.
+	 */
+	@Test
+	public void testBinaryFlightData() throws Exception {
+		OpenRocketDocument rocketDoc = makeSimulatedDocument();
+		Simulation sim = rocketDoc.getSimulations().get(0);
+		
+		StorageOptions options = new StorageOptions();
+		options.setSaveSimulationData(true);
+		options.setFlightDataFormat(FlightDataFormat.BINARY);
+		
+		File file = File.createTempFile(TMP_DIR.getName(), ".ork");
+		new GeneralRocketSaver().save(file, rocketDoc, options);
+		OpenRocketDocument rocketDocLoaded = loadRocket(file.getPath());
+		
+		assertEquals(FlightDataFormat.BINARY, rocketDocLoaded.getDefaultStorageOptions().getFlightDataFormat());
+		Simulation simLoaded = rocketDocLoaded.getSimulations().get(0);
+		assertEquals(Simulation.Status.LOADED, simLoaded.getStatus());
+		
+		// The entries are read when the file is opened, and decoded once accessed
+		assertTrue(file.delete());
+		assertDeferredFlightDataEquals(sim.getSimulatedData(), simLoaded.getSimulatedData(), 1e-6, 0);
+	}
+	
+	/**
+	 * Test that the data points of text flight data are parsed only once accessed.
+	 */
+	@Test
+	public void testDeferredFlightData() throws Exception {
+		OpenRocketDocument rocketDoc = makeSimulatedDocument();
+		Simulation sim = rocketDoc.getSimulations().get(0);
+		
+		StorageOptions options = new StorageOptions();
+		options.setSaveSimulationData(true);
+		File file = saveRocket(rocketDoc, options);
+		
+		OpenRocketDocument rocketDocLoaded = loadRocket(file.getPath());
+		Simulation simLoaded = rocketDocLoaded.getSimulations().get(0);
+		assertEquals(Simulation.Status.LOADED, simLoaded.getStatus());
+		assertEquals(FlightDataFormat.TEXT, rocketDocLoaded.getDefaultStorageOptions().getFlightDataFormat());
+		
+		// Clones share the deferred data
+		FlightData clone = simLoaded.getSimulatedData().clone();
+		assertTrue(clone.getBranch(0).hasDeferredValues());
+		
+		// Values are stored with three decimal places
+		assertDeferredFlightDataEquals(sim.getSimulatedData(), simLoaded.getSimulatedData(), 1e-3, 1e-3);
+		assertEquals(sim.getSimulatedData().getBranch(0).getLength(), clone.getBranch(0).getLength());
+		
+		// Data is loaded from the contents of the file when it was opened
+		OpenRocketDocument changedDoc = loadRocket(file.getPath());
+		assertTrue(file.delete());
+		FlightDataBranch branch = changedDoc.getSimulations().get(0).getSimulatedData().getBranch(0);
+		assertEquals(sim.getSimulatedData().getBranch(0).getLength(), branch.getLength());
+		assertNull(branch.getLoadError());
+	}
+	
+	/**
+	 * Test that the stepper method is only stored when it is not the default.
+	 */
+	@Test
+	public void testStepperMethod() throws Exception {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		OpenRocketDocument rocketDoc = OpenRocketDocumentFactory.createDocumentFromRocket(rocket);
+		Simulation sim = new Simulation(rocket);
+		rocketDoc.addSimulation(sim);
+		StorageOptions options = new StorageOptions();
+		
+		File file = saveRocket(rocketDoc, options);
+		assertFalse(Files.readString(file.toPath()).contains("<steppermethod>"));
+		OpenRocketDocument rocketDocLoaded = loadRocket(file.getPath());
+		assertEquals(SimulationStepperMethod.RK4,
+				rocketDocLoaded.getSimulations().get(0).getOptions().getStepperMethod());
+		file.delete();
+		
+		sim.getOptions().setStepperMethod(SimulationStepperMethod.RK45);
+		file = saveRocket(rocketDoc, options);
+		assertTrue(Files.readString(file.toPath()).contains("<steppermethod>rk45</steppermethod>"));
+		rocketDocLoaded = loadRocket(file.getPath());
+		assertEquals(SimulationStepperMethod.RK45,
+				rocketDocLoaded.getSimulations().get(0).getOptions().getStepperMethod());
+		file.delete();
+	}
+	
 	////////////////////////////////
 	// Tests for File Version 1.10 //
 	////////////////////////////////
@@ -343,6 +437,52 @@ public class OpenRocketSaverTest {
 	 * Utility Functions
 	 */
 	
+	private static OpenRocketDocument makeSimulatedDocument() throws Exception {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		OpenRocketDocument rocketDoc = OpenRocketDocumentFactory.createDocumentFromRocket(rocket);
+		Simulation sim = new Simulation(rocket);
+		sim.getOptions().setISAAtmosphere(true);
+		sim.getOptions().setTimeStep(0.05);
+		sim.setFlightConfigurationId(TestRockets.TEST_FCID_0);
+		sim.simulate();
+		rocketDoc.addSimulation(sim);
+		return rocketDoc;
+	}
+	
+	/**
+	 * Check that loaded flight data matches the original data, and that the data points
+	 * of the loaded data are loaded only once accessed.
+	 */
+	private static void assertDeferredFlightDataEquals(FlightData expected, FlightData actual, double relativeTolerance,
+			double absoluteTolerance) {
+		assertEquals(expected.getMaxAltitude(), actual.getMaxAltitude(), 1e-3 * expected.getMaxAltitude());
+		assertEquals(expected.getBranchCount(), actual.getBranchCount());
+		
+		for (int b = 0; b < expected.getBranchCount(); b++) {
+			FlightDataBranch expectedBranch = expected.getBranch(b);
+			FlightDataBranch actualBranch = actual.getBranch(b);
+			
+			assertTrue(actualBranch.hasDeferredValues());
+			assertEquals(expectedBranch.getEvents().size(), actualBranch.getEvents().size());
+			assertEquals(expectedBranch.getLength(), actualBranch.getLength());
+			assertFalse(actualBranch.hasDeferredValues());
+			
+			for (FlightDataType type : expectedBranch.getTypes()) {
+				List<Double> expectedValues = expectedBranch.get(type);
+				List<Double> actualValues = actualBranch.get(type);
+				for (int i = 0; i < expectedValues.size(); i++) {
+					double value = expectedValues.get(i);
+					if (Double.isNaN(value)) {
+						assertTrue(Double.isNaN(actualValues.get(i)), type + " at " + i);
+					} else {
+						assertEquals(value, actualValues.get(i),
+								relativeTolerance * Math.abs(value) + absoluteTolerance, type + " at " + i);
+					}
+				}
+			}
+		}
+	}
+	
 	private int getCalculatedFileVersion(OpenRocketDocument rocketDoc) {
 		int fileVersion = this.saver.testAccessor_calculateNecessaryFileVersion(rocketDoc, null);
 		return fileVersion;
@@ -0,0 +1,92 @@
+package info.openrocket.core.file.openrocket.importt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.simulation.DataBranch;
+import info.openrocket.core.simulation.DataColumn;
+import info.openrocket.core.simulation.FlightDataBranch;
+import info.openrocket.core.simulation.FlightDataType;
+import info.openrocket.core.util.BaseTestCase;
+
+public class FlightDataBranchLoaderTest extends BaseTestCase {
+
+	private static final String DOCUMENT = """
+			<openrocket version="1.10">
+			<rocket><name>Rocket</name></rocket>
+			<simulations>
+			<simulation><name>First</name><flightdata>
+			<databranch name="Sustainer" types="Time,Altitude"><datapoint>0,1</datapoint><datapoint>1,2</datapoint></databranch>
+			<databranch name="Booster" types="Time,Altitude"><datapoint>0,3</datapoint></databranch>
+			</flightdata></simulation>
+			<simulation><name>Second</name><flightdata>
+			<databranch name="Sustainer" types="Time,Altitude"><datapoint>0,5</datapoint><datapoint>1,6</datapoint><datapoint>2,7</datapoint></databranch>
+			</flightdata></simulation>
+			</simulations>
+			</openrocket>
+			""";
+
+	private static final FlightDataType[] TYPES = { FlightDataType.TYPE_TIME, FlightDataType.TYPE_ALTITUDE };
+
+	private int opened = 0;
+
+	private FlightDataBranchLoader createLoader() {
+		return new FlightDataBranchLoader(() -> {
+			opened++;
+			return new ByteArrayInputStream(DOCUMENT.getBytes(StandardCharsets.UTF_8));
+		});
+	}
+
+	@Test
+	public void testAllBranchesInOnePass() throws Exception {
+		FlightDataBranchLoader loader = createLoader();
+		DataBranch.ValueSource<FlightDataType> first = loader.addBranch(0, 0, TYPES);
+		DataBranch.ValueSource<FlightDataType> booster = loader.addBranch(0, 1, TYPES);
+		DataBranch.ValueSource<FlightDataType> second = loader.addBranch(1, 0, TYPES);
+
+		assertValues(List.of(5.0, 6.0, 7.0), second.read());
+		assertValues(List.of(1.0, 2.0), first.read());
+		assertValues(List.of(3.0), booster.read());
+		assertEquals(1, opened);
+
+		// A source shared by a clone of a branch reads the branch again
+		assertValues(List.of(1.0, 2.0), first.read());
+		assertEquals(2, opened);
+	}
+
+	@Test
+	public void testMissingBranch() {
+		FlightDataBranchLoader loader = createLoader();
+		FlightDataBranch branch = new FlightDataBranch("Missing", TYPES);
+		branch.setValueSource(loader.addBranch(2, 0, TYPES));
+		FlightDataBranch existing = new FlightDataBranch("Sustainer", TYPES);
+		existing.setValueSource(loader.addBranch(1, 0, TYPES));
+
+		assertEquals(0, branch.getLength());
+		assertNotNull(branch.getLoadError());
+		assertTrue(branch.getLoadError().getMessage().contains("not found"));
+
+		// The other branches are still loaded
+		assertEquals(3, existing.getLength());
+		assertNull(existing.getLoadError());
+		assertEquals(1, opened);
+	}
+
+	private static void assertValues(List<Double> expected, Map<FlightDataType, DataColumn> columns) {
+		DataColumn altitude = columns.get(FlightDataType.TYPE_ALTITUDE);
+		assertEquals(expected.size(), altitude.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i), altitude.get(i), 0);
+			assertEquals(i, columns.get(FlightDataType.TYPE_TIME).get(i), 0);
+		}
+	}
+}
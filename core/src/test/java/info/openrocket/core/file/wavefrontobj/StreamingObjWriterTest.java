@@ -0,0 +1,58 @@
+package info.openrocket.core.file.wavefrontobj;
+
+import de.javagl.obj.Obj;
+import de.javagl.obj.ObjFace;
+import de.javagl.obj.ObjReader;
+import info.openrocket.core.util.BaseTestCase;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class StreamingObjWriterTest extends BaseTestCase {
+    public static final float EPSILON = 0.0001f;
+
+    private static DefaultObj createTriangle(String groupName, float z) {
+        DefaultObj obj = new DefaultObj();
+        obj.setActiveGroupNames(groupName);
+        obj.setActiveMaterialGroupName("mat_" + groupName);
+        obj.addVertex(0.0f, 0.0f, z);
+        obj.addVertex(1.0f, 0.0f, z);
+        obj.addVertex(0.0f, 1.0f, z);
+        obj.addNormal(0.0f, 0.0f, 1.0f);
+        obj.addFace(new int[] {0, 1, 2}, null, new int[] {0, 0, 0});
+        return obj;
+    }
+
+    @Test
+    public void testIndexOffsets() throws IOException {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        try (StreamingObjWriter writer = new StreamingObjWriter(os, List.of("rocket.mtl"))) {
+            writer.write(createTriangle("1_Nose_cone", 0.0f));
+            writer.write(createTriangle("2_Body_tube", 2.0f));
+            assertEquals(6, writer.getNumVertices());
+            assertEquals(2, writer.getNumNormals());
+            assertEquals(2, writer.getNumFaces());
+        }
+
+        String text = os.toString();
+        assertTrue(text.startsWith("mtllib rocket.mtl\n"), text);
+        assertTrue(text.contains("f 4//2 5//2 6//2\n"), text);
+
+        Obj obj = ObjReader.read(new ByteArrayInputStream(os.toByteArray()));
+        assertEquals(6, obj.getNumVertices());
+        assertEquals(2, obj.getNumFaces());
+        assertEquals(1, obj.getGroup("2_Body_tube").getNumFaces());
+        assertEquals(1, obj.getMaterialGroup("mat_2_Body_tube").getNumFaces());
+
+        ObjFace face = obj.getGroup("2_Body_tube").getFace(0);
+        assertEquals(2.0f, obj.getVertex(face.getVertexIndex(0)).getZ(), EPSILON);
+        assertEquals(1.0f, obj.getVertex(face.getVertexIndex(1)).getX(), EPSILON);
+        assertEquals(1, face.getNormalIndex(2));
+    }
+}
@@ -5,11 +5,15 @@ import com.google.inject.Guice;
 import com.google.inject.Injector;
 import com.google.inject.Module;
 import com.google.inject.util.Modules;
+import de.javagl.obj.FloatTuple;
+import de.javagl.obj.Obj;
+import de.javagl.obj.ObjReader;
 import info.openrocket.core.ServicesForTesting;
 import info.openrocket.core.database.ComponentPresetDao;
 import info.openrocket.core.database.motor.MotorDatabase;
 import info.openrocket.core.document.OpenRocketDocumentFactory;
 import info.openrocket.core.file.openrocket.OpenRocketSaverTest;
+import info.openrocket.core.file.wavefrontobj.FloatTupleBounds;
 import info.openrocket.core.file.wavefrontobj.ObjUtils;
 import info.openrocket.core.l10n.DebugTranslator;
 import info.openrocket.core.l10n.Translator;
@@ -34,6 +38,7 @@ import org.junit.jupiter.api.Test;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
@@ -205,4 +210,41 @@ public class OBJExporterFactoryTest {
         // Clean up
         Files.delete(tempFile);
     }
+
+    @Test
+    public void testRemoveOffsetSingleFile() throws IOException {
+        Rocket rocket = OpenRocketDocumentFactory.createNewRocket().getRocket();
+        AxialStage sustainer = rocket.getStage(0);
+        NoseCone noseCone = new NoseCone();
+        sustainer.addChild(noseCone);
+        BodyTube bodyTube = new BodyTube();
+        sustainer.addChild(bodyTube);
+        TrapezoidFinSet finSet = new TrapezoidFinSet();
+        bodyTube.addChild(finSet);
+
+        Path tempFile = Files.createTempFile("testExport", ".obj");
+        OBJExportOptions options = new OBJExportOptions(rocket);
+        options.setExportChildren(true);
+        options.setRemoveOffset(true);
+        options.setScaling(10);
+        WarningSet warnings = new WarningSet();
+        new OBJExporterFactory(List.of(rocket), rocket.getSelectedConfiguration(), tempFile.toFile(), options, warnings)
+                .doExport();
+
+        // The meshes of all components share the offset, which moves the rocket bottom to the origin
+        Obj obj;
+        try (InputStream is = Files.newInputStream(tempFile)) {
+            obj = ObjReader.read(is);
+        }
+        FloatTupleBounds bounds = new FloatTupleBounds();
+        for (int i = 0; i < obj.getNumVertices(); i++) {
+            bounds.updateBounds(obj.getVertex(i));
+        }
+        FloatTuple offset = ObjUtils.getVertexOffset(bounds, options.getTransformer());
+        assertEquals(0, offset.getX(), 1e-4);
+        assertEquals(0, offset.getY(), 1e-4);
+        assertEquals(0, offset.getZ(), 1e-4);
+
+        Files.delete(tempFile);
+    }
 }
@@ -1,6 +1,8 @@
 package info.openrocket.core.masscalc;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 import java.util.List;
 
@@ -277,6 +279,104 @@ public class MassCalculatorTest extends BaseTestCase {
 		}
 	}
 	
+	@Test
+	public void testIncrementalSimulationMass() {
+		Rocket rocket = TestRockets.makeFalcon9Heavy();
+		FlightConfiguration config = rocket
+				.getFlightConfiguration(new FlightConfigurationId(TestRockets.FALCON_9H_FCID_1));
+		config.setAllStages();
+
+		SimulationStatus status = new SimulationStatus(config, new SimulationConditions());
+		for (MotorClusterState motorState : status.getMotors()) {
+			motorState.ignite(0.5);
+		}
+
+		MassCalculator calculator = new MassCalculator();
+		for (double simTime = 0; simTime < 10; simTime += 0.37) {
+			status.setSimulationTime(simTime);
+			MassCalculator.checkParity("structure", calculator.getStructureMass(status),
+					MassCalculator.calculateStructure(config));
+			MassCalculator.checkParity("motor", calculator.getMotorMass(status), MassCalculator.calculateMotor(status));
+		}
+
+		// Stage separation
+		config.clearStage(TestRockets.FALCON_9H_BOOSTER_STAGE_NUMBER);
+		status.setSimulationTime(3.0);
+		MassCalculator.checkParity("structure", calculator.getStructureMass(status),
+				MassCalculator.calculateStructure(config));
+		MassCalculator.checkParity("motor", calculator.getMotorMass(status), MassCalculator.calculateMotor(status));
+
+		// Change of the rocket
+		final double structureMass = calculator.getStructureMass(status).getMass();
+		MassComponent mass = new MassComponent();
+		mass.setComponentMass(0.1);
+		rocket.getChild(0).getChild(1).addChild(mass);
+		assertEquals(structureMass + 0.1, calculator.getStructureMass(status).getMass(), EPSILON);
+		MassCalculator.checkParity("structure", calculator.getStructureMass(status),
+				MassCalculator.calculateStructure(config));
+	}
+
+	@Test
+	public void testCachedSimulationMass() {
+		Rocket rocket = TestRockets.makeFalcon9Heavy();
+		FlightConfiguration config = rocket
+				.getFlightConfiguration(new FlightConfigurationId(TestRockets.FALCON_9H_FCID_1));
+		config.setAllStages();
+
+		// Overrides that depend on the mass of the subcomponents
+		AxialStage coreStage = (AxialStage) rocket.getChild(TestRockets.FALCON_9H_CORE_STAGE_NUMBER);
+		coreStage.setMassOverridden(true);
+		coreStage.setSubcomponentsOverriddenMass(true);
+		coreStage.setOverrideMass(1.5);
+		coreStage.setCGOverridden(true);
+		coreStage.setOverrideCGX(0.4);
+
+		SimulationStatus status = new SimulationStatus(config, new SimulationConditions());
+		for (MotorClusterState motorState : status.getMotors()) {
+			motorState.ignite(0.5);
+		}
+
+		MassCalculator calculator = new MassCalculator();
+		for (double simTime = 0; simTime < 10; simTime += 0.37) {
+			status.setSimulationTime(simTime);
+			MassCalculator.checkParity("structure", calculator.getStructureMass(status),
+					MassCalculator.calculateStructure(config));
+			MassCalculator.checkParity("motor", calculator.getMotorMass(status), MassCalculator.calculateMotor(status));
+		}
+
+		// Stage separation
+		config.clearStage(TestRockets.FALCON_9H_BOOSTER_STAGE_NUMBER);
+		status.setSimulationTime(3.0);
+		MassCalculator.checkParity("structure", calculator.getStructureMass(status),
+				MassCalculator.calculateStructure(config));
+		MassCalculator.checkParity("motor", calculator.getMotorMass(status), MassCalculator.calculateMotor(status));
+
+		// The separated boosters
+		FlightConfiguration boosterConfig = config.clone();
+		boosterConfig.setOnlyStage(TestRockets.FALCON_9H_BOOSTER_STAGE_NUMBER);
+		SimulationStatus boosterStatus = new SimulationStatus(status);
+		boosterStatus.setConfiguration(boosterConfig);
+		MassCalculator.checkParity("structure", calculator.getStructureMass(boosterStatus),
+				MassCalculator.calculateStructure(boosterConfig));
+		MassCalculator.checkParity("motor", calculator.getMotorMass(boosterStatus),
+				MassCalculator.calculateMotor(boosterStatus));
+
+		// A later simulation of the same rocket uses a clone of the configuration and reuses the cache
+		final RigidBody structure = calculator.getStructureMass(status);
+		SimulationStatus nextStatus = new SimulationStatus(status);
+		assertNotSame(config, nextStatus.getConfiguration());
+		assertSame(structure, calculator.getStructureMass(nextStatus));
+
+		// The cache is discarded when the rocket changes
+		final double structureMass = calculator.getStructureMass(status).getMass();
+		MassComponent mass = new MassComponent();
+		mass.setComponentMass(0.1);
+		rocket.getChild(0).getChild(1).addChild(mass);
+		assertEquals(structureMass + 0.1, calculator.getStructureMass(status).getMass(), EPSILON);
+		MassCalculator.checkParity("structure", calculator.getStructureMass(status),
+				MassCalculator.calculateStructure(config));
+	}
+
 	@Test
 	public void testStageCMxOverride() {
 		final Rocket rocket = TestRockets.makeSimple2Stage();
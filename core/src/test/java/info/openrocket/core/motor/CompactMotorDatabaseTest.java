@@ -0,0 +1,159 @@
+package info.openrocket.core.motor;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.util.Coordinate;
+
+public class CompactMotorDatabaseTest {
+
+	private final ThrustCurveMotor motorX6 = new ThrustCurveMotor.Builder()
+			.setManufacturer(Manufacturer.getManufacturer("foo"))
+			.setDesignation("X6")
+			.setDescription("Description of X6")
+			.setMotorType(Motor.Type.RELOAD)
+			.setStandardDelays(new double[] { 0, 2, Motor.PLUGGED_DELAY })
+			.setDiameter(0.05)
+			.setLength(0.10)
+			.setTimePoints(new double[] { 0, 1, 3, 4 })
+			.setThrustPoints(new double[] { 0, 2, 3, 0 })
+			.setCGPoints(new Coordinate[] {
+					new Coordinate(0.02, 0, 0, 0.05),
+					new Coordinate(0.02, 0, 0, 0.05),
+					new Coordinate(0.02, 0, 0, 0.05),
+					new Coordinate(0.03, 0, 0, 0.03) })
+			.setDigest("digestA")
+			.build();
+
+	private final ThrustCurveMotor motorA8 = new ThrustCurveMotor.Builder()
+			.setManufacturer(Manufacturer.getManufacturer("Estes"))
+			.setDesignation("A8-3")
+			.setDescription("A8 Test Motor")
+			.setMotorType(Motor.Type.SINGLE)
+			.setStandardDelays(new double[] { 3 })
+			.setDiameter(0.018)
+			.setLength(0.07)
+			.setTimePoints(new double[] { 0, 0.1, 0.2, 0.73 })
+			.setThrustPoints(new double[] { 0, 9.7, 2.3, 0 })
+			.setCGPoints(new Coordinate[] {
+					new Coordinate(0.035, 0, 0, 0.0164),
+					new Coordinate(0.036, 0, 0, 0.0160),
+					new Coordinate(0.037, 0, 0, 0.0155),
+					new Coordinate(0.040, 0, 0, 0.0131) })
+			.setDigest("digestB")
+			.build();
+
+	private byte[] write(ThrustCurveMotor... motors) throws IOException {
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		CompactMotorDatabase.write(Arrays.asList(motors), os);
+		return os.toByteArray();
+	}
+
+	@Test
+	public void testIndex() throws IOException {
+		CompactMotorDatabase database = CompactMotorDatabase.read(new ByteArrayInputStream(write(motorX6, motorA8)));
+
+		assertEquals(2, database.size());
+		assertEquals(Manufacturer.getManufacturer("foo"), database.getManufacturer(0));
+		assertEquals("X6", database.getDesignation(0));
+		assertEquals("A8-3", database.getDesignation(1));
+		assertEquals("digestB", database.getDigest(1));
+		assertEquals(0.018, database.getDiameter(1), 0);
+		assertEquals(Motor.Type.RELOAD, database.getMotorType(0));
+		assertEquals('C', database.getImpulseClass(0));
+		assertEquals('A', database.getImpulseClass(1));
+		assertEquals(4, database.getSampleSize(0));
+	}
+
+	@Test
+	public void testImpulseClass() {
+		assertEquals('A', CompactMotorDatabase.computeImpulseClass(0.5));
+		assertEquals('A', CompactMotorDatabase.computeImpulseClass(2.5));
+		assertEquals('B', CompactMotorDatabase.computeImpulseClass(2.6));
+		assertEquals('D', CompactMotorDatabase.computeImpulseClass(20));
+		assertEquals('E', CompactMotorDatabase.computeImpulseClass(20.1));
+		assertEquals('O', CompactMotorDatabase.computeImpulseClass(1e6));
+	}
+
+	@Test
+	public void testMotors() throws IOException {
+		File file = File.createTempFile("motors", ".bin");
+		file.deleteOnExit();
+		try (FileOutputStream os = new FileOutputStream(file)) {
+			os.write(write(motorX6, motorA8));
+		}
+		List<ThrustCurveMotor> motors = CompactMotorDatabase.open(file).getMotors();
+		assertEquals(2, motors.size());
+
+		for (int i = 0; i < motors.size(); i++) {
+			ThrustCurveMotor expected = (i == 0) ? motorX6 : motorA8;
+			ThrustCurveMotor motor = motors.get(i);
+
+			// Values available from the index
+			assertEquals(expected.getDesignation(), motor.getDesignation());
+			assertEquals(expected.getCommonName(), motor.getCommonName());
+			assertEquals(expected.getDescription(), motor.getDescription());
+			assertEquals(expected.getDigest(), motor.getDigest());
+			assertEquals(expected.getMotorType(), motor.getMotorType());
+			assertArrayEquals(expected.getStandardDelays(), motor.getStandardDelays(), 0);
+			assertEquals(expected.getTotalImpulseEstimate(), motor.getTotalImpulseEstimate(), 0);
+			assertEquals(expected.getAverageThrustEstimate(), motor.getAverageThrustEstimate(), 0);
+			assertEquals(expected.getBurnTimeEstimate(), motor.getBurnTimeEstimate(), 0);
+			assertEquals(expected.getLaunchMass(), motor.getLaunchMass(), 0);
+			assertEquals(expected.getBurnoutCGx(), motor.getBurnoutCGx(), 0);
+			assertEquals(expected.getBurnTime(), motor.getBurnTime(), 0);
+			assertEquals(expected.getSampleSize(), motor.getSampleSize());
+			assertEquals(expected.getUnitIxx(), motor.getUnitIxx(), 0);
+			assertEquals(0, expected.compareTo(motor));
+
+			// Values requiring the thrust curve
+			assertArrayEquals(expected.getTimePoints(), motor.getTimePoints(), 0);
+			assertArrayEquals(expected.getThrustPoints(), motor.getThrustPoints(), 0);
+			assertArrayEquals(expected.getCGPoints(), motor.getCGPoints());
+			assertEquals(expected.getThrust(0.15), motor.getThrust(0.15), 0);
+			assertEquals(expected.getCMx(0.5), motor.getCMx(0.5), 0);
+			assertEquals(expected.getAverageThrust(0.05, 0.5), motor.getAverageThrust(0.05, 0.5), 0);
+			assertEquals(expected.getLaunchMass(), motor.getLaunchMass(), 0);
+		}
+	}
+
+	@Test
+	public void testNullString() throws IOException {
+		// Motors loaded from files may lack propellant info
+		ThrustCurveMotor motor = new ThrustCurveMotor.Builder()
+				.setDesignation("Z1")
+				.setPropellantInfo(null)
+				.setDiameter(0.018)
+				.setLength(0.07)
+				.setTimePoints(new double[] { 0, 1 })
+				.setThrustPoints(new double[] { 1, 0 })
+				.setCGPoints(new Coordinate[] { new Coordinate(0.035, 0, 0, 0.02), new Coordinate(0.035, 0, 0, 0.01) })
+				.build();
+		CompactMotorDatabase database = CompactMotorDatabase.read(new ByteArrayInputStream(write(motor)));
+		assertNull(database.getMotor(0).getPropellantInfo());
+	}
+
+	@Test
+	public void testInvalidFile() {
+		assertThrows(IOException.class,
+				() -> CompactMotorDatabase.read(new ByteArrayInputStream(new byte[] { 1, 2, 3, 4 })));
+
+		assertThrows(IOException.class, () -> {
+			byte[] bytes = write(motorX6);
+			bytes[7] = 99;
+			CompactMotorDatabase.read(new ByteArrayInputStream(bytes));
+		});
+	}
+}
@@ -188,6 +188,56 @@ public class ThrustCurveMotorTest {
 		assertEquals(3.0, motorX6.getThrust(3), 0.001);
 	}
 
+	@Test
+	public void testAverageThrust() {
+		final ThrustCurveMotor mtr = motorEstesA8_3;
+
+		// Within a single time slice
+		assertEquals((mtr.getThrust(0.05) + mtr.getThrust(0.07)) / 2, mtr.getAverageThrust(0.05, 0.07), 1e-9);
+		// Empty interval
+		assertEquals(mtr.getThrust(0.2), mtr.getAverageThrust(0.2, 0.2), 1e-9);
+		// Whole curve and past burnout
+		assertEquals(mtr.getTotalImpulseEstimate() / 0.73, mtr.getAverageThrust(0, 0.73), 1e-9);
+		assertEquals(mtr.getTotalImpulseEstimate() / 1.0, mtr.getAverageThrust(0, 1.0), 1e-9);
+		assertEquals(0.0, mtr.getAverageThrust(0.8, 0.9), 0);
+
+		// Compare against numerical integration of the thrust curve
+		final int steps = 10000;
+		final double[][] intervals = { { 0.01, 0.3 }, { 0.2, 0.21 }, { 0.206, 0.7 }, { 0.5, 0.8 } };
+		for (double[] interval : intervals) {
+			final double dt = (interval[1] - interval[0]) / steps;
+			double impulse = 0;
+			for (int i = 0; i < steps; i++) {
+				impulse += mtr.getThrust(interval[0] + (i + 0.5) * dt) * dt;
+			}
+			final double expected = impulse / (interval[1] - interval[0]);
+			assertEquals(expected, mtr.getAverageThrust(interval[0], interval[1]), 1e-3,
+					"Average thrust from " + interval[0] + " to " + interval[1]);
+		}
+	}
+
+	@Test
+	public void testCursor() {
+		final ThrustCurveMotor mtr = motorEstesA8_3;
+		final ThrustCurveMotor.Cursor cursor = mtr.createCursor();
+
+		// Successive times, as used during a simulation
+		for (double t = 0; t < 1.0; t += 0.0037) {
+			assertEquals(mtr.getThrust(t), cursor.getThrust(t), 0, "Thrust at " + t);
+			assertEquals(mtr.getTotalMass(t), cursor.getTotalMass(t), 0, "Mass at " + t);
+			assertEquals(mtr.getCMx(t), cursor.getCMx(t), 0, "CG at " + t);
+			assertEquals(mtr.getAverageThrust(t, t + 0.01), cursor.getAverageThrust(t, t + 0.01), 1e-12,
+					"Average thrust at " + t);
+		}
+
+		// Arbitrary times
+		final double[] times = { 0.6, 0.041, 0.7, 0.0, 0.73, 0.2, -1, 0.1 };
+		for (double t : times) {
+			assertEquals(mtr.getThrust(t), cursor.getThrust(t), 0, "Thrust at " + t);
+			assertEquals(mtr.getCMx(t), cursor.getCMx(t), 0, "CG at " + t);
+		}
+	}
+
 	@Test
 	public void testSimplifyDesignation() {
 		assertEquals(ThrustCurveMotor.Builder.simplifyDesignation("J115"), "J115");
@@ -0,0 +1,41 @@
+package info.openrocket.core.optimization.general;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.optimization.general.multidim.CMAESOptimizer;
+import info.openrocket.core.optimization.general.multidim.DifferentialEvolutionOptimizer;
+import info.openrocket.core.optimization.general.multidim.MultidirectionalSearchOptimizer;
+import info.openrocket.core.optimization.general.onedim.GoldenSectionSearchOptimizer;
+import info.openrocket.core.util.BaseTestCase;
+
+public class OptimizationMethodTest extends BaseTestCase {
+
+	@Test
+	public void testCreateOptimizer() {
+		ParallelExecutorCache cache = new ParallelExecutorCache(1);
+		try {
+			assertTrue(OptimizationMethod.DIRECT_SEARCH.createOptimizer(cache, 1) instanceof GoldenSectionSearchOptimizer);
+			assertTrue(OptimizationMethod.DIRECT_SEARCH.createOptimizer(cache, 2) instanceof MultidirectionalSearchOptimizer);
+			assertTrue(OptimizationMethod.CMAES.createOptimizer(cache, 2) instanceof CMAESOptimizer);
+			assertTrue(OptimizationMethod.DIFFERENTIAL_EVOLUTION.createOptimizer(cache, 2) instanceof DifferentialEvolutionOptimizer);
+
+			for (OptimizationMethod method : OptimizationMethod.values()) {
+				assertSame(cache, method.createOptimizer(cache, 3).getFunctionCache());
+			}
+		} finally {
+			cache.abortAll();
+		}
+	}
+
+	@Test
+	public void testTranslations() {
+		for (OptimizationMethod method : OptimizationMethod.values()) {
+			assertFalse(method.getName().isEmpty());
+			assertFalse(method.getDescription().isEmpty());
+		}
+	}
+}
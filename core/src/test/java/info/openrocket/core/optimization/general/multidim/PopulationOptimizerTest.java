@@ -0,0 +1,106 @@
+package info.openrocket.core.optimization.general.multidim;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.optimization.general.Function;
+import info.openrocket.core.optimization.general.FunctionOptimizer;
+import info.openrocket.core.optimization.general.OptimizationController;
+import info.openrocket.core.optimization.general.ParallelExecutorCache;
+import info.openrocket.core.optimization.general.Point;
+
+public class PopulationOptimizerTest {
+
+	private static final Point MINIMUM = new Point(0.3, 0.7, 0.55);
+
+	private final Set<String> evaluatingThreads = Collections.synchronizedSet(new HashSet<>());
+
+	private ParallelExecutorCache cache;
+
+	@BeforeEach
+	public void setup() {
+		cache = new ParallelExecutorCache(4);
+		// An ill-conditioned quadratic with its minimum inside the unit cube
+		cache.setFunction(new Function() {
+			@Override
+			public double evaluate(Point point) throws InterruptedException {
+				evaluatingThreads.add(Thread.currentThread().getName());
+				Thread.sleep(1);
+				Point d = point.sub(MINIMUM);
+				return d.get(0) * d.get(0) + 10 * d.get(1) * d.get(1) + 100 * d.get(2) * d.get(2) + 1;
+			}
+		});
+	}
+
+	@AfterEach
+	public void teardown() {
+		cache.getExecutor().shutdownNow();
+	}
+
+	private static OptimizationController stepLimit(double limit, int maxSteps) {
+		return new OptimizationController() {
+			private int steps = 0;
+
+			@Override
+			public boolean stepTaken(Point oldPoint, double oldValue, Point newPoint, double newValue, double stepSize) {
+				assertTrue(newValue <= oldValue, "Optimum value increased from " + oldValue + " to " + newValue);
+				steps++;
+				return stepSize >= limit && steps < maxSteps;
+			}
+		};
+	}
+
+	private void assertOptimum(FunctionOptimizer optimizer) {
+		Point optimum = optimizer.getOptimumPoint();
+		for (int i = 0; i < MINIMUM.dim(); i++) {
+			assertEquals(MINIMUM.get(i), optimum.get(i), 0.02, "Optimum " + optimum);
+		}
+		assertEquals(1, optimizer.getOptimumValue(), 0.01);
+		assertTrue(evaluatingThreads.size() > 1, "Evaluated in threads " + evaluatingThreads);
+	}
+
+	@Test
+	public void testCMAES() throws Exception {
+		CMAESOptimizer optimizer = new CMAESOptimizer(cache);
+		optimizer.setSeed(1);
+		optimizer.optimize(new Point(0.9, 0.1, 0.1), stepLimit(0.001, 500));
+		assertOptimum(optimizer);
+	}
+
+	@Test
+	public void testDifferentialEvolution() throws Exception {
+		DifferentialEvolutionOptimizer optimizer = new DifferentialEvolutionOptimizer(cache);
+		optimizer.setSeed(1);
+		optimizer.optimize(new Point(0.9, 0.1, 0.1), stepLimit(0.01, 500));
+		assertOptimum(optimizer);
+	}
+
+	/**
+	 * Check the eigendecomposition used by CMA-ES on a symmetric matrix.
+	 */
+	@Test
+	public void testEigenDecomposition() {
+		double[][] matrix = { { 4, 1, 0.5 }, { 1, 3, 0.2 }, { 0.5, 0.2, 1 } };
+		double[][] vectors = new double[3][3];
+		double[] values = new double[3];
+		CMAESOptimizer.eigenDecomposition(matrix, vectors, values);
+
+		for (int i = 0; i < 3; i++) {
+			for (int j = 0; j < 3; j++) {
+				double v = 0;
+				for (int k = 0; k < 3; k++) {
+					v += vectors[i][k] * values[k] * vectors[j][k];
+				}
+				assertEquals(matrix[i][j], v, 1e-9);
+			}
+		}
+	}
+}
@@ -2,7 +2,12 @@ package info.openrocket.core.optimization.rocketoptimization;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
@@ -21,6 +26,8 @@ import info.openrocket.core.unit.UnitGroup;
 import info.openrocket.core.unit.Value;
 import info.openrocket.core.util.Pair;
 import info.openrocket.core.util.BaseTestCase;
+import info.openrocket.core.util.TestRockets;
+import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatcher;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -234,4 +241,32 @@ public class TestRocketOptimizationFunction extends BaseTestCase {
 		assertEquals(sim.getRocket().getName(), "Foobar");
 	}
 
+	@Test
+	public void testWorkingCopy() throws InterruptedException, OptimizationException {
+		final Rocket rocket = TestRockets.makeEstesAlphaIII();
+		final Simulation simulation = new Simulation(rocket);
+
+		when(domain.getDistanceToDomain(any(Simulation.class))).thenReturn(new Pair<>(Double.NaN, null));
+
+		RocketOptimizationFunction function = new RocketOptimizationFunction(simulation,
+				parameter, goal, domain, modifier1);
+
+		function.evaluate(new Point(0.4));
+		function.evaluate(new Point(0.7));
+
+		ArgumentCaptor<Simulation> captor = ArgumentCaptor.forClass(Simulation.class);
+		verify(modifier1, times(2)).modify(captor.capture(), anyDouble());
+		Simulation first = captor.getAllValues().get(0);
+		Simulation second = captor.getAllValues().get(1);
+
+		// The working copy is reused and simulated directly
+		assertNotSame(rocket, first.getRocket());
+		assertSame(first.getRocket(), second.getRocket());
+		assertFalse(second.isCopyRocket());
+
+		// The working copy cannot be used by two simulations at once
+		function.newSimulationInstance(simulation);
+		assertThrows(IllegalStateException.class, () -> function.newSimulationInstance(simulation));
+	}
+
 }
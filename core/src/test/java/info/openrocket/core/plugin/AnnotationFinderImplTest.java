@@ -0,0 +1,139 @@
+package info.openrocket.core.plugin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test finding annotated types from the indexes of jars, from jars without an index,
+ * and when the indexes are missing or corrupt.
+ */
+public class AnnotationFinderImplTest {
+
+	/** An annotation that is not indexed at compile time, so only the test jars contain indexes for it */
+	@Retention(RetentionPolicy.RUNTIME)
+	public @interface TestAnnotation {
+	}
+
+	@TestAnnotation
+	public static class IndexedType {
+	}
+
+	@TestAnnotation
+	public static class UnindexedType {
+	}
+
+	private static final String INDEX = AnnotationFinderImpl.INDEX_DIRECTORY + TestAnnotation.class.getName();
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	public void testIndexedJar() throws Exception {
+		// The jar also contains an annotated type that is not listed, to check that the index is used
+		File jar = createJar("indexed.jar", IndexedType.class.getName() + "\n", IndexedType.class, UnindexedType.class);
+
+		try (URLClassLoader loader = createLoader(jar)) {
+			List<Class<?>> types = AnnotationFinderImpl.findAnnotatedTypes(TestAnnotation.class, loader, List.of(jar));
+			assertEquals(List.of(IndexedType.class), types);
+		}
+	}
+
+	@Test
+	public void testUnindexedJar() throws Exception {
+		File indexed = createJar("indexed.jar", IndexedType.class.getName() + "\n", IndexedType.class);
+		File unindexed = createJar("unindexed.jar", null, UnindexedType.class);
+
+		try (URLClassLoader loader = createLoader(indexed, unindexed)) {
+			List<Class<?>> types = AnnotationFinderImpl.findAnnotatedTypes(TestAnnotation.class, loader,
+					List.of(indexed, unindexed));
+			assertEquals(List.of(IndexedType.class, UnindexedType.class), types);
+		}
+	}
+
+	@Test
+	public void testCorruptIndex() throws Exception {
+		// Comments and blank lines are skipped, and types that cannot be loaded are ignored
+		String index = "# Comment\n\n  " + IndexedType.class.getName() + "  \nnot.a.Type\n\u0000\u0001\n";
+		File jar = createJar("corrupt.jar", index, IndexedType.class);
+		File notAJar = tempDir.resolve("notajar.jar").toFile();
+		Files.writeString(notAJar.toPath(), "This is not a jar file");
+
+		try (URLClassLoader loader = createLoader(jar)) {
+			List<Class<?>> types = AnnotationFinderImpl.findAnnotatedTypes(TestAnnotation.class, loader,
+					List.of(jar, notAJar));
+			assertEquals(List.of(IndexedType.class), types);
+		}
+	}
+
+	@Test
+	public void testMissingIndex() throws Exception {
+		// Without any index the class path of the loader is scanned
+		File jar = createJar("unindexed.jar", null, UnindexedType.class);
+
+		try (URLClassLoader loader = createLoader(jar)) {
+			List<Class<?>> types = AnnotationFinderImpl.findAnnotatedTypes(TestAnnotation.class, loader, List.of(jar));
+			assertTrue(types.contains(IndexedType.class));
+			assertTrue(types.contains(UnindexedType.class));
+		}
+	}
+
+	@Test
+	public void testReadIndex() throws Exception {
+		Set<String> names = new LinkedHashSet<>();
+		AnnotationFinderImpl.readIndex(new ByteArrayInputStream(
+				"a.B\n# c.D\n\na.B\n e.F \n".getBytes(StandardCharsets.UTF_8)), names);
+		assertEquals(List.of("a.B", "e.F"), List.copyOf(names));
+	}
+
+	/**
+	 * Create a jar containing the given classes and, if not null, the index of the test annotation.
+	 */
+	private File createJar(String name, String index, Class<?>... classes) throws IOException {
+		File jar = tempDir.resolve(name).toFile();
+		try (JarOutputStream out = new JarOutputStream(new FileOutputStream(jar))) {
+			if (index != null) {
+				out.putNextEntry(new ZipEntry(INDEX));
+				out.write(index.getBytes(StandardCharsets.UTF_8));
+				out.closeEntry();
+			}
+			for (Class<?> c : classes) {
+				String entry = c.getName().replace('.', '/') + ".class";
+				out.putNextEntry(new ZipEntry(entry));
+				try (InputStream is = c.getClassLoader().getResourceAsStream(entry)) {
+					is.transferTo(out);
+				}
+				out.closeEntry();
+			}
+		}
+		return jar;
+	}
+
+	private static URLClassLoader createLoader(File... jars) throws IOException {
+		URL[] urls = new URL[jars.length];
+		for (int i = 0; i < jars.length; i++) {
+			urls[i] = jars[i].toURI().toURL();
+		}
+		return new URLClassLoader(urls, AnnotationFinderImplTest.class.getClassLoader());
+	}
+}
@@ -0,0 +1,65 @@
+package info.openrocket.core.rocketcomponent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.util.BaseTestCase;
+import info.openrocket.core.util.MathUtil;
+import info.openrocket.core.util.TestRockets;
+
+public class CopyOnWriteRocketTest extends BaseTestCase {
+	final double EPSILON = MathUtil.EPSILON;
+
+	@Test
+	public void testRestoreChangedComponent() {
+		final Rocket source = TestRockets.makeEstesAlphaIII();
+		final BodyTube sourceBody = (BodyTube) source.getChild(0).getChild(1);
+		final FinSet sourceFins = (FinSet) sourceBody.getChild(0);
+
+		CopyOnWriteRocket cow = new CopyOnWriteRocket(source);
+		final Rocket rocket = cow.getRocket();
+		assertNotSame(source, rocket);
+
+		final NoseCone nose = (NoseCone) rocket.getChild(0).getChild(0);
+		final BodyTube body = (BodyTube) rocket.getChild(0).getChild(1);
+		body.setLength(sourceBody.getLength() * 2);
+		assertEquals(sourceBody.getLength() * 2, body.getLength(), EPSILON);
+
+		// vvvv test target vvvv
+		final Rocket restored = cow.getRocket();
+		// ^^^^ test target ^^^^
+
+		assertSame(rocket, restored, "working copy should be reused");
+		assertSame(nose, restored.getChild(0).getChild(0), "unchanged component should not be copied");
+
+		final BodyTube restoredBody = (BodyTube) restored.getChild(0).getChild(1);
+		assertNotSame(body, restoredBody);
+		assertSame(restored.getChild(0), restoredBody.getParent());
+		assertEquals(sourceBody.getLength(), restoredBody.getLength(), EPSILON, "body length not restored");
+		assertEquals(source.getLength(), restored.getLength(), EPSILON, "rocket length not restored");
+
+		final FinSet restoredFins = (FinSet) restoredBody.getChild(0);
+		assertEquals(sourceFins.getComponentLocations()[0].x, restoredFins.getComponentLocations()[0].x, EPSILON,
+				"fin location not restored");
+		restored.checkComponentStructure();
+	}
+
+	@Test
+	public void testStructureChange() {
+		final Rocket source = TestRockets.makeEstesAlphaIII();
+
+		CopyOnWriteRocket cow = new CopyOnWriteRocket(source);
+		final Rocket rocket = cow.getRocket();
+		assertSame(rocket, cow.getRocket(), "unchanged working copy should be reused");
+
+		final BodyTube body = (BodyTube) rocket.getChild(0).getChild(1);
+		body.removeChild(0);
+
+		final Rocket restored = cow.getRocket();
+		assertNotSame(rocket, restored, "tree change should copy the whole rocket");
+		assertEquals(source.getChild(0).getChild(1).getChildCount(), restored.getChild(0).getChild(1).getChildCount());
+	}
+}
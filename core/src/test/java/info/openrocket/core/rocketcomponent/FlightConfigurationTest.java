@@ -848,4 +848,53 @@ public class FlightConfigurationTest extends BaseTestCase {
 			assertEquals(original.isStageActive(i), clone.isStageActive(i));
 		}
 	}
+
+	@Test
+	public void testIncrementalInstanceUpdate() {
+		Rocket rocket = TestRockets.makeFalcon9Heavy();
+		FlightConfiguration config = rocket.getSelectedConfiguration();
+		config.setAllStages();
+
+		final AxialStage payloadStage = (AxialStage) rocket.getChild(0);
+		final BodyTube upperStageBody = (BodyTube) payloadStage.getChild(3);
+		final AxialStage coreStage = (AxialStage) rocket.getChild(1);
+		final ParallelStage boosterStage = (ParallelStage) coreStage.getChild(0).getChild(0);
+		final NoseCone noseCone = (NoseCone) payloadStage.getChild(0);
+
+		final List<InstanceContext> noseConeContexts = config.getActiveInstances().getInstanceContexts(noseCone);
+		final double boosterX = config.getActiveInstances().getInstanceContexts(boosterStage).get(0).getLocation().x;
+
+		// A non-functional change keeps the instances
+		upperStageBody.setName("Renamed Upper Stage Body");
+		assertSame(noseConeContexts, config.getActiveInstances().getInstanceContexts(noseCone));
+
+		// A length change moves the components behind it, but not the ones in front of it
+		upperStageBody.setLength(upperStageBody.getLength() + 0.1);
+		assertSame(noseConeContexts, config.getActiveInstances().getInstanceContexts(noseCone));
+		assertEquals(boosterX + 0.1,
+				config.getActiveInstances().getInstanceContexts(boosterStage).get(0).getLocation().x, EPSILON);
+
+		// The incrementally updated instances match a complete update
+		Map<RocketComponent, List<Coordinate>> incremental = getInstanceLocations(config.getActiveInstances());
+		config.update();
+		assertEquals(getInstanceLocations(config.getActiveInstances()), incremental);
+
+		// Deactivating a stage removes its instances
+		final List<InstanceContext> updatedNoseConeContexts = config.getActiveInstances().getInstanceContexts(noseCone);
+		config._setStageActive(boosterStage.getStageNumber(), false);
+		assertEquals(0, config.getActiveInstances().count(boosterStage));
+		assertSame(updatedNoseConeContexts, config.getActiveInstances().getInstanceContexts(noseCone));
+	}
+
+	private static Map<RocketComponent, List<Coordinate>> getInstanceLocations(InstanceMap instances) {
+		Map<RocketComponent, List<Coordinate>> locations = new java.util.HashMap<>();
+		for (Map.Entry<RocketComponent, ArrayList<InstanceContext>> entry : instances.entrySet()) {
+			List<Coordinate> list = new ArrayList<>();
+			for (InstanceContext context : entry.getValue()) {
+				list.add(context.getLocation());
+			}
+			locations.put(entry.getKey(), list);
+		}
+		return locations;
+	}
 }
@@ -0,0 +1,99 @@
+package info.openrocket.core.simulation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.DoubleBuffer;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class DataColumnTest {
+
+	@Test
+	public void testGrowAndMinMax() {
+		DataColumn column = new DataColumn(2);
+		assertTrue(column.isEmpty());
+		assertEquals(Double.NaN, column.getLast(), 0);
+		assertEquals(Double.NaN, column.getMinimum(), 0);
+
+		for (int i = 0; i < 100; i++) {
+			column.add(Double.NaN);
+			column.setLast(Math.sin(i));
+		}
+		assertEquals(100, column.size());
+		assertEquals(Math.sin(99), column.getLast(), 0);
+		assertEquals(Math.sin(33), column.get(33), 0);
+
+		double min = Double.MAX_VALUE;
+		double max = -Double.MAX_VALUE;
+		for (int i = 0; i < 100; i++) {
+			min = Math.min(min, Math.sin(i));
+			max = Math.max(max, Math.sin(i));
+		}
+		assertEquals(min, column.getMinimum(), 0);
+		assertEquals(max, column.getMaximum(), 0);
+
+		assertThrows(IndexOutOfBoundsException.class, () -> column.get(100));
+	}
+
+	@Test
+	public void testNaNPadding() {
+		DataColumn column = DataColumn.ofNaN(3);
+		assertEquals(3, column.size());
+		assertEquals(Double.NaN, column.get(2), 0);
+
+		column.setLast(5);
+		column.setLast(Double.NaN);
+		assertEquals(5, column.getMinimum(), 0);
+		assertEquals(5, column.getMaximum(), 0);
+	}
+
+	@Test
+	public void testBufferView() {
+		DataColumn column = new DataColumn();
+		column.add(1);
+		column.add(2);
+		column.add(3);
+
+		DoubleBuffer buffer = column.asBuffer();
+		assertEquals(3, buffer.remaining());
+		assertEquals(2, buffer.get(1), 0);
+		assertTrue(buffer.isReadOnly());
+
+		// The view shares the backing storage
+		column.setLast(7);
+		assertEquals(7, buffer.get(2), 0);
+	}
+
+	@Test
+	public void testBranchStorage() {
+		FlightDataBranch branch = new FlightDataBranch("test", FlightDataType.TYPE_TIME);
+		for (int i = 0; i < 10; i++) {
+			branch.addPoint();
+			branch.setValue(FlightDataType.TYPE_TIME, i * 0.1);
+			if (i >= 5) {
+				branch.setValue(FlightDataType.TYPE_ALTITUDE, i);
+			}
+		}
+
+		assertEquals(10, branch.getLength());
+		List<Double> altitude = branch.get(FlightDataType.TYPE_ALTITUDE);
+		assertEquals(10, altitude.size());
+		assertEquals(Double.NaN, altitude.get(4), 0);
+		assertEquals(5.0, altitude.get(5), 0);
+		assertEquals(9.0, branch.getLast(FlightDataType.TYPE_ALTITUDE), 0);
+		assertEquals(5.0, branch.getMinimum(FlightDataType.TYPE_ALTITUDE), 0);
+		assertEquals(0.9, branch.getMaximum(FlightDataType.TYPE_TIME), 1e-12);
+
+		DoubleBuffer time = branch.getBuffer(FlightDataType.TYPE_TIME);
+		assertEquals(10, time.remaining());
+		assertEquals(0.3, time.get(3), 1e-12);
+
+		FlightDataBranch clone = branch.clone();
+		branch.addPoint();
+		assertEquals(10, clone.getLength());
+		assertEquals(9.0, clone.getByIndex(FlightDataType.TYPE_ALTITUDE, 9), 0);
+	}
+}
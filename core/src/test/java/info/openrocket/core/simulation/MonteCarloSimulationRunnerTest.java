@@ -0,0 +1,82 @@
+package info.openrocket.core.simulation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.simulation.exception.SimulationException;
+import info.openrocket.core.util.BaseTestCase;
+import info.openrocket.core.util.TestRockets;
+
+public class MonteCarloSimulationRunnerTest extends BaseTestCase {
+
+	private static SimulationConditions createConditions() {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		Simulation simulation = new Simulation(rocket);
+		simulation.setFlightConfigurationId(TestRockets.TEST_FCID_0);
+		simulation.getOptions().setISAAtmosphere(true);
+		simulation.getOptions().setTimeStep(0.05);
+		simulation.getOptions().getAverageWindModel().setAverage(0);
+
+		SimulationConditions conditions = simulation.getOptions().toSimulationConditions();
+		conditions.setSimulation(simulation);
+		return conditions;
+	}
+
+	/**
+	 * Without any dispersion every sample must match a regular simulation of the same conditions.
+	 * The samples use different random seeds, so small differences are expected.
+	 */
+	@Test
+	public void testUndispersedMatchesSimulation() throws SimulationException {
+		SimulationConditions conditions = createConditions();
+
+		BasicEventSimulationEngine engine = new BasicEventSimulationEngine();
+		engine.simulate(conditions.clone());
+		FlightData reference = engine.getFlightData();
+
+		MonteCarloSimulationRunner runner = new MonteCarloSimulationRunner(conditions, 4);
+		runner.setThreadCount(2);
+		List<MonteCarloResult> results = runner.run();
+
+		assertEquals(4, results.size());
+		for (MonteCarloResult result : results) {
+			assertTrue(result.isSuccessful());
+			assertEquals(reference.getMaxAltitude(), result.getApogee(), 0.01 * reference.getMaxAltitude());
+			assertEquals(reference.getMaxVelocity(), result.getMaxVelocity(), 0.01 * reference.getMaxVelocity());
+			assertEquals(reference.getTimeToApogee(), result.getEventTime(FlightEvent.Type.APOGEE), 0.1);
+		}
+	}
+
+	/**
+	 * Dispersed runs must be reproducible regardless of the number of threads.
+	 */
+	@Test
+	public void testDispersionReproducible() throws SimulationException {
+		SimulationConditions conditions = createConditions();
+
+		MonteCarloSimulationRunner runner = new MonteCarloSimulationRunner(conditions, 6);
+		runner.setSeed(42);
+		runner.setImpulseDispersion(Dispersion.normal(1, 0.05));
+		runner.setCDDispersion(Dispersion.uniform(0.9, 1.1));
+		runner.setWindDispersion(Dispersion.uniform(0, 5), Dispersion.uniform(0, 2 * Math.PI));
+
+		runner.setThreadCount(1);
+		List<MonteCarloResult> serial = runner.run();
+		runner.setThreadCount(3);
+		List<MonteCarloResult> parallel = runner.run();
+
+		for (int i = 0; i < serial.size(); i++) {
+			assertEquals(i, parallel.get(i).getSampleIndex());
+			assertEquals(serial.get(i).getApogee(), parallel.get(i).getApogee(), 0);
+			assertEquals(serial.get(i).getLandingX(), parallel.get(i).getLandingX(), 0);
+		}
+		assertNotEquals(serial.get(0).getApogee(), serial.get(1).getApogee());
+	}
+}
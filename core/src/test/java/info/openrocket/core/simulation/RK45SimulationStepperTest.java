@@ -0,0 +1,165 @@
+package info.openrocket.core.simulation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.simulation.exception.SimulationException;
+import info.openrocket.core.simulation.listeners.AbstractSimulationListener;
+import info.openrocket.core.util.BaseTestCase;
+import info.openrocket.core.util.Coordinate;
+import info.openrocket.core.util.TestRockets;
+
+public class RK45SimulationStepperTest extends BaseTestCase {
+
+	private static FlightData simulate(SimulationStepperMethod method, AtomicInteger evaluations)
+			throws SimulationException {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		Simulation simulation = new Simulation(rocket);
+		simulation.setFlightConfigurationId(TestRockets.TEST_FCID_0);
+		simulation.getOptions().setISAAtmosphere(true);
+		simulation.getOptions().setTimeStep(0.05);
+		simulation.getOptions().setRandomSeed(1234);
+		simulation.getOptions().getAverageWindModel().setAverage(0);
+		simulation.getOptions().setStepperMethod(method);
+
+		SimulationConditions conditions = simulation.getOptions().toSimulationConditions();
+		conditions.setSimulation(simulation);
+		conditions.getSimulationListenerList().add(new EvaluationCounter(evaluations));
+
+		BasicEventSimulationEngine engine = new BasicEventSimulationEngine();
+		engine.simulate(conditions);
+		return engine.getFlightData();
+	}
+
+	/**
+	 * The adaptive stepper must reproduce the results of the RK4 stepper with fewer
+	 * acceleration calculations.
+	 */
+	@Test
+	public void testMatchesRK4() throws SimulationException {
+		AtomicInteger rk4Evaluations = new AtomicInteger();
+		AtomicInteger rk45Evaluations = new AtomicInteger();
+		FlightData rk4 = simulate(SimulationStepperMethod.RK4, rk4Evaluations);
+		FlightData rk45 = simulate(SimulationStepperMethod.RK45, rk45Evaluations);
+
+		assertEquals(rk4.getMaxAltitude(), rk45.getMaxAltitude(), 0.01 * rk4.getMaxAltitude());
+		assertEquals(rk4.getMaxVelocity(), rk45.getMaxVelocity(), 0.01 * rk4.getMaxVelocity());
+		assertEquals(rk4.getTimeToApogee(), rk45.getTimeToApogee(), 0.1);
+		assertEquals(rk4.getFlightTime(), rk45.getFlightTime(), 0.02 * rk4.getFlightTime());
+
+		assertTrue(rk45Evaluations.get() > 0);
+		assertTrue(rk45Evaluations.get() < rk4Evaluations.get(),
+				"RK45 evaluations " + rk45Evaluations.get() + ", RK4 evaluations " + rk4Evaluations.get());
+	}
+
+	@Test
+	public void testEngineSelectsStepper() throws SimulationException {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		Simulation simulation = new Simulation(rocket);
+		simulation.setFlightConfigurationId(TestRockets.TEST_FCID_0);
+		setDefaultOptions(simulation.getOptions());
+		simulation.getOptions().setStepperMethod(SimulationStepperMethod.RK45);
+
+		SimulationConditions conditions = simulation.getOptions().toSimulationConditions();
+		conditions.setSimulation(simulation);
+		assertEquals(SimulationStepperMethod.RK45, conditions.getStepperMethod());
+
+		BasicEventSimulationEngine engine = new BasicEventSimulationEngine();
+		engine.simulate(conditions);
+		assertTrue(engine.adaptiveFlightStepper.getEvaluationCount() > 0);
+		assertTrue(engine.getFlightData().getMaxAltitude() > 100);
+	}
+
+	/**
+	 * A step whose stages result in NaN values must be rejected and retried with a shorter step.
+	 */
+	@Test
+	public void testNaNRejectsStep() throws SimulationException {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		Simulation simulation = new Simulation(rocket);
+		simulation.setFlightConfigurationId(TestRockets.TEST_FCID_0);
+		setDefaultOptions(simulation.getOptions());
+		simulation.getOptions().setStepperMethod(SimulationStepperMethod.RK45);
+
+		SimulationConditions conditions = simulation.getOptions().toSimulationConditions();
+		conditions.setSimulation(simulation);
+		conditions.getSimulationListenerList().add(new LongStepNaNListener(0.02));
+
+		BasicEventSimulationEngine engine = new BasicEventSimulationEngine();
+		engine.simulate(conditions);
+		assertTrue(engine.adaptiveFlightStepper.getRejectedStepCount() > 0);
+		assertTrue(engine.getFlightData().getMaxAltitude() > 100);
+
+		FlightDataBranch branch = engine.getFlightData().getBranch(0);
+		for (double value : branch.get(FlightDataType.TYPE_ALTITUDE)) {
+			assertFalse(Double.isNaN(value));
+		}
+	}
+
+	/**
+	 * Set the options that are defaults of the application, as the test preferences return zero
+	 * for all of them.  This includes the default wind.
+	 */
+	private static void setDefaultOptions(SimulationOptions options) {
+		options.setISAAtmosphere(true);
+		options.setTimeStep(RK4SimulationStepper.RECOMMENDED_TIME_STEP);
+		options.setLaunchRodLength(1);
+		options.setLaunchRodDirection(Math.PI / 2);
+		options.getAverageWindModel().setAverage(2.0);
+		options.getAverageWindModel().setTurbulenceIntensity(0.1);
+		options.getAverageWindModel().setDirection(Math.PI / 2);
+		options.setRandomSeed(1234);
+	}
+
+	/**
+	 * Returns NaN accelerations for the stages more than a given time after the last accepted step.
+	 */
+	private static class LongStepNaNListener extends AbstractSimulationListener {
+		private static final Coordinate NAN = new Coordinate(Double.NaN, Double.NaN, Double.NaN);
+
+		private final double maxTimeStep;
+		private double stepTime = 0;
+
+		private LongStepNaNListener(double maxTimeStep) {
+			this.maxTimeStep = maxTimeStep;
+		}
+
+		@Override
+		public void postStep(SimulationStatus status) {
+			stepTime = status.getSimulationTime();
+		}
+
+		@Override
+		public AccelerationData postAccelerationCalculation(SimulationStatus status, AccelerationData acceleration) {
+			if (status.isLaunchRodCleared() && status.getSimulationTime() > stepTime + maxTimeStep) {
+				return new AccelerationData(NAN, NAN, NAN, NAN, acceleration.getRotation());
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Counts the acceleration calculations of the flight stepper.  The counter is shared
+	 * with the clones of the listener.
+	 */
+	private static class EvaluationCounter extends AbstractSimulationListener {
+		private final AtomicInteger count;
+
+		private EvaluationCounter(AtomicInteger count) {
+			this.count = count;
+		}
+
+		@Override
+		public AccelerationData postAccelerationCalculation(SimulationStatus status, AccelerationData acceleration) {
+			count.incrementAndGet();
+			return null;
+		}
+	}
+}
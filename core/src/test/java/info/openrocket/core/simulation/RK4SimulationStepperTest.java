@@ -0,0 +1,105 @@
+package info.openrocket.core.simulation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.simulation.exception.SimulationException;
+import info.openrocket.core.simulation.listeners.AbstractSimulationListener;
+import info.openrocket.core.util.BaseTestCase;
+import info.openrocket.core.util.Coordinate;
+import info.openrocket.core.util.Quaternion;
+import info.openrocket.core.util.TestRockets;
+
+public class RK4SimulationStepperTest extends BaseTestCase {
+
+	/**
+	 * Simulate the rocket and return copies of the flight status at the first steps after the given times.
+	 */
+	private static List<SimulationStatus> simulate(double... times) throws SimulationException {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		Simulation simulation = new Simulation(rocket);
+		simulation.setFlightConfigurationId(TestRockets.TEST_FCID_0);
+		simulation.getOptions().setISAAtmosphere(true);
+		simulation.getOptions().setTimeStep(0.05);
+		simulation.getOptions().setRandomSeed(1234);
+
+		SimulationConditions conditions = simulation.getOptions().toSimulationConditions();
+		conditions.setSimulation(simulation);
+
+		final List<SimulationStatus> statuses = new ArrayList<>();
+		conditions.getSimulationListenerList().add(new AbstractSimulationListener() {
+			@Override
+			public void postStep(SimulationStatus status) {
+				if (statuses.size() < times.length && status.getSimulationTime() >= times[statuses.size()]) {
+					statuses.add(new SimulationStatus(status));
+				}
+			}
+		});
+
+		BasicEventSimulationEngine engine = new BasicEventSimulationEngine();
+		engine.simulate(conditions);
+		assertEquals(times.length, statuses.size());
+		return statuses;
+	}
+
+	/**
+	 * Take a single flight step from a copy of the status with a fresh stepper.
+	 */
+	private static SimulationStatus step(SimulationStatus original, boolean legacyStep) throws SimulationException {
+		RK4SimulationStepper stepper = new RK4SimulationStepper();
+		stepper.setLegacyStep(legacyStep);
+		SimulationStatus status = stepper.initialize(original);
+		// The branch of the finished simulation is immutable
+		status.setFlightDataBranch(status.getFlightDataBranch().clone());
+		stepper.step(status, Double.MAX_VALUE);
+		return status;
+	}
+
+	private static void assertBitIdentical(Coordinate expected, Coordinate actual, String message) {
+		assertEquals(Double.doubleToLongBits(expected.x), Double.doubleToLongBits(actual.x), message + " x");
+		assertEquals(Double.doubleToLongBits(expected.y), Double.doubleToLongBits(actual.y), message + " y");
+		assertEquals(Double.doubleToLongBits(expected.z), Double.doubleToLongBits(actual.z), message + " z");
+	}
+
+	/**
+	 * The step reusing its buffers must produce exactly the same state as the original
+	 * implementation when stepping from the same status.
+	 */
+	@Test
+	public void testStepIsBitIdentical() throws SimulationException {
+		// One status on the launch rod, one during the burn and one while coasting
+		for (SimulationStatus status : simulate(0.0, 0.5, 2.0)) {
+			SimulationStatus original = step(status, true);
+			SimulationStatus reusing = step(status, false);
+			String message = "Step from t=" + status.getSimulationTime();
+
+			assertTrue(original.getSimulationTime() > status.getSimulationTime());
+			assertEquals(Double.doubleToLongBits(original.getSimulationTime()),
+					Double.doubleToLongBits(reusing.getSimulationTime()), message + " time");
+			assertBitIdentical(original.getRocketPosition(), reusing.getRocketPosition(),
+					message + " position");
+			assertBitIdentical(original.getRocketVelocity(), reusing.getRocketVelocity(),
+					message + " velocity");
+			assertBitIdentical(original.getRocketRotationVelocity(), reusing.getRocketRotationVelocity(),
+					message + " rotation velocity");
+
+			Quaternion expected = original.getRocketOrientationQuaternion();
+			Quaternion actual = reusing.getRocketOrientationQuaternion();
+			assertEquals(Double.doubleToLongBits(expected.getW()), Double.doubleToLongBits(actual.getW()),
+					message + " orientation w");
+			assertEquals(Double.doubleToLongBits(expected.getX()), Double.doubleToLongBits(actual.getX()),
+					message + " orientation x");
+			assertEquals(Double.doubleToLongBits(expected.getY()), Double.doubleToLongBits(actual.getY()),
+					message + " orientation y");
+			assertEquals(Double.doubleToLongBits(expected.getZ()), Double.doubleToLongBits(actual.getZ()),
+					message + " orientation z");
+		}
+	}
+}
@@ -0,0 +1,103 @@
+package info.openrocket.core.simulation.batch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.StringWriter;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.document.OpenRocketDocument;
+import info.openrocket.core.document.OpenRocketDocumentFactory;
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.simulation.SimulationOptions;
+import info.openrocket.core.util.BaseTestCase;
+import info.openrocket.core.util.TestRockets;
+
+public class BatchSimulationTest extends BaseTestCase {
+
+	private static OpenRocketDocument createDocument() {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		OpenRocketDocument document = OpenRocketDocumentFactory.createDocumentFromRocket(rocket);
+
+		for (String name : new String[] { "First", "Second, with comma" }) {
+			Simulation simulation = new Simulation(document, rocket);
+			simulation.setName(name);
+			simulation.setFlightConfigurationId(TestRockets.TEST_FCID_0);
+			simulation.getOptions().setISAAtmosphere(true);
+			simulation.getOptions().setTimeStep(0.05);
+			document.addSimulation(simulation);
+		}
+
+		// Imported simulations cannot be run
+		Simulation external = new Simulation(document, rocket, Simulation.Status.EXTERNAL, "External",
+				new SimulationOptions(), Collections.emptyList(), null);
+		document.addSimulation(external);
+		return document;
+	}
+
+	@Test
+	public void testSelectSimulations() {
+		OpenRocketDocument document = createDocument();
+
+		assertEquals(3, BatchSimulation.selectSimulations(document, List.of()).size());
+
+		List<Simulation> selected = BatchSimulation.selectSimulations(document, List.of("External", "1", "First"));
+		assertEquals(2, selected.size());
+		assertEquals("External", selected.get(0).getName());
+		assertEquals("First", selected.get(1).getName());
+
+		assertThrows(IllegalArgumentException.class,
+				() -> BatchSimulation.selectSimulations(document, List.of("4")));
+		assertThrows(IllegalArgumentException.class,
+				() -> BatchSimulation.selectSimulations(document, List.of("Missing")));
+	}
+
+	@Test
+	public void testRun() throws InterruptedException {
+		OpenRocketDocument document = createDocument();
+
+		BatchSimulationRunner runner = new BatchSimulationRunner();
+		runner.setThreadCount(2);
+		List<BatchSimulationResult> results = runner.run("test.ork", document, document.getSimulations());
+
+		assertEquals(3, results.size());
+		for (int i = 0; i < 2; i++) {
+			BatchSimulationResult result = results.get(i);
+			assertEquals(i + 1, result.getIndex());
+			assertNull(result.getError());
+			assertNotEquals(BatchSimulationResult.Status.FAILED, result.getStatus());
+			assertNotNull(result.getFlightData());
+			assertTrue(result.getFlightData().getMaxAltitude() > 100);
+		}
+
+		BatchSimulationResult failed = results.get(2);
+		assertEquals("External", failed.getName());
+		assertEquals(BatchSimulationResult.Status.FAILED, failed.getStatus());
+		assertNotNull(failed.getError());
+		assertNull(failed.getFlightData());
+
+		assertEquals(BatchSimulation.EXIT_FAILURES, BatchSimulation.getExitCode(results));
+		assertTrue(BatchSimulation.getExitCode(results.subList(0, 2)) < BatchSimulation.EXIT_FAILURES);
+
+		StringWriter csv = new StringWriter();
+		BatchSimulationReport.writeCSV(results, csv);
+		String[] lines = csv.toString().split("\\R");
+		assertEquals(4, lines.length);
+		assertTrue(lines[0].startsWith("document,index,name,status,timeMillis"));
+		assertTrue(lines[2].startsWith("test.ork,2,\"Second, with comma\","));
+		assertTrue(lines[3].startsWith("test.ork,3,External,FAILED,"));
+
+		StringWriter json = new StringWriter();
+		BatchSimulationReport.writeJSON(results, json);
+		assertTrue(json.toString().contains("\"Second, with comma\""));
+		assertTrue(json.toString().contains("\"FAILED\""));
+	}
+}
@@ -1,11 +1,23 @@
 package info.openrocket.core.simulation.customexpression;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.Arrays;
+import java.util.List;
+
 import info.openrocket.core.document.OpenRocketDocument;
 import info.openrocket.core.document.OpenRocketDocumentFactory;
 import info.openrocket.core.util.BaseTestCase;
 
 import org.junit.jupiter.api.Test;
 
+import de.congrace.exp4j.CompiledExpression;
+import de.congrace.exp4j.ExpressionBuilder;
+import de.congrace.exp4j.PostfixExpression;
+import de.congrace.exp4j.Variable;
+
 public class TestExpressions extends BaseTestCase {
 
 	@Test
@@ -21,4 +33,45 @@ public class TestExpressions extends BaseTestCase {
 		// System.out.println(exp.getExpressionString());
 
 	}
+
+	@Test
+	public void testCompiledExpression() throws Exception {
+		String[] expressions = { "0.5*m*Vt^2", "-x + y % 3 - +2", "sqrt(abs(x*y)) / (1 + exp(-x))",
+				"x^2^0.5", "cos(x)*sin(y) - floor(x/y) + log10(ceil(y))", "2*(x-(y-(x*3)))" };
+		List<String> names = Arrays.asList("x", "y", "m", "Vt");
+		double[][] valueSets = { { 1, 2, 3, 4 }, { -2.5, 7.25, 0.1, 100 }, { 0, 1e-3, 12, -3 } };
+
+		for (String expression : expressions) {
+			ExpressionBuilder builder = new ExpressionBuilder(expression);
+			for (String n : names) {
+				builder.withVariable(new Variable(n));
+			}
+			PostfixExpression calc = (PostfixExpression) builder.build();
+			CompiledExpression compiled = calc.compile(names);
+			assertNotNull(compiled, expression);
+
+			for (double[] values : valueSets) {
+				for (int i = 0; i < names.size(); i++) {
+					calc.setVariable(new Variable(names.get(i), values[i]));
+				}
+				double expected = calc.calculate().getDoubleValue();
+				assertEquals(expected, compiled.evaluate(values), 0, expression + " at " + Arrays.toString(values));
+			}
+		}
+	}
+
+	@Test
+	public void testCompileCustomExpression() {
+		OpenRocketDocument doc = OpenRocketDocumentFactory.createNewRocket();
+
+		CustomExpression energy = new CustomExpression(doc, "Kinetic energy", "Ek", "J", ".5*m*Vt^2");
+		assertNotNull(energy.compile());
+
+		CustomExpression indexed = new CustomExpression(doc, "Mass change", "dm", "kg", "m - m[0]");
+		assertNotNull(indexed.compile());
+
+		// Functions on ranges are evaluated without compiling
+		CustomExpression average = new CustomExpression(doc, "Average mass", "Mavg", "kg", "mean(m[0:t])");
+		assertNull(average.compile());
+	}
 }
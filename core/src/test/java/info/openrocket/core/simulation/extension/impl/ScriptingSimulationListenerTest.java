@@ -0,0 +1,78 @@
+package info.openrocket.core.simulation.extension.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import javax.script.Invocable;
+import javax.script.ScriptEngine;
+import javax.script.ScriptException;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.scripting.GraalJSScriptEngineFactory;
+import info.openrocket.core.simulation.exception.SimulationException;
+import info.openrocket.core.simulation.exception.SimulationListenerException;
+
+public class ScriptingSimulationListenerTest {
+
+	private static final String SCRIPT = """
+			var steps = 0;
+			function postStep(status) { steps++; }
+			function preGravityModel(status) { return 9.5; }
+			function preWindModel(status) { return "wind"; }
+			function postSimpleThrustCalculation(status, thrust) { throw new Error("failure"); }
+			""";
+
+	private static ScriptEngine createEngine() throws ScriptException {
+		ScriptEngine engine = new GraalJSScriptEngineFactory().getScriptEngine();
+		engine.eval(SCRIPT);
+		return engine;
+	}
+
+	@Test
+	public void testDefinedFunctions() throws Exception {
+		ScriptEngine engine = createEngine();
+		ScriptingSimulationListener listener = new ScriptingSimulationListener((Invocable) engine);
+		listener.startSimulation(null);
+
+		for (int i = 0; i < 3; i++) {
+			listener.postStep(null);
+		}
+		assertEquals(3, ((Number) engine.eval("steps")).intValue());
+		assertEquals(9.5, listener.preGravityModel(null), 0);
+	}
+
+	@Test
+	public void testUndefinedFunctions() throws Exception {
+		ScriptingSimulationListener listener = new ScriptingSimulationListener((Invocable) createEngine());
+		listener.startSimulation(null);
+
+		assertTrue(listener.preStep(null));
+		assertTrue(Double.isNaN(listener.postGravityModel(null, 9.81)));
+		assertNull(listener.preMassCalculation(null));
+	}
+
+	@Test
+	public void testErrors() throws Exception {
+		ScriptingSimulationListener listener = new ScriptingSimulationListener((Invocable) createEngine());
+		listener.startSimulation(null);
+
+		assertThrows(SimulationListenerException.class, () -> listener.preWindModel(null));
+		assertThrows(SimulationException.class, () -> listener.postSimpleThrustCalculation(null, 1.0));
+	}
+
+	@Test
+	public void testSeparateState() throws Exception {
+		// Engines share the polyglot engine, but not the script state
+		ScriptEngine engine1 = createEngine();
+		ScriptEngine engine2 = createEngine();
+		ScriptingSimulationListener listener1 = new ScriptingSimulationListener((Invocable) engine1);
+		listener1.startSimulation(null);
+		listener1.postStep(null);
+
+		assertEquals(1, ((Number) engine1.eval("steps")).intValue());
+		assertEquals(0, ((Number) engine2.eval("steps")).intValue());
+	}
+}
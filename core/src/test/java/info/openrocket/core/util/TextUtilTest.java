@@ -280,6 +280,33 @@ public class TextUtilTest {
 		}
 	}
 
+	@Test
+	public void testAppendDouble() {
+		double[] special = { 0, -0.0, MathUtil.EPSILON / 3, Double.NaN, Double.POSITIVE_INFINITY,
+				Double.NEGATIVE_INFINITY, 1.005, 0.125, -0.0001, 9.9996e-4, 9999.9999, 1e-4, 1e300, -1e-300 };
+		Random random = new Random(1234);
+		for (int i = 0; i < 20000 + special.length; i++) {
+			double value;
+			if (i < special.length) {
+				value = special[i];
+			} else if (i % 2 == 0) {
+				value = random.nextGaussian() * Math.pow(10, random.nextInt(20) - 10);
+			} else {
+				// Values with few decimals hit the rounding boundaries
+				value = (random.nextInt(20000) - 10000) / 8.0 / Math.pow(10, random.nextInt(6));
+			}
+
+			for (int decimalPlaces = 0; decimalPlaces <= 8; decimalPlaces++) {
+				for (boolean exponential : new boolean[] { false, true }) {
+					StringBuilder sb = new StringBuilder();
+					TextUtil.appendDouble(sb, value, decimalPlaces, exponential);
+					assertEquals(TextUtil.doubleToString(value, decimalPlaces, exponential), sb.toString(),
+							"value " + value + ", " + decimalPlaces + " decimal places, exponential " + exponential);
+				}
+			}
+		}
+	}
+
 	@Test
 	public void testEscapeXML() {
 		assertEquals(TextUtil.escapeXML(""), "");
@@ -142,6 +142,9 @@ public class CAExportPanel extends CSVExportPanel<CADataType> {
 	@Override
 	public boolean doExport() {
 		CADataBranch branch = this.parent.runParameterSweep();
+		if (branch == null) {
+			return false;
+		}
 
 		// Check for data types with no selected components
 		List<CADataType> typesWithNoComponents = new ArrayList<>();
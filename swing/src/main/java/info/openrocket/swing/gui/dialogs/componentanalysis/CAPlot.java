@@ -5,8 +5,8 @@ import info.openrocket.core.componentanalysis.CADataType;
 import info.openrocket.core.rocketcomponent.RocketComponent;
 import info.openrocket.core.unit.Unit;
 import info.openrocket.swing.gui.plot.Plot;
-import org.jfree.data.xy.XYSeries;
 
+import java.nio.DoubleBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -17,16 +17,16 @@ public class CAPlot extends Plot<CADataType, CADataBranch, CAPlotConfiguration>
 	}
 
 	@Override
-	protected List<XYSeries> createSeriesForType(int dataIndex, int startIndex, CADataType type, Unit unit,
+	protected List<MetadataXYSeries> createSeriesForType(int dataIndex, int startIndex, CADataType type, Unit unit,
 												 CADataBranch branch, int branchIdx, String branchName, String baseName) {
 		// Get the component info
 		List<RocketComponent> components = filledConfig.getComponents(dataIndex);
 		List<String> componentNames = filledConfig.getComponentNames(dataIndex);
 
 		// Create the series for each component
-		List<XYSeries> allSeries = new ArrayList<>();
+		List<MetadataXYSeries> allSeries = new ArrayList<>();
 		for (int i = 0; i < components.size(); i++) {
-			XYSeries series = createSingleSeries(startIndex*1000 + i, type, unit, branch, branchIdx, branchName, dataIndex, baseName,
+			MetadataXYSeries series = createSingleSeries(startIndex*1000 + i, type, unit, branch, branchIdx, branchName, dataIndex, baseName,
 					components.get(i), componentNames.get(i));
 			allSeries.add(series);
 		}
@@ -34,12 +34,14 @@ public class CAPlot extends Plot<CADataType, CADataBranch, CAPlotConfiguration>
 		return allSeries;
 	}
 
-	private XYSeries createSingleSeries(int key, CADataType type, Unit unit,
+	private MetadataXYSeries createSingleSeries(int key, CADataType type, Unit unit,
 										CADataBranch branch, int branchIdx, String branchName, int dataIndex, String baseName,
 										RocketComponent component, String componentName) {
-		// Default implementation for regular DataBranch
-		MetadataXYSeries series = new MetadataXYSeries(key, false, true, branchIdx, dataIndex, unit.getUnit(),
-				branchName, baseName);
+		DoubleBuffer plotx = branch.getBuffer(filledConfig.getDomainAxisType());
+		DoubleBuffer ploty = branch.getBuffer(type, component);
+
+		MetadataXYSeries series = new MetadataXYSeries(key, plotx, filledConfig.getDomainAxisUnit(), ploty, unit,
+				branchIdx, dataIndex, branchName, baseName);
 
 		// Create a new description that includes the component name
 		String newBaseName = baseName;
@@ -49,16 +51,6 @@ public class CAPlot extends Plot<CADataType, CADataBranch, CAPlotConfiguration>
 		series.setBaseName(newBaseName);
 		series.updateDescription();
 
-		List<Double> plotx = branch.get(filledConfig.getDomainAxisType());
-		List<Double> ploty = branch.get(type, component);
-
-		int pointCount = plotx.size();
-		for (int j = 0; j < pointCount; j++) {
-			double x = filledConfig.getDomainAxisUnit().toUnit(plotx.get(j));
-			double y = unit.toUnit(ploty.get(j));
-			series.add(x, y);
-		}
-
 		return series;
 	}
 }
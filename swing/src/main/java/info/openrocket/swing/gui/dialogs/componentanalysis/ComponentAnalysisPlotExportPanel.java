@@ -11,9 +11,11 @@ import info.openrocket.core.l10n.Translator;
 import info.openrocket.core.rocketcomponent.Rocket;
 import info.openrocket.core.rocketcomponent.RocketComponent;
 import info.openrocket.core.startup.Application;
+import info.openrocket.core.util.BugException;
 import info.openrocket.swing.gui.adaptors.DoubleModel;
 import info.openrocket.swing.gui.components.EditableSpinner;
 import info.openrocket.swing.gui.components.UnitSelector;
+import info.openrocket.swing.gui.dialogs.SwingWorkerDialog;
 import info.openrocket.swing.gui.plot.PlotPanel;
 import net.miginfocom.swing.MigLayout;
 import org.slf4j.Logger;
@@ -26,6 +28,7 @@ import javax.swing.JDialog;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JTabbedPane;
+import javax.swing.SwingWorker;
 import javax.swing.border.TitledBorder;
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
@@ -36,6 +39,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
 
 public class ComponentAnalysisPlotExportPanel extends JPanel implements PlotPanel.PlotConfigurationListener<CAPlotConfiguration> {
 	private static final Translator trans = Application.getTranslator();
@@ -294,18 +298,41 @@ public class ComponentAnalysisPlotExportPanel extends JPanel implements PlotPane
 	}
 
 	/**
-	 * Run the parameter sweep and return the data branch.
-	 * @return the data branch containing the results of the parameter sweep
+	 * Run the parameter sweep in a background worker and return the data branch.  A progress
+	 * dialog is shown if the sweep takes a notable amount of time.
+	 * @return the data branch containing the results of the parameter sweep, or null if the
+	 * 			user cancelled the sweep
 	 */
 	public CADataBranch runParameterSweep() {
-		double min = minModel.getValue();
-		double max = maxModel.getValue();
-		double delta = deltaModel.getValue();
-
-		CADomainDataType domainType = getSelectedParameter();
-		CADataBranch dataBranch = parameterSweep.sweep(domainType, min, max, delta, getParameterValue(domainType));
-		log.info("Parameter sweep completed. Data stored in dataBranch.");
-		return dataBranch;
+		final double min = minModel.getValue();
+		final double max = maxModel.getValue();
+		final double delta = deltaModel.getValue();
+
+		final CADomainDataType domainType = getSelectedParameter();
+		final double initialValue = getParameterValue(domainType);
+		SwingWorker<CADataBranch, Void> worker = new SwingWorker<>() {
+			@Override
+			protected CADataBranch doInBackground() {
+				return parameterSweep.sweep(domainType, min, max, delta, initialValue,
+						(branch, completed, total) -> setProgress(100 * completed / total));
+			}
+		};
+
+		if (!SwingWorkerDialog.runWorker(parent, trans.get("CAPlotExportDialog.Sweep.title"),
+				trans.get("CAPlotExportDialog.Sweep.lbl"), worker)) {
+			log.info("User cancelled the parameter sweep");
+			return null;
+		}
+
+		try {
+			CADataBranch dataBranch = worker.get();
+			log.info("Parameter sweep completed. Data stored in dataBranch.");
+			return dataBranch;
+		} catch (InterruptedException e) {
+			throw new BugException("EDT was interrupted", e);
+		} catch (ExecutionException e) {
+			throw new BugException("Parameter sweep failed", e.getCause());
+		}
 	}
 
 	public Window getParentWindow() {
@@ -59,6 +59,7 @@ import info.openrocket.core.formatting.RocketDescriptor;
 import info.openrocket.core.l10n.Translator;
 import info.openrocket.core.logging.Markers;
 import info.openrocket.core.optimization.general.OptimizationException;
+import info.openrocket.core.optimization.general.OptimizationMethod;
 import info.openrocket.core.optimization.general.Point;
 import info.openrocket.core.optimization.rocketoptimization.OptimizableParameter;
 import info.openrocket.core.optimization.rocketoptimization.OptimizationGoal;
@@ -149,6 +150,8 @@ public class GeneralOptimizationDialog extends JDialog {
 	private final UnitSelector optimizationGoalUnitSelector;
 	private final DoubleModel optimizationSeekValue;
 	
+	private final JComboBox<OptimizationMethod> optimizationMethodCombo;
+	
 	private final DoubleModel minimumStability;
 	private final DoubleModel maximumStability;
 	private final JCheckBox minimumStabilitySelected;
@@ -422,6 +425,27 @@ public class GeneralOptimizationDialog extends JDialog {
 		disableComponents.add(optimizationGoalUnitSelector);
 		sub.add(optimizationGoalUnitSelector, "width 20lp, wrap unrel");
 		
+		// // Optimization method
+		label = new JLabel(trans.get("lbl.optimizeMethod"));
+		label.setToolTipText(trans.get("lbl.optimizeMethod.ttip"));
+		disableComponents.add(label);
+		sub.add(label, "");
+		
+		optimizationMethodCombo = new JComboBox<>(OptimizationMethod.values());
+		optimizationMethodCombo.setEditable(false);
+		ActionListener methodTTipListener = new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				OptimizationMethod method = (OptimizationMethod) optimizationMethodCombo.getSelectedItem();
+				optimizationMethodCombo.setToolTipText(method.getDescription());
+			}
+		};
+		optimizationMethodCombo.addActionListener(methodTTipListener);
+		methodTTipListener.actionPerformed(null);
+		optimizationMethodCombo.addActionListener(clearHistoryActionListener);
+		disableComponents.add(optimizationMethodCombo);
+		sub.add(optimizationMethodCombo, "growx, wrap unrel");
+		
 		panel.add(sub, "grow");
 		
 		// // Required stability sub-panel
@@ -726,7 +750,9 @@ public class GeneralOptimizationDialog extends JDialog {
 		}
 		
 		// Create and start the background worker
-		worker = new OptimizationWorker(simulation, parameter, goal, domain, modifiers) {
+		OptimizationMethod method = (OptimizationMethod) optimizationMethodCombo.getSelectedItem();
+		worker = new OptimizationWorker(simulation, parameter, goal, domain, method,
+				SwingPreferences.getMaxThreadCount(), modifiers) {
 			@Override
 			protected void done(OptimizationException exception) {
 				log.info("Optimization finished, exception=" + exception, exception);
@@ -13,11 +13,9 @@ import info.openrocket.core.document.Simulation;
 import info.openrocket.core.optimization.general.FunctionOptimizer;
 import info.openrocket.core.optimization.general.OptimizationController;
 import info.openrocket.core.optimization.general.OptimizationException;
+import info.openrocket.core.optimization.general.OptimizationMethod;
 import info.openrocket.core.optimization.general.ParallelExecutorCache;
-import info.openrocket.core.optimization.general.ParallelFunctionCache;
 import info.openrocket.core.optimization.general.Point;
-import info.openrocket.core.optimization.general.multidim.MultidirectionalSearchOptimizer;
-import info.openrocket.core.optimization.general.onedim.GoldenSectionSearchOptimizer;
 import info.openrocket.core.optimization.rocketoptimization.OptimizableParameter;
 import info.openrocket.core.optimization.rocketoptimization.OptimizationGoal;
 import info.openrocket.core.optimization.rocketoptimization.RocketOptimizationFunction;
@@ -26,6 +24,7 @@ import info.openrocket.core.optimization.rocketoptimization.SimulationDomain;
 import info.openrocket.core.optimization.rocketoptimization.SimulationModifier;
 import info.openrocket.core.unit.Value;
 import info.openrocket.core.util.BugException;
+import info.openrocket.swing.gui.util.SwingPreferences;
 
 /**
  * A background worker that runs the optimization in the background.  It supports providing
@@ -60,7 +59,7 @@ public abstract class OptimizationWorker extends Thread implements OptimizationC
 	private final Simulation simulation;
 	private final SimulationModifier[] modifiers;
 	
-	private final ParallelFunctionCache cache;
+	private final ParallelExecutorCache cache;
 
 	private final LinkedBlockingQueue<FunctionEvaluationData> evaluationQueue = new LinkedBlockingQueue<>();
 	private final LinkedBlockingQueue<OptimizationStepData> stepQueue = new LinkedBlockingQueue<>();
@@ -70,7 +69,7 @@ public abstract class OptimizationWorker extends Thread implements OptimizationC
 	
 	
 	/**
-	 * Sole constructor
+	 * Construct a worker that evaluates the function using one thread per available processor.
 	 * @param simulation	the simulation
 	 * @param parameter			the optimization parameter
 	 * @param goal				the optimization goal
@@ -79,6 +78,36 @@ public abstract class OptimizationWorker extends Thread implements OptimizationC
 	 */
 	public OptimizationWorker(Simulation simulation, OptimizableParameter parameter,
 			OptimizationGoal goal, SimulationDomain domain, SimulationModifier... modifiers) {
+		this(simulation, parameter, goal, domain, SwingPreferences.getMaxThreadCount(), modifiers);
+	}
+	
+	/**
+	 * Construct a worker that uses direct search.
+	 * @param simulation	the simulation
+	 * @param parameter			the optimization parameter
+	 * @param goal				the optimization goal
+	 * @param domain			the optimization domain
+	 * @param threadCount		the number of threads used to evaluate the function
+	 * @param modifiers			the simulation modifiers
+	 */
+	public OptimizationWorker(Simulation simulation, OptimizableParameter parameter,
+			OptimizationGoal goal, SimulationDomain domain, int threadCount, SimulationModifier... modifiers) {
+		this(simulation, parameter, goal, domain, OptimizationMethod.DIRECT_SEARCH, threadCount, modifiers);
+	}
+	
+	/**
+	 * Construct a worker.
+	 * @param simulation	the simulation
+	 * @param parameter			the optimization parameter
+	 * @param goal				the optimization goal
+	 * @param domain			the optimization domain
+	 * @param method			the optimization method
+	 * @param threadCount		the number of threads used to evaluate the function
+	 * @param modifiers			the simulation modifiers
+	 */
+	public OptimizationWorker(Simulation simulation, OptimizableParameter parameter,
+			OptimizationGoal goal, SimulationDomain domain, OptimizationMethod method, int threadCount,
+			SimulationModifier... modifiers) {
 		
 		this.simulation = simulation;
 		this.modifiers = modifiers.clone();
@@ -86,14 +115,10 @@ public abstract class OptimizationWorker extends Thread implements OptimizationC
 		function = new RocketOptimizationFunction(simulation, parameter, goal, domain, modifiers);
 		function.addRocketOptimizationListener(this);
 		
-		cache = new ParallelExecutorCache(1);
+		cache = new ParallelExecutorCache(threadCount);
 		cache.setFunction(function);
 		
-		if (modifiers.length == 1) {
-			optimizer = new GoldenSectionSearchOptimizer(cache);
-		} else {
-			optimizer = new MultidirectionalSearchOptimizer(cache);
-		}
+		optimizer = method.createOptimizer(cache, modifiers.length);
 	}
 	
 	
@@ -112,6 +137,9 @@ public abstract class OptimizationWorker extends Thread implements OptimizationC
 		} catch (OptimizationException e) {
 			this.optimizationException = e;
 		} finally {
+			// Stop any still running evaluations and release the evaluation threads
+			cache.abortAll();
+			cache.getExecutor().shutdownNow();
 			SwingUtilities.invokeLater(() -> {
 				lastPurge = System.currentTimeMillis() + 24L * 3600L * 1000L;
 				processQueue();
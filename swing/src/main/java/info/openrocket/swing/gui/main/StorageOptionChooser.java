@@ -5,6 +5,7 @@ import java.awt.event.ActionListener;
 
 import javax.swing.BorderFactory;
 import javax.swing.ButtonGroup;
+import javax.swing.JCheckBox;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
@@ -17,6 +18,7 @@ import net.miginfocom.swing.MigLayout;
 import info.openrocket.core.document.OpenRocketDocument;
 import info.openrocket.core.document.Simulation;
 import info.openrocket.core.document.StorageOptions;
+import info.openrocket.core.document.StorageOptions.FlightDataFormat;
 import info.openrocket.core.l10n.Translator;
 import info.openrocket.core.simulation.FlightData;
 import info.openrocket.core.simulation.FlightDataBranch;
@@ -33,6 +35,8 @@ public class StorageOptionChooser extends JPanel {
 	private JRadioButton someButton;
 	private JRadioButton noneButton;
 	
+	private JCheckBox binaryCheck;
+	
 	private JSpinner timeSpinner;
 
 	private JLabel infoLabel;
@@ -70,6 +74,14 @@ public class StorageOptionChooser extends JPanel {
 		buttonGroup.add(allButton);
 		allButton.addActionListener(actionUpdater);
 		this.add(allButton, "spanx, wrap rel");
+		
+		//// Store in compact binary format
+		binaryCheck = new JCheckBox(trans.get("StorageOptChooser.checkbox.Binarydata"));
+		//// <html>Store the simulated data in a compact binary format.<br>
+		//// The data is loaded only once it is needed.
+		binaryCheck.setToolTipText(trans.get("StorageOptChooser.checkbox.Binarydata.ttip"));
+		binaryCheck.addActionListener(actionUpdater);
+		this.add(binaryCheck, "gapleft para, spanx, wrap rel");
 				
 		//// Only summary data
 		noneButton = new JRadioButton(trans.get("StorageOptChooser.rdbut.Onlysummarydata"));
@@ -104,6 +116,7 @@ public class StorageOptionChooser extends JPanel {
 		} else {
 			noneButton.setSelected(true);
 		}
+		binaryCheck.setSelected(opts.getFlightDataFormat() == FlightDataFormat.BINARY);
 		
 		updateInfoLabel();
 	}
@@ -111,11 +124,15 @@ public class StorageOptionChooser extends JPanel {
 	
 	public void storeOptions(StorageOptions opts) {
 		opts.setSaveSimulationData(allButton.isSelected());
+		opts.setFlightDataFormat(binaryCheck.isSelected() ? FlightDataFormat.BINARY : FlightDataFormat.TEXT);
 		opts.setExplicitlySet(true);
 	}
 
 	private void updateInfoLabel() {
-		if (allButton.isSelected()) {
+		binaryCheck.setEnabled(allButton.isSelected());
+		if (allButton.isSelected() && binaryCheck.isSelected()) {
+			infoLabel.setText(trans.get("StorageOptChooser.lbl.info2"));
+		} else if (allButton.isSelected()) {
 			infoLabel.setText(trans.get("StorageOptChooser.lbl.info1"));
 		} else if (noneButton.isSelected()) {
 			infoLabel.setText(trans.get("StorageOptChooser.lbl.info3"));
@@ -0,0 +1,452 @@
+package info.openrocket.swing.gui.plot;
+
+import info.openrocket.core.unit.Unit;
+import org.jfree.data.DomainInfo;
+import org.jfree.data.DomainOrder;
+import org.jfree.data.Range;
+import org.jfree.data.xy.AbstractXYDataset;
+
+import java.nio.DoubleBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An XYDataset that reads its values directly from the primitive data columns of data branches,
+ * converting them to the plot units on access.
+ * <p>
+ * Series with more samples than can be displayed are downsampled: the visible part of the domain is
+ * divided into a number of buckets, and of each bucket only the first, last, minimum and maximum samples
+ * are plotted.  The bucket count is {@link #DEFAULT_BUCKET_COUNT} until it is set with
+ * {@link #setBucketCount(int)}; {@link Plot} sets it to the width of the data area in pixels.  This keeps the shape of the curve, including
+ * its peaks, while the number of plotted items and the memory used do not depend on the number of
+ * samples.  Call {@link #setVisibleDomain(Range)} when the domain axis is zoomed or panned to resolve
+ * the visible samples again.
+ * <p>
+ * The items of the dataset are the plotted samples; use {@link Series#getSampleIndex(int)} to get the
+ * index of the sample in the data branch.
+ */
+public class BranchXYDataset extends AbstractXYDataset implements DomainInfo {
+	/** The default number of buckets the visible domain is divided in */
+	public static final int DEFAULT_BUCKET_COUNT = 2000;
+
+	private final List<Series> series = new ArrayList<>();
+	private int bucketCount = DEFAULT_BUCKET_COUNT;
+	private Range visibleDomain = null;
+
+	public void addSeries(Series s) {
+		s.resolve(visibleDomain, bucketCount);
+		series.add(s);
+		fireDatasetChanged();
+	}
+
+	public Series getSeries(int index) {
+		return series.get(index);
+	}
+
+	public List<Series> getSeries() {
+		return Collections.unmodifiableList(series);
+	}
+
+	public int getBucketCount() {
+		return bucketCount;
+	}
+
+	public void setBucketCount(int bucketCount) {
+		if (bucketCount < 1) {
+			throw new IllegalArgumentException("Bucket count must be positive, was " + bucketCount);
+		}
+		this.bucketCount = bucketCount;
+		resolve();
+		fireDatasetChanged();
+	}
+
+	/**
+	 * Set the visible part of the domain and resolve the plotted samples of all series for it.
+	 * No change event is fired, as this is called while the plot is being updated for the new
+	 * domain range anyway.
+	 *
+	 * @param range the visible domain range, or <code>null</code> to plot the complete domain
+	 */
+	public void setVisibleDomain(Range range) {
+		this.visibleDomain = range;
+		resolve();
+	}
+
+	private void resolve() {
+		for (Series s : series) {
+			s.resolve(visibleDomain, bucketCount);
+		}
+	}
+
+	@Override
+	public int getSeriesCount() {
+		return series.size();
+	}
+
+	@SuppressWarnings("rawtypes")
+	@Override
+	public Comparable getSeriesKey(int index) {
+		return series.get(index).getKey();
+	}
+
+	@Override
+	public DomainOrder getDomainOrder() {
+		for (Series s : series) {
+			if (!s.isAscending()) {
+				return DomainOrder.NONE;
+			}
+		}
+		return DomainOrder.ASCENDING;
+	}
+
+	@Override
+	public int getItemCount(int index) {
+		return series.get(index).getItemCount();
+	}
+
+	@Override
+	public Number getX(int index, int item) {
+		return series.get(index).getXValue(item);
+	}
+
+	@Override
+	public double getXValue(int index, int item) {
+		return series.get(index).getXValue(item);
+	}
+
+	@Override
+	public Number getY(int index, int item) {
+		return series.get(index).getYValue(item);
+	}
+
+	@Override
+	public double getYValue(int index, int item) {
+		return series.get(index).getYValue(item);
+	}
+
+	@Override
+	public double getDomainLowerBound(boolean includeInterval) {
+		double min = Double.NaN;
+		for (Series s : series) {
+			if (Double.isNaN(min) || s.getMinX() < min) {
+				min = s.getMinX();
+			}
+		}
+		return min;
+	}
+
+	@Override
+	public double getDomainUpperBound(boolean includeInterval) {
+		double max = Double.NaN;
+		for (Series s : series) {
+			if (Double.isNaN(max) || s.getMaxX() > max) {
+				max = s.getMaxX();
+			}
+		}
+		return max;
+	}
+
+	@Override
+	public Range getDomainBounds(boolean includeInterval) {
+		double min = getDomainLowerBound(includeInterval);
+		double max = getDomainUpperBound(includeInterval);
+		if (Double.isNaN(min) || Double.isNaN(max)) {
+			return null;
+		}
+		return new Range(min, max);
+	}
+
+
+	/**
+	 * A series of a BranchXYDataset, backed by a domain and a range data column.
+	 */
+	public static class Series {
+		@SuppressWarnings("rawtypes")
+		private final Comparable key;
+		private final DoubleBuffer x;
+		private final DoubleBuffer y;
+		private final Unit xUnit;
+		private final Unit yUnit;
+		private final int length;
+
+		private final boolean ascending;
+		private final double minX;
+		private final double maxX;
+
+		private String description;
+
+		/** The sample indices of the plotted items, or null if all samples are plotted */
+		private int[] items = null;
+		private int itemCount;
+
+		/**
+		 * @param key the series key
+		 * @param x the domain values, in SI units
+		 * @param xUnit the unit to plot the domain values in
+		 * @param y the range values, in SI units
+		 * @param yUnit the unit to plot the range values in
+		 */
+		@SuppressWarnings("rawtypes")
+		public Series(Comparable key, DoubleBuffer x, Unit xUnit, DoubleBuffer y, Unit yUnit) {
+			this.key = key;
+			this.x = x;
+			this.y = y;
+			this.xUnit = xUnit;
+			this.yUnit = yUnit;
+			this.length = Math.min(x.limit(), y.limit());
+			this.itemCount = length;
+
+			boolean ascending = true;
+			double minX = Double.NaN;
+			double maxX = Double.NaN;
+			double previous = Double.NEGATIVE_INFINITY;
+			for (int i = 0; i < length; i++) {
+				double value = sampleX(i);
+				if (Double.isNaN(value)) {
+					ascending = false;
+					continue;
+				}
+				if (value < previous) {
+					ascending = false;
+				}
+				previous = value;
+				if (Double.isNaN(minX) || value < minX) {
+					minX = value;
+				}
+				if (Double.isNaN(maxX) || value > maxX) {
+					maxX = value;
+				}
+			}
+			this.ascending = ascending;
+			this.minX = minX;
+			this.maxX = maxX;
+		}
+
+		@SuppressWarnings("rawtypes")
+		public Comparable getKey() {
+			return key;
+		}
+
+		public String getDescription() {
+			return description;
+		}
+
+		public void setDescription(String description) {
+			this.description = description;
+		}
+
+		/**
+		 * Return whether the domain values of this series are in ascending order.
+		 */
+		public boolean isAscending() {
+			return ascending;
+		}
+
+		public double getMinX() {
+			return minX;
+		}
+
+		public double getMaxX() {
+			return maxX;
+		}
+
+		/**
+		 * Return the number of samples of this series.
+		 */
+		public int getLength() {
+			return length;
+		}
+
+		/**
+		 * Return the number of plotted items of this series.
+		 */
+		public int getItemCount() {
+			return itemCount;
+		}
+
+		/**
+		 * Return the index of the sample that is plotted as the specified item.
+		 */
+		public int getSampleIndex(int item) {
+			return items == null ? item : items[item];
+		}
+
+		public double getXValue(int item) {
+			return sampleX(getSampleIndex(item));
+		}
+
+		public double getYValue(int item) {
+			return yUnit.toUnit(y.get(getSampleIndex(item)));
+		}
+
+		private double sampleX(int index) {
+			return xUnit.toUnit(x.get(index));
+		}
+
+		/**
+		 * Resolve the samples to plot for the visible domain.
+		 *
+		 * @param visibleDomain the visible domain range, or <code>null</code> for the complete domain
+		 * @param bucketCount the number of buckets to divide the visible domain in
+		 */
+		void resolve(Range visibleDomain, int bucketCount) {
+			int from = 0;
+			int to = length;
+			if (ascending && visibleDomain != null) {
+				// Include one sample on either side, so that the lines continue to the edges of the plot
+				from = Math.max(0, firstIndexAtLeast(visibleDomain.getLowerBound()) - 1);
+				to = Math.min(length, firstIndexAbove(visibleDomain.getUpperBound()) + 1);
+			}
+
+			// Plot all samples if there are not more than the downsampled series would have
+			int count = to - from;
+			if (count <= 4 * bucketCount) {
+				if (from == 0 && to == length) {
+					items = null;
+				} else {
+					items = new int[count];
+					for (int i = 0; i < count; i++) {
+						items[i] = from + i;
+					}
+				}
+				itemCount = count;
+				return;
+			}
+
+			items = downsample(from, to, bucketCount);
+			itemCount = items.length;
+		}
+
+		/**
+		 * Downsample the samples in [from, to) to the first, last, minimum and maximum sample of each bucket,
+		 * and the first NaN sample of each bucket to keep the gaps in the curve.  The buckets divide the domain
+		 * range if the domain is ascending, otherwise they divide the samples.
+		 */
+		private int[] downsample(int from, int to, int bucketCount) {
+			final int count = to - from;
+			final double x0 = sampleX(from);
+			final double bucketWidth = (sampleX(to - 1) - x0) / bucketCount;
+			final boolean byDomain = ascending && bucketWidth > 0;
+
+			int[] result = new int[5 * bucketCount];
+			int resultCount = 0;
+			int[] candidates = new int[5];
+
+			int bucket = -1;
+			int first = -1, last = -1, min = -1, max = -1, nan = -1;
+			for (int i = from; i < to; i++) {
+				int b;
+				if (byDomain) {
+					b = (int) Math.min(bucketCount - 1, (sampleX(i) - x0) / bucketWidth);
+				} else {
+					b = (int) ((long) (i - from) * bucketCount / count);
+				}
+
+				if (b != bucket) {
+					if (bucket >= 0) {
+						resultCount = addBucket(result, resultCount, candidates, first, last, min, max, nan);
+					}
+					bucket = b;
+					first = i;
+					min = -1;
+					max = -1;
+					nan = -1;
+				}
+				last = i;
+
+				double value = y.get(i);
+				if (Double.isNaN(value)) {
+					if (nan < 0) {
+						nan = i;
+					}
+				} else {
+					if (min < 0 || value < y.get(min)) {
+						min = i;
+					}
+					if (max < 0 || value > y.get(max)) {
+						max = i;
+					}
+				}
+			}
+			if (bucket >= 0) {
+				resultCount = addBucket(result, resultCount, candidates, first, last, min, max, nan);
+			}
+
+			int[] items = new int[resultCount];
+			System.arraycopy(result, 0, items, 0, resultCount);
+			return items;
+		}
+
+		/**
+		 * Add the distinct sample indices of a bucket to the result in ascending order.
+		 */
+		private static int addBucket(int[] result, int resultCount, int[] candidates,
+									 int first, int last, int min, int max, int nan) {
+			int n = 0;
+			candidates[n++] = first;
+			candidates[n++] = last;
+			if (min >= 0) {
+				candidates[n++] = min;
+			}
+			if (max >= 0) {
+				candidates[n++] = max;
+			}
+			if (nan >= 0) {
+				candidates[n++] = nan;
+			}
+
+			// Insertion sort of the few candidates
+			for (int i = 1; i < n; i++) {
+				int c = candidates[i];
+				int j = i - 1;
+				while (j >= 0 && candidates[j] > c) {
+					candidates[j + 1] = candidates[j];
+					j--;
+				}
+				candidates[j + 1] = c;
+			}
+
+			for (int i = 0; i < n; i++) {
+				if (i == 0 || candidates[i] != candidates[i - 1]) {
+					result[resultCount++] = candidates[i];
+				}
+			}
+			return resultCount;
+		}
+
+		/**
+		 * Return the first index of an ascending domain with a value of at least the specified value.
+		 */
+		private int firstIndexAtLeast(double value) {
+			int low = 0;
+			int high = length;
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				if (sampleX(mid) < value) {
+					low = mid + 1;
+				} else {
+					high = mid;
+				}
+			}
+			return low;
+		}
+
+		/**
+		 * Return the first index of an ascending domain with a value above the specified value.
+		 */
+		private int firstIndexAbove(double value) {
+			int low = 0;
+			int high = length;
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				if (sampleX(mid) <= value) {
+					low = mid + 1;
+				} else {
+					high = mid;
+				}
+			}
+			return low;
+		}
+	}
+}
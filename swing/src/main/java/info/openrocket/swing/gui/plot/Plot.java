@@ -12,6 +12,7 @@ import info.openrocket.core.unit.UnitGroup;
 import info.openrocket.swing.gui.util.SwingPreferences;
 import info.openrocket.swing.utils.DecimalFormatter;
 import org.jfree.chart.ChartFactory;
+import org.jfree.chart.ChartPanel;
 import org.jfree.chart.JFreeChart;
 import org.jfree.chart.LegendItem;
 import org.jfree.chart.LegendItemCollection;
@@ -19,6 +20,7 @@ import org.jfree.chart.LegendItemSource;
 import org.jfree.chart.axis.NumberAxis;
 import org.jfree.chart.axis.ValueAxis;
 import org.jfree.chart.block.BlockBorder;
+import org.jfree.chart.event.ChartProgressEvent;
 import org.jfree.chart.labels.StandardXYToolTipGenerator;
 import org.jfree.chart.plot.DefaultDrawingSupplier;
 import org.jfree.chart.plot.Marker;
@@ -34,8 +36,6 @@ import org.jfree.chart.ui.RectangleEdge;
 import org.jfree.chart.ui.RectangleInsets;
 import org.jfree.data.Range;
 import org.jfree.data.xy.XYDataset;
-import org.jfree.data.xy.XYSeries;
-import org.jfree.data.xy.XYSeriesCollection;
 import org.jfree.text.TextUtilities;
 import org.jfree.ui.TextAnchor;
 
@@ -51,6 +51,7 @@ import java.awt.Stroke;
 import java.awt.geom.Line2D;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
+import java.nio.DoubleBuffer;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -68,14 +69,17 @@ public abstract class Plot<T extends DataType, B extends DataBranch<T>, C extend
 
 	protected static final float PLOT_STROKE_WIDTH = 1.5f;
 
+	private static final DoubleBuffer EMPTY = DoubleBuffer.allocate(0).asReadOnlyBuffer();
+
 	protected int branchCount;
 	protected final List<B> allBranches;
 	protected final List<ModifiedXYItemRenderer> renderers = new ArrayList<>();
 	protected final LegendItems legendItems;
-	protected final XYSeriesCollection[] data;
+	protected final BranchXYDataset[] data;
 	protected final C filledConfig;		// Configuration after using 'fillAutoAxes' and 'fitAxes'
 
 	protected final JFreeChart chart;
+	private ChartPanel chartPanel = null;
 
 	protected Plot(String plotName, B mainBranch, C config, List<B> allBranches, boolean initialShowPoints) {
 		this.branchCount = allBranches.size();
@@ -104,9 +108,9 @@ public abstract class Plot<T extends DataType, B extends DataBranch<T>, C extend
 		chart.addSubtitle(legend);
 
 		// Create the data series for both axes
-		this.data = new XYSeriesCollection[2];
-		this.data[Util.PlotAxisSelection.LEFT.getValue()] = new XYSeriesCollection();
-		this.data[Util.PlotAxisSelection.RIGHT.getValue()] = new XYSeriesCollection();
+		this.data = new BranchXYDataset[2];
+		this.data[Util.PlotAxisSelection.LEFT.getValue()] = new BranchXYDataset();
+		this.data[Util.PlotAxisSelection.RIGHT.getValue()] = new BranchXYDataset();
 
 		// Fill the auto-selections based on first branch selected.
 		this.filledConfig = config.fillAutoAxes(mainBranch);
@@ -127,7 +131,7 @@ public abstract class Plot<T extends DataType, B extends DataBranch<T>, C extend
 		filledConfig.fitAxes(allBranches);
 		List<Axis> minMaxAxes = filledConfig.getAllAxes();
 
-		// Create the XYSeries objects from the flight data and store into the collections
+		// Create the series from the flight data and store into the datasets
 		String[] axisLabel = new String[2];
 		for (int i = 0; i < dataCount; i++) {
 			// Get info
@@ -146,10 +150,10 @@ public abstract class Plot<T extends DataType, B extends DataBranch<T>, C extend
 				}
 
 				String branchName = branchIndex == 0 ? null : thisBranch.getName();
-				List<XYSeries> seriesList = createSeriesForType(i, seriesCount, type, unit, thisBranch, branchIndex,
+				List<MetadataXYSeries> seriesList = createSeriesForType(i, seriesCount, type, unit, thisBranch, branchIndex,
 						branchName, name);
 
-				for (XYSeries series : seriesList) {
+				for (MetadataXYSeries series : seriesList) {
 					data[axis].addSeries(series);
 					seriesCount++;
 				}
@@ -201,23 +205,26 @@ public abstract class Plot<T extends DataType, B extends DataBranch<T>, C extend
 					@Override
 					public String generateToolTip(XYDataset dataset, int series, int item) {
 
-						XYSeriesCollection collection = data[finalAxisno];
+						BranchXYDataset collection = data[finalAxisno];
 						if (collection.getSeriesCount() == 0) {
 							return null;
 						}
 						MetadataXYSeries ser = (MetadataXYSeries) collection.getSeries(series);
 
+						// The plotted items can be downsampled, so get the index of the sample in the branch
+						int sampleIdx = ser.getSampleIndex(item);
+
 						// Determine the appropriate name based on the time and series
-						String name = getNameBasedOnIdxAndSeries(ser, item);
+						String name = getNameBasedOnIdxAndSeries(ser, sampleIdx);
 
 						int dataTypeIdx = ser.getDataIdx();
 						DataType type = config.getType(dataTypeIdx);
 
 						String nameT = FlightDataType.TYPE_TIME.getName();
 						double dataT = Double.NaN;
-						List<Double> time = allBranches.get(ser.getBranchIdx()).get((T)FlightDataType.TYPE_TIME);
+						Double time = allBranches.get(ser.getBranchIdx()).getByIndex((T)FlightDataType.TYPE_TIME, sampleIdx);
 						if (null != time) {
-							dataT = time.get(item);
+							dataT = time;
 						}
 						String unitT = FlightDataType.TYPE_TIME.getUnitGroup().getDefaultUnit().toString();
 
@@ -274,6 +281,15 @@ public abstract class Plot<T extends DataType, B extends DataBranch<T>, C extend
 			}
 		}
 
+		// Resolve the plotted samples again when zooming or panning the domain
+		ValueAxis domainAxis = plot.getDomainAxis();
+		domainAxis.addChangeListener(event -> {
+			updateBucketCount();
+			for (BranchXYDataset dataset : data) {
+				dataset.setVisibleDomain(domainAxis.getRange());
+			}
+		});
+
 		plot.getDomainAxis().setLabel(getLabel(domainType, domainUnit));
 		plot.addDomainMarker(new ValueMarker(0));
 		plot.addRangeMarker(new ValueMarker(0));
@@ -289,6 +305,38 @@ public abstract class Plot<T extends DataType, B extends DataBranch<T>, C extend
 		return chart;
 	}
 
+	/**
+	 * Set the chart panel this plot is displayed in.  The datasets are downsampled to one bucket per
+	 * pixel of the panel's data area, which is checked again whenever the chart has been drawn.
+	 */
+	public void setChartPanel(ChartPanel chartPanel) {
+		this.chartPanel = chartPanel;
+		chart.addProgressListener(event -> {
+			if (event.getType() == ChartProgressEvent.DRAWING_FINISHED) {
+				updateBucketCount();
+			}
+		});
+	}
+
+	/**
+	 * Set the bucket count of the datasets to the width of the data area of the chart panel.  Nothing is
+	 * done before the panel is set or while the chart has not been drawn yet.
+	 */
+	private void updateBucketCount() {
+		if (chartPanel == null) {
+			return;
+		}
+		int width = (int) Math.ceil(chartPanel.getScreenDataArea().getWidth());
+		if (width < 1) {
+			return;
+		}
+		for (BranchXYDataset dataset : data) {
+			if (dataset.getBucketCount() != width) {
+				dataset.setBucketCount(width);
+			}
+		}
+	}
+
 	private String getLabel(T type, Unit unit) {
 		String name = Util.formatHTMLString(type.getName());
 		if (unit != null && !UnitGroup.UNITS_NONE.contains(unit) &&
@@ -297,20 +345,14 @@ public abstract class Plot<T extends DataType, B extends DataBranch<T>, C extend
 		return name;
 	}
 
-	protected List<XYSeries> createSeriesForType(int dataIndex, int startIndex, T type, Unit unit, B branch,
+	protected List<MetadataXYSeries> createSeriesForType(int dataIndex, int startIndex, T type, Unit unit, B branch,
 												 int branchIdx, String branchName, String baseName) {
 		// Default implementation for regular DataBranch
-		MetadataXYSeries series = new MetadataXYSeries(startIndex, false, true, branchIdx, dataIndex, unit.getUnit(), branchName, baseName);
+		DoubleBuffer plotx = branch.getBuffer(filledConfig.getDomainAxisType());
+		DoubleBuffer ploty = branch.getBuffer(type);
 
-		List<Double> plotx = branch.get(filledConfig.getDomainAxisType());
-		List<Double> ploty = branch.get(type);
-
-		int pointCount = plotx.size();
-		for (int j = 0; j < pointCount; j++) {
-			double x = filledConfig.getDomainAxisUnit().toUnit(plotx.get(j));
-			double y = unit.toUnit(ploty.get(j));
-			series.add(x, y);
-		}
+		MetadataXYSeries series = new MetadataXYSeries(startIndex, plotx, filledConfig.getDomainAxisUnit(), ploty, unit,
+				branchIdx, dataIndex, branchName, baseName);
 
 		return Collections.singletonList(series);
 	}
@@ -583,29 +625,34 @@ public abstract class Plot<T extends DataType, B extends DataBranch<T>, C extend
 		}
 	}
 
-	protected static class MetadataXYSeries extends XYSeries {
+	/**
+	 * A series of a data branch with the information about the plotted data.
+	 */
+	protected static class MetadataXYSeries extends BranchXYDataset.Series {
 		private final int branchIdx;
 		private final int dataIdx;
 		private final String unit;
 		private final String branchName;
 		private String baseName;
 
-		public MetadataXYSeries(Comparable key, boolean autoSort, boolean allowDuplicateXValues, int branchIdx, int dataIdx, String unit,
-								String branchName, String baseName) {
-			super(key, autoSort, allowDuplicateXValues);
+		/**
+		 * @param key the series key
+		 * @param x the domain values, in SI units, or <code>null</code> if the branch has no domain values
+		 * @param xUnit the unit to plot the domain values in
+		 * @param y the range values, in SI units, or <code>null</code> if the branch has no range values
+		 * @param yUnit the unit to plot the range values in
+		 */
+		public MetadataXYSeries(Comparable key, DoubleBuffer x, Unit xUnit, DoubleBuffer y, Unit yUnit, int branchIdx,
+								int dataIdx, String branchName, String baseName) {
+			super(key, x != null ? x : EMPTY, xUnit, y != null ? y : EMPTY, yUnit);
 			this.branchIdx = branchIdx;
 			this.dataIdx = dataIdx;
-			this.unit = unit;
+			this.unit = yUnit.getUnit();
 			this.branchName = branchName;
 			this.baseName = baseName;
 			updateDescription();
 		}
 
-		public MetadataXYSeries(Comparable key, boolean autoSort, boolean allowDuplicateXValues, int branchIdx, String unit,
-								String branchName, String baseName) {
-			this(key, autoSort, allowDuplicateXValues, branchIdx, -1, unit, branchName, baseName);
-		}
-
 		public String getUnit() {
 			return unit;
 		}
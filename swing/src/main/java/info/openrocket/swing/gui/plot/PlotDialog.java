@@ -43,6 +43,7 @@ public abstract class PlotDialog<T extends DataType, B extends DataBranch<T>, C
 
 		final ChartPanel chartPanel = new SimulationChart(plot.getJFreeChart());
 		final JFreeChart jChart = plot.getJFreeChart();
+		plot.setChartPanel(chartPanel);
 		panel.add(chartPanel, "grow, wrap 20lp");
 
 		// Ensures normal aspect-ratio of chart elements when resizing the panel
@@ -34,8 +34,6 @@ import org.jfree.chart.ui.VerticalAlignment;
 import org.jfree.chart.ui.RectangleAnchor;
 import org.jfree.chart.ui.RectangleEdge;
 import org.jfree.chart.ui.RectangleInsets;
-import org.jfree.data.xy.XYSeries;
-import org.jfree.data.xy.XYSeriesCollection;
 
 @SuppressWarnings("serial")
 public class SimulationPlot extends Plot<FlightDataType, FlightDataBranch, SimulationPlotConfiguration> {
@@ -282,8 +280,9 @@ public class SimulationPlot extends Plot<FlightDataType, FlightDataBranch, Simul
 			double slope = (maxLeft - minLeft)/(maxThis - minThis);
 			double intercept = (maxThis * minLeft - maxLeft * minThis)/(maxThis - minThis);
 			
-			XYSeriesCollection collection = data[axisno];
-			for (MetadataXYSeries series : (List<MetadataXYSeries>)(collection.getSeries())) {
+			BranchXYDataset collection = data[axisno];
+			for (BranchXYDataset.Series s : collection.getSeries()) {
+				MetadataXYSeries series = (MetadataXYSeries) s;
 
 				if (series.getBranchIdx() != branch) {
 					continue;
@@ -13,10 +13,14 @@ import java.awt.event.ItemListener;
 import java.awt.event.MouseEvent;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.EventListener;
 import java.util.EventObject;
 import java.util.List;
 import java.util.LinkedList;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
@@ -36,6 +40,7 @@ import javax.swing.JViewport;
 import javax.swing.ListCellRenderer;
 import javax.swing.SwingConstants;
 import javax.swing.SwingUtilities;
+import javax.swing.Timer;
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
 import javax.swing.event.TreeSelectionEvent;
@@ -179,6 +184,20 @@ public class RocketPanel extends JPanel implements TreeSelectionListener, Change
 
 	private SimulationWorker backgroundSimulationWorker = null;
 
+	/**
+	 * The delay after the last design change before the background simulations are started, in milliseconds.
+	 * Changes made within this delay (e.g. while dragging a slider) restart it, so that only the final design
+	 * is simulated.
+	 */
+	private static final int BACKGROUND_SIMULATION_DELAY = 300;
+	private final Timer backgroundSimulationTimer = new Timer(BACKGROUND_SIMULATION_DELAY, e -> startBackgroundSimulations());
+
+	// The flight configuration modIDs of the simulations that failed in the background.  The status of these
+	// simulations remains outdated, but re-running them is pointless until their flight configuration changes.
+	private final Map<Simulation, ModID> backgroundFailedModIDs = new WeakHashMap<>();
+	// The simulations whose changes update the flight data
+	private final Set<Simulation> flightDataSimulations = Collections.newSetFromMap(new WeakHashMap<>());
+
 	private List<EventListener> listeners = new ArrayList<>();
 
 	// Store the basic frame to know which tab is selected (Rocket design, Motors & Configuration, Flight simulations)
@@ -217,6 +236,7 @@ public class RocketPanel extends JPanel implements TreeSelectionListener, Change
 	public RocketPanel(OpenRocketDocument document, BasicFrame basicFrame) {
 		this.document = document;
 		this.basicFrame = basicFrame;
+		this.backgroundSimulationTimer.setRepeats(false);
 		Rocket rkt = document.getRocket();
 		
 		
@@ -928,33 +948,46 @@ public class RocketPanel extends JPanel implements TreeSelectionListener, Change
 			return;
 		}
 
-		// Update simulations
-		if (Application.getPreferences().getAutoRunSimulations()) {
-			// Update only current flight config simulation when you are not in the simulations tab
-			updateSims(this.basicFrame != null && this.basicFrame.getSelectedTab() == BasicFrame.SIMULATION_TAB);
-		}
-		else {
-			// Always update the simulation of the current configuration
-			updateSims(false);
-		}
+		// Start the simulations once the design has not changed for a while
+		extraText.setCalculatingData(true);
+		backgroundSimulationTimer.restart();
 
 		// Update flight data and add flight data update trigger upon simulation changes
 		for (Simulation sim : document.getSimulations()) {
-			sim.addChangeListener(new StateChangeListener() {
-				@Override
-				public void stateChanged(EventObject e) {
-					if (updateFlightData(sim) && sim.getFlightConfigurationId() == document.getSelectedConfiguration().getFlightConfigurationID()) {
-						// TODO: HIGH: this gets updated for every sim run; not necessary...
-						updateFigures();
+			if (flightDataSimulations.add(sim)) {
+				sim.addChangeListener(new StateChangeListener() {
+					@Override
+					public void stateChanged(EventObject e) {
+						if (updateFlightData(sim) && sim.getFlightConfigurationId() == document.getSelectedConfiguration().getFlightConfigurationID()) {
+							// TODO: HIGH: this gets updated for every sim run; not necessary...
+							updateFigures();
+						}
 					}
-				}
-			});
+				});
+			}
+		}
+		for (Simulation sim : document.getSimulations()) {
 			if (updateFlightData(sim)) {
 				break;
 			}
 		}
 	}
 
+	/**
+	 * Starts the background simulations for the current design.  Called when the design has not changed
+	 * for {@link #BACKGROUND_SIMULATION_DELAY} milliseconds.
+	 */
+	private void startBackgroundSimulations() {
+		if (Application.getPreferences().getAutoRunSimulations()) {
+			// Update only current flight config simulation when you are not in the simulations tab
+			updateSims(this.basicFrame != null && this.basicFrame.getSelectedTab() == BasicFrame.SIMULATION_TAB);
+		}
+		else {
+			// Always update the simulation of the current configuration
+			updateSims(false);
+		}
+	}
+
 	/**
 	 * Updates the simulations. If *currentConfig* is false, only update the simulation of the current flight
 	 * configuration. If it is true, update all the simulations.
@@ -968,13 +1001,16 @@ public class RocketPanel extends JPanel implements TreeSelectionListener, Change
 
 		FlightConfigurationId curID = document.getSelectedConfiguration().getFlightConfigurationID();
 		extraText.setCalculatingData(true);
-		Rocket duplicate = (Rocket)document.getRocket().copy();
 
 		// Re-run the present simulation(s)
 		List<Simulation> sims = new LinkedList<>();
 		for (Simulation sim : document.getSimulations()) {
-			if (Simulation.isStatusUpToDate(sim.getStatus()) ||
-					!document.getRocket().getFlightConfiguration(sim.getFlightConfigurationId()).hasMotors())
+			FlightConfiguration config = document.getRocket().getFlightConfiguration(sim.getFlightConfigurationId());
+			if (Simulation.isStatusUpToDate(sim.getStatus()) || !config.hasMotors())
+				continue;
+
+			// Don't re-run a failed simulation if its flight configuration did not change since
+			if (backgroundFailedModIDs.get(sim) == config.getModID())
 				continue;
 
 			// Find a Simulation based on the current flight configuration
@@ -984,11 +1020,15 @@ public class RocketPanel extends JPanel implements TreeSelectionListener, Change
 					break;
 				}
 			}
+			else if (sim.getFlightConfigurationId().compareTo(curID) == 0) {
+				// Run the simulation of the current flight configuration first, so that its flight data is shown asap
+				sims.add(0, sim);
+			}
 			else {
 				sims.add(sim);
 			}
 		}
-		runBackgroundSimulations(sims, duplicate);
+		runBackgroundSimulations(sims);
 	}
 
 	/**
@@ -1015,9 +1055,8 @@ public class RocketPanel extends JPanel implements TreeSelectionListener, Change
 	 * in the background.
 	 *
 	 * @param sims simulations which should be run
-	 * @param rkt rocket for which the simulations are run
 	 */
-	private void runBackgroundSimulations(List<Simulation> sims, Rocket rkt) {
+	private void runBackgroundSimulations(List<Simulation> sims) {
 		if (sims.size() == 0) {
 			extraText.setCalculatingData(false);
 			for (Simulation sim : document.getSimulations()) {
@@ -1035,7 +1074,8 @@ public class RocketPanel extends JPanel implements TreeSelectionListener, Change
 		for (Simulation sim : sims) {
 			if (sim == null) {
 				log.info("creating new simulation");
-				sim = ((SwingPreferences) Application.getPreferences()).getBackgroundSimulation(rkt);
+				Rocket duplicate = (Rocket) document.getRocket().copy();
+				sim = ((SwingPreferences) Application.getPreferences()).getBackgroundSimulation(duplicate);
 				sim.setFlightConfigurationId(document.getSelectedConfiguration().getId());
 			} else
 				log.info("using pre-existing simulation");
@@ -1046,9 +1086,11 @@ public class RocketPanel extends JPanel implements TreeSelectionListener, Change
 	}
 
 	/**
-	 * Cancels the current background simulation worker, if any.
+	 * Cancels the pending background simulations and the current background simulation worker, if any.
+	 * The running simulation is interrupted, and stops at its next time step.
 	 */
 	private void stopBackgroundSimulation() {
+		backgroundSimulationTimer.stop();
 		if (backgroundSimulationWorker != null) {
 			backgroundSimulationWorker.cancel(true);
 			backgroundSimulationWorker = null;
@@ -1058,30 +1100,26 @@ public class RocketPanel extends JPanel implements TreeSelectionListener, Change
 	/**
 	 * A SimulationWorker that simulates the rocket flight in the background and
 	 * sets the results to the extra text when finished.  The worker can be cancelled
-	 * if necessary.
+	 * if necessary.  When finished, the worker starts the next simulation of the list.
 	 */
 	private class BackgroundSimulationWorker extends SimulationWorker {
 
 		private final CustomExpressionSimulationListener exprListener;
 		private final OpenRocketDocument doc;
+		private final ModID configModID;
 		private List<Simulation> sims;
 
 		public BackgroundSimulationWorker(OpenRocketDocument doc, List<Simulation> sims) {
 			super(sims.get(0));
 			this.sims = sims;
 			this.doc = doc;
+			this.configModID = doc.getRocket().getFlightConfiguration(simulation.getFlightConfigurationId()).getModID();
 			List<CustomExpression> exprs = doc.getCustomExpressions();
 			exprListener = new CustomExpressionSimulationListener(exprs);
 		}
 
 		@Override
 		protected FlightData doInBackground() {
-			extraText.setCalculatingData(true);
-			// Pause a little while to allow faster UI reaction
-			try {
-				Thread.sleep(300);
-			} catch (InterruptedException ignore) {
-			}
 			if (isCancelled() || backgroundSimulationWorker != this)
 				return null;
 			return super.doInBackground();
@@ -1093,9 +1131,13 @@ public class RocketPanel extends JPanel implements TreeSelectionListener, Change
 			if (isCancelled() || backgroundSimulationWorker != this)
 				return;
 			backgroundSimulationWorker = null;
+			backgroundFailedModIDs.remove(simulation);
 
-			// Only set the flight data information of the current flight configuration
-			extraText.setCalculatingData(false);
+			// Only set the flight data information of the current flight configuration, as soon as it is available
+			this.sims.remove(0);
+			if (updateFlightData(simulation) || this.sims.isEmpty()) {
+				extraText.setCalculatingData(false);
+			}
 			if (!is3d)
 				figure.repaint();
 			else
@@ -1103,7 +1145,6 @@ public class RocketPanel extends JPanel implements TreeSelectionListener, Change
 			document.fireDocumentChangeEvent(new SimulationChangeEvent(simulation));
 
 			// Run the new simulation after this one has ended
-			this.sims.remove(0);
 			if (this.sims.size() > 0) {
 				backgroundSimulationWorker = new BackgroundSimulationWorker(this.doc, this.sims);
 				backgroundSimulationExecutor.execute(backgroundSimulationWorker);
@@ -1126,6 +1167,7 @@ public class RocketPanel extends JPanel implements TreeSelectionListener, Change
 				return;
 
 			backgroundSimulationWorker = null;
+			backgroundFailedModIDs.put(simulation, configModID);
 			extraText.setFlightData(FlightData.NaN_DATA);
 			extraText.setCalculatingData(false);
 			if (!is3d)
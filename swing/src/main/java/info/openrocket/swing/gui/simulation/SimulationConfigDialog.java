@@ -13,6 +13,8 @@ import info.openrocket.core.l10n.Translator;
 import info.openrocket.core.rocketcomponent.FlightConfiguration;
 import info.openrocket.core.rocketcomponent.FlightConfigurationId;
 import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.simulation.FlightData;
+import info.openrocket.core.simulation.FlightDataBranch;
 import info.openrocket.core.simulation.extension.SimulationExtension;
 import info.openrocket.core.startup.Application;
 import info.openrocket.core.util.StateChangeListener;
@@ -368,6 +370,9 @@ public class SimulationConfigDialog extends JDialog {
 						closeDialog();
 						return;
 					}
+					if (!loadSimulationData(simulationList[0])) {
+						return;
+					}
 					JDialog plot = plotTab.doPlot(SimulationConfigDialog.this.parentWindow);
 					if (plot != null) {
 						plot.setVisible(true);
@@ -378,6 +383,9 @@ public class SimulationConfigDialog extends JDialog {
 						closeDialog();
 						return;
 					}
+					if (!loadSimulationData(simulationList[0])) {
+						return;
+					}
 					exportTab.doExport();
 					return;
 				}
@@ -390,6 +398,30 @@ public class SimulationConfigDialog extends JDialog {
 		contentPanel.add(bottomPanel, "growx, wrap");
 	}
 
+	/**
+	 * Load the stored flight data of a simulation if it has not been loaded yet, showing an
+	 * error if the data cannot be loaded.
+	 *
+	 * @return	whether the data is available.
+	 */
+	private boolean loadSimulationData(Simulation simulation) {
+		FlightData data = simulation.getSimulatedData();
+		if (data == null) {
+			return true;
+		}
+		for (FlightDataBranch branch : data.getBranches()) {
+			branch.loadValues();
+			if (branch.getLoadError() != null) {
+				JOptionPane.showMessageDialog(this,
+						new Object[] { trans.get("SimulationConfigDialog.error.loadData"),
+								branch.getLoadError().getMessage() },
+						trans.get("SimulationConfigDialog.error.loadData.title"), JOptionPane.ERROR_MESSAGE);
+				return false;
+			}
+		}
+		return true;
+	}
+
 	private void copyChangesToAllSims() {
 		if (isMultiCompEdit()) {
 			for (int i = 1; i < simulationList.length; i++) {
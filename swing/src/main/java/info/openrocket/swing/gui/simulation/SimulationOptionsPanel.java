@@ -10,6 +10,7 @@ import java.util.Set;
 
 import javax.swing.BorderFactory;
 import javax.swing.JButton;
+import javax.swing.JCheckBox;
 import javax.swing.JComboBox;
 import javax.swing.JComponent;
 import javax.swing.JDialog;
@@ -28,6 +29,7 @@ import info.openrocket.core.document.Simulation;
 import info.openrocket.core.l10n.Translator;
 import info.openrocket.core.simulation.RK4SimulationStepper;
 import info.openrocket.core.simulation.SimulationOptions;
+import info.openrocket.core.simulation.SimulationStepperMethod;
 import info.openrocket.core.simulation.extension.SimulationExtension;
 import info.openrocket.core.simulation.extension.SimulationExtensionProvider;
 import info.openrocket.core.startup.Application;
@@ -37,6 +39,7 @@ import info.openrocket.core.util.GeodeticComputationStrategy;
 
 import net.miginfocom.swing.MigLayout;
 import info.openrocket.swing.gui.SpinnerEditor;
+import info.openrocket.swing.gui.adaptors.BooleanModel;
 import info.openrocket.swing.gui.adaptors.DoubleModel;
 import info.openrocket.swing.gui.adaptors.EnumModel;
 import info.openrocket.swing.gui.components.BasicSlider;
@@ -109,6 +112,12 @@ class SimulationOptionsPanel extends JPanel {
 		label.setToolTipText(tip);
 		subsub.add(label, "growx, span 3, wrap");
 		
+		// // Tabulate coefficients
+		JCheckBox tabulatedCheck = new JCheckBox(new BooleanModel(conditions, "TabulatedAerodynamics"));
+		tabulatedCheck.setText(trans.get("simedtdlg.checkbox.TabulatedAero"));
+		tabulatedCheck.setToolTipText(trans.get("simedtdlg.checkbox.ttip.TabulatedAero"));
+		subsub.add(tabulatedCheck, "skip 1, growx, span 3, wrap");
+		
 		// Simulation method
 		tip = trans.get("simedtdlg.lbl.ttip.Simmethod1")
 				+ trans.get("simedtdlg.lbl.ttip.Simmethod2");
@@ -116,9 +125,18 @@ class SimulationOptionsPanel extends JPanel {
 		label.setToolTipText(tip);
 		subsub.add(label, "gapright para");
 		
-		label = new JLabel("6-DOF Runge-Kutta 4");
-		label.setToolTipText(tip);
-		subsub.add(label, "growx, span 3, wrap");
+		EnumModel<SimulationStepperMethod> methodModel = new EnumModel<>(conditions, "StepperMethod");
+		final JComboBox<SimulationStepperMethod> methodCombo = new JComboBox<>(methodModel);
+		ActionListener methodTTipListener = new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				SimulationStepperMethod method = (SimulationStepperMethod) methodCombo.getSelectedItem();
+				methodCombo.setToolTipText(method.getDescription());
+			}
+		};
+		methodCombo.addActionListener(methodTTipListener);
+		methodTTipListener.actionPerformed(null);
+		subsub.add(methodCombo, "growx, span 3, wrap");
 		
 		// // Geodetic calculation method:
 		label = new JLabel(trans.get("simedtdlg.lbl.GeodeticMethod"));
@@ -186,6 +204,8 @@ class SimulationOptionsPanel extends JPanel {
 				conditions.setGeodeticComputation(preferences.getEnum(
 						ApplicationPreferences.GEODETIC_COMPUTATION,
 						GeodeticComputationStrategy.SPHERICAL));
+				conditions.setStepperMethod(SimulationStepperMethod.RK4);
+				conditions.setTabulatedAerodynamics(false);
 			}
 		});
 		
@@ -4,7 +4,9 @@ import java.util.Arrays;
 
 import javax.swing.SwingWorker;
 
+import info.openrocket.core.document.OpenRocketDocument;
 import info.openrocket.core.document.Simulation;
+import info.openrocket.core.document.SimulationResultCache;
 import info.openrocket.core.simulation.FlightData;
 import info.openrocket.core.simulation.SimulationStatus;
 import info.openrocket.core.simulation.exception.SimulationCancelledException;
@@ -18,6 +20,9 @@ import info.openrocket.core.simulation.listeners.SimulationListener;
  * always includes a listener that checks whether this SwingWorked has been cancelled,
  * and throws a {@link SimulationCancelledException} if it has.  This allows the
  * {@link #cancel(boolean)} method to be used to cancel the simulation.
+ * <p>
+ * Results are shared through the result cache of the document, so that simulating a
+ * design that was simulated before, e.g. after undoing a change, is instant.
  * 
  * @author Sampo Niskanen <sampo.niskanen@iki.fi>
  */
@@ -51,8 +56,10 @@ public abstract class SimulationWorker extends SwingWorker<FlightData, Simulatio
 		
 		listeners[listeners.length - 1] = new CancelListener();
 		
+		OpenRocketDocument document = simulation.getDocument();
+		SimulationResultCache cache = (document != null) ? document.getSimulationResultCache() : null;
 		try {
-			simulation.simulate(listeners);
+			simulation.simulate(cache, listeners);
 		} catch (Throwable e) {
 			throwable = e;
 			return null;
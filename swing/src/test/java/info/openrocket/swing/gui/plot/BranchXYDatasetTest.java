@@ -0,0 +1,87 @@
+package info.openrocket.swing.gui.plot;
+
+import info.openrocket.core.unit.GeneralUnit;
+import info.openrocket.core.unit.Unit;
+import org.jfree.data.DomainOrder;
+import org.jfree.data.Range;
+import org.junit.jupiter.api.Test;
+
+import java.nio.DoubleBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BranchXYDatasetTest {
+	private static final Unit SI = new GeneralUnit(1, "m");
+	private static final Unit MM = new GeneralUnit(0.001, "mm");
+
+	private static BranchXYDataset.Series createSeries(int length) {
+		double[] x = new double[length];
+		double[] y = new double[length];
+		for (int i = 0; i < length; i++) {
+			x[i] = i * 0.01;
+			y[i] = Math.sin(i * 0.001);
+		}
+		// A single peak that must survive the downsampling
+		y[length / 3] = 10;
+		// And a gap
+		y[length / 2] = Double.NaN;
+		return new BranchXYDataset.Series("series", DoubleBuffer.wrap(x), SI, DoubleBuffer.wrap(y), MM);
+	}
+
+	@Test
+	public void testAllSamples() {
+		BranchXYDataset dataset = new BranchXYDataset();
+		BranchXYDataset.Series series = createSeries(100);
+		dataset.addSeries(series);
+
+		assertEquals(100, dataset.getItemCount(0));
+		assertEquals(DomainOrder.ASCENDING, dataset.getDomainOrder());
+		assertEquals(0.5, dataset.getXValue(0, 50), 0);
+		assertEquals(Math.sin(0.05) * 1000, dataset.getYValue(0, 50), 1e-9);
+		assertEquals(50, series.getSampleIndex(50));
+		assertEquals(new Range(0, 0.99), dataset.getDomainBounds(true));
+	}
+
+	@Test
+	public void testDownsampling() {
+		BranchXYDataset dataset = new BranchXYDataset();
+		BranchXYDataset.Series series = createSeries(1_000_000);
+		dataset.addSeries(series);
+
+		int itemCount = dataset.getItemCount(0);
+		assertTrue(itemCount <= 5 * BranchXYDataset.DEFAULT_BUCKET_COUNT, "Item count " + itemCount);
+
+		double max = Double.NEGATIVE_INFINITY;
+		boolean gap = false;
+		for (int i = 0; i < itemCount; i++) {
+			if (i > 0) {
+				assertTrue(series.getSampleIndex(i) > series.getSampleIndex(i - 1));
+			}
+			double y = dataset.getYValue(0, i);
+			gap |= Double.isNaN(y);
+			max = Math.max(max, y);
+		}
+		assertEquals(10000, max, 0);
+		assertTrue(gap);
+		assertEquals(0, series.getSampleIndex(0));
+		assertEquals(999_999, series.getSampleIndex(itemCount - 1));
+	}
+
+	@Test
+	public void testZoom() {
+		BranchXYDataset dataset = new BranchXYDataset();
+		BranchXYDataset.Series series = createSeries(1_000_000);
+		dataset.addSeries(series);
+
+		// Zooming in enough plots all visible samples, and one sample on either side
+		dataset.setVisibleDomain(new Range(100, 110));
+		assertEquals(1003, dataset.getItemCount(0));
+		assertEquals(9999, series.getSampleIndex(0));
+		assertEquals(99.99, dataset.getXValue(0, 0), 1e-9);
+		assertEquals(110.01, dataset.getXValue(0, 1002), 1e-9);
+
+		dataset.setVisibleDomain(null);
+		assertEquals(999_999, series.getSampleIndex(dataset.getItemCount(0) - 1));
+	}
+}